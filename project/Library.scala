@@ -14,4 +14,6 @@ object Library {
   val akkaStream = "com.typesafe.akka" %% "akka-stream" % "2.5.17"
   val java8Compat = "org.scala-lang.modules" %% "scala-java8-compat" % "0.9.0"
   val immutables = "org.immutables" % "value" % "2.5.5"
+
+  def scalaReflect(scalaVersion: String): ModuleID = "org.scala-lang" % "scala-reflect" % scalaVersion
 }
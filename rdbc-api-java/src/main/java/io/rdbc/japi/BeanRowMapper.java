@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import io.rdbc.japi.util.ThrowingFunction;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * {@link RowMapper} writing columns to JavaBean properties.
+ */
+final class BeanRowMapper<T> implements RowMapper<T> {
+
+    @FunctionalInterface
+    interface BeanFactory {
+        Object create() throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface IntSetter {
+        void set(Object bean, int value) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface LongSetter {
+        void set(Object bean, long value) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface DoubleSetter {
+        void set(Object bean, double value) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface BooleanSetter {
+        void set(Object bean, boolean value) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface ObjectSetter {
+        void set(Object bean, Object value) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface ColumnSetter {
+        void set(Object bean, Row row) throws Throwable;
+    }
+
+    @FunctionalInterface
+    interface Property {
+        ColumnSetter forColumn(int idx);
+    }
+
+    private final BeanFactory factory;
+    private final Map<String, Property> properties;
+
+    private BeanRowMapper(BeanFactory factory, Map<String, Property> properties) {
+        this.factory = factory;
+        this.properties = properties;
+    }
+
+    static <T> BeanRowMapper<T> of(Class<T> beanClass) {
+        if (!Modifier.isPublic(beanClass.getModifiers())) {
+            throw new IllegalArgumentException("Bean class " + beanClass.getName() + " is not public");
+        }
+        Constructor<T> ctor;
+        try {
+            ctor = beanClass.getConstructor();
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalArgumentException(
+                    "Bean class " + beanClass.getName() + " has no public no-argument constructor", ex
+            );
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        RowMappers.LambdaBinder binder = new RowMappers.LambdaBinder(beanClass);
+        try {
+            BeanFactory factory = binder.bind(
+                    BeanFactory.class, "create", methodType(Object.class),
+                    lookup.unreflectConstructor(ctor), methodType(beanClass),
+                    h -> {
+                        MethodHandle exact = h.asType(methodType(Object.class));
+                        return () -> (Object) exact.invokeExact();
+                    }
+            );
+
+            Map<String, Property> properties = new HashMap<>();
+            for (Method method : beanClass.getMethods()) {
+                if (isSetter(method)) {
+                    String name = RowMappers.normalize(method.getName().substring(3));
+                    if (!properties.containsKey(name)) {
+                        properties.put(name, property(binder, beanClass, lookup.unreflect(method)));
+                    }
+                }
+            }
+            return new BeanRowMapper<>(factory, properties);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException("Bean class " + beanClass.getName() + " is not accessible", ex);
+        }
+    }
+
+    private static boolean isSetter(Method method) {
+        return method.getName().startsWith("set")
+                && method.getName().length() > 3
+                && method.getParameterCount() == 1
+                && !Modifier.isStatic(method.getModifiers());
+    }
+
+    private static Property property(RowMappers.LambdaBinder binder, Class<?> beanClass, MethodHandle setter) {
+        Class<?> type = setter.type().parameterType(1);
+        MethodType instantiatedType = methodType(void.class, beanClass, type);
+        if (type == int.class) {
+            MethodType samType = methodType(void.class, Object.class, int.class);
+            IntSetter s = binder.bind(IntSetter.class, "set", samType, setter, instantiatedType, h -> {
+                MethodHandle exact = h.asType(samType);
+                return (bean, value) -> {
+                    exact.invokeExact(bean, value);
+                };
+            });
+            return idx -> (bean, row) -> s.set(bean, row.getIntValue(idx));
+        } else if (type == long.class) {
+            MethodType samType = methodType(void.class, Object.class, long.class);
+            LongSetter s = binder.bind(LongSetter.class, "set", samType, setter, instantiatedType, h -> {
+                MethodHandle exact = h.asType(samType);
+                return (bean, value) -> {
+                    exact.invokeExact(bean, value);
+                };
+            });
+            return idx -> (bean, row) -> s.set(bean, row.getLongValue(idx));
+        } else if (type == double.class) {
+            MethodType samType = methodType(void.class, Object.class, double.class);
+            DoubleSetter s = binder.bind(DoubleSetter.class, "set", samType, setter, instantiatedType, h -> {
+                MethodHandle exact = h.asType(samType);
+                return (bean, value) -> {
+                    exact.invokeExact(bean, value);
+                };
+            });
+            return idx -> (bean, row) -> s.set(bean, row.getDoubleValue(idx));
+        } else if (type == boolean.class) {
+            MethodType samType = methodType(void.class, Object.class, boolean.class);
+            BooleanSetter s = binder.bind(BooleanSetter.class, "set", samType, setter, instantiatedType, h -> {
+                MethodHandle exact = h.asType(samType);
+                return (bean, value) -> {
+                    exact.invokeExact(bean, value);
+                };
+            });
+            return idx -> (bean, row) -> s.set(bean, row.getBooleanValue(idx));
+        } else {
+            MethodType samType = methodType(void.class, Object.class, Object.class);
+            ObjectSetter s = binder.bind(ObjectSetter.class, "set", samType, setter, instantiatedType, h -> {
+                MethodHandle exact = h.asType(samType);
+                return (bean, value) -> {
+                    exact.invokeExact(bean, value);
+                };
+            });
+            return idx -> {
+                RowMappers.ValueReader reader = RowMappers.reader(type, idx);
+                return (bean, row) -> s.set(bean, reader.read(row));
+            };
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ThrowingFunction<Row, T> bind(RowMetadata metadata) {
+        List<ColumnMetadata> columns = metadata.getColumns();
+        List<ColumnSetter> setterList = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            Property property = properties.get(RowMappers.normalize(columns.get(i).getName()));
+            if (property != null) {
+                setterList.add(property.forColumn(i));
+            }
+        }
+        ColumnSetter[] setters = setterList.toArray(new ColumnSetter[0]);
+        return row -> {
+            Object bean = factory.create();
+            for (ColumnSetter setter : setters) {
+                setter.set(bean, row);
+            }
+            return (T) bean;
+        };
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import java.util.BitSet;
+
+/**
+ * A column of a {@link ColumnarResultSet}.
+ * <p>
+ * Values are stored in arrays indexed by row number, SQL {@code NULL}s are
+ * marked in the {@link #getNulls() nulls} bitmap. For rows that are
+ * {@code NULL} the value stored in the array is unspecified. Arrays and
+ * bitmaps are exposed without copying and must not be modified.
+ */
+public abstract class Column {
+
+    public enum Type {
+        INT, LONG, DOUBLE, STRING, OBJECT
+    }
+
+    private final Type type;
+    private final BitSet nulls;
+
+    private Column(Type type, BitSet nulls) {
+        this.type = type;
+        this.nulls = nulls;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns a bitmap with bits set for rows holding SQL {@code NULL}.
+     */
+    public BitSet getNulls() {
+        return nulls;
+    }
+
+    /**
+     * Tells whether the value in the given row is SQL {@code NULL}.
+     */
+    public boolean isNull(int row) {
+        return nulls.get(row);
+    }
+
+    /**
+     * Returns a number of values in the column.
+     */
+    public abstract int size();
+
+    /**
+     * A column of integral values that fit in an {@code int}.
+     */
+    public static final class IntColumn extends Column {
+        private final int[] values;
+
+        public IntColumn(int[] values, BitSet nulls) {
+            super(Type.INT, nulls);
+            this.values = values;
+        }
+
+        public int[] getValues() {
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * A column of {@code long} values.
+     */
+    public static final class LongColumn extends Column {
+        private final long[] values;
+
+        public LongColumn(long[] values, BitSet nulls) {
+            super(Type.LONG, nulls);
+            this.values = values;
+        }
+
+        public long[] getValues() {
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * A column of floating point values.
+     */
+    public static final class DoubleColumn extends Column {
+        private final double[] values;
+
+        public DoubleColumn(double[] values, BitSet nulls) {
+            super(Type.DOUBLE, nulls);
+            this.values = values;
+        }
+
+        public double[] getValues() {
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * A dictionary-encoded column of strings.
+     * <p>
+     * {@link #getCodes() codes} hold, for each row, an index into the
+     * {@link #getDictionary() dictionary} array which contains every distinct
+     * value of the column once.
+     */
+    public static final class StringColumn extends Column {
+        private final String[] dictionary;
+        private final int[] codes;
+
+        public StringColumn(String[] dictionary, int[] codes, BitSet nulls) {
+            super(Type.STRING, nulls);
+            this.dictionary = dictionary;
+            this.codes = codes;
+        }
+
+        public String[] getDictionary() {
+            return dictionary;
+        }
+
+        public int[] getCodes() {
+            return codes;
+        }
+
+        /**
+         * Returns the value in the given row, or {@code null} for SQL {@code NULL}.
+         */
+        public String getValue(int row) {
+            if (isNull(row)) {
+                return null;
+            } else {
+                return dictionary[codes[row]];
+            }
+        }
+
+        @Override
+        public int size() {
+            return codes.length;
+        }
+    }
+
+    /**
+     * A column of values of types without a specialized representation.
+     */
+    public static final class ObjectColumn extends Column {
+        private final Object[] values;
+
+        public ObjectColumn(Object[] values, BitSet nulls) {
+            super(Type.OBJECT, nulls);
+            this.values = values;
+        }
+
+        public Object[] getValues() {
+            return values;
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
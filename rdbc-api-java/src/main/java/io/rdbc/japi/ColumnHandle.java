@@ -0,0 +1,77 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import java.util.Objects;
+
+/**
+ * A column resolved against a {@link RowMetadata}.
+ * <p>
+ * Handles can be obtained once per result using {@link RowMetadata#getHandle(String)}
+ * and then used to get values from every row of the result without resolving
+ * the column name again.
+ */
+public final class ColumnHandle {
+
+    private final int idx;
+    private final String name;
+
+    private ColumnHandle(int idx, String name) {
+        this.idx = idx;
+        this.name = name;
+    }
+
+    /**
+     * Creates new ColumnHandle instance.
+     *
+     * @param idx  column index
+     * @param name column name
+     */
+    public static ColumnHandle of(int idx, String name) {
+        return new ColumnHandle(idx, name);
+    }
+
+    public int getIdx() {
+        return idx;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColumnHandle that = (ColumnHandle) o;
+        return idx == that.idx &&
+                Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(idx, name);
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnHandle(" +
+                "idx=" + idx +
+                ", name=" + name +
+                ')';
+    }
+}
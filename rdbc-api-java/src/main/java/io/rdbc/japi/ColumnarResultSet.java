@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import io.rdbc.japi.exceptions.ColumnIndexOutOfBoundsException;
+import io.rdbc.japi.exceptions.MissingColumnException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a set of rows returned by a database engine, stored by columns.
+ */
+public final class ColumnarResultSet {
+
+    private final long rowsAffected;
+    private final List<Warning> warnings;
+    private final RowMetadata metadata;
+    private final int rowCount;
+    private final List<Column> columns;
+
+    private ColumnarResultSet(long rowsAffected, List<Warning> warnings,
+                              RowMetadata metadata, int rowCount, List<Column> columns) {
+        this.rowsAffected = rowsAffected;
+        this.warnings = new ArrayList<>(warnings);
+        this.metadata = metadata;
+        this.rowCount = rowCount;
+        this.columns = new ArrayList<>(columns);
+    }
+
+    /**
+     * Creates a new instance of ColumnarResultSet.
+     *
+     * @param rowsAffected a number of rows that were affected by the statement
+     *                     that this result set is for
+     * @param warnings     a sequence of warnings that were emitted by the database
+     *                     during processing the statement that this result set is for
+     * @param metadata     a meta data of columns of this result set
+     * @param rowCount     a number of rows returned by a database
+     * @param columns      column values, in the order of {@code metadata} columns
+     */
+    public static ColumnarResultSet of(long rowsAffected, List<Warning> warnings,
+                                       RowMetadata metadata, int rowCount, List<Column> columns) {
+        return new ColumnarResultSet(rowsAffected, warnings, metadata, rowCount, columns);
+    }
+
+    public long getRowsAffected() {
+        return rowsAffected;
+    }
+
+    public List<Warning> getWarnings() {
+        return new ArrayList<>(warnings);
+    }
+
+    public RowMetadata getMetadata() {
+        return metadata;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public List<Column> getColumns() {
+        return new ArrayList<>(columns);
+    }
+
+    /**
+     * Returns a column with the given index.
+     */
+    public Column getColumn(int idx) throws ColumnIndexOutOfBoundsException {
+        if (idx < 0 || idx >= columns.size()) {
+            throw new ColumnIndexOutOfBoundsException(idx, columns.size());
+        }
+        return columns.get(idx);
+    }
+
+    /**
+     * Returns a column with the given name.
+     */
+    public Column getColumn(String name) throws MissingColumnException {
+        return columns.get(metadata.getHandle(name).getIdx());
+    }
+
+    @Override
+    public String toString() {
+        return "ColumnarResultSet(" +
+                "rowsAffected=" + rowsAffected +
+                ", warnings=" + warnings +
+                ", metadata=" + metadata +
+                ", rowCount=" + rowCount +
+                ')';
+    }
+}
@@ -201,6 +201,80 @@ public interface Connection {
      */
     Statement statement(String sql, StatementOptions statementOptions);
 
+    /**
+     * Prepares a SQL statement and returns a {@link PreparedStatement} instance
+     * bound to this connection.
+     * <p>
+     * Unlike statements returned by {@code statement} methods, prepared statements
+     * are guaranteed to be parsed and planned by the database once. They can
+     * be bound and executed many times and have to be closed when no longer needed.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.MixedParamTypesException} when statement uses both positional and named parameters</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when statement is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.TimeoutException} when maximum operation time has been exceeded</li>
+     * </ul>
+     */
+    CompletionStage<PreparedStatement> prepare(String sql, StatementOptions statementOptions, Duration timeout);
+
+    /**
+     * Prepares a SQL statement and returns a {@link PreparedStatement} instance
+     * bound to this connection.
+     * <p>
+     * Unlike statements returned by {@code statement} methods, prepared statements
+     * are guaranteed to be parsed and planned by the database once. They can
+     * be bound and executed many times and have to be closed when no longer needed.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.MixedParamTypesException} when statement uses both positional and named parameters</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when statement is rejected by a database engine as invalid</li>
+     * </ul>
+     */
+    CompletionStage<PreparedStatement> prepare(String sql, StatementOptions statementOptions);
+
+    /**
+     * Prepares a SQL statement and returns a {@link PreparedStatement} instance
+     * bound to this connection.
+     * <p>
+     * Unlike statements returned by {@code statement} methods, prepared statements
+     * are guaranteed to be parsed and planned by the database once. They can
+     * be bound and executed many times and have to be closed when no longer needed.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.MixedParamTypesException} when statement uses both positional and named parameters</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when statement is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.TimeoutException} when maximum operation time has been exceeded</li>
+     * </ul>
+     */
+    CompletionStage<PreparedStatement> prepare(String sql, Duration timeout);
+
+    /**
+     * Prepares a SQL statement and returns a {@link PreparedStatement} instance
+     * bound to this connection.
+     * <p>
+     * Unlike statements returned by {@code statement} methods, prepared statements
+     * are guaranteed to be parsed and planned by the database once. They can
+     * be bound and executed many times and have to be closed when no longer needed.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.MixedParamTypesException} when statement uses both positional and named parameters</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when statement is rejected by a database engine as invalid</li>
+     * </ul>
+     */
+    CompletionStage<PreparedStatement> prepare(String sql);
+
     /**
      * Returns a {@code CompletionStage} that is complete when this connection is idle and ready
      * for accepting queries.
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import io.rdbc.japi.exceptions.ColumnIndexOutOfBoundsException;
+import io.rdbc.japi.exceptions.MissingColumnException;
+import io.rdbc.japi.util.ThrowingFunction;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * {@link RowMapper} passing columns to a constructor.
+ */
+final class ConstructorRowMapper<T> implements RowMapper<T> {
+
+    private final MethodHandle ctor;
+    private final Parameter[] params;
+    private final boolean byName;
+
+    private ConstructorRowMapper(MethodHandle ctor, Parameter[] params, boolean byName) {
+        this.ctor = ctor;
+        this.params = params;
+        this.byName = byName;
+    }
+
+    static <T> ConstructorRowMapper<T> of(Class<T> cls, boolean byName) {
+        if (!Modifier.isPublic(cls.getModifiers())) {
+            throw new IllegalArgumentException("Class " + cls.getName() + " is not public");
+        }
+        Constructor<?>[] ctors = cls.getConstructors();
+        if (ctors.length != 1) {
+            throw new IllegalArgumentException(
+                    "Class " + cls.getName() + " has to have exactly one public constructor, found " + ctors.length
+            );
+        }
+        Constructor<?> ctor = ctors[0];
+        Parameter[] params = ctor.getParameters();
+        if (byName && params.length > 0 && !params[0].isNamePresent()) {
+            throw new IllegalArgumentException(
+                    "Constructor parameter names of class " + cls.getName() + " are not available, compile it"
+                            + " with -parameters option or map columns by position using forConstructorByPosition"
+            );
+        }
+        try {
+            MethodHandle handle = MethodHandles.publicLookup().unreflectConstructor(ctor);
+            return new ConstructorRowMapper<>(handle, params, byName);
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException("Class " + cls.getName() + " is not accessible", ex);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public ThrowingFunction<Row, T> bind(RowMetadata metadata) {
+        List<ColumnMetadata> columns = metadata.getColumns();
+        Map<String, Integer> indexByName = new HashMap<>();
+        if (byName) {
+            for (int i = 0; i < columns.size(); i++) {
+                indexByName.putIfAbsent(RowMappers.normalize(columns.get(i).getName()), i);
+            }
+        }
+
+        MethodHandle[] getters = new MethodHandle[params.length];
+        for (int i = 0; i < params.length; i++) {
+            getters[i] = RowMappers.getter(params[i].getType(), columnIndex(i, columns.size(), indexByName));
+        }
+
+        /* (Row, ..., Row)T with each argument read by its getter, collapsed
+           into (Row)T, so that columns are passed without boxing or an
+           argument array */
+        MethodHandle filtered = MethodHandles.filterArguments(ctor, 0, getters);
+        MethodHandle mapper = MethodHandles.permuteArguments(
+                filtered, methodType(filtered.type().returnType(), Row.class), new int[params.length]
+        ).asType(methodType(Object.class, Row.class));
+        return row -> (T) (Object) mapper.invokeExact(row);
+    }
+
+    private int columnIndex(int paramIdx, int columnCount, Map<String, Integer> indexByName) {
+        if (byName) {
+            Integer idx = indexByName.get(RowMappers.normalize(params[paramIdx].getName()));
+            if (idx == null) {
+                throw new MissingColumnException(params[paramIdx].getName());
+            }
+            return idx;
+        } else {
+            if (paramIdx >= columnCount) {
+                throw new ColumnIndexOutOfBoundsException(paramIdx, columnCount);
+            }
+            return paramIdx;
+        }
+    }
+}
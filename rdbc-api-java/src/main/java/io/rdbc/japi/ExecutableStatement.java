@@ -17,8 +17,10 @@
 package io.rdbc.japi;
 
 import io.rdbc.japi.util.ThrowingFunction;
+import org.reactivestreams.Publisher;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
@@ -64,6 +66,108 @@ public interface ExecutableStatement {
      */
     RowPublisher stream();
 
+    /**
+     * Executes this statement and returns a publisher of rows mapped
+     * with a given {@code mapper}.
+     * <p>
+     * Failures of the mapper cancel the subscription and are signalled to the subscriber.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Returned publisher can signal following error types:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    <T> Publisher<T> stream(RowMapper<T> mapper, Duration timeout);
+
+    /**
+     * Executes this statement and returns a publisher of rows mapped
+     * with a given {@code mapper}.
+     * <p>
+     * Failures of the mapper cancel the subscription and are signalled to the subscriber.
+     * <p>
+     * Returned publisher can signal following error types:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    <T> Publisher<T> stream(RowMapper<T> mapper);
+
+    /**
+     * Executes this statement and returns all rows mapped with a given {@code mapper}.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    <T> CompletionStage<List<T>> executeForList(RowMapper<T> mapper, Duration timeout);
+
+    /**
+     * Executes this statement and returns all rows mapped with a given {@code mapper}.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    <T> CompletionStage<List<T>> executeForList(RowMapper<T> mapper);
+
+    /**
+     * Executes this statement and returns all rows mapped to instances of
+     * a JavaBean class using {@link RowMapper#forBean(Class)}.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    default <T> CompletionStage<List<T>> executeForList(Class<T> beanClass, Duration timeout) {
+        return executeForList(RowMapper.forBean(beanClass), timeout);
+    }
+
+    /**
+     * Executes this statement and returns all rows mapped to instances of
+     * a JavaBean class using {@link RowMapper#forBean(Class)}.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    default <T> CompletionStage<List<T>> executeForList(Class<T> beanClass) {
+        return executeForList(RowMapper.forBean(beanClass));
+    }
+
     /**
      * Executes this statement ignoring any resulting information.
      * <p>
@@ -128,6 +232,40 @@ public interface ExecutableStatement {
      */
     CompletionStage<ResultSet> executeForSet();
 
+    /**
+     * Executes this statement and returns a {@link ColumnarResultSet} instance.
+     * <p>
+     * After execution all resulting rows will be pulled from a database
+     * and stored column by column, using primitive arrays for numeric columns
+     * and dictionary encoding for string columns.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    CompletionStage<ColumnarResultSet> executeForColumns(Duration timeout);
+
+    /**
+     * Executes this statement and returns a {@link ColumnarResultSet} instance.
+     * <p>
+     * Returned {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link io.rdbc.japi.exceptions.UnauthorizedException} when client is not authorized to perform the action</li>
+     * <li>{@link io.rdbc.japi.exceptions.InvalidQueryException} when query is rejected by a database engine as invalid</li>
+     * <li>{@link io.rdbc.japi.exceptions.InactiveTxException} when transaction is in progress but is in inactive state</li>
+     * <li>{@link io.rdbc.japi.exceptions.ConstraintViolationException} when operation results in an integrity constraint violation</li>
+     * </ul>
+     */
+    CompletionStage<ColumnarResultSet> executeForColumns();
+
     /**
      * Executes this statement returning a number of rows that were affected.
      * <p>
@@ -63,6 +63,41 @@ public interface Row {
      */
     <T> Optional<T> getColOpt(String name, Class<T> cls) throws ConversionException;
 
+    /**
+     * Tells whether the value in column with a given index is SQL {@code NULL}.
+     */
+    boolean isNull(int idx);
+
+    /**
+     * Tells whether the value in column with a given name is SQL {@code NULL}.
+     */
+    boolean isNull(String name);
+
+    /**
+     * Returns an object of type {@code T} from column with a given handle.
+     * <p>
+     * This is equivalent to getting a value by the handle's column index.
+     */
+    default <T> T getCol(ColumnHandle column, Class<T> cls) throws ConversionException {
+        return getCol(column.getIdx(), cls);
+    }
+
+    /**
+     * Returns an object of type {@code T} from column with a given handle.
+     * <p>
+     * This is equivalent to getting a value by the handle's column index.
+     */
+    default <T> Optional<T> getColOpt(ColumnHandle column, Class<T> cls) throws ConversionException {
+        return getColOpt(column.getIdx(), cls);
+    }
+
+    /**
+     * Tells whether the value in column with a given handle is SQL {@code NULL}.
+     */
+    default boolean isNull(ColumnHandle column) {
+        return isNull(column.getIdx());
+    }
+
     /**
      * Returns a {@code String} from column with a given name.
      * <p>
@@ -151,6 +186,26 @@ public interface Row {
      */
     Optional<Boolean> getBoolOpt(int idx) throws ConversionException;
 
+    /**
+     * Returns a {@code boolean} value from column with a given name without boxing it.
+     * <p>
+     * Values are converted the same way as by {@link #getBool(int)}.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(String)}
+     * to check for {@code NULL} values beforehand.
+     */
+    boolean getBooleanValue(String name) throws ConversionException;
+
+    /**
+     * Returns a {@code boolean} value from column with a given index without boxing it.
+     * <p>
+     * Values are converted the same way as by {@link #getBool(int)}.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(int)}
+     * to check for {@code NULL} values beforehand.
+     */
+    boolean getBooleanValue(int idx) throws ConversionException;
+
     /**
      * Returns a character from column with a given name.
      * <p>
@@ -272,6 +327,28 @@ public interface Row {
      */
     Optional<Integer> getIntOpt(int idx) throws ConversionException;
 
+    /**
+     * Returns an {@code int} from column with a given name without boxing it.
+     * <p>
+     * All numeric types can be converted to {@code int}, but some conversions may
+     * involve rounding or truncation.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(String)}
+     * to check for {@code NULL} values beforehand.
+     */
+    int getIntValue(String name) throws ConversionException;
+
+    /**
+     * Returns an {@code int} from column with a given index without boxing it.
+     * <p>
+     * All numeric types can be converted to {@code int}, but some conversions may
+     * involve rounding or truncation.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(int)}
+     * to check for {@code NULL} values beforehand.
+     */
+    int getIntValue(int idx) throws ConversionException;
+
     /**
      * Returns a {@code Long} from column with a given name.
      * <p>
@@ -314,6 +391,28 @@ public interface Row {
      */
     Optional<Long> getLongOpt(int idx) throws ConversionException;
 
+    /**
+     * Returns a {@code long} from column with a given name without boxing it.
+     * <p>
+     * All numeric types can be converted to {@code long}, but some conversions may
+     * involve rounding or truncation.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(String)}
+     * to check for {@code NULL} values beforehand.
+     */
+    long getLongValue(String name) throws ConversionException;
+
+    /**
+     * Returns a {@code long} from column with a given index without boxing it.
+     * <p>
+     * All numeric types can be converted to {@code long}, but some conversions may
+     * involve rounding or truncation.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(int)}
+     * to check for {@code NULL} values beforehand.
+     */
+    long getLongValue(int idx) throws ConversionException;
+
     /**
      * Returns a {@link BigDecimal} from column with a given name.
      * <p>
@@ -432,6 +531,28 @@ public interface Row {
      */
     Optional<Double> getDoubleOpt(int idx) throws ConversionException;
 
+    /**
+     * Returns a {@code double} from column with a given name without boxing it.
+     * <p>
+     * All numeric types can be converted to {@code double}, but some conversions may
+     * involve rounding or truncation.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(String)}
+     * to check for {@code NULL} values beforehand.
+     */
+    double getDoubleValue(String name) throws ConversionException;
+
+    /**
+     * Returns a {@code double} from column with a given index without boxing it.
+     * <p>
+     * All numeric types can be converted to {@code double}, but some conversions may
+     * involve rounding or truncation.
+     * <p>
+     * For SQL {@code NULL} values, {@link ConversionException} is thrown. Use {@link #isNull(int)}
+     * to check for {@code NULL} values beforehand.
+     */
+    double getDoubleValue(int idx) throws ConversionException;
+
     /**
      * Returns a {@code Float} from column with a given name.
      * <p>
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import io.rdbc.japi.exceptions.MissingColumnException;
+import io.rdbc.japi.util.ThrowingFunction;
+
+/**
+ * Maps rows of a result to objects of type {@code T}.
+ * <p>
+ * Mappers resolve columns once per result, using its {@link RowMetadata}, and
+ * map every row of the result using the function returned by {@link #bind(RowMetadata)}.
+ * Mappers created by {@link #forBean(Class)} and {@link #forConstructor(Class)}
+ * inspect the mapped class once and are cached per class.
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Resolves columns used by this mapper using the result's {@code metadata}
+     * and returns a function mapping rows of the result.
+     */
+    ThrowingFunction<Row, T> bind(RowMetadata metadata) throws MissingColumnException;
+
+    /**
+     * Returns a mapper creating instances of a JavaBean class.
+     * <p>
+     * The class has to be public and has to have a public no-argument constructor.
+     * Every column is written using a public setter of a property with the same
+     * name, ignoring case and underscores, so that {@code first_name} column
+     * is written using {@code setFirstName} method. Columns without a matching
+     * property are ignored.
+     * <p>
+     * Setters are bound to generated functions, so mapping rows doesn't use
+     * reflection, and setters of {@code int}, {@code long}, {@code double} and
+     * {@code boolean} properties get values without boxing them. If functions
+     * can't be generated, for instance because the class is not visible to
+     * rdbc's class loader, setters are invoked using method handles and
+     * a warning is logged using {@code java.util.logging} logger named after
+     * this interface.
+     *
+     * @throws IllegalArgumentException when the class is not a valid JavaBean
+     */
+    static <T> RowMapper<T> forBean(Class<T> beanClass) {
+        return RowMappers.forBean(beanClass);
+    }
+
+    /**
+     * Returns a mapper creating instances of an immutable class using its only
+     * public constructor.
+     * <p>
+     * Constructor parameters are read from columns with the same name, ignoring
+     * case and underscores. Parameter names are only available for classes
+     * compiled with {@code -parameters} option, use
+     * {@link #forConstructorByPosition(Class)} for other classes.
+     *
+     * @throws IllegalArgumentException when the class doesn't have exactly
+     *                                  one public constructor or names of its
+     *                                  parameters are not available
+     */
+    static <T> RowMapper<T> forConstructor(Class<T> cls) {
+        return RowMappers.forConstructor(cls);
+    }
+
+    /**
+     * Returns a mapper creating instances of an immutable class using its only
+     * public constructor, reading constructor parameters from columns in the
+     * order of parameters.
+     * <p>
+     * Column names are not checked, so the order of columns returned by the
+     * statement has to match the order of parameters.
+     *
+     * @throws IllegalArgumentException when the class doesn't have exactly
+     *                                  one public constructor
+     */
+    static <T> RowMapper<T> forConstructorByPosition(Class<T> cls) {
+        return RowMappers.forConstructorByPosition(cls);
+    }
+}
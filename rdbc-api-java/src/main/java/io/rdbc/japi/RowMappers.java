@@ -0,0 +1,227 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.japi;
+
+import io.rdbc.japi.util.ThrowingFunction;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Helpers shared by {@link RowMapper} implementations.
+ */
+final class RowMappers {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final Logger LOGGER = Logger.getLogger(RowMapper.class.getName());
+
+    private static final MethodHandle GET_INT =
+            rowMethod("getIntValue", MethodType.methodType(int.class, int.class));
+    private static final MethodHandle GET_LONG =
+            rowMethod("getLongValue", MethodType.methodType(long.class, int.class));
+    private static final MethodHandle GET_DOUBLE =
+            rowMethod("getDoubleValue", MethodType.methodType(double.class, int.class));
+    private static final MethodHandle GET_BOOLEAN =
+            rowMethod("getBooleanValue", MethodType.methodType(boolean.class, int.class));
+    private static final MethodHandle GET_COL =
+            rowMethod("getCol", MethodType.methodType(Object.class, int.class, Class.class));
+    private static final MethodHandle IS_NULL =
+            rowMethod("isNull", MethodType.methodType(boolean.class, int.class));
+
+    private static final ClassValue<RowMapper<?>> BEAN_MAPPERS = new ClassValue<RowMapper<?>>() {
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return BeanRowMapper.of(type);
+        }
+    };
+
+    private static final ClassValue<RowMapper<?>> CONSTRUCTOR_MAPPERS = new ClassValue<RowMapper<?>>() {
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return ConstructorRowMapper.of(type, true);
+        }
+    };
+
+    private static final ClassValue<RowMapper<?>> POSITIONAL_CONSTRUCTOR_MAPPERS = new ClassValue<RowMapper<?>>() {
+        @Override
+        protected RowMapper<?> computeValue(Class<?> type) {
+            return ConstructorRowMapper.of(type, false);
+        }
+    };
+
+    private RowMappers() {
+    }
+
+    /**
+     * Reads a value of a given type from a row.
+     */
+    @FunctionalInterface
+    interface ValueReader {
+        Object read(Row row) throws Throwable;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> forBean(Class<T> beanClass) {
+        return (RowMapper<T>) BEAN_MAPPERS.get(Objects.requireNonNull(beanClass));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> forConstructor(Class<T> cls) {
+        return (RowMapper<T>) CONSTRUCTOR_MAPPERS.get(Objects.requireNonNull(cls));
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> RowMapper<T> forConstructorByPosition(Class<T> cls) {
+        return (RowMapper<T>) POSITIONAL_CONSTRUCTOR_MAPPERS.get(Objects.requireNonNull(cls));
+    }
+
+    static String normalize(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    static ValueReader reader(Class<?> type, int idx) {
+        if (type == int.class) {
+            return row -> row.getIntValue(idx);
+        } else if (type == long.class) {
+            return row -> row.getLongValue(idx);
+        } else if (type == double.class) {
+            return row -> row.getDoubleValue(idx);
+        } else if (type == boolean.class) {
+            return row -> row.getBooleanValue(idx);
+        } else if (type.isPrimitive()) {
+            Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+            return row -> row.getCol(idx, boxed);
+        } else {
+            return row -> row.isNull(idx) ? null : row.getCol(idx, type);
+        }
+    }
+
+    /**
+     * Returns a method handle of type {@code (Row)type} reading a column.
+     * <p>
+     * Columns of {@code int}, {@code long}, {@code double} and {@code boolean}
+     * types are read with primitive getters, so they are not boxed.
+     */
+    static MethodHandle getter(Class<?> type, int idx) {
+        if (type == int.class) {
+            return MethodHandles.insertArguments(GET_INT, 1, idx);
+        } else if (type == long.class) {
+            return MethodHandles.insertArguments(GET_LONG, 1, idx);
+        } else if (type == double.class) {
+            return MethodHandles.insertArguments(GET_DOUBLE, 1, idx);
+        } else if (type == boolean.class) {
+            return MethodHandles.insertArguments(GET_BOOLEAN, 1, idx);
+        } else if (type.isPrimitive()) {
+            Class<?> boxed = MethodType.methodType(type).wrap().returnType();
+            return MethodHandles.insertArguments(GET_COL, 1, idx, boxed)
+                    .asType(MethodType.methodType(type, Row.class));
+        } else {
+            MethodHandle get = MethodHandles.insertArguments(GET_COL, 1, idx, type)
+                    .asType(MethodType.methodType(type, Row.class));
+            MethodHandle nullValue = MethodHandles.dropArguments(MethodHandles.constant(type, null), 0, Row.class);
+            return MethodHandles.guardWithTest(MethodHandles.insertArguments(IS_NULL, 1, idx), nullValue, get);
+        }
+    }
+
+    private static MethodHandle rowMethod(String name, MethodType type) {
+        try {
+            return LOOKUP.findVirtual(Row.class, name, type);
+        } catch (NoSuchMethodException | IllegalAccessException ex) {
+            throw new IllegalStateException("Row method " + name + " is not accessible", ex);
+        }
+    }
+
+    /**
+     * Binds method handles of a mapped class to generated implementations
+     * of functional interfaces.
+     * <p>
+     * If an implementation can't be generated, for instance because the mapped
+     * class is not visible to rdbc's class loader, a fallback invoking the method
+     * handle is used instead. Mapping rows is slower then, so the first fallback
+     * for a class is logged as a warning.
+     */
+    static final class LambdaBinder {
+        private final Class<?> mappedClass;
+        private boolean fellBack;
+
+        LambdaBinder(Class<?> mappedClass) {
+            this.mappedClass = mappedClass;
+        }
+
+        <F> F bind(Class<F> iface, String samName, MethodType samType,
+                   MethodHandle impl, MethodType instantiatedType,
+                   ThrowingFunction<MethodHandle, F> fallback) {
+            Objects.requireNonNull(fallback);
+            if (!isVisible(impl.type())) {
+                return fallBack(impl, fallback, null);
+            }
+            try {
+                MethodHandle factory = LambdaMetafactory.metafactory(
+                        LOOKUP, samName, MethodType.methodType(iface),
+                        samType, impl, instantiatedType
+                ).getTarget();
+                return iface.cast(factory.invoke());
+            } catch (Throwable ex) {
+                return fallBack(impl, fallback, ex);
+            }
+        }
+
+        private <F> F fallBack(MethodHandle impl, ThrowingFunction<MethodHandle, F> fallback, Throwable cause) {
+            if (!fellBack) {
+                fellBack = true;
+                LOGGER.log(Level.WARNING, "Could not generate accessors of " + mappedClass.getName()
+                        + ", falling back to method handles", cause);
+            }
+            return fallback.apply(impl);
+        }
+
+        /* Generated classes are defined in rdbc's class loader and refer to
+           types by name, so all of them have to be resolvable from there. */
+        private static boolean isVisible(MethodType type) {
+            if (!isVisible(type.returnType())) {
+                return false;
+            }
+            for (Class<?> paramType : type.parameterArray()) {
+                if (!isVisible(paramType)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean isVisible(Class<?> type) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isPrimitive()) {
+                return true;
+            }
+            try {
+                return Class.forName(type.getName(), false, RowMappers.class.getClassLoader()) == type;
+            } catch (ClassNotFoundException | LinkageError ex) {
+                return false;
+            }
+        }
+    }
+}
@@ -16,15 +16,35 @@
 
 package io.rdbc.japi;
 
+import io.rdbc.japi.exceptions.MissingColumnException;
+
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
 
+/**
+ * Represents a row meta data.
+ * <p>
+ * Column indices by name are computed once, when the meta data is created, so
+ * drivers sharing one instance between all rows of a result don't have to
+ * resolve column names for every row. When several columns have the same
+ * name, the first one is used.
+ */
 public final class RowMetadata {
 
     private final List<ColumnMetadata> columns;
+    private final Map<String, Integer> indexByName;
 
     private RowMetadata(List<ColumnMetadata> columns) {
         this.columns = new ArrayList<>(columns);
+        Map<String, Integer> indices = new HashMap<>();
+        for (int i = 0; i < this.columns.size(); i++) {
+            indices.putIfAbsent(this.columns.get(i).getName(), i);
+        }
+        this.indexByName = Collections.unmodifiableMap(indices);
     }
 
     public static RowMetadata of(List<ColumnMetadata> columns) {
@@ -35,6 +55,26 @@ public final class RowMetadata {
         return new ArrayList<>(columns);
     }
 
+    /**
+     * Returns an index of a column with a given name or an empty {@link OptionalInt}
+     * if there is no such column.
+     */
+    public OptionalInt getColumnIndex(String name) {
+        Integer idx = indexByName.get(name);
+        return idx == null ? OptionalInt.empty() : OptionalInt.of(idx);
+    }
+
+    /**
+     * Returns a handle of a column with a given name.
+     */
+    public ColumnHandle getHandle(String name) throws MissingColumnException {
+        Integer idx = indexByName.get(name);
+        if (idx == null) {
+            throw new MissingColumnException(name);
+        }
+        return ColumnHandle.of(idx, name);
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -22,6 +22,7 @@ import io.rdbc.japi.exceptions.NoSuitableConverterFoundException;
 import io.rdbc.japi.exceptions.TooManyParamsException;
 import org.reactivestreams.Publisher;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
@@ -100,4 +101,80 @@ public interface Statement {
      */
     CompletionStage<Void> streamArgsByIdx(Publisher<List<Object>> paramsPublisher);
 
+    /**
+     * Executes this statement once for every element of {@code params},
+     * binding parameters by name.
+     * <p>
+     * Each element of {@code params} is a map containing all parameters
+     * required by this statement. Returned array contains the number of rows
+     * affected by each execution, in the order of {@code params}.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Resulting {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link NoSuchParamException}</li>
+     * <li>{@link MissingParamValException}</li>
+     * <li>{@link NoSuitableConverterFoundException}</li>
+     * </ul>
+     */
+    CompletionStage<long[]> executeBatch(List<Map<String, Object>> params, Duration timeout);
+
+    /**
+     * Executes this statement once for every element of {@code params},
+     * binding parameters by name.
+     * <p>
+     * Each element of {@code params} is a map containing all parameters
+     * required by this statement. Returned array contains the number of rows
+     * affected by each execution, in the order of {@code params}.
+     * <p>
+     * Resulting {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link NoSuchParamException}</li>
+     * <li>{@link MissingParamValException}</li>
+     * <li>{@link NoSuitableConverterFoundException}</li>
+     * </ul>
+     */
+    CompletionStage<long[]> executeBatch(List<Map<String, Object>> params);
+
+    /**
+     * Executes this statement once for every element of {@code params},
+     * binding parameters by index.
+     * <p>
+     * Each element of {@code params} is a list containing all parameters
+     * required by this statement. Returned array contains the number of rows
+     * affected by each execution, in the order of {@code params}.
+     * <p>
+     * After the operation takes longer time than {@code timeout}, operation
+     * will be aborted. Note however, that it may not be feasible
+     * to abort the operation immediately.
+     * <p>
+     * Resulting {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link TooManyParamsException}</li>
+     * <li>{@link MissingParamValException}</li>
+     * <li>{@link NoSuitableConverterFoundException}</li>
+     * </ul>
+     */
+    CompletionStage<long[]> executeBatchByIdx(List<List<Object>> params, Duration timeout);
+
+    /**
+     * Executes this statement once for every element of {@code params},
+     * binding parameters by index.
+     * <p>
+     * Each element of {@code params} is a list containing all parameters
+     * required by this statement. Returned array contains the number of rows
+     * affected by each execution, in the order of {@code params}.
+     * <p>
+     * Resulting {@link CompletionStage} can fail with:
+     * <ul>
+     * <li>{@link TooManyParamsException}</li>
+     * <li>{@link MissingParamValException}</li>
+     * <li>{@link NoSuitableConverterFoundException}</li>
+     * </ul>
+     */
+    CompletionStage<long[]> executeBatchByIdx(List<List<Object>> params);
+
 }
@@ -16,6 +16,12 @@
 
 package io.rdbc.japi;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
 public final class StatementOptions {
 
     /** Default statement options */
@@ -25,17 +31,103 @@ public final class StatementOptions {
     public static final StatementOptions RETURN_GEN_KEYS = StatementOptions.of(KeyColumns.ALL);
 
     private final KeyColumns generatedKeyCols;
+    private final Long maxRows;
+    private final Set<String> tables;
+    private final boolean readOnly;
 
-    private StatementOptions(KeyColumns generatedKeyCols) {
+    private StatementOptions(KeyColumns generatedKeyCols, Long maxRows, Set<String> tables, boolean readOnly) {
         this.generatedKeyCols = generatedKeyCols;
+        this.maxRows = maxRows;
+        this.tables = tables;
+        this.readOnly = readOnly;
     }
 
     public KeyColumns getGeneratedKeyCols() {
         return generatedKeyCols;
     }
 
+    /**
+     * Returns maximum number of rows the statement returns.
+     * <p>
+     * Drivers pass the limit to the database so that rows above it are
+     * neither transferred nor decoded. Empty value means no limit.
+     */
+    public Optional<Long> getMaxRows() {
+        return Optional.ofNullable(maxRows);
+    }
+
+    /**
+     * Returns a copy of these options with the maximum number of returned rows set.
+     *
+     * @throws IllegalArgumentException when {@code maxRows} is not positive
+     */
+    public StatementOptions withMaxRows(long maxRows) {
+        return new StatementOptions(generatedKeyCols, checkMaxRows(maxRows), tables, readOnly);
+    }
+
+    /**
+     * Returns names of tables the statement reads or writes.
+     * <p>
+     * Drivers don't interpret them, but result caches use them to invalidate
+     * results of reads when the tables are written.
+     */
+    public Set<String> getTables() {
+        return tables;
+    }
+
+    /**
+     * Returns a copy of these options with tables the statement reads or writes set.
+     *
+     * @throws NullPointerException when {@code tables} or any of its elements is null
+     */
+    public StatementOptions withTables(String... tables) {
+        return new StatementOptions(generatedKeyCols, maxRows, checkTables(tables), readOnly);
+    }
+
+    /**
+     * Returns whether the statement only reads data.
+     * <p>
+     * Concurrent identical executions of read only statements can share
+     * a single result.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Returns a copy of these options with the read only flag set.
+     */
+    public StatementOptions withReadOnly(boolean readOnly) {
+        return new StatementOptions(generatedKeyCols, maxRows, tables, readOnly);
+    }
+
     public static StatementOptions of(KeyColumns generatedKeyCols) {
-        return new StatementOptions(generatedKeyCols);
+        return new StatementOptions(generatedKeyCols, null, Collections.emptySet(), false);
+    }
+
+    /**
+     * Creates options returning given generated keys and at most {@code maxRows} rows.
+     *
+     * @throws IllegalArgumentException when {@code maxRows} is not positive
+     */
+    public static StatementOptions of(KeyColumns generatedKeyCols, long maxRows) {
+        return new StatementOptions(generatedKeyCols, checkMaxRows(maxRows), Collections.emptySet(), false);
+    }
+
+    private static long checkMaxRows(long maxRows) {
+        if (maxRows <= 0L) {
+            throw new IllegalArgumentException("parameter 'maxRows' has to be positive, was " + maxRows);
+        }
+        return maxRows;
+    }
+
+    private static Set<String> checkTables(String[] tables) {
+        Objects.requireNonNull(tables, "parameter 'tables' cannot be null");
+        Set<String> tableSet = new LinkedHashSet<>(tables.length);
+        for (String table : tables) {
+            tableSet.add(Objects.requireNonNull(table, "parameter 'tables' cannot contain nulls"));
+        }
+        return Collections.unmodifiableSet(tableSet);
     }
 
     @Override
@@ -45,18 +137,28 @@ public final class StatementOptions {
 
         StatementOptions that = (StatementOptions) o;
 
-        return generatedKeyCols.equals(that.generatedKeyCols);
+        if (readOnly != that.readOnly) return false;
+        if (!generatedKeyCols.equals(that.generatedKeyCols)) return false;
+        if (maxRows != null ? !maxRows.equals(that.maxRows) : that.maxRows != null) return false;
+        return tables.equals(that.tables);
     }
 
     @Override
     public int hashCode() {
-        return generatedKeyCols.hashCode();
+        int result = generatedKeyCols.hashCode();
+        result = 31 * result + (maxRows != null ? maxRows.hashCode() : 0);
+        result = 31 * result + tables.hashCode();
+        result = 31 * result + (readOnly ? 1 : 0);
+        return result;
     }
 
     @Override
     public String toString() {
         return "StatementOptions(" +
                 "generatedKeyCols=" + generatedKeyCols +
+                ", maxRows=" + maxRows +
+                ", tables=" + tables +
+                ", readOnly=" + readOnly +
                 ')';
     }
 }
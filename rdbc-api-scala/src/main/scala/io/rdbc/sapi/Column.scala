@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi
+
+import java.util
+
+/** A column of a [[ColumnarResultSet]].
+  *
+  * Values are stored in arrays indexed by row number, SQL `NULL`s are marked
+  * in the `nulls` bitmap. For rows that are `NULL` the value stored in the
+  * array is unspecified. Arrays and bitmaps are exposed without copying
+  * and must not be modified.
+  */
+sealed trait Column {
+
+  /** Number of values in the column */
+  def size: Int
+
+  /** A bitmap with bits set for rows holding SQL `NULL` */
+  def nulls: util.BitSet
+
+  /** Tells whether the value in the given row is SQL `NULL` */
+  def isNull(row: Int): Boolean = nulls.get(row)
+}
+
+object Column {
+
+  /** A column of integral values that fit in an `Int` */
+  final class IntColumn(val values: Array[Int], val nulls: util.BitSet) extends Column {
+    def size: Int = values.length
+  }
+
+  /** A column of `Long` values */
+  final class LongColumn(val values: Array[Long], val nulls: util.BitSet) extends Column {
+    def size: Int = values.length
+  }
+
+  /** A column of floating point values */
+  final class DoubleColumn(val values: Array[Double], val nulls: util.BitSet) extends Column {
+    def size: Int = values.length
+  }
+
+  /** A dictionary-encoded column of strings.
+    *
+    * `codes` holds, for each row, an index into the `dictionary` array which
+    * contains every distinct value of the column once.
+    */
+  final class StringColumn(val dictionary: Array[String],
+                           val codes: Array[Int],
+                           val nulls: util.BitSet) extends Column {
+    def size: Int = codes.length
+
+    /** Returns the value in the given row, or `null` for SQL `NULL` */
+    def value(row: Int): String = {
+      if (isNull(row)) null
+      else dictionary(codes(row))
+    }
+  }
+
+  /** A column of values of types without a specialized representation */
+  final class ObjectColumn(val values: Array[AnyRef], val nulls: util.BitSet) extends Column {
+    def size: Int = values.length
+  }
+
+}
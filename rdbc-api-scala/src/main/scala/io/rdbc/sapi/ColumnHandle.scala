@@ -0,0 +1,28 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi
+
+/** A column resolved against a [[RowMetadata]].
+  *
+  * Handles can be obtained once per result using [[RowMetadata.handle]] and
+  * then used to get values from every row of the result without resolving
+  * the column name again.
+  *
+  * @param idx  column index
+  * @param name column name
+  */
+final case class ColumnHandle(idx: Int, name: String)
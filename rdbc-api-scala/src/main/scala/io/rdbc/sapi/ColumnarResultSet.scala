@@ -0,0 +1,62 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi
+
+import io.rdbc._
+import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, MissingColumnException}
+
+/**
+  * Represents a set of rows returned by a database engine, stored by columns.
+  *
+  * @param rowsAffected a number of rows that were affected by the statement
+  *                     that this result set is for
+  * @param warnings     a sequence of warnings that were emitted by the database
+  *                     during processing the statement that this result set is for
+  * @param metadata     a meta data of columns of this result set
+  * @param rowCount     a number of rows returned by a database
+  * @param columns      column values, in the order of `metadata` columns
+  */
+class ColumnarResultSet(val rowsAffected: Long,
+                        val warnings: ImmutSeq[Warning],
+                        val metadata: RowMetadata,
+                        val rowCount: Int,
+                        val columns: ImmutIndexedSeq[Column]) {
+
+  /** Returns a column with the given index.
+    *
+    * Throws [[io.rdbc.sapi.exceptions.ColumnIndexOutOfBoundsException ColumnIndexOutOfBoundsException]]
+    * when there is no such column.
+    */
+  def column(idx: Int): Column = {
+    if (idx < 0 || idx >= columns.size) {
+      throw new ColumnIndexOutOfBoundsException(idx, columns.size)
+    }
+    columns(idx)
+  }
+
+  /** Returns a column with the given name.
+    *
+    * Throws [[io.rdbc.sapi.exceptions.MissingColumnException MissingColumnException]]
+    * when there is no such column.
+    */
+  def column(name: String): Column = {
+    metadata.columnIndex(name) match {
+      case Some(idx) => columns(idx)
+      case None => throw new MissingColumnException(name)
+    }
+  }
+}
@@ -213,6 +213,53 @@ trait Connection {
     */
   def statement(sql: String): Statement
 
+  /** Prepares a SQL statement and returns a [[PreparedStatement]] instance
+    * bound to this connection.
+    *
+    * Unlike statements returned by `statement` methods, prepared statements
+    * are guaranteed to be parsed and planned by the database once. They can
+    * be bound and executed many times and have to be closed when no longer
+    * needed.
+    *
+    * $statementParametrization
+    *
+    * $timeoutInfo
+    *
+    * Resulting future can fail with:
+    *  - [[io.rdbc.sapi.exceptions.MixedParamTypesException MixedParamTypesException]]
+    *  when statement uses both positional and named parameters
+    *  - [[io.rdbc.sapi.exceptions.InvalidQueryException InvalidQueryException]]
+    *  when statement is rejected by a database engine as invalid
+    * $timeoutException
+    *
+    * @group stmtBare
+    */
+  def prepare(sql: String, statementOptions: StatementOptions)
+             (implicit timeout: Timeout): Future[PreparedStatement]
+
+  /** Prepares a SQL statement and returns a [[PreparedStatement]] instance
+    * bound to this connection.
+    *
+    * Unlike statements returned by `statement` methods, prepared statements
+    * are guaranteed to be parsed and planned by the database once. They can
+    * be bound and executed many times and have to be closed when no longer
+    * needed.
+    *
+    * $statementParametrization
+    *
+    * $timeoutInfo
+    *
+    * Resulting future can fail with:
+    *  - [[io.rdbc.sapi.exceptions.MixedParamTypesException MixedParamTypesException]]
+    *  when statement uses both positional and named parameters
+    *  - [[io.rdbc.sapi.exceptions.InvalidQueryException InvalidQueryException]]
+    *  when statement is rejected by a database engine as invalid
+    * $timeoutException
+    *
+    * @group stmtBare
+    */
+  def prepare(sql: String)(implicit timeout: Timeout): Future[PreparedStatement]
+
   /** Returns a [[ExecutableStatement]] instance bound to this connection
     * that represents any parametrized SQL statement.
     *
@@ -16,6 +16,8 @@
 
 package io.rdbc.sapi
 
+import io.rdbc._
+
 import scala.concurrent.Future
 import scala.reflect.ClassTag
 
@@ -65,6 +67,31 @@ trait ExecutableStatement {
     */
   def executeForSet()(implicit timeout: Timeout): Future[ResultSet]
 
+  /** Executes this statement and returns all rows decoded to values of type `A`.
+    *
+    * Example:
+    * {{{
+    * case class User(id: Long, name: String)
+    *
+    * conn.statement(sql"select id, name from users").executeForSetAs[User]()
+    * }}}
+    * $timeoutInfo
+    * $exceptions
+    */
+  def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]]
+
+  /** Executes this statement and returns a [[ColumnarResultSet]] instance.
+    *
+    * After execution all resulting rows will be pulled from a database
+    * and stored column by column, using primitive arrays for numeric columns
+    * and dictionary encoding for string columns. This representation is much
+    * more compact than [[ResultSet]] for large, mostly numeric results.
+    *
+    * $timeoutInfo
+    * $exceptions
+    */
+  def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet]
+
   /** Executes this statement ignoring any resulting information.
     *
     * $timeoutInfo
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi
+
+import scala.concurrent.Future
+
+/** Represents a SQL statement prepared by a database engine.
+  *
+  * Prepared statements are parsed and planned by the database once, when they
+  * are created using [[Connection.prepare(sql:String,statementOptions* Connection.prepare]],
+  * and can be bound and executed many times afterwards. Statements have to be
+  * closed using `close` method when they are no longer needed, to release
+  * resources held by the database.
+  *
+  * Prepared statements are bound to the connection that prepared them and
+  * can be used only as long as the connection is not released.
+  */
+trait PreparedStatement extends Statement {
+
+  /** A meta data of rows returned by this statement.
+    *
+    * `None` is returned if the statement doesn't return rows or the database
+    * doesn't describe results of statements when preparing them.
+    */
+  def metadata: Option[RowMetadata]
+
+  /** Releases resources held by the database for this statement.
+    *
+    * Binding a closed statement fails with
+    * [[io.rdbc.sapi.exceptions.IllegalSessionStateException IllegalSessionStateException]].
+    * Closing an already closed statement has no effect.
+    */
+  def close(): Future[Unit]
+}
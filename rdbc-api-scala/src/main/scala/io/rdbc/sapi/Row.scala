@@ -138,6 +138,48 @@ trait Row {
     */
   def colOpt[A: ClassTag](name: String): Option[A]
 
+  /** Tells whether the value in column with a given index is SQL `null`.
+    *
+    * Throws:
+    *  - [[io.rdbc.sapi.exceptions.ColumnIndexOutOfBoundsException ColumnIndexOutOfBoundsException]]
+    *  when requested column index is out of range
+    *
+    * @group generic
+    */
+  def isNull(idx: Int): Boolean
+
+  /** Tells whether the value in column with a given name is SQL `null`.
+    *
+    * Throws:
+    *  - [[io.rdbc.sapi.exceptions.MissingColumnException MissingColumnException]]
+    *  when requested column is not present in the row
+    *
+    * @group generic
+    */
+  def isNull(name: String): Boolean
+
+  /** Returns a value of type `A` from column with a given handle.
+    *
+    * This is equivalent to getting a value by the handle's column index.
+    *
+    * @group generic
+    */
+  def col[A: ClassTag](column: ColumnHandle): A = col[A](column.idx)
+
+  /** Returns a value of type `A` from column with a given handle.
+    *
+    * This is equivalent to getting a value by the handle's column index.
+    *
+    * @group generic
+    */
+  def colOpt[A: ClassTag](column: ColumnHandle): Option[A] = colOpt[A](column.idx)
+
+  /** Tells whether the value in column with a given handle is SQL `null`.
+    *
+    * @group generic
+    */
+  def isNull(column: ColumnHandle): Boolean = isNull(column.idx)
+
   /** Returns a `String` from column with a given name.
     *
     * $nullSafetyNote
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi
+
+import scala.annotation.implicitNotFound
+import scala.language.experimental.macros
+
+/** Decodes rows into values of type `A`.
+  *
+  * Decoders resolve columns once per result, using its [[RowMetadata]], and
+  * decode every row of the result using the function returned by [[bind]].
+  *
+  * Decoders for case classes are derived automatically. Every constructor
+  * parameter is read from a column with the same name, using a type-specific
+  * getter of a [[Row]] if there is one for the parameter type and a generic
+  * `col` getter otherwise. `Option` parameters are read using null-safe
+  * getters.
+  *
+  * Example:
+  * {{{
+  * case class Person(id: Long, name: String, age: Option[Int])
+  *
+  * conn.statement(sql"select id, name, age from persons").executeForSetAs[Person]()
+  * }}}
+  */
+@implicitNotFound("Cannot find RowDecoder for ${A}, decoders can be derived only for case classes")
+trait RowDecoder[A] {
+
+  /** Resolves columns used by this decoder using the result's `metadata`
+    * and returns a function decoding rows of the result.
+    *
+    * Throws [[io.rdbc.sapi.exceptions.MissingColumnException MissingColumnException]]
+    * when a column required by the decoder is not present in the result.
+    */
+  def bind(metadata: RowMetadata): Row => A
+}
+
+object RowDecoder {
+
+  /** Summons an implicit decoder for type `A`. */
+  def apply[A](implicit decoder: RowDecoder[A]): RowDecoder[A] = decoder
+
+  /** Derives a decoder for a case class `A`. */
+  implicit def derive[A]: RowDecoder[A] = macro internal.RowDecoderMacros.derive[A]
+}
@@ -17,10 +17,36 @@
 package io.rdbc.sapi
 
 import io.rdbc._
+import io.rdbc.sapi.exceptions.MissingColumnException
 
 /**
   * Represents a row meta data.
   *
+  * Column indices by name are computed once per meta data instance, so
+  * drivers sharing one instance between all rows of a result don't have to
+  * resolve column names for every row. When several columns have the same
+  * name, the first one is used.
+  *
   * @param columns meta data for every row column
   */
-case class RowMetadata(columns: ImmutIndexedSeq[ColumnMetadata])
+case class RowMetadata(columns: ImmutIndexedSeq[ColumnMetadata]) {
+
+  private lazy val indexByName: Map[String, Int] = {
+    columns.zipWithIndex.reverseIterator.map { case (col, idx) => col.name -> idx }.toMap
+  }
+
+  /** Returns an index of a column with a given name, if there is such column. */
+  def columnIndex(name: String): Option[Int] = indexByName.get(name)
+
+  /** Returns a handle of a column with a given name.
+    *
+    * Throws [[io.rdbc.sapi.exceptions.MissingColumnException MissingColumnException]]
+    * when there is no such column.
+    */
+  def handle(name: String): ColumnHandle = {
+    indexByName.get(name) match {
+      case Some(idx) => ColumnHandle(idx, name)
+      case None => throw new MissingColumnException(name)
+    }
+  }
+}
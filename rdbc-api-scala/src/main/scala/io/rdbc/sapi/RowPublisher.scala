@@ -17,6 +17,7 @@
 package io.rdbc.sapi
 
 import io.rdbc._
+import io.rdbc.sapi.internal.DecodingPublisher
 import org.reactivestreams.Publisher
 
 import scala.concurrent.Future
@@ -63,4 +64,14 @@ trait RowPublisher extends Publisher[Row] {
     * cancellation and fails when the publisher fails.
     */
   def done: Future[Unit]
+
+  /** Returns a publisher of rows decoded to values of type `A`.
+    *
+    * Subscribing to the returned publisher subscribes to this publisher.
+    * Decoding failures cancel the subscription and are signalled to the
+    * subscriber.
+    */
+  def as[A](implicit decoder: RowDecoder[A]): Publisher[A] = {
+    new DecodingPublisher(this, decoder)
+  }
 }
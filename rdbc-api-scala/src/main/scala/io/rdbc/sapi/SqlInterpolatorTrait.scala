@@ -16,6 +16,8 @@
 
 package io.rdbc.sapi
 
+import scala.language.experimental.macros
+
 trait SqlInterpolatorTrait {
   implicit class Sql(val sc: StringContext) {
 
@@ -42,27 +44,12 @@ trait SqlInterpolatorTrait {
       *
       * The code above produces `select * from test where id = ?` statement
       * with the sole parameter bound to value `10`.
+      *
+      * The interpolator is a macro: SQL is assembled at compile time, so
+      * unless `#\$` literals are used, every execution of the same call site
+      * yields the same SQL string instance.
       */
-    def sql(args: Any*): SqlWithParams = {
-      sc.checkLengths(args)
-
-      var sqlArgs = Vector.empty[Any]
-      val argsIter = args.iterator
-      val sql = new StringBuilder
-
-      sc.parts.foreach { part =>
-        if (part.endsWith("#") && argsIter.hasNext) {
-          sql.append(part.take(part.length - 1))
-          sql.append(argsIter.next)
-        } else if (argsIter.hasNext) {
-          sql.append(part).append("?")
-          sqlArgs = sqlArgs :+ argsIter.next
-        } else {
-          sql.append(part)
-        }
-      }
-      SqlWithParams(sql.toString, sqlArgs)
-    }
+    def sql(args: Any*): SqlWithParams = macro internal.SqlInterpolatorMacros.sql
   }
 }
 
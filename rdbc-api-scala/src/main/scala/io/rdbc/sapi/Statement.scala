@@ -16,7 +16,7 @@
 
 package io.rdbc.sapi
 
-import io.rdbc.ImmutIndexedSeq
+import io.rdbc.{ImmutIndexedSeq, ImmutSeq}
 import org.reactivestreams.Publisher
 
 import scala.concurrent.Future
@@ -118,4 +118,38 @@ trait Statement {
     * when some parameter value's type is not convertible to a database type
     */
   def streamArgsByIdx(argsPublisher: Publisher[_ <: ImmutIndexedSeq[Any]]): Future[Unit]
+
+  /** Executes this statement once for every element of `args`, binding
+    * arguments by name.
+    *
+    * Each element of `args` is a map containing all arguments required by
+    * this statement. The returned array contains the number of rows affected
+    * by each execution, in the order of `args`.
+    *
+    * Resulting future can fail with:
+    *  - [[io.rdbc.sapi.exceptions.MissingParamValException MissingParamValException]]
+    * when some parameter value was not provided
+    *  - [[io.rdbc.sapi.exceptions.NoSuitableConverterFoundException NoSuitableConverterFoundException]]
+    * when some parameter value's type is not convertible to a database type
+    *
+    * @group primary
+    */
+  def executeBatch(args: ImmutSeq[Map[String, Any]])(implicit timeout: Timeout): Future[Array[Long]]
+
+  /** Executes this statement once for every element of `args`, binding
+    * arguments by index.
+    *
+    * Each element of `args` is an indexed sequence containing all arguments
+    * required by this statement. The returned array contains the number of
+    * rows affected by each execution, in the order of `args`.
+    *
+    * Resulting future can fail with:
+    *  - [[io.rdbc.sapi.exceptions.MissingParamValException MissingParamValException]]
+    * when some parameter value was not provided
+    *  - [[io.rdbc.sapi.exceptions.NoSuitableConverterFoundException NoSuitableConverterFoundException]]
+    * when some parameter value's type is not convertible to a database type
+    *
+    * @group primary
+    */
+  def executeBatchByIdx(args: ImmutSeq[ImmutIndexedSeq[Any]])(implicit timeout: Timeout): Future[Array[Long]]
 }
@@ -40,7 +40,8 @@ object StatementOptions {
 
   /** Default statement options */
   val Default = StatementOptions(
-    generatedKeyCols = KeyColumns.None
+    generatedKeyCols = KeyColumns.None,
+    maxRows = None
   )
 
   /** Options that make statement return all generated keys */
@@ -51,5 +52,21 @@ object StatementOptions {
   * Statement options.
   *
   * @param generatedKeyCols says what keys generated by the database should be returned
+  * @param maxRows          maximum number of rows the statement returns; drivers
+  *                         pass the limit to the database so that rows above it
+  *                         are neither transferred nor decoded. `None` means no limit,
+  *                         given limit has to be positive
+  * @param tables           names of tables the statement reads or writes; they are
+  *                         not interpreted by drivers, but result caches use them to
+  *                         invalidate results of reads when the tables are written
+  * @param readOnly         whether the statement only reads data; concurrent identical
+  *                         executions of such statements can share a single result
   */
-final case class StatementOptions(generatedKeyCols: KeyColumns)
+final case class StatementOptions(generatedKeyCols: KeyColumns,
+                                  maxRows: Option[Long] = None,
+                                  tables: Set[String] = Set.empty,
+                                  readOnly: Boolean = false) {
+  maxRows.foreach { max =>
+    require(max > 0L, s"parameter 'maxRows' has to be positive, was $max")
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi.internal
+
+import java.util
+
+import io.rdbc.sapi.{Row, RowDecoder, RowMetadata, RowPublisher}
+import org.reactivestreams.{Publisher, Subscriber, Subscription}
+
+import scala.concurrent.ExecutionContext
+import scala.util.control.NonFatal
+import scala.util.{Failure, Success}
+
+/** A publisher decoding rows of the `rows` publisher with a `decoder`.
+  *
+  * The decoder is bound to the result's metadata when the first row arrives.
+  * Rows arriving before the metadata completes are held until it does, they
+  * never exceed the demand already signalled by the subscriber. If binding
+  * or decoding fails, the subscription to `rows` is cancelled and the
+  * failure is signalled to the subscriber.
+  */
+private[sapi] class DecodingPublisher[A](rows: RowPublisher, decoder: RowDecoder[A])
+  extends Publisher[A] {
+
+  import DecodingPublisher._
+
+  def subscribe(s: Subscriber[_ >: A]): Unit = {
+    rows.subscribe(new DecodingSubscriber(s))
+  }
+
+  /* signals are serialized with the subscriber's monitor, because rows held
+     until metadata completes are published from the metadata callback */
+  private class DecodingSubscriber(downstream: Subscriber[_ >: A]) extends Subscriber[Row] {
+    private var subscription: Subscription = _
+    private var decode: Row => A = _
+    private var failed = false
+    /* rows waiting for metadata, null when not waiting */
+    private var pending: util.ArrayDeque[Row] = _
+    private var pendingComplete = false
+    private var pendingError: Throwable = _
+
+    def onSubscribe(s: Subscription): Unit = {
+      subscription = s
+      downstream.onSubscribe(s)
+    }
+
+    def onNext(row: Row): Unit = synchronized {
+      if (!failed) {
+        if (pending != null) {
+          pending.add(row)
+        } else if (decode != null || rows.metadata.isCompleted) {
+          publish(row)
+        } else {
+          pending = new util.ArrayDeque[Row]
+          pending.add(row)
+          rows.metadata.onComplete(_ => publishPending())(SameThread)
+        }
+      }
+    }
+
+    def onError(t: Throwable): Unit = synchronized {
+      if (!failed) {
+        if (pending != null) pendingError = t
+        else downstream.onError(t)
+      }
+    }
+
+    def onComplete(): Unit = synchronized {
+      if (!failed) {
+        if (pending != null) pendingComplete = true
+        else downstream.onComplete()
+      }
+    }
+
+    /* rows received while publishing are appended to pending and published
+       by this loop, so their order is kept */
+    private def publishPending(): Unit = synchronized {
+      while (!failed && !pending.isEmpty) {
+        publish(pending.poll())
+      }
+      pending = null
+      if (!failed) {
+        if (pendingError != null) downstream.onError(pendingError)
+        else if (pendingComplete) downstream.onComplete()
+      }
+    }
+
+    private def publish(row: Row): Unit = {
+      val decoded = try {
+        if (decode == null) {
+          decode = decoder.bind(metadata())
+        }
+        Right(decode(row))
+      } catch {
+        case NonFatal(ex) => Left(ex)
+      }
+      decoded match {
+        case Right(value) => downstream.onNext(value)
+        case Left(ex) =>
+          failed = true
+          subscription.cancel()
+          downstream.onError(ex)
+      }
+    }
+  }
+
+  /* called only when metadata is completed */
+  private def metadata(): RowMetadata = {
+    rows.metadata.value.get match {
+      case Success(md) => md
+      case Failure(ex) => throw ex
+    }
+  }
+}
+
+private object DecodingPublisher {
+
+  /* runs metadata callbacks on the thread completing the metadata */
+  private object SameThread extends ExecutionContext {
+    def execute(runnable: Runnable): Unit = runnable.run()
+
+    def reportFailure(cause: Throwable): Unit = ()
+  }
+}
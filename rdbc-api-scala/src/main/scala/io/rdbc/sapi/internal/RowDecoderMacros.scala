@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi.internal
+
+import java.time._
+import java.util.UUID
+
+import io.rdbc.sapi.{DecimalNumber, RowDecoder}
+
+import scala.reflect.macros.blackbox
+
+/** Macro implementations deriving [[io.rdbc.sapi.RowDecoder RowDecoder]]
+  * instances. Not intended to be used directly.
+  */
+class RowDecoderMacros(val c: blackbox.Context) {
+
+  import c.universe._
+
+  private val getters: List[(Type, String)] = List(
+    typeOf[String] -> "str",
+    typeOf[Boolean] -> "bool",
+    typeOf[Char] -> "char",
+    typeOf[Short] -> "short",
+    typeOf[Int] -> "int",
+    typeOf[Long] -> "long",
+    typeOf[BigDecimal] -> "bigDecimal",
+    typeOf[DecimalNumber] -> "decimal",
+    typeOf[Double] -> "double",
+    typeOf[Float] -> "float",
+    typeOf[Instant] -> "instant",
+    typeOf[ZonedDateTime] -> "zonedDateTime",
+    typeOf[LocalDateTime] -> "localDateTime",
+    typeOf[LocalDate] -> "localDate",
+    typeOf[LocalTime] -> "localTime",
+    typeOf[Array[Byte]] -> "bytes",
+    typeOf[UUID] -> "uuid"
+  )
+
+  def derive[A: c.WeakTypeTag]: c.Expr[RowDecoder[A]] = {
+    val tpe = weakTypeOf[A]
+    val sym = tpe.typeSymbol
+    if (!sym.isClass || !sym.asClass.isCaseClass || sym.isAbstract) {
+      c.abort(c.enclosingPosition, s"RowDecoder can only be derived for case classes, $tpe is not a case class")
+    }
+
+    val params = tpe.decls.collectFirst {
+      case m: MethodSymbol if m.isPrimaryConstructor => m.paramLists
+    }.getOrElse(Nil) match {
+      case single :: Nil => single
+      case _ =>
+        c.abort(c.enclosingPosition, "RowDecoder can only be derived for case classes with a single parameter list")
+    }
+
+    val metadata = TermName(c.freshName("metadata"))
+    val row = TermName(c.freshName("row"))
+    val columns = params.map { param =>
+      val idx = TermName(c.freshName("idx"))
+      val name = param.name.decodedName.toString
+      val paramTpe = param.typeSignatureIn(tpe).finalResultType
+      (q"val $idx: _root_.scala.Int = $metadata.handle($name).idx", getter(paramTpe, row, idx))
+    }
+
+    c.Expr[RowDecoder[A]](
+      q"""
+        new _root_.io.rdbc.sapi.RowDecoder[$tpe] {
+          def bind($metadata: _root_.io.rdbc.sapi.RowMetadata): _root_.io.rdbc.sapi.Row => $tpe = {
+            ..${columns.map(_._1)}
+            ($row: _root_.io.rdbc.sapi.Row) => new $tpe(..${columns.map(_._2)})
+          }
+        }
+      """
+    )
+  }
+
+  private def getter(tpe: Type, row: TermName, idx: TermName): Tree = {
+    if (tpe.typeSymbol == typeOf[Option[Any]].typeSymbol) {
+      val valueTpe = tpe.typeArgs.head
+      typedGetter(valueTpe) match {
+        case Some(name) => q"$row.${TermName(name + "Opt")}($idx)"
+        case None => q"$row.colOpt[$valueTpe]($idx)"
+      }
+    } else {
+      typedGetter(tpe) match {
+        case Some(name) => q"$row.${TermName(name)}($idx)"
+        case None => q"$row.col[$tpe]($idx)"
+      }
+    }
+  }
+
+  private def typedGetter(tpe: Type): Option[String] = {
+    getters.collectFirst { case (getterTpe, name) if tpe =:= getterTpe => name }
+  }
+}
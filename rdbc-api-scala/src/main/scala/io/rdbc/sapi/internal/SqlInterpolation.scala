@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi.internal
+
+import io.rdbc.sapi.SqlWithParams
+
+import scala.collection.immutable
+
+/** Runtime implementation of the `sql` string interpolator, used when
+  * the interpolated string is not a literal. Not intended to be used
+  * directly.
+  */
+object SqlInterpolation {
+
+  def sql(sc: StringContext, args: Any*): SqlWithParams = {
+    sc.checkLengths(args)
+
+    val params = new Array[Any](args.size)
+    var paramCount = 0
+    val argsIter = args.iterator
+    val sql = new java.lang.StringBuilder
+
+    sc.parts.foreach { part =>
+      if (part.endsWith("#") && argsIter.hasNext) {
+        sql.append(part, 0, part.length - 1)
+        sql.append(String.valueOf(argsIter.next()))
+      } else if (argsIter.hasNext) {
+        sql.append(part).append('?')
+        params(paramCount) = argsIter.next()
+        paramCount += 1
+      } else {
+        sql.append(part)
+      }
+    }
+    val paramsSeq = {
+      if (paramCount == 0) Vector.empty
+      else if (paramCount == params.length) new ArrayParams(params)
+      else new ArrayParams(params.take(paramCount))
+    }
+    SqlWithParams(sql.toString, paramsSeq)
+  }
+}
+
+/** Immutable sequence of statement parameters backed by an array that is
+  * never modified after construction. Not intended to be used directly.
+  */
+final class ArrayParams(params: Array[Any]) extends immutable.IndexedSeq[Any] {
+  def length: Int = params.length
+  def apply(idx: Int): Any = params(idx)
+}
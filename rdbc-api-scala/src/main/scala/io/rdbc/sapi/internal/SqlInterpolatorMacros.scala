@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.sapi.internal
+
+import io.rdbc.sapi.SqlWithParams
+
+import scala.reflect.macros.blackbox
+
+/** Macro implementation of the `sql` string interpolator. Not intended to be
+  * used directly.
+  *
+  * When the interpolated string is a literal, which is always the case for
+  * `sql"..."` syntax, SQL fragments between parameters are joined with `?`
+  * at compile time, so SQL without `#\$` literals is a single string constant
+  * shared by all executions of the call site. Arguments are stored in
+  * a presized array.
+  */
+class SqlInterpolatorMacros(val c: blackbox.Context) {
+
+  import c.universe._
+
+  private sealed trait Piece
+  private case class Text(value: String) extends Piece
+  private case class Splice(arg: Tree) extends Piece
+
+  def sql(args: c.Expr[Any]*): c.Expr[SqlWithParams] = {
+    literalParts match {
+      case Some(parts) if parts.size == args.size + 1 => expand(parts, args.map(_.tree).toList)
+      case Some(_) => c.abort(c.enclosingPosition, "wrong number of arguments for interpolated string")
+      case None =>
+        c.Expr[SqlWithParams](
+          q"_root_.io.rdbc.sapi.internal.SqlInterpolation.sql(${c.prefix.tree}.sc, ..$args)"
+        )
+    }
+  }
+
+  private def literalParts: Option[List[String]] = {
+    c.prefix.tree match {
+      case Apply(_, List(Apply(_, rawParts))) =>
+        val parts = rawParts.collect { case Literal(Constant(part: String)) => part }
+        if (parts.size == rawParts.size) Some(parts) else None
+      case _ => None
+    }
+  }
+
+  private def expand(parts: List[String], args: List[Tree]): c.Expr[SqlWithParams] = {
+    /* arguments are evaluated once, in order, before building anything */
+    val argVals = args.map(arg => TermName(c.freshName("arg")) -> arg)
+    val pieces = this.pieces(parts, argVals.map(_._1))
+    val params = pieces.collect { case Left(param) => param }
+    val sqlPieces = merge(pieces.collect { case Right(piece) => piece })
+
+    val sql = sqlPieces match {
+      case Nil => q""" "" """
+      case Text(text) :: Nil => q"$text"
+      case _ =>
+        val sb = TermName(c.freshName("sb"))
+        val appends = sqlPieces.map {
+          case Text(text) => q"$sb.append($text)"
+          case Splice(arg) => q"$sb.append(_root_.java.lang.String.valueOf($arg))"
+        }
+        q"""{
+          val $sb = new _root_.java.lang.StringBuilder
+          ..$appends
+          $sb.toString
+        }"""
+    }
+
+    val paramsSeq = if (params.isEmpty) {
+      q"_root_.scala.collection.immutable.Vector.empty[_root_.scala.Any]"
+    } else {
+      val arr = TermName(c.freshName("params"))
+      val stores = params.zipWithIndex.map { case (param, idx) => q"$arr($idx) = $param" }
+      q"""{
+        val $arr = new _root_.scala.Array[_root_.scala.Any](${params.size})
+        ..$stores
+        new _root_.io.rdbc.sapi.internal.ArrayParams($arr)
+      }"""
+    }
+
+    val valDefs = argVals.map { case (name, arg) => q"val $name: _root_.scala.Any = $arg" }
+    c.Expr[SqlWithParams](
+      q"""{
+        ..$valDefs
+        _root_.io.rdbc.sapi.SqlWithParams($sql, $paramsSeq)
+      }"""
+    )
+  }
+
+  /* Left values are parameters, Right values are pieces of SQL */
+  private def pieces(parts: List[String], args: List[TermName]): List[Either[Tree, Piece]] = {
+    val argPieces = parts.init.zip(args).flatMap { case (part, arg) =>
+      if (part.endsWith("#")) {
+        List(Right(Text(part.dropRight(1))), Right(Splice(q"$arg")))
+      } else {
+        List(Right(Text(part)), Right(Text("?")), Left(q"$arg"))
+      }
+    }
+    argPieces :+ Right(Text(parts.last))
+  }
+
+  private def merge(pieces: List[Piece]): List[Piece] = {
+    pieces.foldRight(List.empty[Piece]) {
+      case (Text(""), acc) => acc
+      case (Text(a), Text(b) :: rest) => Text(a + b) :: rest
+      case (piece, acc) => piece :: acc
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc
+
+import io.rdbc.RowDecoderSpec.Person
+import io.rdbc.sapi.exceptions.MissingColumnException
+import io.rdbc.sapi.{ColumnMetadata, Row, RowDecoder, RowMetadata}
+import org.scalamock.scalatest.MockFactory
+
+class RowDecoderSpec
+  extends RdbcSpec
+    with MockFactory {
+
+  "Derived RowDecoder" should {
+    val metadata = RowMetadata(Vector(
+      ColumnMetadata("age", "int4"),
+      ColumnMetadata("name", "text"),
+      ColumnMetadata("id", "int8")
+    ))
+
+    "decode rows by indices of columns named after case class fields" in {
+      val row = mock[Row]
+      (row.long(_: Int)).expects(2).returning(10L)
+      (row.str(_: Int)).expects(1).returning("name")
+      (row.intOpt(_: Int)).expects(0).returning(None)
+
+      RowDecoder[Person].bind(metadata)(row) shouldBe Person(10L, "name", None)
+    }
+
+    "fail to bind to metadata without required columns" in {
+      assertThrows[MissingColumnException] {
+        RowDecoder[Person].bind(RowMetadata(Vector(ColumnMetadata("id", "int8"))))
+      }
+    }
+
+    "not be derived for types other than case classes" in {
+      assertDoesNotCompile("io.rdbc.sapi.RowDecoder[String]")
+    }
+  }
+}
+
+object RowDecoderSpec {
+  case class Person(id: Long, name: String, age: Option[Int])
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc
+
+import io.rdbc.sapi.exceptions.MissingColumnException
+import io.rdbc.sapi.{ColumnHandle, ColumnMetadata, RowMetadata}
+
+class RowMetadataSpec extends RdbcSpec {
+
+  "RowMetadata" should {
+    val metadata = RowMetadata(Vector(
+      ColumnMetadata("id", "int8"),
+      ColumnMetadata("name", "text"),
+      ColumnMetadata("id", "int4")
+    ))
+
+    "resolve column indices by name" in {
+      metadata.columnIndex("id") shouldBe Some(0)
+      metadata.columnIndex("name") shouldBe Some(1)
+      metadata.columnIndex("missing") shouldBe None
+    }
+
+    "provide column handles" in {
+      metadata.handle("name") shouldBe ColumnHandle(1, "name")
+    }
+
+    "fail to provide handles of missing columns" in {
+      assertThrows[MissingColumnException] {
+        metadata.handle("missing")
+      }
+    }
+  }
+}
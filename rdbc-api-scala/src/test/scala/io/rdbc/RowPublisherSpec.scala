@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc
+
+import io.rdbc.sapi._
+import org.reactivestreams.{Subscriber, Subscription}
+import org.scalamock.scalatest.MockFactory
+
+import scala.collection.mutable.ArrayBuffer
+import scala.concurrent.{Future, Promise}
+
+class RowPublisherSpec
+  extends RdbcSpec
+    with MockFactory {
+
+  private val metadata = RowMetadata(Vector(ColumnMetadata("id", "int8")))
+
+  /* decodes rows to the number of columns of the bound metadata */
+  private val columnCount = new RowDecoder[Int] {
+    def bind(md: RowMetadata): Row => Int = _ => md.columns.size
+  }
+
+  "RowPublisher.as" should {
+
+    "decode rows when metadata is available" in {
+      val rows = new TestRowPublisher(Vector(mock[Row], mock[Row]))
+      rows.metadataPromise.success(metadata)
+      val subscriber = new RecordingSubscriber
+
+      rows.as(columnCount).subscribe(subscriber)
+
+      subscriber.values shouldBe Vector(1, 1)
+      subscriber.completed shouldBe true
+    }
+
+    "hold rows arriving before metadata until it completes" in {
+      val rows = new TestRowPublisher(Vector(mock[Row], mock[Row]))
+      val subscriber = new RecordingSubscriber
+
+      rows.as(columnCount).subscribe(subscriber)
+      subscriber.values shouldBe empty
+      subscriber.completed shouldBe false
+
+      rows.metadataPromise.success(metadata)
+      subscriber.values shouldBe Vector(1, 1)
+      subscriber.completed shouldBe true
+    }
+
+    "fail the stream when metadata fails" in {
+      val rows = new TestRowPublisher(Vector(mock[Row]))
+      val subscriber = new RecordingSubscriber
+      val failure = new RuntimeException
+
+      rows.as(columnCount).subscribe(subscriber)
+      rows.metadataPromise.failure(failure)
+
+      subscriber.error shouldBe Some(failure)
+      subscriber.values shouldBe empty
+      rows.cancelled shouldBe true
+    }
+  }
+
+  /* publishes all rows synchronously on the first request */
+  class TestRowPublisher(rows: Vector[Row]) extends RowPublisher {
+    val metadataPromise = Promise[RowMetadata]
+    @volatile var cancelled = false
+
+    def rowsAffected: Future[Long] = Future.successful(rows.size.toLong)
+
+    def warnings: Future[ImmutSeq[Warning]] = Future.successful(Vector.empty)
+
+    def metadata: Future[RowMetadata] = metadataPromise.future
+
+    def done: Future[Unit] = Future.successful(())
+
+    def subscribe(s: Subscriber[_ >: Row]): Unit = {
+      s.onSubscribe(new Subscription {
+        def request(n: Long): Unit = {
+          rows.foreach(s.onNext)
+          s.onComplete()
+        }
+
+        def cancel(): Unit = {
+          cancelled = true
+        }
+      })
+    }
+  }
+
+  class RecordingSubscriber extends Subscriber[Int] {
+    private val received = ArrayBuffer.empty[Int]
+    @volatile var completed = false
+    @volatile var error: Option[Throwable] = None
+
+    def values: Vector[Int] = received.synchronized(received.toVector)
+
+    def onSubscribe(s: Subscription): Unit = s.request(Long.MaxValue)
+
+    def onNext(value: Int): Unit = received.synchronized(received += value)
+
+    def onError(t: Throwable): Unit = error = Some(t)
+
+    def onComplete(): Unit = completed = true
+  }
+}
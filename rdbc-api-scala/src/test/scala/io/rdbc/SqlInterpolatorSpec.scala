@@ -17,6 +17,7 @@
 package io.rdbc
 
 import io.rdbc.sapi.SqlInterpolator._
+import io.rdbc.sapi.SqlWithParams
 
 class SqlInterpolatorSpec extends RdbcSpec {
 
@@ -63,6 +64,45 @@ class SqlInterpolatorSpec extends RdbcSpec {
       res.params shouldBe Seq(p1, p2, p3)
     }
 
+    "handle #$ syntax at the beginning and the end" in {
+      val (select, table) = ("select *", "tbl")
+      val p1 = 1
+      val res = sql"#$select from tbl where x = $p1 order by #$table"
+      res.sql shouldBe "select * from tbl where x = ? order by tbl"
+      res.params shouldBe Seq(p1)
+    }
+
+    "evaluate arguments once, from left to right" in {
+      val evaluated = Vector.newBuilder[Int]
+      def arg(i: Int): Int = {
+        evaluated += i
+        i
+      }
+      val res = sql"select ${arg(1)} from #${arg(2)} where x = ${arg(3)}"
+      evaluated.result() shouldBe Vector(1, 2, 3)
+      res.params shouldBe Seq(1, 3)
+    }
+
+    "return the same SQL instance for the same call site" in {
+      def query(id: Int): SqlWithParams = sql"select * from table where id = $id"
+      query(1).sql shouldBe theSameInstanceAs(query(2).sql)
+      query(2).params shouldBe Seq(2)
+    }
+
+    "allow null parameters and literals" in {
+      val (p1, lit) = (null, null)
+      val res = sql"select $p1, #$lit"
+      res.sql shouldBe "select ?, null"
+      res.params shouldBe Seq(null)
+    }
+
+    "work with non-literal string contexts" in {
+      val sc = StringContext("select ", " from #", "")
+      val res = Sql(sc).sql(1, "tbl")
+      res.sql shouldBe "select ? from tbl"
+      res.params shouldBe Seq(1)
+    }
+
   }
 
 }
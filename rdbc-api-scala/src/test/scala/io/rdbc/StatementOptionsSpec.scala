@@ -24,6 +24,18 @@ class StatementOptionsSpec extends RdbcSpec {
     "be set not to return any generated keys" in {
       StatementOptions.Default.generatedKeyCols shouldBe KeyColumns.None
     }
+
+    "be set not to limit returned rows" in {
+      StatementOptions.Default.maxRows shouldBe None
+    }
+
+    "not declare any tables" in {
+      StatementOptions.Default.tables shouldBe empty
+    }
+
+    "not be marked as read only" in {
+      StatementOptions.Default.readOnly shouldBe false
+    }
   }
 
   "StatementOptions.ReturnGenKeys" should {
@@ -32,6 +44,24 @@ class StatementOptionsSpec extends RdbcSpec {
     }
   }
 
+  "StatementOptions" should {
+    "accept positive row limits" in {
+      StatementOptions.Default.copy(maxRows = Some(1L)).maxRows shouldBe Some(1L)
+    }
+
+    "reject zero row limit" in {
+      assertThrows[IllegalArgumentException] {
+        StatementOptions.Default.copy(maxRows = Some(0L))
+      }
+    }
+
+    "reject negative row limit" in {
+      assertThrows[IllegalArgumentException] {
+        StatementOptions(KeyColumns.None, maxRows = Some(-1L))
+      }
+    }
+  }
+
   "KeyColumns.named" should {
     "create KeyColumns.Named instances" in {
       KeyColumns.named("c1", "c2") shouldBe KeyColumns.Named(Vector("c1", "c2"))
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.bench
+
+import io.rdbc.implbase.RowPartialImpl
+import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, MissingColumnException}
+
+import scala.reflect.ClassTag
+
+/** A row resembling rows produced by drivers: column values are already
+  * decoded and stored in an array, names are resolved using a map.
+  */
+class BenchRow(values: Array[Any], names: Map[String, Int]) extends RowPartialImpl {
+
+  override def colOpt[A: ClassTag](idx: Int): Option[A] = {
+    if (idx < 0 || idx >= values.length) {
+      throw new ColumnIndexOutOfBoundsException(idx, values.length)
+    }
+    Option(values(idx).asInstanceOf[A])
+  }
+
+  override def colOpt[A: ClassTag](name: String): Option[A] = {
+    colOpt[A](names.getOrElse(name, throw new MissingColumnException(name)))
+  }
+}
+
+object BenchRow {
+
+  val ColNames: Vector[String] = Vector("id", "name", "amount", "active", "created")
+
+  private val names = ColNames.zipWithIndex.toMap
+
+  /** Creates a row with `id`, `name`, `amount`, `active` and `created`
+    * columns, the last one being SQL `NULL`.
+    */
+  def apply(id: Int): BenchRow = {
+    new BenchRow(Array[Any](id.toLong, s"name-$id", id * 1.5, id % 2 == 0, null), names)
+  }
+}
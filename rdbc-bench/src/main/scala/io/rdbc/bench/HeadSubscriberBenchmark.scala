@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.bench
+
+import java.util.concurrent.TimeUnit
+
+import io.rdbc.ImmutSeq
+import io.rdbc.implbase.HeadSubscriber
+import io.rdbc.sapi.Row
+import org.openjdk.jmh.annotations._
+import org.reactivestreams.Subscription
+
+import scala.concurrent.duration.Duration
+import scala.concurrent.Await
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class HeadSubscriberBenchmark {
+
+  @Param(Array("1", "100", "10000"))
+  var rowCount: Int = _
+
+  private var rows: Array[Row] = _
+
+  @Setup
+  def setup(): Unit = {
+    rows = Array.tabulate[Row](rowCount)(BenchRow(_))
+  }
+
+  @Benchmark
+  def collectAll(): ImmutSeq[Row] = {
+    collect(new HeadSubscriber(None))
+  }
+
+  @Benchmark
+  def collectHalf(): ImmutSeq[Row] = {
+    collect(new HeadSubscriber(Some(math.max(rowCount / 2, 1).toLong)))
+  }
+
+  /* publishes rows synchronously, the way a driver publishes rows
+     decoded from a single network buffer */
+  private def collect(subscriber: HeadSubscriber): ImmutSeq[Row] = {
+    val subscription = new BenchSubscription
+    subscriber.onSubscribe(subscription)
+    var i = 0
+    while (i < rows.length && !subscription.cancelled) {
+      subscriber.onNext(rows(i))
+      i += 1
+    }
+    if (!subscription.cancelled) {
+      subscriber.onComplete()
+    }
+    Await.result(subscriber.rows, Duration.Inf)
+  }
+
+  private class BenchSubscription extends Subscription {
+    var cancelled = false
+
+    def request(n: Long): Unit = ()
+
+    def cancel(): Unit = cancelled = true
+  }
+}
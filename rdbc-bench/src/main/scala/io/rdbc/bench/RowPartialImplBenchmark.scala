@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.bench
+
+import java.util.concurrent.TimeUnit
+
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class RowPartialImplBenchmark {
+
+  private val row = BenchRow(42)
+
+  @Benchmark
+  def longByIdx(): Long = row.long(0)
+
+  @Benchmark
+  def longByName(): Long = row.long("id")
+
+  @Benchmark
+  def strByIdx(): String = row.str(1)
+
+  @Benchmark
+  def strByName(): String = row.str("name")
+
+  @Benchmark
+  def doubleByIdx(): Double = row.double(2)
+
+  @Benchmark
+  def boolByIdx(): Boolean = row.bool(3)
+
+  @Benchmark
+  def nullByIdx(): Option[String] = row.strOpt(4)
+
+  @Benchmark
+  def allColumnsByIdx(bh: Blackhole): Unit = {
+    bh.consume(row.long(0))
+    bh.consume(row.str(1))
+    bh.consume(row.double(2))
+    bh.consume(row.bool(3))
+    bh.consume(row.strOpt(4))
+  }
+
+  @Benchmark
+  def allColumnsByName(bh: Blackhole): Unit = {
+    bh.consume(row.long("id"))
+    bh.consume(row.str("name"))
+    bh.consume(row.double("amount"))
+    bh.consume(row.bool("active"))
+    bh.consume(row.strOpt("created"))
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.bench
+
+import java.util.concurrent.TimeUnit
+
+import io.rdbc.sapi.SqlInterpolator._
+import io.rdbc.sapi.SqlWithParams
+import org.openjdk.jmh.annotations._
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class SqlInterpolatorBenchmark {
+
+  private val id = 42
+  private val name = "name-42"
+  private val amount = BigDecimal("10.50")
+  private val table = "accounts"
+
+  @Benchmark
+  def noParams(): SqlWithParams = {
+    sql"select id, name, amount from accounts"
+  }
+
+  @Benchmark
+  def oneParam(): SqlWithParams = {
+    sql"select id, name, amount from accounts where id = $id"
+  }
+
+  @Benchmark
+  def threeParams(): SqlWithParams = {
+    sql"select id from accounts where id = $id and name = $name and amount > $amount"
+  }
+
+  @Benchmark
+  def literalAndParams(): SqlWithParams = {
+    sql"select id from #$table where id = $id and name = $name"
+  }
+}
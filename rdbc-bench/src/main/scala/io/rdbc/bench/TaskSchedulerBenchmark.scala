@@ -0,0 +1,64 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.bench
+
+import java.util.concurrent.{Executors, TimeUnit}
+
+import io.rdbc.util.scheduler.{JdkScheduler, TaskScheduler, WheelScheduler}
+import org.openjdk.jmh.annotations._
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+
+/* Schedules and cancels a timeout, which is what drivers do for every
+   statement completing before its timeout. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+class TaskSchedulerBenchmark {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  @Param(Array("jdk", "jdk-direct", "wheel"))
+  var scheduler: String = _
+
+  private var taskScheduler: TaskScheduler = _
+
+  @Setup
+  def setup(): Unit = {
+    taskScheduler = scheduler match {
+      case "jdk" => new JdkScheduler(Executors.newSingleThreadScheduledExecutor())
+      case "jdk-direct" => new JdkScheduler(Executors.newSingleThreadScheduledExecutor(), directExecution = true)
+      case "wheel" => new WheelScheduler()
+    }
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    taskScheduler.shutdown()
+    ()
+  }
+
+  @Benchmark
+  def scheduleAndCancel(): Unit = {
+    taskScheduler.schedule(30.seconds)(() => ()).cancel()
+  }
+}
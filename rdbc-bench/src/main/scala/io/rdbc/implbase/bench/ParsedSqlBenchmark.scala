@@ -0,0 +1,48 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase.bench
+
+import java.util.concurrent.TimeUnit
+
+import io.rdbc.implbase.ParsedSql
+import org.openjdk.jmh.annotations._
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class ParsedSqlBenchmark {
+
+  private val sql = "select * from users u join orders o on o.user_id = u.id " +
+    "where u.name = :name and o.created > :since -- and o.status = :status\n" +
+    "and o.amount between :min and :max order by o.created desc"
+
+  private val parsed = ParsedSql.parse(sql)
+
+  private val args = Map("name" -> "jdoe", "since" -> 0L, "min" -> 10, "max" -> 100)
+
+  @Benchmark
+  def parse(): ParsedSql = ParsedSql.parseUncached(sql)
+
+  @Benchmark
+  def parseCached(): ParsedSql = ParsedSql.parse(sql)
+
+  @Benchmark
+  def bindByName(): Array[Any] = parsed.bindByName(args)
+}
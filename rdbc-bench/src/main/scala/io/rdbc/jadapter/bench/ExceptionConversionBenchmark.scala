@@ -0,0 +1,54 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter.bench
+
+import java.util.concurrent.{CompletableFuture, CompletionStage, TimeUnit}
+
+import io.rdbc.jadapter.internal.ExceptionConversion
+import io.rdbc.sapi.exceptions.TimeoutException
+import org.openjdk.jmh.annotations._
+
+import scala.util.Try
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class ExceptionConversionBenchmark {
+
+  private val exConversion = new ExceptionConversion(PartialFunction.empty)
+
+  private val success: CompletionStage[String] = CompletableFuture.completedFuture("value")
+
+  private val failure: CompletionStage[String] = {
+    val fut = new CompletableFuture[String]
+    fut.completeExceptionally(new TimeoutException("timeout", None))
+    fut
+  }
+
+  @Benchmark
+  def successfulFuture(): String = {
+    exConversion.convertExceptionsFut(success).toCompletableFuture.join()
+  }
+
+  @Benchmark
+  def failedFuture(): Try[String] = {
+    Try(exConversion.convertExceptionsFut(failure).toCompletableFuture.join())
+  }
+}
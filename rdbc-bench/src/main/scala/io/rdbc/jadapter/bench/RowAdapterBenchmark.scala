@@ -0,0 +1,78 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter.bench
+
+import java.util.concurrent.TimeUnit
+import java.util.Optional
+
+import io.rdbc.bench.BenchRow
+import io.rdbc.jadapter.internal.{ExceptionConversion, RowAdapter}
+import io.rdbc.japi.Row
+import org.openjdk.jmh.annotations._
+import org.openjdk.jmh.infra.Blackhole
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class RowAdapterBenchmark {
+
+  private implicit val exConversion: ExceptionConversion = new ExceptionConversion(PartialFunction.empty)
+
+  private val row: Row = new RowAdapter(BenchRow(42))
+
+  @Benchmark
+  def longByIdx(): java.lang.Long = row.getLong(0)
+
+  @Benchmark
+  def longByName(): java.lang.Long = row.getLong("id")
+
+  @Benchmark
+  def longValueByIdx(): Long = row.getLongValue(0)
+
+  @Benchmark
+  def longValueByName(): Long = row.getLongValue("id")
+
+  @Benchmark
+  def strByIdx(): String = row.getStr(1)
+
+  @Benchmark
+  def doubleByIdx(): java.lang.Double = row.getDouble(2)
+
+  @Benchmark
+  def nullByIdx(): Optional[String] = row.getStrOpt(4)
+
+  @Benchmark
+  def allColumnsByIdx(bh: Blackhole): Unit = {
+    bh.consume(row.getLong(0))
+    bh.consume(row.getStr(1))
+    bh.consume(row.getDouble(2))
+    bh.consume(row.getBool(3))
+    bh.consume(row.getStrOpt(4))
+  }
+
+  @Benchmark
+  def allColumnsByName(bh: Blackhole): Unit = {
+    bh.consume(row.getLong("id"))
+    bh.consume(row.getStr("name"))
+    bh.consume(row.getDouble("amount"))
+    bh.consume(row.getBool("active"))
+    bh.consume(row.getStrOpt("created"))
+  }
+}
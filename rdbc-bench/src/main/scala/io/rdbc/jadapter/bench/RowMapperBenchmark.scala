@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter.bench
+
+import java.util.concurrent.TimeUnit
+
+import io.rdbc.bench.BenchRow
+import io.rdbc.jadapter.internal.{ExceptionConversion, RowAdapter}
+import io.rdbc.japi.util.ThrowingFunction
+import io.rdbc.japi.{ColumnMetadata, Row, RowMapper, RowMetadata}
+import org.openjdk.jmh.annotations._
+
+import scala.collection.JavaConverters._
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+class RowMapperBenchmark {
+
+  private implicit val exConversion: ExceptionConversion = new ExceptionConversion(PartialFunction.empty)
+
+  private val row: Row = new RowAdapter(BenchRow(42))
+
+  private val metadata = RowMetadata.of(BenchRow.ColNames.map(ColumnMetadata.of(_, "")).asJava)
+
+  private val boundBeanMapper: ThrowingFunction[Row, BenchBean] = {
+    RowMapper.forBean(classOf[BenchBean]).bind(metadata)
+  }
+
+  @Benchmark
+  def beanMapper(): BenchBean = boundBeanMapper.apply(row)
+
+  @Benchmark
+  def handWritten(): BenchBean = {
+    val bean = new BenchBean
+    bean.setId(row.getLongValue(0))
+    bean.setName(row.getStr(1))
+    bean.setAmount(row.getDoubleValue(2))
+    bean.setActive(row.getBooleanValue(3))
+    bean
+  }
+}
+
+class BenchBean {
+  private var id: Long = _
+  private var name: String = _
+  private var amount: Double = _
+  private var active: Boolean = _
+
+  def setId(id: Long): Unit = this.id = id
+  def setName(name: String): Unit = this.name = name
+  def setAmount(amount: Double): Unit = this.amount = amount
+  def setActive(active: Boolean): Unit = this.active = active
+
+  override def toString: String = s"BenchBean($id, $name, $amount, $active)"
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import io.rdbc.cache.internal.CachingConnection
+import io.rdbc.implbase.ConnectionFactoryPartialImpl
+import io.rdbc.sapi.{Connection, ConnectionFactory, Timeout}
+import io.rdbc.util.Preconditions.checkNotNull
+
+import scala.concurrent.{ExecutionContext, Future}
+
+object CachingConnectionFactory {
+
+  /** Creates a factory caching results of statements executed using
+    * connections provided by the `underlying` factory.
+    */
+  def apply(underlying: ConnectionFactory, cache: ResultCache)
+           (implicit ec: ExecutionContext): CachingConnectionFactory = {
+    new CachingConnectionFactory(underlying, cache)
+  }
+}
+
+/** A [[io.rdbc.sapi.ConnectionFactory ConnectionFactory]] caching results
+  * of reads in a [[ResultCache]].
+  *
+  * Only statements declaring tables in
+  * [[io.rdbc.sapi.StatementOptions.tables StatementOptions.tables]] take part
+  * in caching:
+  *  - their `executeForSet`, `executeForFirstRow` and `executeForValue`
+  *    executions are reads; results are cached using SQL, statement options
+  *    and bound arguments as a key
+  *  - their `execute`, `executeForRowsAffected` and `executeForKey` executions,
+  *    batches and argument streams are writes; once they complete, cached
+  *    results tagged with any of the declared tables are discarded
+  *
+  * Within a transaction reads bypass the cache, and tables written in the
+  * transaction are invalidated again when it ends. Writes done outside of
+  * this factory are not detected, cached results can be stale for up to
+  * the cache's TTL unless the cache is invalidated explicitly.
+  */
+class CachingConnectionFactory(underlying: ConnectionFactory, val cache: ResultCache)
+                              (implicit protected val ec: ExecutionContext)
+  extends ConnectionFactoryPartialImpl {
+
+  checkNotNull(underlying)
+  checkNotNull(cache)
+
+  def connection()(implicit timeout: Timeout): Future[Connection] = {
+    checkNotNull(timeout)
+    underlying.connection().map(new CachingConnection(_, cache))
+  }
+
+  def shutdown(): Future[Unit] = underlying.shutdown()
+
+  override def toString: String = s"caching-$underlying"
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import io.rdbc.cache.internal.CoalescingConnection
+import io.rdbc.implbase.ConnectionFactoryPartialImpl
+import io.rdbc.sapi.{Connection, ConnectionFactory, Timeout}
+import io.rdbc.util.Preconditions.checkNotNull
+
+import scala.concurrent.{ExecutionContext, Future}
+
+object CoalescingConnectionFactory {
+
+  /** Creates a factory coalescing concurrent identical reads executed using
+    * connections provided by the `underlying` factory.
+    */
+  def apply(underlying: ConnectionFactory)
+           (implicit ec: ExecutionContext): CoalescingConnectionFactory = {
+    new CoalescingConnectionFactory(underlying)
+  }
+}
+
+/** A [[io.rdbc.sapi.ConnectionFactory ConnectionFactory]] letting concurrent
+  * identical reads share a single execution.
+  *
+  * `executeForSet` and `executeForSetAs` executions of statements marked as
+  * [[io.rdbc.sapi.StatementOptions.readOnly read only]] go through the
+  * factory's [[InFlightReads]]: while an execution with the same SQL, options
+  * and arguments is in flight, another one gets its result instead of
+  * reaching the database, even if it uses a different connection.
+  *
+  * Executions in transactions are never coalesced, and executions don't join
+  * ones that started before the last write of their connection completed
+  * or before its last transaction ended, so connections read their own
+  * writes. Writes are executions of statements that aren't read only.
+  * Joining executions share the first execution's outcome: they complete
+  * when it does, regardless of their own timeouts, and fail if it fails,
+  * for example when it times out.
+  *
+  * Placed below a [[CachingConnectionFactory]], it prevents expiry of a
+  * frequently read result from sending a burst of identical queries to the
+  * database.
+  */
+class CoalescingConnectionFactory(underlying: ConnectionFactory)
+                                 (implicit protected val ec: ExecutionContext)
+  extends ConnectionFactoryPartialImpl {
+
+  checkNotNull(underlying)
+
+  val inFlight: InFlightReads = new InFlightReads
+
+  def connection()(implicit timeout: Timeout): Future[Connection] = {
+    checkNotNull(timeout)
+    underlying.connection().map(new CoalescingConnection(_, inFlight))
+  }
+
+  def shutdown(): Future[Unit] = underlying.shutdown()
+
+  override def toString: String = s"coalescing-$underlying"
+}
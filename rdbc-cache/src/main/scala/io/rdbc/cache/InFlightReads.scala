@@ -0,0 +1,107 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{AtomicLong, LongAdder}
+
+import io.rdbc.sapi.{ResultSet, StatementOptions}
+
+import scala.annotation.tailrec
+import scala.concurrent.{ExecutionContext, Future, Promise}
+import scala.util.control.NonFatal
+
+/** Registry of in-flight read executions of a [[CoalescingConnectionFactory]].
+  *
+  * An execution started while an identical one is in flight doesn't reach
+  * the database, it gets the in-flight execution's result instead.
+  * Executions are identical when they have the same SQL, statement options
+  * and bound arguments. Executions are forgotten as soon as they complete,
+  * results are not cached.
+  *
+  * The registry counts completed writes in an epoch. Each in-flight
+  * execution remembers the epoch it started in, and an execution joins it
+  * only if it started after the last write of the joining connection
+  * completed, so connections always read their own writes.
+  */
+final class InFlightReads {
+
+  import InFlightReads._
+
+  private val inFlight = new ConcurrentHashMap[Key, InFlight]
+  private val epoch = new AtomicLong
+  private val started = new LongAdder
+  private val joined = new LongAdder
+
+  /** Number of executions currently in flight */
+  def size: Int = inFlight.size
+
+  /** Statistics gathered since the registry was created */
+  def stats: Stats = Stats(started.sum(), joined.sum())
+
+  /** Records a completed write, returns the epoch of reads that may see it */
+  private[cache] def writeCompleted(): Long = epoch.incrementAndGet()
+
+  /** Executes the read or joins an identical in-flight one that started
+    * in `minEpoch` or later.
+    */
+  @tailrec
+  private[cache] def executeForSet(key: Key, minEpoch: Long)(execute: => Future[ResultSet])
+                                  (implicit ec: ExecutionContext): Future[ResultSet] = {
+    val existing = inFlight.get(key)
+    if (existing != null && existing.epoch >= minEpoch) {
+      joined.increment()
+      existing.result
+    } else {
+      val promise = Promise[ResultSet]
+      val entry = InFlight(epoch.get(), promise.future)
+      /* a stale in-flight execution is replaced, so later reads join this one */
+      val registered = {
+        if (existing == null) inFlight.putIfAbsent(key, entry) == null
+        else inFlight.replace(key, existing, entry)
+      }
+      if (registered) {
+        started.increment()
+        val result = try execute catch {
+          case NonFatal(ex) => Future.failed(ex)
+        }
+        result.onComplete { res =>
+          inFlight.remove(key, entry)
+          promise.complete(res)
+        }
+        promise.future
+      } else {
+        executeForSet(key, minEpoch)(execute)
+      }
+    }
+  }
+}
+
+object InFlightReads {
+
+  private[cache] final case class Key(sql: String, options: StatementOptions, args: Any)
+
+  private final case class InFlight(epoch: Long, result: Future[ResultSet])
+
+  /** In-flight reads statistics.
+    *
+    * @param started number of executions that reached the database
+    * @param joined  number of executions that got a result of an in-flight one
+    */
+  final case class Stats(started: Long, joined: Long)
+
+}
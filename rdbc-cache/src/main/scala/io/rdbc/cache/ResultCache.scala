@@ -0,0 +1,336 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicLong, LongAdder}
+
+import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, ConversionException}
+import io.rdbc.sapi.{ResultSet, Row, StatementOptions}
+import io.rdbc.util.Preconditions.{check, checkNotNull}
+
+import scala.annotation.tailrec
+import scala.concurrent.duration._
+import scala.reflect.ClassTag
+
+/** A cache of statement results shared by connections of a
+  * [[CachingConnectionFactory]].
+  *
+  * Results are kept for `config.ttl` and weighted by an estimate of their
+  * size in bytes computed from their values: strings and byte arrays are
+  * weighed by their length, other values by `config.bytesPerValue`. When the
+  * total weight exceeds `config.maxWeight`, results not used since the last
+  * eviction pass are evicted first. Results are also tagged with tables
+  * declared in [[io.rdbc.sapi.StatementOptions.tables StatementOptions.tables]]
+  * of their statements, and discarded when any of the tables is invalidated,
+  * either explicitly with `invalidate` or by a write executed through the
+  * factory.
+  *
+  * The cache is thread-safe. Lookups don't take locks, and invalidating a table
+  * touches only results tagged with it.
+  */
+final class ResultCache(val config: ResultCacheConfig) {
+
+  import ResultCache._
+
+  checkNotNull(config)
+  check(config.maxWeight, config.maxWeight > 0L, "has to be positive")
+  check(config.ttl, config.ttl > Duration.Zero, "has to be positive")
+  check(config.bytesPerValue, config.bytesPerValue > 0, "has to be positive")
+
+  private val ttlNanos = config.ttl.toNanos
+
+  private val entries = new ConcurrentHashMap[Key, Entry]
+  /* keys of cached results by table; a key is added after its entry is put
+     and removed after its entry is removed */
+  private val keysByTable = new ConcurrentHashMap[String, util.Set[Key]]
+  private val weight = new AtomicLong
+  private val hits = new LongAdder
+  private val misses = new LongAdder
+  private val evictions = new LongAdder
+  private val invalidations = new LongAdder
+
+  private val evicting = new AtomicBoolean(false)
+  /* clock hand, accessed only by the thread that set `evicting` */
+  private var hand: util.Iterator[util.Map.Entry[Key, Entry]] = entries.entrySet.iterator
+
+  /* incremented on every invalidation; invalidated tables remember the
+     generation of their last invalidation, so that results of executions
+     that started before an invalidation of their own tables are not cached */
+  private val generation = new AtomicLong
+  private val allInvalidatedAt = new AtomicLong
+  private val tablesInvalidatedAt = new ConcurrentHashMap[String, AtomicLong]
+
+  /** Discards results tagged with any of the tables */
+  def invalidate(tables: String*): Unit = {
+    checkNotNull(tables)
+    invalidateTables(tables.toSet)
+  }
+
+  /** Discards all cached results */
+  def invalidateAll(): Unit = {
+    raise(allInvalidatedAt, generation.incrementAndGet())
+    val it = entries.entrySet.iterator
+    while (it.hasNext) {
+      val e = it.next()
+      if (remove(e.getKey, e.getValue)) {
+        invalidations.increment()
+      }
+    }
+  }
+
+  /** Cache statistics gathered since the cache was created */
+  def stats: Stats = {
+    Stats(hits.sum, misses.sum, evictions.sum, invalidations.sum, entries.size, weight.get)
+  }
+
+  private[cache] def invalidateTables(tables: Set[String]): Unit = {
+    if (tables.nonEmpty) {
+      val invalidatedGeneration = generation.incrementAndGet()
+      tables.foreach(table => raise(invalidatedAt(table), invalidatedGeneration))
+      tables.foreach { table =>
+        val keys = keysByTable.get(table)
+        if (keys != null) {
+          val it = keys.iterator
+          while (it.hasNext) {
+            val key = it.next()
+            val entry = entries.get(key)
+            if (entry != null && remove(key, entry)) {
+              invalidations.increment()
+            }
+          }
+        }
+      }
+    }
+  }
+
+  private[cache] def currentGeneration: Long = generation.get
+
+  private[cache] def get(key: Key): Option[Any] = {
+    val entry = entries.get(key)
+    if (entry == null) {
+      misses.increment()
+      None
+    } else if (System.nanoTime() - entry.expiresAt > 0L) {
+      if (remove(key, entry)) {
+        evictions.increment()
+      }
+      misses.increment()
+      None
+    } else {
+      if (!entry.used) entry.used = true
+      hits.increment()
+      Some(entry.value)
+    }
+  }
+
+  /** Caches the value unless any of the tables of its statement, or the
+    * whole cache, was invalidated since `startGeneration`.
+    *
+    * @param valueWeight weight of the value computed by `weighSet` or `weighFirstRow`
+    */
+  private[cache] def put(key: Key, value: Any, valueWeight: Long, startGeneration: Long): Unit = {
+    if (valueWeight <= config.maxWeight) {
+      val entry = new Entry(value, valueWeight, System.nanoTime() + ttlNanos)
+      val prev = entries.put(key, entry)
+      weight.addAndGet(if (prev != null) valueWeight - prev.weight else valueWeight)
+      key.options.tables.foreach(table => keysOf(table).add(key))
+      /* checked after the entry is visible, so an invalidation racing with
+         this put either removes the entry or is seen here */
+      if (invalidatedSince(key.options.tables, startGeneration)) {
+        remove(key, entry)
+      } else if (weight.get > config.maxWeight) {
+        evict()
+      }
+    }
+  }
+
+  /** Estimated weight of a result set, in bytes */
+  private[cache] def weighSet(rs: ResultSet): Long = {
+    val columns = rs.metadata.columns.size
+    rs.rows.foldLeft(EntryOverhead)((sum, row) => sum + rowWeight(row, columns))
+  }
+
+  /** Estimated weight of a first row, in bytes */
+  private[cache] def weighFirstRow(row: Option[Row]): Long = {
+    EntryOverhead + row.fold(0L)(rowWeight(_, columns = -1))
+  }
+
+  /* `columns` is -1 when the width of the row is unknown; Row doesn't expose
+     it, so values are then read until the index is out of bounds */
+  private def rowWeight(row: Row, columns: Int): Long = {
+    var sum = RowOverhead
+    var idx = 0
+    var more = columns != 0
+    while (more) {
+      try {
+        sum += valueWeight(row.colOpt[Any](idx)(ClassTag.Any))
+      } catch {
+        /* a value the driver can't return untyped */
+        case _: ConversionException => sum += config.bytesPerValue
+        case _: ColumnIndexOutOfBoundsException if columns < 0 => more = false
+      }
+      idx += 1
+      more = more && idx != columns
+    }
+    sum
+  }
+
+  private def valueWeight(value: Option[Any]): Long = value match {
+    case Some(s: String) => StringOverhead + 2L * s.length
+    case Some(bytes: Array[Byte]) => ArrayOverhead + bytes.length
+    case Some(_) => config.bytesPerValue.toLong
+    case None => ReferenceSize
+  }
+
+  private def invalidatedSince(tables: Set[String], startGeneration: Long): Boolean = {
+    allInvalidatedAt.get > startGeneration || tables.exists { table =>
+      val invalidatedAt = tablesInvalidatedAt.get(table)
+      invalidatedAt != null && invalidatedAt.get > startGeneration
+    }
+  }
+
+  /* removes the entry unless it was already removed or replaced; a key is put
+     back into the index if an entry for it was put concurrently */
+  private def remove(key: Key, entry: Entry): Boolean = {
+    if (entries.remove(key, entry)) {
+      weight.addAndGet(-entry.weight)
+      key.options.tables.foreach { table =>
+        val keys = keysByTable.get(table)
+        if (keys != null) {
+          keys.remove(key)
+          if (entries.containsKey(key)) keys.add(key)
+        }
+      }
+      true
+    } else {
+      false
+    }
+  }
+
+  /* CLOCK eviction: the hand clears `used` flags of entries it passes and
+     removes entries whose flag is already clear or that expired; if another
+     thread is evicting, this one doesn't wait */
+  private def evict(): Unit = {
+    if (evicting.compareAndSet(false, true)) {
+      try {
+        val now = System.nanoTime()
+        while (weight.get > config.maxWeight && !entries.isEmpty) {
+          if (!hand.hasNext) {
+            hand = entries.entrySet.iterator
+          }
+          if (hand.hasNext) {
+            val e = hand.next()
+            val entry = e.getValue
+            if (entry.used && now - entry.expiresAt <= 0L) {
+              entry.used = false
+            } else if (remove(e.getKey, entry)) {
+              evictions.increment()
+            }
+          }
+        }
+      } finally {
+        evicting.set(false)
+      }
+    }
+  }
+
+  private def keysOf(table: String): util.Set[Key] = {
+    val keys = keysByTable.get(table)
+    if (keys != null) {
+      keys
+    } else {
+      val created = ConcurrentHashMap.newKeySet[Key]()
+      val prev = keysByTable.putIfAbsent(table, created)
+      if (prev != null) prev else created
+    }
+  }
+
+  private def invalidatedAt(table: String): AtomicLong = {
+    val at = tablesInvalidatedAt.get(table)
+    if (at != null) {
+      at
+    } else {
+      val created = new AtomicLong
+      val prev = tablesInvalidatedAt.putIfAbsent(table, created)
+      if (prev != null) prev else created
+    }
+  }
+
+  @tailrec
+  private def raise(at: AtomicLong, to: Long): Unit = {
+    val current = at.get
+    if (current < to && !at.compareAndSet(current, to)) {
+      raise(at, to)
+    }
+  }
+
+  override def toString: String = s"ResultCache($config, $stats)"
+}
+
+object ResultCache {
+
+  private val EntryOverhead = 128L
+  private val RowOverhead = 32L
+  private val ReferenceSize = 8L
+  private val StringOverhead = 40L
+  private val ArrayOverhead = 16L
+
+  /** Key of a cached result.
+    *
+    * @param kind    kind of the result, like a whole result set or its first row
+    * @param args    arguments bound to the statement, compared with `equals`
+    */
+  private[cache] final case class Key(kind: ResultKind, sql: String, options: StatementOptions, args: Any)
+
+  private[cache] sealed trait ResultKind
+
+  private[cache] object ResultKind {
+    case object Set extends ResultKind
+    case object FirstRow extends ResultKind
+  }
+
+  private final class Entry(val value: Any, val weight: Long, val expiresAt: Long) {
+    @volatile var used = false
+  }
+
+  /** Result cache statistics.
+    *
+    * @param hits          number of lookups that found a cached result
+    * @param misses        number of lookups that didn't find a cached result
+    * @param evictions     number of results removed because they expired or
+    *                      to stay within the weight limit
+    * @param invalidations number of results removed by invalidation
+    * @param size          number of cached results
+    * @param weight        total weight of cached results, in estimated bytes
+    */
+  final case class Stats(hits: Long,
+                         misses: Long,
+                         evictions: Long,
+                         invalidations: Long,
+                         size: Int,
+                         weight: Long) {
+
+    /** Ratio of lookups that found a cached result, `0` if there were none */
+    def hitRatio: Double = {
+      val lookups = hits + misses
+      if (lookups == 0L) 0.0 else hits.toDouble / lookups
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import scala.concurrent.duration._
+
+object ResultCacheConfig {
+
+  /** Default cache configuration */
+  val Default = ResultCacheConfig(
+    maxWeight = 64L * 1024L * 1024L,
+    ttl = 5.minutes,
+    bytesPerValue = 32
+  )
+}
+
+/** Result cache configuration.
+  *
+  * @param maxWeight     maximum total weight of cached results, in estimated
+  *                      bytes; results not recently used are evicted to
+  *                      stay below it
+  * @param ttl           time results are cached for
+  * @param bytesPerValue estimated size in bytes of a column value other than
+  *                      a string or a byte array, whose sizes are computed
+  *                      from their lengths
+  */
+final case class ResultCacheConfig(maxWeight: Long, ttl: FiniteDuration, bytesPerValue: Int)
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import java.util.concurrent.atomic.AtomicReference
+
+import io.rdbc.cache.ResultCache
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A connection of a [[io.rdbc.cache.CachingConnectionFactory CachingConnectionFactory]] */
+private[cache] class CachingConnection(underlying: Connection, val cache: ResultCache)
+                                      (implicit ec: ExecutionContext)
+  extends DelegatingConnection(underlying) {
+
+  private val txTables = new AtomicReference[Set[String]](Set.empty)
+
+  def wrapExecutable(stmt: ExecutableStatement,
+                     sql: String,
+                     options: StatementOptions,
+                     args: Any): ExecutableStatement = {
+    new CachingExecutableStatement(stmt, sql, options, args, this)
+  }
+
+  /* tables are invalidated before the caller sees the write completed */
+  override def writing[A](options: StatementOptions, result: Future[A]): Future[A] = {
+    if (options.tables.isEmpty) result
+    else result.andThen { case _ => written(options.tables) }
+  }
+
+  /** Invalidates tables written by a completed write */
+  def written(tables: Set[String]): Unit = {
+    if (tables.nonEmpty) {
+      cache.invalidateTables(tables)
+      if (inTransaction) {
+        var prev = txTables.get()
+        while (!txTables.compareAndSet(prev, prev ++ tables)) {
+          prev = txTables.get()
+        }
+      }
+    }
+  }
+
+  /* tables written in a transaction might have been read and cached by other
+     connections before the transaction ended */
+  override protected def transactionEnded(): Unit = {
+    cache.invalidateTables(txTables.getAndSet(Set.empty))
+  }
+
+  override def toString: String = s"caching-$underlying"
+}
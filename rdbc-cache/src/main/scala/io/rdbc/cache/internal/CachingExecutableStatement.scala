@@ -0,0 +1,115 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.cache.ResultCache.{Key, ResultKind}
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.reflect.ClassTag
+import scala.util.Success
+
+/** An executable statement of a [[CachingConnection]].
+  *
+  * Statements that don't declare tables are not cached and executed directly.
+  */
+private[cache] class CachingExecutableStatement(underlying: ExecutableStatement,
+                                                sql: String,
+                                                options: StatementOptions,
+                                                args: Any,
+                                                conn: CachingConnection)
+                                               (implicit ec: ExecutionContext)
+  extends ExecutableStatement {
+
+  private val tables = options.tables
+
+  def stream()(implicit timeout: Timeout): RowPublisher = underlying.stream()
+
+  def executeForSet()(implicit timeout: Timeout): Future[ResultSet] = {
+    if (cacheable) {
+      cached(ResultKind.Set, underlying.executeForSet())(conn.cache.weighSet)
+    } else {
+      underlying.executeForSet()
+    }
+  }
+
+  def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]] = {
+    if (cacheable) {
+      executeForSet().map { rs =>
+        val decode = RowDecoder[A].bind(rs.metadata)
+        rs.rows.iterator.map(decode).toVector
+      }
+    } else {
+      underlying.executeForSetAs[A]()
+    }
+  }
+
+  def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet] = {
+    underlying.executeForColumns()
+  }
+
+  def execute()(implicit timeout: Timeout): Future[Unit] = {
+    writing(underlying.execute())
+  }
+
+  def executeForRowsAffected()(implicit timeout: Timeout): Future[Long] = {
+    writing(underlying.executeForRowsAffected())
+  }
+
+  def executeForFirstRow()(implicit timeout: Timeout): Future[Option[Row]] = {
+    if (cacheable) {
+      cached(ResultKind.FirstRow, underlying.executeForFirstRow())(conn.cache.weighFirstRow)
+    } else {
+      underlying.executeForFirstRow()
+    }
+  }
+
+  def executeForValue[A](valExtractor: Row => A)
+                        (implicit timeout: Timeout): Future[Option[A]] = {
+    if (cacheable) {
+      executeForFirstRow().map(_.map(valExtractor))
+    } else {
+      underlying.executeForValue(valExtractor)
+    }
+  }
+
+  def executeForKey[K: ClassTag]()(implicit timeout: Timeout): Future[K] = {
+    writing(underlying.executeForKey[K]())
+  }
+
+  private def cacheable: Boolean = tables.nonEmpty && !conn.inTransaction
+
+  /* `weigh` estimates the weight of a result */
+  private def cached[A](kind: ResultKind, execute: => Future[A])(weigh: A => Long): Future[A] = {
+    val key = Key(kind, sql, options, args)
+    conn.cache.get(key) match {
+      case Some(value) => Future.successful(value.asInstanceOf[A])
+      case None =>
+        val generation = conn.cache.currentGeneration
+        val result = execute
+        result.onComplete {
+          case Success(value) =>
+            conn.cache.put(key, value, weigh(value), generation)
+          case _ => ()
+        }
+        result
+    }
+  }
+
+  private def writing[A](result: Future[A]): Future[A] = conn.writing(options, result)
+}
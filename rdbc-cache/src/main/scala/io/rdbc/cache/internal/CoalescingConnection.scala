@@ -0,0 +1,68 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import java.util.concurrent.atomic.AtomicLong
+
+import io.rdbc.cache.InFlightReads
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A connection of a [[io.rdbc.cache.CoalescingConnectionFactory CoalescingConnectionFactory]] */
+private[cache] class CoalescingConnection(underlying: Connection, inFlight: InFlightReads)
+                                         (implicit ec: ExecutionContext)
+  extends DelegatingConnection(underlying) {
+
+  private val writeEpoch = new AtomicLong
+
+  /** Epoch of the last write completed using this connection, in-flight
+    * reads that started earlier may not see it.
+    */
+  def lastWriteEpoch: Long = writeEpoch.get()
+
+  def wrapExecutable(stmt: ExecutableStatement,
+                     sql: String,
+                     options: StatementOptions,
+                     args: Any): ExecutableStatement = {
+    if (options.readOnly) {
+      new CoalescingExecutableStatement(stmt, InFlightReads.Key(sql, options, args), this, inFlight)
+    } else {
+      new WritingExecutableStatement(stmt, options, this)
+    }
+  }
+
+  /* the epoch is recorded before the caller sees the write completed */
+  override def writing[A](options: StatementOptions, result: Future[A]): Future[A] = {
+    if (options.readOnly) result
+    else result.andThen { case _ => written() }
+  }
+
+  /* writes done in a transaction become visible to other connections'
+     reads only when it ends */
+  override protected def transactionEnded(): Unit = written()
+
+  private def written(): Unit = {
+    val epoch = inFlight.writeCompleted()
+    var prev = writeEpoch.get()
+    while (prev < epoch && !writeEpoch.compareAndSet(prev, epoch)) {
+      prev = writeEpoch.get()
+    }
+  }
+
+  override def toString: String = s"coalescing-$underlying"
+}
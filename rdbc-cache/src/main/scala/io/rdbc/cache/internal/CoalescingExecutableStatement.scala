@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.cache.InFlightReads
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.reflect.ClassTag
+
+/** A read only executable statement of a [[CoalescingConnection]] */
+private[cache] class CoalescingExecutableStatement(underlying: ExecutableStatement,
+                                                   key: InFlightReads.Key,
+                                                   conn: CoalescingConnection,
+                                                   inFlight: InFlightReads)
+                                                  (implicit ec: ExecutionContext)
+  extends ExecutableStatement {
+
+  def executeForSet()(implicit timeout: Timeout): Future[ResultSet] = {
+    if (conn.inTransaction) {
+      underlying.executeForSet()
+    } else {
+      inFlight.executeForSet(key, conn.lastWriteEpoch)(underlying.executeForSet())
+    }
+  }
+
+  def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]] = {
+    executeForSet().map { rs =>
+      val decode = RowDecoder[A].bind(rs.metadata)
+      rs.rows.iterator.map(decode).toVector
+    }
+  }
+
+  def stream()(implicit timeout: Timeout): RowPublisher = underlying.stream()
+
+  def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet] = underlying.executeForColumns()
+
+  def execute()(implicit timeout: Timeout): Future[Unit] = underlying.execute()
+
+  def executeForRowsAffected()(implicit timeout: Timeout): Future[Long] = underlying.executeForRowsAffected()
+
+  def executeForFirstRow()(implicit timeout: Timeout): Future[Option[Row]] = underlying.executeForFirstRow()
+
+  def executeForValue[A](valExtractor: Row => A)
+                        (implicit timeout: Timeout): Future[Option[A]] = {
+    underlying.executeForValue(valExtractor)
+  }
+
+  def executeForKey[K: ClassTag]()(implicit timeout: Timeout): Future[K] = underlying.executeForKey[K]()
+}
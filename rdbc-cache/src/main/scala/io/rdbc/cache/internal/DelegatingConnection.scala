@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.Failure
+
+/** A connection delegating to the `underlying` one, base of connections
+  * returned by factories in this module.
+  *
+  * Statements created by the connection are wrapped with `wrapExecutable`
+  * once they are bound, and writes done by their batches and argument
+  * streams pass through `writing`. The connection tracks whether
+  * a transaction is in progress and calls `transactionEnded` when it ends.
+  */
+private[cache] abstract class DelegatingConnection(val underlying: Connection)
+                                                  (implicit ec: ExecutionContext)
+  extends Connection {
+
+  @volatile private var inTx = false
+
+  /** Wraps a bound statement.
+    *
+    * @param args arguments bound to the statement, either a map of named
+    *             arguments or a sequence of positional ones
+    */
+  def wrapExecutable(stmt: ExecutableStatement, sql: String, options: StatementOptions, args: Any): ExecutableStatement
+
+  /** Called with results of writes done by statements' batches and argument
+    * streams. The default implementation returns `result`.
+    */
+  def writing[A](options: StatementOptions, result: Future[A]): Future[A] = result
+
+  /** Whether a transaction is in progress */
+  def inTransaction: Boolean = inTx
+
+  /** Called when a transaction ends. The default implementation does nothing. */
+  protected def transactionEnded(): Unit = ()
+
+  def beginTx()(implicit timeout: Timeout): Future[Unit] = {
+    inTx = true
+    underlying.beginTx().andThen { case Failure(_) =>
+      inTx = false
+    }
+  }
+
+  def commitTx()(implicit timeout: Timeout): Future[Unit] = {
+    endingTx(underlying.commitTx())
+  }
+
+  def rollbackTx()(implicit timeout: Timeout): Future[Unit] = {
+    endingTx(underlying.rollbackTx())
+  }
+
+  def withTransaction[A](body: => Future[A])
+                        (implicit timeout: Timeout): Future[A] = {
+    inTx = true
+    endingTx(underlying.withTransaction(body))
+  }
+
+  private def endingTx[A](result: Future[A]): Future[A] = {
+    result.andThen { case _ =>
+      inTx = false
+      transactionEnded()
+    }
+  }
+
+  def release(): Future[Unit] = underlying.release()
+
+  def forceRelease(): Future[Unit] = underlying.forceRelease()
+
+  def validate()(implicit timeout: Timeout): Future[Unit] = underlying.validate()
+
+  def statement(sql: String, statementOptions: StatementOptions): Statement = {
+    new DelegatingStatement(underlying.statement(sql, statementOptions), sql, statementOptions, this)
+  }
+
+  def statement(sql: String): Statement = {
+    new DelegatingStatement(underlying.statement(sql), sql, StatementOptions.Default, this)
+  }
+
+  def prepare(sql: String, statementOptions: StatementOptions)
+             (implicit timeout: Timeout): Future[PreparedStatement] = {
+    underlying.prepare(sql, statementOptions).map { prepared =>
+      new DelegatingPreparedStatement(prepared, sql, statementOptions, this)
+    }
+  }
+
+  def prepare(sql: String)(implicit timeout: Timeout): Future[PreparedStatement] = {
+    underlying.prepare(sql).map { prepared =>
+      new DelegatingPreparedStatement(prepared, sql, StatementOptions.Default, this)
+    }
+  }
+
+  def statement(sqlWithParams: SqlWithParams, statementOptions: StatementOptions): ExecutableStatement = {
+    wrapExecutable(
+      underlying.statement(sqlWithParams, statementOptions),
+      sqlWithParams.sql, statementOptions, sqlWithParams.params.toVector
+    )
+  }
+
+  def statement(sqlWithParams: SqlWithParams): ExecutableStatement = {
+    wrapExecutable(
+      underlying.statement(sqlWithParams),
+      sqlWithParams.sql, StatementOptions.Default, sqlWithParams.params.toVector
+    )
+  }
+
+  def watchForIdle: Future[Unit] = underlying.watchForIdle
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import io.rdbc.sapi._
+import io.rdbc.{ImmutIndexedSeq, ImmutSeq}
+import org.reactivestreams.Publisher
+
+import scala.concurrent.Future
+
+/** A statement of a [[DelegatingConnection]] */
+private[cache] class DelegatingStatement(underlying: Statement,
+                                         sql: String,
+                                         options: StatementOptions,
+                                         conn: DelegatingConnection)
+  extends Statement {
+
+  def bind(args: (String, Any)*): ExecutableStatement = {
+    conn.wrapExecutable(underlying.bind(args: _*), sql, options, args.toMap)
+  }
+
+  def bindByIdx(args: Any*): ExecutableStatement = {
+    conn.wrapExecutable(underlying.bindByIdx(args: _*), sql, options, args.toVector)
+  }
+
+  def noArgs: ExecutableStatement = {
+    conn.wrapExecutable(underlying.noArgs, sql, options, Vector.empty)
+  }
+
+  def streamArgs(argsPublisher: Publisher[_ <: Map[String, Any]]): Future[Unit] = {
+    conn.writing(options, underlying.streamArgs(argsPublisher))
+  }
+
+  def streamArgsByIdx(argsPublisher: Publisher[_ <: ImmutIndexedSeq[Any]]): Future[Unit] = {
+    conn.writing(options, underlying.streamArgsByIdx(argsPublisher))
+  }
+
+  def executeBatch(args: ImmutSeq[Map[String, Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    conn.writing(options, underlying.executeBatch(args))
+  }
+
+  def executeBatchByIdx(args: ImmutSeq[ImmutIndexedSeq[Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    conn.writing(options, underlying.executeBatchByIdx(args))
+  }
+}
+
+private[cache] class DelegatingPreparedStatement(underlying: PreparedStatement,
+                                                 sql: String,
+                                                 options: StatementOptions,
+                                                 conn: DelegatingConnection)
+  extends DelegatingStatement(underlying, sql, options, conn)
+    with PreparedStatement {
+
+  def metadata: Option[RowMetadata] = underlying.metadata
+
+  def close(): Future[Unit] = underlying.close()
+}
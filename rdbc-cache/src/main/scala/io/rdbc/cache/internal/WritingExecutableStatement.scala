@@ -0,0 +1,73 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache.internal
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.sapi._
+
+import scala.concurrent.Future
+import scala.reflect.ClassTag
+
+/** An executable statement passing results of all executions through
+  * [[DelegatingConnection.writing]] of its connection.
+  */
+private[cache] class WritingExecutableStatement(underlying: ExecutableStatement,
+                                                options: StatementOptions,
+                                                conn: DelegatingConnection)
+  extends ExecutableStatement {
+
+  def stream()(implicit timeout: Timeout): RowPublisher = {
+    val publisher = underlying.stream()
+    conn.writing(options, publisher.done)
+    publisher
+  }
+
+  def executeForSet()(implicit timeout: Timeout): Future[ResultSet] = {
+    writing(underlying.executeForSet())
+  }
+
+  def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]] = {
+    writing(underlying.executeForSetAs[A]())
+  }
+
+  def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet] = {
+    writing(underlying.executeForColumns())
+  }
+
+  def execute()(implicit timeout: Timeout): Future[Unit] = {
+    writing(underlying.execute())
+  }
+
+  def executeForRowsAffected()(implicit timeout: Timeout): Future[Long] = {
+    writing(underlying.executeForRowsAffected())
+  }
+
+  def executeForFirstRow()(implicit timeout: Timeout): Future[Option[Row]] = {
+    writing(underlying.executeForFirstRow())
+  }
+
+  def executeForValue[A](valExtractor: Row => A)
+                        (implicit timeout: Timeout): Future[Option[A]] = {
+    writing(underlying.executeForValue(valExtractor))
+  }
+
+  def executeForKey[K: ClassTag]()(implicit timeout: Timeout): Future[K] = {
+    writing(underlying.executeForKey[K]())
+  }
+
+  private def writing[A](result: Future[A]): Future[A] = conn.writing(options, result)
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import io.rdbc.sapi._
+import io.rdbc.testkit.{TestConnFact, TestRow}
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+
+class CachingConnectionFactorySpec
+  extends RdbcCacheSpec
+    with Eventually {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout(10.seconds)
+
+  private val users = StatementOptions.Default.copy(tables = Set("users"))
+
+  "CachingConnectionFactory" should {
+
+    "cache results of reads with the same SQL and arguments" in {
+      val fact = new TestConnFact
+      val cache = newCache()
+      val conn = CachingConnectionFactory(fact, cache).connection().get
+
+      conn.statement("select", users).bind("id" -> 1).executeForSet().get
+      eventually {
+        cache.stats.size shouldBe 1
+      }
+      conn.statement("select", users).bind("id" -> 1).executeForSet().get
+      conn.statement("select", users).bind("id" -> 2).executeForSet().get
+
+      fact.reads.get shouldBe 2
+    }
+
+    "not cache statements that don't declare tables" in {
+      val fact = new TestConnFact
+      val conn = CachingConnectionFactory(fact, newCache()).connection().get
+
+      conn.statement("select").noArgs.executeForSet().get
+      conn.statement("select").noArgs.executeForSet().get
+
+      fact.reads.get shouldBe 2
+    }
+
+    "serve values from cached first rows" in {
+      val fact = new TestConnFact
+      fact.rows = Vector(new TestRow(Vector("id" -> 1L)))
+      val cache = newCache()
+      val conn = CachingConnectionFactory(fact, cache).connection().get
+
+      conn.statement("select", users).noArgs.executeForFirstRow().get
+      eventually {
+        cache.stats.size shouldBe 1
+      }
+      conn.statement("select", users).noArgs.executeForValue(_ => "value").get shouldBe Some("value")
+
+      fact.reads.get shouldBe 1
+    }
+
+    "invalidate results of reads after writes to the same tables" in {
+      val fact = new TestConnFact
+      val cache = newCache()
+      val conn = CachingConnectionFactory(fact, cache).connection().get
+
+      conn.statement("select", users).noArgs.executeForSet().get
+      eventually {
+        cache.stats.size shouldBe 1
+      }
+      conn.statement("update", users).noArgs.execute().get
+      eventually {
+        cache.stats.size shouldBe 0
+      }
+      conn.statement("select", users).noArgs.executeForSet().get
+
+      fact.reads.get shouldBe 2
+    }
+
+    "not serve cached results to reads chained after writes" in {
+      val fact = new TestConnFact
+      val cache = newCache()
+      val conn = CachingConnectionFactory(fact, cache).connection().get
+
+      conn.statement("select", users).noArgs.executeForSet().get
+      eventually {
+        cache.stats.size shouldBe 1
+      }
+      conn.statement("update", users).noArgs.execute().flatMap { _ =>
+        conn.statement("select", users).noArgs.executeForSet()
+      }.get
+
+      fact.reads.get shouldBe 2
+    }
+
+    "bypass the cache in transactions" in {
+      val fact = new TestConnFact
+      val conn = CachingConnectionFactory(fact, newCache()).connection().get
+
+      conn.withTransaction {
+        conn.statement("select", users).noArgs.executeForSet().flatMap { _ =>
+          conn.statement("select", users).noArgs.executeForSet()
+        }
+      }.get
+
+      fact.reads.get shouldBe 2
+    }
+  }
+
+  private def newCache() = new ResultCache(ResultCacheConfig.Default)
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import io.rdbc.sapi._
+import io.rdbc.testkit.TestConnFact
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future, Promise}
+
+class CoalescingConnectionFactorySpec extends RdbcCacheSpec {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout(10.seconds)
+
+  private val readOnly = StatementOptions.Default.copy(readOnly = true)
+
+  "CoalescingConnectionFactory" should {
+
+    "let concurrent identical reads share one execution" in {
+      val promise = Promise[ResultSet]
+      val fact = newFact(promise.future)
+      val coalescing = CoalescingConnectionFactory(fact)
+      val conn1 = coalescing.connection().get
+      val conn2 = coalescing.connection().get
+
+      val res1 = conn1.statement("select", readOnly).bind("id" -> 1).executeForSet()
+      val res2 = conn2.statement("select", readOnly).bind("id" -> 1).executeForSet()
+      coalescing.inFlight.size shouldBe 1
+
+      promise.success(TestConnFact.resultSet())
+      res1.get shouldBe res2.get
+
+      fact.reads.get shouldBe 1
+      coalescing.inFlight.stats shouldBe InFlightReads.Stats(started = 1L, joined = 1L)
+    }
+
+    "not coalesce reads with different arguments" in {
+      val promise = Promise[ResultSet]
+      val fact = newFact(promise.future)
+      val conn = CoalescingConnectionFactory(fact).connection().get
+
+      val res1 = conn.statement("select", readOnly).bind("id" -> 1).executeForSet()
+      val res2 = conn.statement("select", readOnly).bind("id" -> 2).executeForSet()
+
+      promise.success(TestConnFact.resultSet())
+      res1.get
+      res2.get
+
+      fact.reads.get shouldBe 2
+    }
+
+    "not coalesce statements that aren't read only" in {
+      val promise = Promise[ResultSet]
+      val fact = newFact(promise.future)
+      val coalescing = CoalescingConnectionFactory(fact)
+      val conn = coalescing.connection().get
+
+      val res1 = conn.statement("select").noArgs.executeForSet()
+      val res2 = conn.statement("select").noArgs.executeForSet()
+
+      promise.success(TestConnFact.resultSet())
+      res1.get
+      res2.get
+
+      fact.reads.get shouldBe 2
+      coalescing.inFlight.stats shouldBe InFlightReads.Stats(started = 0L, joined = 0L)
+    }
+
+    "forget executions as soon as they complete" in {
+      val fact = new TestConnFact
+      val coalescing = CoalescingConnectionFactory(fact)
+      val conn = coalescing.connection().get
+
+      conn.statement("select", readOnly).noArgs.executeForSet().get
+      conn.statement("select", readOnly).noArgs.executeForSet().get
+
+      fact.reads.get shouldBe 2
+      coalescing.inFlight.size shouldBe 0
+    }
+
+    "not let reads join executions started before the connection's last write" in {
+      val promise = Promise[ResultSet]
+      val fact = newFact(promise.future)
+      val coalescing = CoalescingConnectionFactory(fact)
+      val conn1 = coalescing.connection().get
+      val conn2 = coalescing.connection().get
+
+      val res1 = conn1.statement("select", readOnly).noArgs.executeForSet()
+      conn2.statement("update").noArgs.execute().get
+      val res2 = conn2.statement("select", readOnly).noArgs.executeForSet()
+      val res3 = conn1.statement("select", readOnly).noArgs.executeForSet()
+
+      promise.success(TestConnFact.resultSet())
+      res1.get
+      res2.get
+      res3.get
+
+      fact.reads.get shouldBe 2
+      coalescing.inFlight.stats shouldBe InFlightReads.Stats(started = 2L, joined = 1L)
+    }
+
+    "not coalesce reads in transactions" in {
+      val promise = Promise[ResultSet]
+      val fact = newFact(promise.future)
+      val coalescing = CoalescingConnectionFactory(fact)
+      val conn = coalescing.connection().get
+
+      val res = conn.withTransaction {
+        val res1 = conn.statement("select", readOnly).noArgs.executeForSet()
+        val res2 = conn.statement("select", readOnly).noArgs.executeForSet()
+        promise.success(TestConnFact.resultSet())
+        res1.flatMap(_ => res2)
+      }
+      res.get
+
+      fact.reads.get shouldBe 2
+      coalescing.inFlight.stats.started shouldBe 0L
+    }
+  }
+
+  private def newFact(result: => Future[ResultSet]): TestConnFact = {
+    val fact = new TestConnFact
+    fact.result = () => result
+    fact
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.cache
+
+import io.rdbc.cache.ResultCache.{Key, ResultKind}
+import io.rdbc.sapi.{ColumnMetadata, ResultSet, RowMetadata, StatementOptions}
+import io.rdbc.testkit.TestRow
+
+import scala.concurrent.duration._
+
+class ResultCacheSpec extends RdbcCacheSpec {
+
+  private val config = ResultCacheConfig(maxWeight = 10000L, ttl = 1.hour, bytesPerValue = 10)
+  private val usersOpts = StatementOptions.Default.copy(tables = Set("users"))
+  private val ordersOpts = StatementOptions.Default.copy(tables = Set("orders"))
+
+  private def key(sql: String, opts: StatementOptions = usersOpts, args: Any = Vector.empty) = {
+    Key(ResultKind.Set, sql, opts, args)
+  }
+
+  "ResultCache" should {
+
+    "return cached values by SQL and arguments" in {
+      val cache = new ResultCache(config)
+      cache.put(key("q", args = Vector(1)), "v1", 100L, cache.currentGeneration)
+
+      cache.get(key("q", args = Vector(1))) shouldBe Some("v1")
+      cache.get(key("q", args = Vector(2))) shouldBe empty
+      cache.stats.hits shouldBe 1L
+      cache.stats.misses shouldBe 1L
+    }
+
+    "evict values not recently used when over the weight limit" in {
+      val cache = new ResultCache(config)
+      (1 to 6).foreach(i => cache.put(key(s"q$i"), i, 1500L, cache.currentGeneration))
+      cache.get(key("q1"))
+      cache.put(key("q7"), 7, 1500L, cache.currentGeneration)
+
+      cache.get(key("q1")) shouldBe Some(1)
+      cache.stats.evictions shouldBe 1L
+      cache.stats.size shouldBe 6
+      cache.stats.weight should be <= config.maxWeight
+    }
+
+    "not cache values heavier than the limit" in {
+      val cache = new ResultCache(config)
+      cache.put(key("q"), "v", config.maxWeight + 1L, cache.currentGeneration)
+
+      cache.stats.size shouldBe 0
+    }
+
+    "expire values after TTL" in {
+      val cache = new ResultCache(config.copy(ttl = 1.milli))
+      cache.put(key("q"), "v", 100L, cache.currentGeneration)
+      Thread.sleep(10L)
+
+      cache.get(key("q")) shouldBe empty
+      cache.stats.size shouldBe 0
+    }
+
+    "invalidate values tagged with given tables only once" in {
+      val cache = new ResultCache(config)
+      cache.put(key("u"), "u", 100L, cache.currentGeneration)
+      cache.invalidate("users")
+      cache.put(key("u"), "u", 100L, cache.currentGeneration)
+      cache.invalidate("users")
+
+      cache.get(key("u")) shouldBe empty
+      cache.stats.invalidations shouldBe 2L
+      cache.stats.weight shouldBe 0L
+    }
+
+    "weigh strings and byte arrays by their length" in {
+      val cache = new ResultCache(config)
+      val md = RowMetadata(Vector(ColumnMetadata("s", "text"), ColumnMetadata("b", "bytea")))
+      def weigh(str: String, bytes: Array[Byte]): Long = {
+        cache.weighSet(new ResultSet(0L, Vector.empty, md, Vector(new TestRow(Vector("s" -> str, "b" -> bytes)))))
+      }
+
+      weigh("a" * 1000, Array.emptyByteArray) - weigh("", Array.emptyByteArray) shouldBe 2000L
+      weigh("", new Array[Byte](1000000)) - weigh("", Array.emptyByteArray) shouldBe 1000000L
+    }
+
+    "weigh first rows by all their values" in {
+      val cache = new ResultCache(config)
+      val narrow = cache.weighFirstRow(Some(new TestRow(Vector("a" -> 1L))))
+      val wide = cache.weighFirstRow(Some(new TestRow(Vector("a" -> 1L, "b" -> 2L, "c" -> "a" * 100))))
+
+      wide - narrow shouldBe config.bytesPerValue + 40L + 200L
+      cache.weighFirstRow(None) should be < narrow
+    }
+
+    "invalidate values tagged with given tables" in {
+      val cache = new ResultCache(config)
+      cache.put(key("u"), "u", 100L, cache.currentGeneration)
+      cache.put(key("o", ordersOpts), "o", 100L, cache.currentGeneration)
+      cache.invalidate("users")
+
+      cache.get(key("u")) shouldBe empty
+      cache.get(key("o", ordersOpts)) shouldBe Some("o")
+      cache.stats.invalidations shouldBe 1L
+    }
+
+    "not cache values of executions started before an invalidation of their tables" in {
+      val cache = new ResultCache(config)
+      val generation = cache.currentGeneration
+      cache.invalidate("users")
+      cache.put(key("q"), "v", 100L, generation)
+
+      cache.get(key("q")) shouldBe empty
+    }
+
+    "cache values of executions started before an invalidation of other tables" in {
+      val cache = new ResultCache(config)
+      val generation = cache.currentGeneration
+      cache.invalidate("orders")
+      cache.put(key("q"), "v", 100L, generation)
+
+      cache.get(key("q")) shouldBe Some("v")
+    }
+
+    "not cache values of executions started before invalidating all values" in {
+      val cache = new ResultCache(config)
+      val generation = cache.currentGeneration
+      cache.invalidateAll()
+      cache.put(key("q", ordersOpts), "v", 100L, generation)
+
+      cache.get(key("q", ordersOpts)) shouldBe empty
+    }
+  }
+}
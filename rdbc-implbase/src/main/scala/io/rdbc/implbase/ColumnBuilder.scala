@@ -0,0 +1,265 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util
+
+import io.rdbc.sapi.Column
+import io.rdbc.sapi.Column._
+
+/** Builds a [[io.rdbc.sapi.Column Column]] from values appended one by one.
+  *
+  * The column representation is chosen based on the type of the first
+  * non-null value. If a value of another type is appended later,
+  * the column falls back to the object representation.
+  */
+private[implbase] class ColumnBuilder {
+  private val nulls = new util.BitSet
+  private var size = 0
+  private var values: ValuesBuilder = _
+
+  def append(value: Option[Any]): Unit = {
+    value match {
+      case Some(v) =>
+        if (values == null) {
+          values = ValuesBuilder.forValue(v, size)
+        }
+        if (!values.append(v)) {
+          values = values.toObjects
+          values.append(v)
+        }
+
+      case None =>
+        nulls.set(size)
+        if (values != null) {
+          values.appendNull()
+        }
+    }
+    size += 1
+  }
+
+  def result(): Column = {
+    if (values == null) {
+      new ObjectColumn(new Array[AnyRef](size), nulls)
+    } else {
+      values.result(nulls)
+    }
+  }
+}
+
+private[implbase] object ValuesBuilder {
+  private val InitialCapacity = 16
+
+  def forValue(value: Any, leadingNulls: Int): ValuesBuilder = {
+    val builder = value match {
+      case _: Int | _: Short | _: Byte => new IntValuesBuilder
+      case _: Long => new LongValuesBuilder
+      case _: Double | _: Float => new DoubleValuesBuilder
+      case _: String => new StringValuesBuilder
+      case _ => new ObjectValuesBuilder
+    }
+    (0 until leadingNulls).foreach(_ => builder.appendNull())
+    builder
+  }
+
+  def newCapacity(capacity: Int): Int = {
+    math.max(capacity * 2, InitialCapacity)
+  }
+}
+
+private[implbase] sealed abstract class ValuesBuilder {
+  protected var size = 0
+
+  /** Appends a value returning false if the value type is not supported */
+  def append(value: Any): Boolean
+
+  def appendNull(): Unit
+
+  def result(nulls: util.BitSet): Column
+
+  def toObjects: ValuesBuilder = {
+    val objects = new ObjectValuesBuilder
+    (0 until size).foreach(i => objects.append(boxed(i)))
+    objects
+  }
+
+  protected def boxed(idx: Int): AnyRef
+}
+
+private[implbase] class IntValuesBuilder extends ValuesBuilder {
+  private var values = new Array[Int](0)
+
+  def append(value: Any): Boolean = {
+    value match {
+      case v: Int => add(v); true
+      case v: Short => add(v.toInt); true
+      case v: Byte => add(v.toInt); true
+      case _ => false
+    }
+  }
+
+  def appendNull(): Unit = add(0)
+
+  private def add(v: Int): Unit = {
+    if (size == values.length) {
+      values = util.Arrays.copyOf(values, ValuesBuilder.newCapacity(size))
+    }
+    values(size) = v
+    size += 1
+  }
+
+  def result(nulls: util.BitSet): Column = {
+    new IntColumn(util.Arrays.copyOf(values, size), nulls)
+  }
+
+  protected def boxed(idx: Int): AnyRef = Int.box(values(idx))
+}
+
+private[implbase] class LongValuesBuilder extends ValuesBuilder {
+  private var values = new Array[Long](0)
+
+  def append(value: Any): Boolean = {
+    value match {
+      case v: Long => add(v); true
+      case _ => false
+    }
+  }
+
+  def appendNull(): Unit = add(0L)
+
+  private def add(v: Long): Unit = {
+    if (size == values.length) {
+      values = util.Arrays.copyOf(values, ValuesBuilder.newCapacity(size))
+    }
+    values(size) = v
+    size += 1
+  }
+
+  def result(nulls: util.BitSet): Column = {
+    new LongColumn(util.Arrays.copyOf(values, size), nulls)
+  }
+
+  protected def boxed(idx: Int): AnyRef = Long.box(values(idx))
+}
+
+private[implbase] class DoubleValuesBuilder extends ValuesBuilder {
+  private var values = new Array[Double](0)
+
+  def append(value: Any): Boolean = {
+    value match {
+      case v: Double => add(v); true
+      case v: Float => add(v.toDouble); true
+      case _ => false
+    }
+  }
+
+  def appendNull(): Unit = add(0.0)
+
+  private def add(v: Double): Unit = {
+    if (size == values.length) {
+      values = util.Arrays.copyOf(values, ValuesBuilder.newCapacity(size))
+    }
+    values(size) = v
+    size += 1
+  }
+
+  def result(nulls: util.BitSet): Column = {
+    new DoubleColumn(util.Arrays.copyOf(values, size), nulls)
+  }
+
+  protected def boxed(idx: Int): AnyRef = Double.box(values(idx))
+}
+
+private[implbase] class StringValuesBuilder extends ValuesBuilder {
+  private val codesByValue = new util.HashMap[String, Integer]
+  private var dictionary = new Array[String](0)
+  private var dictionarySize = 0
+  private var codes = new Array[Int](0)
+
+  def append(value: Any): Boolean = {
+    value match {
+      case v: String =>
+        val existing = codesByValue.get(v)
+        if (existing != null) {
+          add(existing)
+        } else {
+          add(addToDictionary(v))
+        }
+        true
+
+      case _ => false
+    }
+  }
+
+  def appendNull(): Unit = add(0)
+
+  private def addToDictionary(v: String): Int = {
+    if (dictionarySize == dictionary.length) {
+      dictionary = util.Arrays.copyOf(dictionary, ValuesBuilder.newCapacity(dictionarySize))
+    }
+    val code = dictionarySize
+    dictionary(code) = v
+    codesByValue.put(v, code)
+    dictionarySize += 1
+    code
+  }
+
+  private def add(code: Int): Unit = {
+    if (size == codes.length) {
+      codes = util.Arrays.copyOf(codes, ValuesBuilder.newCapacity(size))
+    }
+    codes(size) = code
+    size += 1
+  }
+
+  def result(nulls: util.BitSet): Column = {
+    new StringColumn(
+      util.Arrays.copyOf(dictionary, dictionarySize),
+      util.Arrays.copyOf(codes, size),
+      nulls
+    )
+  }
+
+  protected def boxed(idx: Int): AnyRef = dictionary(codes(idx))
+}
+
+private[implbase] class ObjectValuesBuilder extends ValuesBuilder {
+  private var values = new Array[AnyRef](0)
+
+  def append(value: Any): Boolean = {
+    add(value.asInstanceOf[AnyRef])
+    true
+  }
+
+  def appendNull(): Unit = add(null)
+
+  private def add(v: AnyRef): Unit = {
+    if (size == values.length) {
+      values = util.Arrays.copyOf(values, ValuesBuilder.newCapacity(size))
+    }
+    values(size) = v
+    size += 1
+  }
+
+  def result(nulls: util.BitSet): Column = {
+    new ObjectColumn(util.Arrays.copyOf(values, size), nulls)
+  }
+
+  override def toObjects: ValuesBuilder = this
+
+  protected def boxed(idx: Int): AnyRef = values(idx)
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+import io.rdbc._
+import io.rdbc.sapi.{Column, Row, RowMetadata}
+import io.rdbc.util.Preconditions.checkNotNull
+import org.reactivestreams.{Subscriber, Subscription}
+
+import scala.concurrent.{ExecutionContext, Future, Promise}
+import scala.reflect.ClassTag
+import scala.util.{Failure, Success}
+
+/** Collects all rows into columns.
+  *
+  * Row values are moved to column builders as rows arrive. Column count is
+  * taken from `metadata`; rows that arrive before the metadata is known
+  * are buffered and moved to the builders, in arrival order, as soon as
+  * the metadata becomes available.
+  */
+class ColumnsSubscriber(metadata: Future[RowMetadata])
+                       (implicit ec: ExecutionContext) extends Subscriber[Row] {
+  private val promise = Promise[(Int, ImmutIndexedSeq[Column])]
+  private var builders: Vector[ColumnBuilder] = _
+  private var pending = new RowBuffer
+  private var rowCount = 0
+
+  private val subscribed = new AtomicBoolean(false)
+
+  /** Number of rows and the collected columns */
+  val columns: Future[(Int, ImmutIndexedSeq[Column])] = promise.future
+
+  override def onError(t: Throwable): Unit = {
+    checkNotNull(t)
+    promise.tryFailure(t)
+    ()
+  }
+
+  override def onSubscribe(s: Subscription): Unit = {
+    checkNotNull(s)
+    if (subscribed.compareAndSet(false, true)) {
+      s.request(Long.MaxValue)
+    } else {
+      s.cancel()
+    }
+  }
+
+  override def onComplete(): Unit = {
+    metadata.onComplete {
+      case Success(md) =>
+        initBuilders(md)
+        promise.trySuccess((rowCount, builders.map(_.result())))
+
+      case Failure(ex) => promise.tryFailure(ex)
+    }
+  }
+
+  override def onNext(row: Row): Unit = {
+    checkNotNull(row)
+    if (builders == null) {
+      metadata.value.foreach(_.foreach(initBuilders))
+    }
+    if (builders == null) {
+      pending.append(row)
+    } else {
+      addRow(row)
+    }
+  }
+
+  private def initBuilders(md: RowMetadata): Unit = {
+    if (builders == null) {
+      builders = Vector.fill(md.columns.size)(new ColumnBuilder)
+      pending.result().foreach(addRow)
+      pending = null
+    }
+  }
+
+  private def addRow(row: Row): Unit = {
+    var i = 0
+    while (i < builders.size) {
+      builders(i).append(row.colOpt[Any](i)(ClassTag.Any))
+      i += 1
+    }
+    rowCount += 1
+  }
+}
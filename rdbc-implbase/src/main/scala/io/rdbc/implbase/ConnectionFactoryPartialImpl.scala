@@ -22,6 +22,7 @@ import io.rdbc.util.Logging
 import io.rdbc.util.Preconditions.checkNotNull
 
 import scala.concurrent.{ExecutionContext, Future}
+import scala.util.{Failure, Success}
 
 trait ConnectionFactoryPartialImpl
   extends ConnectionFactory
@@ -29,11 +30,40 @@ trait ConnectionFactoryPartialImpl
 
   implicit protected def ec: ExecutionContext
 
+  /** Listener of events of this factory, its connections and statements.
+    *
+    * Drivers should accept the listener when the factory is created, return
+    * it from this method and pass it down to connections extending
+    * [[ConnectionPartialImpl]] and statements extending
+    * [[ExecutableStatementPartialImpl]], so that a single listener receives
+    * all events. The factory itself reports connection acquisitions done
+    * by `withConnection`.
+    */
+  def metrics: RdbcMetrics = RdbcMetrics.Disabled
+
+  /** Interceptors of statements executed using connections of this factory.
+    *
+    * Drivers should accept the chain when the factory is created, return it
+    * from this method and pass it down to statements extending
+    * [[ExecutableStatementPartialImpl]], like the `metrics` listener.
+    */
+  def interceptors: StatementInterceptors = StatementInterceptors.Empty
+
   override def withConnection[A](body: Connection => Future[A])
                                 (implicit timeout: Timeout): Future[A] = {
     checkNotNull(body)
     checkNotNull(timeout)
-    connection().flatMap { conn =>
+    val m = metrics
+    val acquired = if (m.enabled) {
+      val start = System.nanoTime()
+      connection().andThen {
+        case Success(_) => m.connectionAcquired(System.nanoTime() - start)
+        case Failure(ex) => m.connectionAcquireFailed(System.nanoTime() - start, ex)
+      }
+    } else {
+      connection()
+    }
+    acquired.flatMap { conn =>
       body(conn).andThenF { case _ =>
         conn.release()
       }
@@ -22,18 +22,31 @@ import io.rdbc.implbase.Compat._
 import io.rdbc.util.Preconditions.checkNotNull
 
 import scala.concurrent.{ExecutionContext, Future}
-import scala.util.{Failure, Success}
+import scala.util.{Failure, Success, Try}
 
+/** Partial implementation of [[io.rdbc.sapi.Connection Connection]].
+  *
+  * Drivers wanting to reuse statements created for the same SQL can mix in
+  * [[StatementCachingPartialImpl]].
+  */
 trait ConnectionPartialImpl
   extends Connection
     with Logging {
 
   implicit protected def ec: ExecutionContext
 
+  /** Listener of transactions executed by `withTransaction`. Drivers should
+    * override it to return the listener of the connection factory, see
+    * [[ConnectionFactoryPartialImpl.metrics]].
+    */
+  protected def metrics: RdbcMetrics = RdbcMetrics.Disabled
+
   override def withTransaction[A](body: => Future[A])
                                  (implicit timeout: Timeout): Future[A] = {
     checkNotNull(timeout)
-    beginTx().transformWith {
+    val m = metrics
+    val start = if (m.enabled) System.nanoTime() else 0L
+    val result = beginTx().transformWith {
       case Success(_) =>
         body.transformWith {
           case Success(res) => commitTx().map(_ => res)
@@ -48,6 +61,12 @@ trait ConnectionPartialImpl
 
       case Failure(ex) => Future.failed(ex)
     }
+    if (m.enabled) {
+      result.onComplete { res =>
+        m.transactionCompleted(System.nanoTime() - start, committed = res.isSuccess)
+      }
+    }
+    result
   }
 
   override def statement(sql: String): Statement = {
@@ -60,6 +79,27 @@ trait ConnectionPartialImpl
     statement(sqlWithParams, StatementOptions.Default)
   }
 
+  override def prepare(sql: String)(implicit timeout: Timeout): Future[PreparedStatement] = {
+    checkNotNull(sql)
+    checkNotNull(timeout)
+    prepare(sql, StatementOptions.Default)
+  }
+
+  /** Prepares a SQL statement.
+    *
+    * The default implementation doesn't prepare the statement on the server
+    * side, it returns a [[io.rdbc.sapi.PreparedStatement PreparedStatement]]
+    * delegating to a statement returned by `statement` method. Drivers
+    * supporting server-side prepared statements should override it.
+    */
+  override def prepare(sql: String, statementOptions: StatementOptions)
+                      (implicit timeout: Timeout): Future[PreparedStatement] = {
+    checkNotNull(sql)
+    checkNotNull(statementOptions)
+    checkNotNull(timeout)
+    Future.fromTry(Try(new DelegatingPreparedStatement(statement(sql, statementOptions))))
+  }
+
   override def statement(
                           sqlWithParams: SqlWithParams,
                           statementOptions: StatementOptions
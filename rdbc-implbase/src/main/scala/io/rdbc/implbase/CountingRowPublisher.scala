@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.ImmutSeq
+import io.rdbc.sapi.{Row, RowMetadata, RowPublisher, Warning}
+import org.reactivestreams.{Subscriber, Subscription}
+
+import scala.concurrent.Future
+
+/** A [[RowPublisher]] counting rows its subscriber receives */
+private[implbase] class CountingRowPublisher(underlying: RowPublisher) extends RowPublisher {
+
+  @volatile private var count = 0L
+
+  def rowsStreamed: Long = count
+
+  def rowsAffected: Future[Long] = underlying.rowsAffected
+
+  def warnings: Future[ImmutSeq[Warning]] = underlying.warnings
+
+  def metadata: Future[RowMetadata] = underlying.metadata
+
+  def done: Future[Unit] = underlying.done
+
+  def subscribe(s: Subscriber[_ >: Row]): Unit = {
+    underlying.subscribe(new Subscriber[Row] {
+      def onSubscribe(subscription: Subscription): Unit = s.onSubscribe(subscription)
+
+      def onNext(row: Row): Unit = {
+        /* onNext calls are serialized, so there are no concurrent updates */
+        count += 1L
+        s.onNext(row)
+      }
+
+      def onError(t: Throwable): Unit = s.onError(t)
+
+      def onComplete(): Unit = s.onComplete()
+    })
+  }
+}
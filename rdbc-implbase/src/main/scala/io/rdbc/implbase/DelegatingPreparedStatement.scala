@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.IllegalSessionStateException
+import io.rdbc.{ImmutIndexedSeq, ImmutSeq}
+import org.reactivestreams.Publisher
+
+import scala.concurrent.Future
+
+/** A [[io.rdbc.sapi.PreparedStatement PreparedStatement]] delegating to
+  * a regular statement.
+  *
+  * This is what [[ConnectionPartialImpl]] returns from `prepare` by default,
+  * for drivers that don't prepare statements on the server side. It doesn't
+  * provide row metadata and closing it only prevents further use.
+  */
+private[implbase] class DelegatingPreparedStatement(underlying: Statement)
+  extends PreparedStatement {
+
+  private val closed = new AtomicBoolean(false)
+
+  val metadata: Option[RowMetadata] = None
+
+  def close(): Future[Unit] = {
+    closed.set(true)
+    Future.successful(())
+  }
+
+  def bind(args: (String, Any)*): ExecutableStatement = {
+    checkOpen()
+    underlying.bind(args: _*)
+  }
+
+  def bindByIdx(args: Any*): ExecutableStatement = {
+    checkOpen()
+    underlying.bindByIdx(args: _*)
+  }
+
+  def noArgs: ExecutableStatement = {
+    checkOpen()
+    underlying.noArgs
+  }
+
+  def streamArgs(argsPublisher: Publisher[_ <: Map[String, Any]]): Future[Unit] = {
+    ifOpen(underlying.streamArgs(argsPublisher))
+  }
+
+  def streamArgsByIdx(argsPublisher: Publisher[_ <: ImmutIndexedSeq[Any]]): Future[Unit] = {
+    ifOpen(underlying.streamArgsByIdx(argsPublisher))
+  }
+
+  def executeBatch(args: ImmutSeq[Map[String, Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    ifOpen(underlying.executeBatch(args))
+  }
+
+  def executeBatchByIdx(args: ImmutSeq[ImmutIndexedSeq[Any]])
+                       (implicit timeout: Timeout): Future[Array[Long]] = {
+    ifOpen(underlying.executeBatchByIdx(args))
+  }
+
+  private def checkOpen(): Unit = {
+    if (closed.get()) {
+      throw closedException
+    }
+  }
+
+  private def ifOpen[A](body: => Future[A]): Future[A] = {
+    if (closed.get()) Future.failed(closedException)
+    else body
+  }
+
+  private def closedException: IllegalSessionStateException = {
+    new IllegalSessionStateException(s"Prepared statement $underlying has been closed")
+  }
+
+  override def toString: String = s"prepared-$underlying"
+}
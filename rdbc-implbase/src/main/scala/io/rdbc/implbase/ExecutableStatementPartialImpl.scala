@@ -16,19 +16,81 @@
 
 package io.rdbc.implbase
 
+import io.rdbc.ImmutIndexedSeq
 import io.rdbc.sapi._
 import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, NoKeysReturnedException}
 import io.rdbc.util.Preconditions.checkNotNull
 
 import scala.concurrent.{ExecutionContext, Future}
 import scala.reflect.ClassTag
+import scala.util.{Failure, Success}
 
 trait ExecutableStatementPartialImpl extends ExecutableStatement {
   implicit protected def ec: ExecutionContext
 
+  /** Listener of statement executions. Drivers should override it to return
+    * the listener of the connection factory, see
+    * [[ConnectionFactoryPartialImpl.metrics]].
+    *
+    * Executions are measured as callers see them, outside of interceptors,
+    * so executions completed by an interceptor are reported too.
+    */
+  protected def metrics: RdbcMetrics = RdbcMetrics.Disabled
+
+  /** Interceptors of `stream`, `executeForSet` and `executeForRowsAffected`.
+    * `executeForColumns` and `executeForFirstRow` are intercepted as streams.
+    * Drivers should override it to return interceptors of the connection
+    * factory, see [[ConnectionFactoryPartialImpl.interceptors]].
+    */
+  protected def interceptors: StatementInterceptors = StatementInterceptors.Empty
+
+  /** SQL of the statement as given by the user, used for diagnostics like
+    * the [[SlowQueryLog]].
+    */
+  def statementSql: String
+
+  /** Executes the statement and streams its result.
+    *
+    * Drivers implement this method instead of `stream`, which passes
+    * executions through interceptors before calling it. Other executing
+    * methods call it directly, so each execution is intercepted once.
+    */
+  protected def executeStream()(implicit timeout: Timeout): RowPublisher
+
+  /** Streams the statement's result. Executions are measured from this call
+    * to the publisher's `done` completion.
+    */
+  override def stream()(implicit timeout: Timeout): RowPublisher = {
+    checkNotNull(timeout)
+    val m = metrics
+    if (m.enabled) {
+      val start = System.nanoTime()
+      val publisher = new CountingRowPublisher(interceptors.head.stream(this))
+      val result = publisher.done.flatMap(_ => publisher.rowsAffected)
+      measured(m, start, result)(_ => publisher.rowsStreamed, identity)
+      publisher
+    } else {
+      interceptors.head.stream(this)
+    }
+  }
+
+  private[implbase] def streamUnintercepted()(implicit timeout: Timeout): RowPublisher = {
+    executeStream()
+  }
+
+  private[implbase] def streamLimitedUnintercepted(maxRows: Long)(implicit timeout: Timeout): RowPublisher = {
+    streamLimited(maxRows)
+  }
+
   override def executeForSet()(implicit timeout: Timeout): Future[ResultSet] = {
     checkNotNull(timeout)
-    val resultStream = stream()
+    val m = metrics
+    val start = startTime(m)
+    measured(m, start, interceptors.head.executeForSet(this))(_.rows.size.toLong, _.rowsAffected)
+  }
+
+  private[implbase] def executeForSetUnintercepted()(implicit timeout: Timeout): Future[ResultSet] = {
+    val resultStream = executeStream()
     val subscriber = new HeadSubscriber(None)
     resultStream.subscribe(subscriber)
     for {
@@ -46,6 +108,38 @@ trait ExecutableStatementPartialImpl extends ExecutableStatement {
     }
   }
 
+  override def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]] = {
+    checkNotNull(timeout)
+    executeForSet().map { rs =>
+      val decode = RowDecoder[A].bind(rs.metadata)
+      rs.rows.iterator.map(decode).toVector
+    }
+  }
+
+  override def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet] = {
+    checkNotNull(timeout)
+    val m = metrics
+    val start = startTime(m)
+    val resultStream = interceptors.head.stream(this)
+    val subscriber = new ColumnsSubscriber(resultStream.metadata)
+    resultStream.subscribe(subscriber)
+    val result = for {
+      rowsAffected <- resultStream.rowsAffected
+      warnings <- resultStream.warnings
+      metadata <- resultStream.metadata
+      (rowCount, columns) <- subscriber.columns
+    } yield {
+      new ColumnarResultSet(
+        rowsAffected = rowsAffected,
+        warnings = warnings,
+        metadata = metadata,
+        rowCount = rowCount,
+        columns = columns
+      )
+    }
+    measured(m, start, result)(_.rowCount.toLong, _.rowsAffected)
+  }
+
   override def execute()(implicit timeout: Timeout): Future[Unit] = {
     checkNotNull(timeout)
     executeForRowsAffected().map(_ => ())
@@ -53,17 +147,38 @@ trait ExecutableStatementPartialImpl extends ExecutableStatement {
 
   override def executeForRowsAffected()(implicit timeout: Timeout): Future[Long] = {
     checkNotNull(timeout)
-    val resultStream = stream()
+    val m = metrics
+    val start = startTime(m)
+    measured(m, start, interceptors.head.executeForRowsAffected(this))(_ => 0L, identity)
+  }
+
+  private[implbase] def executeForRowsAffectedUnintercepted()(implicit timeout: Timeout): Future[Long] = {
+    val resultStream = executeStream()
     resultStream.subscribe(new IgnoringSubscriber)
     resultStream.rowsAffected
   }
 
   override def executeForFirstRow()(implicit timeout: Timeout): Future[Option[Row]] = {
-    /* The method is optimized for result sets that are small.
-       It's faster to fetch all rows instead of fetching
-       just one and cancelling the subscription. */
     checkNotNull(timeout)
-    executeForSet().map(_.rows.headOption)
+    val m = metrics
+    val start = startTime(m)
+    val subscriber = new HeadSubscriber(Some(1L))
+    interceptors.head.streamLimited(this, maxRows = 1L).subscribe(subscriber)
+    measured(m, start, subscriber.rows.map(_.headOption))(_.size.toLong, _ => 0L)
+  }
+
+  /** Streams at most `maxRows` rows of the statement's result.
+    *
+    * Drivers should override this method to execute the statement with
+    * [[io.rdbc.sapi.StatementOptions.maxRows StatementOptions.maxRows]] set
+    * to `maxRows`, so that rows above the limit are not transferred
+    * by the database. The default implementation streams all rows.
+    *
+    * Like `executeStream`, this method is called after interceptors, which
+    * see the limited stream as a `stream` execution.
+    */
+  protected def streamLimited(maxRows: Long)(implicit timeout: Timeout): RowPublisher = {
+    executeStream()
   }
 
   override def executeForValue[A](valExtractor: Row => A)
@@ -84,4 +199,21 @@ trait ExecutableStatementPartialImpl extends ExecutableStatement {
         Future.failed(new NoKeysReturnedException(ex.getMessage, Some(ex)))
     }
   }
+
+  private def startTime(m: RdbcMetrics): Long = {
+    if (m.enabled) System.nanoTime() else 0L
+  }
+
+  private def measured[A](m: RdbcMetrics, start: Long, result: Future[A])
+                         (rowsStreamed: A => Long, rowsAffected: A => Long): Future[A] = {
+    if (m.enabled) {
+      result.onComplete {
+        case Success(value) =>
+          m.statementExecuted(System.nanoTime() - start, rowsStreamed(value), rowsAffected(value))
+        case Failure(ex) =>
+          m.statementFailed(System.nanoTime() - start, ex)
+      }
+    }
+    result
+  }
 }
@@ -27,7 +27,7 @@ import scala.concurrent.{Future, Promise}
 
 class HeadSubscriber(n: Option[Long]) extends Subscriber[Row] {
   private val promise = Promise[ImmutSeq[Row]]
-  private var buf = Vector.empty[Row]
+  private val buf = n.fold(new RowBuffer)(head => new RowBuffer(math.min(head, Int.MaxValue).toInt))
 
   private var subscription: Option[Subscription] = None
   private val subscribed = new AtomicBoolean(false)
@@ -51,16 +51,18 @@ class HeadSubscriber(n: Option[Long]) extends Subscriber[Row] {
 
   override def onComplete(): Unit = {
     if (!promise.isCompleted) {
-      promise.success(buf)
+      promise.success(buf.result())
     }
   }
 
   override def onNext(row: Row): Unit = {
     checkNotNull(row)
-    buf = buf :+ row
-    if (n.contains(buf.size)) {
-      promise.success(buf)
-      subscription.foreach(_.cancel())
+    if (!promise.isCompleted) {
+      buf.append(row)
+      if (n.contains(buf.size.toLong)) {
+        promise.success(buf.result())
+        subscription.foreach(_.cancel())
+      }
     }
   }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.lang.{Long => JLong}
+import java.util.concurrent.atomic.{AtomicLongArray, LongAccumulator, LongAdder}
+import java.util.function.LongBinaryOperator
+
+import io.rdbc.util.Preconditions.check
+
+/** A lock-free histogram of non-negative long values, like latencies in
+  * nanoseconds or row counts.
+  *
+  * Values are counted in log-linear buckets: every power of two range is
+  * split into 32 buckets, so values up to `32` are counted exactly and
+  * larger values with a relative error of at most about 3%. Recording
+  * doesn't allocate and takes constant time. Negative values are recorded
+  * as `0`.
+  *
+  * Reads are not atomic with respect to concurrent recording, so statistics
+  * read while values are being recorded may be off by the values recorded
+  * in the meantime.
+  */
+final class Histogram {
+
+  import Histogram._
+
+  private val counts = new AtomicLongArray(BucketCount)
+  private val total = new LongAdder
+  private val sum = new LongAdder
+  private val maxValue = new LongAccumulator(new LongBinaryOperator {
+    def applyAsLong(left: Long, right: Long): Long = math.max(left, right)
+  }, 0L)
+
+  def record(value: Long): Unit = {
+    val v = math.max(value, 0L)
+    counts.incrementAndGet(bucketIndex(v))
+    total.increment()
+    sum.add(v)
+    maxValue.accumulate(v)
+  }
+
+  /** Number of recorded values */
+  def count: Long = total.sum()
+
+  /** Maximum recorded value, `0` if there are none */
+  def max: Long = maxValue.get()
+
+  /** Mean of recorded values, `0` if there are none */
+  def mean: Double = {
+    val n = count
+    if (n == 0L) 0.0 else sum.sum().toDouble / n
+  }
+
+  /** Returns the value that `percentile` percent of recorded values are not
+    * greater than, within the histogram's precision, or `0` if there are
+    * no values.
+    */
+  def valueAtPercentile(percentile: Double): Long = {
+    check(percentile, percentile >= 0.0 && percentile <= 100.0, "has to be between 0 and 100")
+    val n = count
+    if (n == 0L) {
+      0L
+    } else {
+      val target = math.max(math.ceil(percentile / 100.0 * n).toLong, 1L)
+      var seen = 0L
+      var idx = 0
+      while (idx < BucketCount && seen < target) {
+        seen += counts.get(idx)
+        idx += 1
+      }
+      math.min(bucketUpperBound(idx - 1), max)
+    }
+  }
+
+  def summary: Histogram.Summary = {
+    Histogram.Summary(
+      count = count,
+      mean = mean,
+      p50 = valueAtPercentile(50.0),
+      p90 = valueAtPercentile(90.0),
+      p99 = valueAtPercentile(99.0),
+      p999 = valueAtPercentile(99.9),
+      max = max
+    )
+  }
+
+  /** Removes all recorded values */
+  def reset(): Unit = {
+    var idx = 0
+    while (idx < BucketCount) {
+      counts.set(idx, 0L)
+      idx += 1
+    }
+    total.reset()
+    sum.reset()
+    maxValue.reset()
+  }
+}
+
+object Histogram {
+
+  final case class Summary(count: Long,
+                           mean: Double,
+                           p50: Long,
+                           p90: Long,
+                           p99: Long,
+                           p999: Long,
+                           max: Long)
+
+  private val SubBucketBits = 5
+  private val SubBuckets = 1 << SubBucketBits
+  private val BucketCount = (JLong.SIZE - SubBucketBits) * SubBuckets
+
+  private def bucketIndex(value: Long): Int = {
+    if (value < SubBuckets) {
+      value.toInt
+    } else {
+      val magnitude = 63 - JLong.numberOfLeadingZeros(value)
+      val shift = magnitude - SubBucketBits
+      val subBucket = ((value >>> shift) & (SubBuckets - 1)).toInt
+      (shift + 1) * SubBuckets + subBucket
+    }
+  }
+
+  private def bucketUpperBound(idx: Int): Long = {
+    if (idx < SubBuckets) {
+      idx.toLong
+    } else {
+      val shift = idx / SubBuckets - 1
+      val lowerBound = (SubBuckets + idx % SubBuckets).toLong << shift
+      lowerBound + (1L << shift) - 1L
+    }
+  }
+}
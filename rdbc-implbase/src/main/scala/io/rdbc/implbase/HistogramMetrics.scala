@@ -0,0 +1,79 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util.concurrent.atomic.LongAdder
+
+/** [[RdbcMetrics]] recording events in [[Histogram histograms]].
+  *
+  * Histograms can be read at any time, while events are being recorded.
+  */
+class HistogramMetrics extends RdbcMetrics {
+
+  /** Latencies of successful statement executions, in nanoseconds */
+  val statementLatency: Histogram = new Histogram
+
+  /** Numbers of rows returned by statement executions */
+  val rowsStreamed: Histogram = new Histogram
+
+  /** Numbers of rows affected by statement executions */
+  val rowsAffected: Histogram = new Histogram
+
+  /** Durations of transactions, in nanoseconds */
+  val transactionDuration: Histogram = new Histogram
+
+  /** Times of acquiring connections, in nanoseconds */
+  val connectionAcquireTime: Histogram = new Histogram
+
+  private val failedStatementCount = new LongAdder
+  private val rolledBackTxCount = new LongAdder
+  private val failedAcquireCount = new LongAdder
+
+  /** Number of failed statement executions */
+  def failedStatements: Long = failedStatementCount.sum()
+
+  /** Number of rolled back transactions */
+  def rolledBackTransactions: Long = rolledBackTxCount.sum()
+
+  /** Number of failed connection acquisitions */
+  def failedAcquisitions: Long = failedAcquireCount.sum()
+
+  def statementExecuted(latencyNanos: Long, rowsStreamed: Long, rowsAffected: Long): Unit = {
+    statementLatency.record(latencyNanos)
+    this.rowsStreamed.record(rowsStreamed)
+    this.rowsAffected.record(rowsAffected)
+  }
+
+  def statementFailed(latencyNanos: Long, cause: Throwable): Unit = {
+    failedStatementCount.increment()
+  }
+
+  def transactionCompleted(durationNanos: Long, committed: Boolean): Unit = {
+    transactionDuration.record(durationNanos)
+    if (!committed) {
+      rolledBackTxCount.increment()
+    }
+  }
+
+  def connectionAcquired(acquireNanos: Long): Unit = {
+    connectionAcquireTime.record(acquireNanos)
+  }
+
+  def connectionAcquireFailed(acquireNanos: Long, cause: Throwable): Unit = {
+    failedAcquireCount.increment()
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.sapi.exceptions._
+import io.rdbc.util.Preconditions.checkNotNull
+
+/** SQL statement with parameters parsed out of it.
+  *
+  * Named parameters (`:name`) and positional parameters (`?`) are
+  * recognized, except inside string literals, quoted identifiers, dollar
+  * quoted strings and comments. `::` casts are not parameters. Every
+  * parameter occurrence gets its own position, so drivers can render SQL
+  * with native positional placeholders using `render` and bind arguments
+  * using `bindByName` and `bindByIdx`.
+  *
+  * Instances are immutable and can be shared between connections, use
+  * [[ParsedSql.parse]] to get one. Connections mixing in
+  * [[StatementCachingPartialImpl]] get statements' SQL already parsed.
+  *
+  * @param sql        original SQL
+  * @param fragments  SQL fragments between parameters, there is always one
+  *                   more fragment than there are parameter occurrences
+  * @param occurrences names of parameters in order of occurrence; empty
+  *                   names denote positional parameters
+  */
+final class ParsedSql private(val sql: String,
+                              fragments: Array[String],
+                              occurrences: Array[String]) {
+
+  import ParsedSql._
+
+  /* distinct parameter names in order of first occurrence, with positions
+     of all their occurrences */
+  private val (names, positions): (Array[String], Map[String, Param]) = {
+    val names = occurrences.filter(_.nonEmpty).distinct
+    val positions = names.iterator.zipWithIndex.map { case (name, nameIdx) =>
+      name -> Param(nameIdx, occurrences.indices.filter(occurrences(_) == name).toArray)
+    }.toMap
+    (names, positions)
+  }
+
+  /** Number of parameter occurrences */
+  def paramCount: Int = occurrences.length
+
+  /** Whether the statement uses named parameters */
+  def hasNamedParams: Boolean = names.nonEmpty
+
+  /** Distinct names of parameters in order of their first occurrence */
+  def paramNames: ImmutIndexedSeq[String] = names.toVector
+
+  /** Positions of all occurrences of the named parameter, empty if there is
+    * no such parameter.
+    */
+  def positionsOf(name: String): ImmutIndexedSeq[Int] = {
+    positions.get(name).map(_.positions.toVector).getOrElse(Vector.empty)
+  }
+
+  /** Renders SQL replacing parameters with placeholders returned by
+    * `placeholder` function for parameter positions.
+    *
+    * Example rendering PostgreSQL placeholders: `render(idx => "$" + (idx + 1))`.
+    */
+  def render(placeholder: Int => String): String = {
+    checkNotNull(placeholder)
+    if (occurrences.isEmpty) {
+      fragments(0)
+    } else {
+      val sb = new java.lang.StringBuilder(sql.length + occurrences.length * 2)
+      var i = 0
+      while (i < occurrences.length) {
+        sb.append(fragments(i)).append(placeholder(i))
+        i += 1
+      }
+      sb.append(fragments(i)).toString
+    }
+  }
+
+  /** SQL with all parameters replaced with question marks */
+  lazy val positionalSql: String = render(_ => "?")
+
+  /** Returns arguments for all parameter occurrences, matching values to
+    * parameters by name.
+    *
+    * Throws:
+    *  - [[io.rdbc.sapi.exceptions.NoSuchParamException NoSuchParamException]]
+    *  when a value is provided for a parameter not declared by the statement
+    *  - [[io.rdbc.sapi.exceptions.MissingParamValException MissingParamValException]]
+    *  when a value is not provided for some parameter
+    */
+  def bindByName(args: TraversableOnce[(String, Any)]): Array[Any] = {
+    checkNotNull(args)
+    val bound = new Array[Any](occurrences.length)
+    val provided = new Array[Boolean](names.length)
+    var providedCount = 0
+    args.foreach { case (name, value) =>
+      val param = positions.getOrElse(name, throw new NoSuchParamException(name))
+      val ps = param.positions
+      var i = 0
+      while (i < ps.length) {
+        bound(ps(i)) = value
+        i += 1
+      }
+      if (!provided(param.nameIdx)) {
+        provided(param.nameIdx) = true
+        providedCount += 1
+      }
+    }
+    if (providedCount < names.length) {
+      throw new MissingParamValException(names(provided.indexOf(false)))
+    } else if (names.isEmpty && occurrences.nonEmpty) {
+      /* positional parameters can't be bound by name */
+      throw new MissingParamValException("1")
+    }
+    bound
+  }
+
+  /** Returns arguments for all parameter occurrences, matching values to
+    * parameter occurrences by index.
+    *
+    * Throws:
+    *  - [[io.rdbc.sapi.exceptions.TooManyParamsException TooManyParamsException]]
+    *  when more values are provided than there are parameter occurrences
+    *  - [[io.rdbc.sapi.exceptions.MissingParamValException MissingParamValException]]
+    *  when fewer values are provided than there are parameter occurrences
+    */
+  def bindByIdx(args: Seq[Any]): Array[Any] = {
+    checkNotNull(args)
+    val bound = new Array[Any](occurrences.length)
+    val it = args.iterator
+    var i = 0
+    while (it.hasNext) {
+      if (i == bound.length) {
+        throw new TooManyParamsException(args.size, bound.length)
+      }
+      bound(i) = it.next()
+      i += 1
+    }
+    if (i < bound.length) {
+      val name = occurrences(i)
+      throw new MissingParamValException(if (name.isEmpty) (i + 1).toString else name)
+    }
+    bound
+  }
+
+  override def toString: String = sql
+
+  override def equals(other: Any): Boolean = other match {
+    case that: ParsedSql => sql == that.sql
+    case _ => false
+  }
+
+  override def hashCode(): Int = sql.hashCode
+}
+
+object ParsedSql {
+
+  private final case class Param(nameIdx: Int, positions: Array[Int])
+
+  private[implbase] val MaxCached = 4096
+
+  private final class Cached(val parsed: ParsedSql) {
+    @volatile var used = false
+  }
+
+  private val cache = new ConcurrentHashMap[String, Cached]
+  private val evicting = new AtomicBoolean(false)
+  /* clock hand, accessed only by the thread that set `evicting` */
+  private var hand: util.Iterator[Cached] = cache.values.iterator
+
+  /** Parses SQL.
+    *
+    * Results are cached by SQL, so parsing the same SQL again is a single
+    * lock-free lookup. At most 4096 distinct statements are cached; when
+    * the limit is exceeded, statements not used since the last eviction
+    * pass are evicted first.
+    *
+    * Throws [[io.rdbc.sapi.exceptions.MixedParamTypesException MixedParamTypesException]]
+    * when the statement uses both named and positional parameters.
+    */
+  def parse(sql: String): ParsedSql = {
+    checkNotNull(sql)
+    val cached = cache.get(sql)
+    if (cached != null) {
+      if (!cached.used) cached.used = true
+      cached.parsed
+    } else {
+      val created = new Cached(parseUncached(sql))
+      val prev = cache.putIfAbsent(sql, created)
+      if (prev != null) {
+        prev.parsed
+      } else {
+        if (cache.size > MaxCached) evict()
+        created.parsed
+      }
+    }
+  }
+
+  /* CLOCK eviction: the hand clears `used` flags of entries it passes and
+     removes entries whose flag is already clear; if another thread is
+     evicting, this one doesn't wait */
+  private def evict(): Unit = {
+    if (evicting.compareAndSet(false, true)) {
+      try {
+        while (cache.size > MaxCached) {
+          if (!hand.hasNext) {
+            hand = cache.values.iterator
+          }
+          val entry = hand.next()
+          if (entry.used) entry.used = false
+          else hand.remove()
+        }
+      } finally {
+        evicting.set(false)
+      }
+    }
+  }
+
+  private[implbase] def parseUncached(sql: String): ParsedSql = {
+    new Parser(sql).parse()
+  }
+
+  private class Parser(text: String) extends SqlScanner(text) {
+    private val fragments = Vector.newBuilder[String]
+    private val occurrences = Vector.newBuilder[String]
+    private var named = false
+    private var positional = false
+    private var fragmentStart = 0
+
+    def parse(): ParsedSql = {
+      scan()
+      fragments += sql.substring(fragmentStart)
+      new ParsedSql(sql, fragments.result().toArray, occurrences.result().toArray)
+    }
+
+    protected def stringLiteral(start: Int): Unit = ()
+
+    protected def quotedIdentifier(start: Int): Unit = ()
+
+    protected def comment(start: Int): Unit = ()
+
+    protected def dollarQuoted(start: Int): Unit = ()
+
+    protected def cast(start: Int): Unit = ()
+
+    protected def namedParam(start: Int): Unit = {
+      if (positional) throw new MixedParamTypesException
+      named = true
+      addParam(sql.substring(start + 1, pos), start)
+    }
+
+    protected def positionalParam(start: Int): Unit = {
+      if (named) throw new MixedParamTypesException
+      positional = true
+      addParam("", start)
+    }
+
+    protected def other(c: Char): Unit = {
+      pos += 1
+    }
+
+    private def addParam(name: String, start: Int): Unit = {
+      fragments += sql.substring(fragmentStart, start)
+      occurrences += name
+      fragmentStart = pos
+    }
+  }
+}
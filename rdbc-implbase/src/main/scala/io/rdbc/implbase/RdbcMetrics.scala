@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+/** Listener of driver events useful for monitoring, like statement
+  * latencies or connection acquire times.
+  *
+  * Partial implementations call it from `metrics` members which default to
+  * [[RdbcMetrics.Disabled]]. A listener chosen by the user is exposed by
+  * [[ConnectionFactoryPartialImpl.metrics]] and drivers pass the same
+  * listener down to connections and statements by overriding their
+  * `metrics` members. When `enabled` is `false` no time is measured and no
+  * listener method is called.
+  *
+  * Listener methods are called from driver threads, so they must be
+  * thread-safe and must not block. Durations are in nanoseconds.
+  * [[HistogramMetrics]] is a default implementation.
+  */
+trait RdbcMetrics {
+
+  /** Whether events should be measured and reported to this listener */
+  def enabled: Boolean = true
+
+  /** Called when a statement execution succeeds.
+    *
+    * @param latencyNanos time from the execution start to the result being available
+    * @param rowsStreamed number of rows returned to the caller
+    * @param rowsAffected number of rows affected, `0` if the execution method
+    *                     doesn't report it
+    */
+  def statementExecuted(latencyNanos: Long, rowsStreamed: Long, rowsAffected: Long): Unit
+
+  /** Called when a statement execution fails */
+  def statementFailed(latencyNanos: Long, cause: Throwable): Unit
+
+  /** Called when a transaction completes.
+    *
+    * @param durationNanos time from beginning the transaction to its commit
+    *                      or rollback completion
+    * @param committed     whether the transaction was committed
+    */
+  def transactionCompleted(durationNanos: Long, committed: Boolean): Unit
+
+  /** Called when a connection is acquired */
+  def connectionAcquired(acquireNanos: Long): Unit
+
+  /** Called when acquiring a connection fails */
+  def connectionAcquireFailed(acquireNanos: Long, cause: Throwable): Unit
+}
+
+object RdbcMetrics {
+
+  /** A listener that is never called */
+  object Disabled extends RdbcMetrics {
+    override val enabled: Boolean = false
+
+    def statementExecuted(latencyNanos: Long, rowsStreamed: Long, rowsAffected: Long): Unit = ()
+
+    def statementFailed(latencyNanos: Long, cause: Throwable): Unit = ()
+
+    def transactionCompleted(durationNanos: Long, committed: Boolean): Unit = ()
+
+    def connectionAcquired(acquireNanos: Long): Unit = ()
+
+    def connectionAcquireFailed(acquireNanos: Long, cause: Throwable): Unit = ()
+  }
+}
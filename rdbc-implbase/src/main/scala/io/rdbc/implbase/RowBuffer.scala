@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.sapi.Row
+import io.rdbc.util.Preconditions.{check, checkNotNull}
+
+import scala.collection.immutable
+
+/** An append-only buffer of rows.
+  *
+  * Rows are stored in chunks that grow geometrically, starting with a chunk
+  * of `sizeHint` rows (rounded up to a power of two), so appending never
+  * copies rows that were already buffered. Sequences returned by `result`
+  * share chunks with the buffer instead of copying them.
+  *
+  * The buffer is not thread-safe.
+  */
+final class RowBuffer(sizeHint: Int) {
+  check(sizeHint, sizeHint >= 0, "cannot be negative")
+
+  import RowBuffer._
+
+  private val shift = {
+    val base = math.min(math.max(sizeHint, 1), MaxInitialChunk)
+    32 - Integer.numberOfLeadingZeros(base - 1)
+  }
+
+  private var chunks = new Array[Array[Row]](InitialChunkSlots)
+  private var chunkCount = 0
+  private var lastChunk: Array[Row] = _
+  private var lastChunkPos = 0
+  private var count = 0
+
+  /** Creates a buffer of unknown expected size */
+  def this() = this(RowBuffer.DefaultSizeHint)
+
+  def size: Int = count
+
+  def append(row: Row): Unit = {
+    checkNotNull(row)
+    if (lastChunk == null || lastChunkPos == lastChunk.length) {
+      addChunk()
+    }
+    lastChunk(lastChunkPos) = row
+    lastChunkPos += 1
+    count += 1
+  }
+
+  /** Returns rows appended so far.
+    *
+    * Rows appended after calling this method are not visible in the returned
+    * sequence.
+    */
+  def result(): ImmutIndexedSeq[Row] = {
+    if (count == 0) Vector.empty
+    else new ChunkedRows(chunks, count, shift)
+  }
+
+  private def addChunk(): Unit = {
+    if (chunkCount == chunks.length) {
+      /* only references to chunks are copied here */
+      chunks = java.util.Arrays.copyOf(chunks, chunks.length * 2)
+    }
+    lastChunk = new Array[Row](1 << (shift + chunkCount))
+    chunks(chunkCount) = lastChunk
+    chunkCount += 1
+    lastChunkPos = 0
+  }
+}
+
+object RowBuffer {
+  private val DefaultSizeHint = 16
+  private val MaxInitialChunk = 8192
+  private val InitialChunkSlots = 8
+
+  /* Chunk k holds 2^(shift + k) rows and starts at index 2^shift * (2^k - 1),
+     so both the chunk and the offset within it can be computed from
+     the position of the highest bit of (idx + 2^shift). */
+  private class ChunkedRows(chunks: Array[Array[Row]], val length: Int, shift: Int)
+    extends immutable.IndexedSeq[Row] {
+
+    def apply(idx: Int): Row = {
+      if (idx < 0 || idx >= length) {
+        throw new IndexOutOfBoundsException(idx.toString)
+      }
+      val biased = idx + (1 << shift)
+      val chunk = 31 - Integer.numberOfLeadingZeros(biased) - shift
+      chunks(chunk)(biased - (1 << (shift + chunk)))
+    }
+
+    override def foreach[U](f: Row => U): Unit = {
+      var remaining = length
+      var chunkIdx = 0
+      while (remaining > 0) {
+        val chunk = chunks(chunkIdx)
+        val n = math.min(remaining, chunk.length)
+        var i = 0
+        while (i < n) {
+          f(chunk(i))
+          i += 1
+        }
+        remaining -= n
+        chunkIdx += 1
+      }
+    }
+  }
+}
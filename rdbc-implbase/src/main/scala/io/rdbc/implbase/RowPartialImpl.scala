@@ -41,6 +41,34 @@ trait RowPartialImpl extends Row {
     }
   }
 
+  override def isNull(idx: Int): Boolean = nullValue(idx)
+
+  override def isNull(name: String): Boolean = nullValue(name)
+
+  /* Hooks backing primitive getters and null checks. Defaults go through
+     colOpt and therefore box values; drivers able to decode primitives or
+     check for SQL NULL without materializing the value should override them. */
+
+  protected def nullValue(idx: Int): Boolean = colOpt[Any](idx).isEmpty
+
+  protected def nullValue(name: String): Boolean = colOpt[Any](name).isEmpty
+
+  protected def boolValue(idx: Int): Boolean = col[Boolean](idx)
+
+  protected def boolValue(name: String): Boolean = col[Boolean](name)
+
+  protected def intValue(idx: Int): Int = col[Int](idx)
+
+  protected def intValue(name: String): Int = col[Int](name)
+
+  protected def longValue(idx: Int): Long = col[Long](idx)
+
+  protected def longValue(name: String): Long = col[Long](name)
+
+  protected def doubleValue(idx: Int): Double = col[Double](idx)
+
+  protected def doubleValue(name: String): Double = col[Double](name)
+
   private def nullConversionException(target: Class[_]): ConversionException = {
     new ConversionException(
       msg = s"SQL NULL cannot be represented by $target, use *Opt method instead",
@@ -58,11 +86,11 @@ trait RowPartialImpl extends Row {
 
   override def strOpt(idx: Int): Option[String] = colOpt[String](idx)
 
-  override def bool(name: String): Boolean = col[Boolean](name)
+  override def bool(name: String): Boolean = boolValue(name)
 
   override def boolOpt(name: String): Option[Boolean] = colOpt[Boolean](name)
 
-  override def bool(idx: Int): Boolean = col[Boolean](idx)
+  override def bool(idx: Int): Boolean = boolValue(idx)
 
   override def boolOpt(idx: Int): Option[Boolean] = colOpt[Boolean](idx)
 
@@ -82,19 +110,19 @@ trait RowPartialImpl extends Row {
 
   override def shortOpt(idx: Int): Option[Short] = colOpt[Short](idx)
 
-  override def int(name: String): Int = col[Int](name)
+  override def int(name: String): Int = intValue(name)
 
   override def intOpt(name: String): Option[Int] = colOpt[Int](name)
 
-  override def int(idx: Int): Int = col[Int](idx)
+  override def int(idx: Int): Int = intValue(idx)
 
   override def intOpt(idx: Int): Option[Int] = colOpt[Int](idx)
 
-  override def long(name: String): Long = col[Long](name)
+  override def long(name: String): Long = longValue(name)
 
   override def longOpt(name: String): Option[Long] = colOpt[Long](name)
 
-  override def long(idx: Int): Long = col[Long](idx)
+  override def long(idx: Int): Long = longValue(idx)
 
   override def longOpt(idx: Int): Option[Long] = colOpt[Long](idx)
 
@@ -114,11 +142,11 @@ trait RowPartialImpl extends Row {
 
   override def decimalOpt(idx: Int): Option[DecimalNumber] = colOpt[DecimalNumber](idx)
 
-  override def double(name: String): Double = col[Double](name)
+  override def double(name: String): Double = doubleValue(name)
 
   override def doubleOpt(name: String): Option[Double] = colOpt[Double](name)
 
-  override def double(idx: Int): Double = col[Double](idx)
+  override def double(idx: Int): Double = doubleValue(idx)
 
   override def doubleOpt(idx: Int): Option[Double] = colOpt[Double](idx)
 
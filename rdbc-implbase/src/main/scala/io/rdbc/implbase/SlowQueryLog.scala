@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util.concurrent.atomic.{AtomicReference, LongAdder}
+import java.util.concurrent.{ConcurrentHashMap, ThreadLocalRandom}
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.sapi.{ResultSet, RowPublisher, Timeout}
+import io.rdbc.util.Logging
+import io.rdbc.util.Preconditions.check
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A [[StatementInterceptor]] recording statements slower than `threshold`
+  * plus a `sampleRate` fraction of all statements.
+  *
+  * Recorded statements are grouped by their [[SqlFingerprint fingerprints]],
+  * each fingerprint having its execution count, slow execution count and
+  * latency histogram. At most `maxFingerprints` fingerprints are tracked,
+  * executions of statements with new fingerprints over this limit are only
+  * counted in `droppedCount`. Slow executions are also logged at warn level.
+  *
+  * Fingerprints don't contain literal values, so they are the only form of
+  * SQL logged and kept by default. With `keepSql` enabled, SQL of the most
+  * recent execution is kept for each fingerprint, which may retain
+  * sensitive values.
+  *
+  * All executions are recorded, failed executions included. Streams, which
+  * also carry `executeForColumns` and the `executeForFirstRow` family, are
+  * measured until the publisher is `done`. Statements that are neither slow
+  * nor sampled cost two clock reads and a completion callback, and aren't
+  * fingerprinted.
+  */
+class SlowQueryLog(val threshold: FiniteDuration,
+                   val sampleRate: Double = 0.0,
+                   val maxFingerprints: Int = SlowQueryLog.DefaultMaxFingerprints,
+                   val keepSql: Boolean = false)
+                  (implicit ec: ExecutionContext)
+  extends StatementInterceptor
+    with Logging {
+
+  import SlowQueryLog._
+
+  check(threshold, threshold >= Duration.Zero, "cannot be negative")
+  check(sampleRate, sampleRate >= 0.0 && sampleRate <= 1.0, "has to be between 0 and 1")
+  check(maxFingerprints, maxFingerprints > 0, "has to be positive")
+
+  private val thresholdNanos = threshold.toNanos
+  private val stats = new ConcurrentHashMap[String, FingerprintStats]
+  private val dropped = new LongAdder
+
+  override def stream(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                     (implicit timeout: Timeout): RowPublisher = {
+    val start = System.nanoTime()
+    val publisher = next.stream(stmt)
+    recorded(stmt, start, publisher.done)
+    publisher
+  }
+
+  override def executeForSet(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                            (implicit timeout: Timeout): Future[ResultSet] = {
+    val start = System.nanoTime()
+    recorded(stmt, start, next.executeForSet(stmt))
+  }
+
+  override def executeForRowsAffected(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                                     (implicit timeout: Timeout): Future[Long] = {
+    val start = System.nanoTime()
+    recorded(stmt, start, next.executeForRowsAffected(stmt))
+  }
+
+  /** Statistics of recorded fingerprints, sorted by total recorded
+    * latency, descending.
+    */
+  def entries: ImmutIndexedSeq[SlowQueryLog.Entry] = {
+    stats.asScala.iterator.map { case (fingerprint, fpStats) =>
+      fpStats.entry(fingerprint)
+    }.toVector.sortBy(entry => -entry.latency.mean * entry.latency.count)
+  }
+
+  /** Statistics of the fingerprint, if it's recorded */
+  def entry(fingerprint: String): Option[SlowQueryLog.Entry] = {
+    Option(stats.get(fingerprint)).map(_.entry(fingerprint))
+  }
+
+  /** Number of executions not recorded because `maxFingerprints` limit
+    * was reached.
+    */
+  def droppedCount: Long = dropped.sum()
+
+  /** Removes all recorded statistics */
+  def reset(): Unit = {
+    stats.clear()
+    dropped.reset()
+  }
+
+  private def recorded[A](stmt: ExecutableStatementPartialImpl, start: Long, result: Future[A]): Future[A] = {
+    result.onComplete { res =>
+      val latency = System.nanoTime() - start
+      val slow = latency >= thresholdNanos
+      if (slow || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+        record(stmt.statementSql, latency, slow, res.isFailure)
+      }
+    }
+    result
+  }
+
+  private def record(sql: String, latencyNanos: Long, slow: Boolean, failed: Boolean): Unit = {
+    val fingerprint = SqlFingerprint.of(sql)
+    val fpStats = statsOf(fingerprint)
+    if (fpStats == null) {
+      dropped.increment()
+    } else {
+      fpStats.record(if (keepSql) Some(sql) else None, latencyNanos, slow, failed)
+    }
+    if (slow) {
+      logger.warn(s"Slow statement took ${latencyNanos.nanos.toMillis} ms: $fingerprint")
+    }
+  }
+
+  private def statsOf(fingerprint: String): FingerprintStats = {
+    val existing = stats.get(fingerprint)
+    if (existing != null || stats.size >= maxFingerprints) {
+      existing
+    } else {
+      val created = new FingerprintStats
+      val prev = stats.putIfAbsent(fingerprint, created)
+      if (prev != null) prev else created
+    }
+  }
+}
+
+object SlowQueryLog {
+
+  val DefaultMaxFingerprints = 256
+
+  /** Statistics of a fingerprint.
+    *
+    * @param fingerprint normalized SQL
+    * @param lastSql     SQL of the most recently recorded execution, kept only
+    *                    if `keepSql` is enabled
+    * @param count       number of recorded executions
+    * @param slowCount   number of recorded executions slower than the threshold
+    * @param failedCount number of recorded executions that failed
+    * @param latency     latencies of recorded executions in nanoseconds
+    */
+  final case class Entry(fingerprint: String,
+                         lastSql: Option[String],
+                         count: Long,
+                         slowCount: Long,
+                         failedCount: Long,
+                         latency: Histogram.Summary)
+
+  private class FingerprintStats {
+    private val lastSql = new AtomicReference[String]
+    private val slowCount = new LongAdder
+    private val failedCount = new LongAdder
+    private val latency = new Histogram
+
+    def record(sql: Option[String], latencyNanos: Long, slow: Boolean, failed: Boolean): Unit = {
+      sql.foreach(lastSql.set)
+      latency.record(latencyNanos)
+      if (slow) slowCount.increment()
+      if (failed) failedCount.increment()
+    }
+
+    def entry(fingerprint: String): Entry = {
+      val summary = latency.summary
+      Entry(fingerprint, Option(lastSql.get()), summary.count, slowCount.sum(), failedCount.sum(), summary)
+    }
+  }
+
+}
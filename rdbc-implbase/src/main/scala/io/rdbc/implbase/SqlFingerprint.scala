@@ -0,0 +1,123 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.util.Preconditions.checkNotNull
+
+/** Normalizes SQL into fingerprints, so that statements differing only in
+  * literal values, parameters, comments, whitespace or keyword case are
+  * grouped together.
+  *
+  * Fingerprinting:
+  *  - replaces string, dollar quoted and numeric literals and parameters
+  *    of all kinds (`?`, `:name`, `$1`) with `?`
+  *  - collapses comma separated lists of `?`, like `in (1, 2, 3)`, into
+  *    a single `?`
+  *  - removes comments, collapses whitespace and lower cases everything
+  *    except quoted identifiers
+  */
+object SqlFingerprint {
+
+  def of(sql: String): String = {
+    checkNotNull(sql)
+    new Fingerprinter(sql).fingerprint()
+  }
+
+  private class Fingerprinter(text: String) extends SqlScanner(text) {
+    private val sb = new java.lang.StringBuilder(len)
+
+    def fingerprint(): String = {
+      scan()
+      val end = if (sb.length > 0 && sb.charAt(sb.length - 1) == ' ') sb.length - 1 else sb.length
+      sb.substring(0, end)
+    }
+
+    protected def stringLiteral(start: Int): Unit = placeholder()
+
+    protected def quotedIdentifier(start: Int): Unit = {
+      sb.append(sql, start, pos)
+    }
+
+    protected def comment(start: Int): Unit = whitespace()
+
+    protected def dollarQuoted(start: Int): Unit = placeholder()
+
+    protected def cast(start: Int): Unit = {
+      sb.append("::")
+    }
+
+    protected def namedParam(start: Int): Unit = placeholder()
+
+    protected def positionalParam(start: Int): Unit = placeholder()
+
+    /* $1 parameters and numbers are placeholders too */
+    protected def other(c: Char): Unit = c match {
+      case _ if Character.isWhitespace(c) => pos += 1; whitespace()
+      case '$' if Character.isDigit(next) && !prevIsIdentPart => skipDigits(pos + 1); placeholder()
+      case _ if Character.isDigit(c) && !prevIsIdentPart => skipNumber(); placeholder()
+      case _ if isNamePart(c) => copyName()
+      case _ => sb.append(c); pos += 1
+    }
+
+    private def whitespace(): Unit = {
+      if (sb.length > 0 && sb.charAt(sb.length - 1) != ' ') {
+        sb.append(' ')
+      }
+    }
+
+    /* a placeholder following "?," or "?, " continues a list and is dropped
+       along with the separator */
+    private def placeholder(): Unit = {
+      val l = sb.length
+      if (l >= 2 && sb.charAt(l - 1) == ',' && sb.charAt(l - 2) == '?') {
+        sb.setLength(l - 1)
+      } else if (l >= 3 && sb.charAt(l - 1) == ' ' && sb.charAt(l - 2) == ',' && sb.charAt(l - 3) == '?') {
+        sb.setLength(l - 2)
+      } else {
+        sb.append('?')
+      }
+    }
+
+    private def copyName(): Unit = {
+      while (pos < len && isNamePart(sql.charAt(pos))) {
+        sb.append(Character.toLowerCase(sql.charAt(pos)))
+        pos += 1
+      }
+    }
+
+    private def skipDigits(from: Int): Unit = {
+      pos = from
+      while (pos < len && Character.isDigit(sql.charAt(pos))) {
+        pos += 1
+      }
+    }
+
+    private def skipNumber(): Unit = {
+      while (pos < len && (Character.isDigit(sql.charAt(pos)) || sql.charAt(pos) == '.')) {
+        pos += 1
+      }
+      if (pos < len && (sql.charAt(pos) == 'e' || sql.charAt(pos) == 'E')) {
+        pos += 1
+        if (pos < len && (sql.charAt(pos) == '+' || sql.charAt(pos) == '-')) {
+          pos += 1
+        }
+        skipDigits(pos)
+      }
+    }
+  }
+
+}
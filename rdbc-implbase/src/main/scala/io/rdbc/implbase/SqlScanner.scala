@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+/** Lexer shared by SQL parsers of this package.
+  *
+  * `scan` walks the SQL recognizing string literals, quoted identifiers,
+  * comments, dollar quoted strings, `::` casts and `:name` and `?`
+  * parameters, calling a handler for each. Handlers are called after the
+  * token is consumed with `start` being its first index and `pos` pointing
+  * just past it. Any other character is passed to `other` with `pos`
+  * pointing at it, and `other` has to advance `pos`.
+  */
+private[implbase] abstract class SqlScanner(protected val sql: String) {
+
+  protected val len: Int = sql.length
+  protected var pos: Int = 0
+
+  protected def stringLiteral(start: Int): Unit
+
+  protected def quotedIdentifier(start: Int): Unit
+
+  protected def comment(start: Int): Unit
+
+  protected def dollarQuoted(start: Int): Unit
+
+  protected def cast(start: Int): Unit
+
+  protected def namedParam(start: Int): Unit
+
+  protected def positionalParam(start: Int): Unit
+
+  protected def other(c: Char): Unit
+
+  protected def scan(): Unit = {
+    while (pos < len) {
+      val start = pos
+      sql.charAt(pos) match {
+        case '\'' => skipQuoted('\''); stringLiteral(start)
+        case '"' => skipQuoted('"'); quotedIdentifier(start)
+        case '-' if next == '-' => skipLineComment(); comment(start)
+        case '/' if next == '*' => skipBlockComment(); comment(start)
+        case '$' if !prevIsIdentPart && dollarTagEnd >= 0 => skipDollarQuoted(); dollarQuoted(start)
+        case ':' if next == ':' => pos += 2; cast(start)
+        case ':' if isNameStart(next) => skipName(pos + 1); namedParam(start)
+        case '?' => pos += 1; positionalParam(start)
+        case c => other(c)
+      }
+    }
+  }
+
+  protected def next: Char = if (pos + 1 < len) sql.charAt(pos + 1) else '\u0000'
+
+  protected def prevIsIdentPart: Boolean = pos > 0 && Character.isJavaIdentifierPart(sql.charAt(pos - 1))
+
+  protected def isNameStart(c: Char): Boolean = Character.isLetter(c) || c == '_'
+
+  protected def isNamePart(c: Char): Boolean = Character.isLetterOrDigit(c) || c == '_'
+
+  protected def skipName(from: Int): Unit = {
+    pos = from
+    while (pos < len && isNamePart(sql.charAt(pos))) {
+      pos += 1
+    }
+  }
+
+  private def skipQuoted(quote: Char): Unit = {
+    /* doubled quote characters are escapes */
+    var end = sql.indexOf(quote.toInt, pos + 1)
+    while (end >= 0 && end + 1 < len && sql.charAt(end + 1) == quote) {
+      end = sql.indexOf(quote.toInt, end + 2)
+    }
+    pos = if (end < 0) len else end + 1
+  }
+
+  private def skipLineComment(): Unit = {
+    val end = sql.indexOf('\n', pos + 2)
+    pos = if (end < 0) len else end + 1
+  }
+
+  private def skipBlockComment(): Unit = {
+    var depth = 1
+    pos += 2
+    while (pos < len && depth > 0) {
+      if (sql.startsWith("/*", pos)) {
+        depth += 1
+        pos += 2
+      } else if (sql.startsWith("*/", pos)) {
+        depth -= 1
+        pos += 2
+      } else {
+        pos += 1
+      }
+    }
+  }
+
+  /* index of the dollar sign closing the opening tag, -1 if there is no
+     dollar quote at pos; tags can't start with a digit, $1 is not
+     a dollar quote */
+  private def dollarTagEnd: Int = {
+    var tagEnd = pos + 1
+    if (isNameStart(next)) {
+      while (tagEnd < len && isNamePart(sql.charAt(tagEnd))) {
+        tagEnd += 1
+      }
+    }
+    if (tagEnd < len && sql.charAt(tagEnd) == '$') tagEnd else -1
+  }
+
+  private def skipDollarQuoted(): Unit = {
+    val tag = sql.substring(pos, dollarTagEnd + 1)
+    val end = sql.indexOf(tag, pos + tag.length)
+    pos = if (end < 0) len else end + tag.length
+  }
+}
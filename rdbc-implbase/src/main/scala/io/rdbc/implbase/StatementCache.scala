@@ -0,0 +1,223 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import java.util
+
+import io.rdbc.sapi.StatementOptions
+import io.rdbc.util.Logging
+import io.rdbc.util.Preconditions.{check, checkNotNull}
+
+import scala.util.control.NonFatal
+
+/** A bounded cache of per-connection statement data keyed by SQL and
+  * statement options.
+  *
+  * When the cache holds `maxSize` entries, adding a new one evicts the least
+  * recently used entry for which `inUse` returns `false` and passes it to
+  * `onEviction`, which lets drivers deallocate server-side resources held by
+  * it, like prepared statement handles. If all entries are in use, the cache
+  * temporarily grows above `maxSize`. Errors thrown by `onEviction` are logged
+  * and ignored. Cache of size `0` doesn't store anything.
+  *
+  * The cache is thread-safe. Values are created without holding a lock, and
+  * `inUse` is called while holding it, so it should be cheap.
+  *
+  * @tparam V type of cached values, like statements, prepared statement
+  *           handles or parsed parameter layouts
+  */
+final class StatementCache[V](val maxSize: Int,
+                              onEviction: (StatementCache.Key, V) => Unit,
+                              inUse: (StatementCache.Key, V) => Boolean)
+  extends Logging {
+
+  import StatementCache._
+
+  check(maxSize, maxSize >= 0, "cannot be negative")
+  checkNotNull(onEviction)
+  checkNotNull(inUse)
+
+  /* access-ordered map, so iteration starts from the least recently used entry */
+  private val entries = new util.LinkedHashMap[Key, V](16, 0.75f, true)
+  private var hits = 0L
+  private var misses = 0L
+  private var evictions = 0L
+
+  /** Creates a cache treating all values as not in use */
+  def this(maxSize: Int, onEviction: (StatementCache.Key, V) => Unit) = {
+    this(maxSize, onEviction, (_: StatementCache.Key, _: V) => false)
+  }
+
+  /** Creates a cache not doing anything on eviction */
+  def this(maxSize: Int) = this(maxSize, (_: StatementCache.Key, _: V) => ())
+
+  /** Returns a value cached for the SQL and options or creates, caches
+    * and returns a new one if there is none.
+    *
+    * If `create` throws, nothing is cached and the exception is propagated.
+    * If another thread cached a value for the same SQL and options while
+    * this one was being created, the cached value is returned and the created
+    * one is passed to the eviction callback.
+    */
+  def getOrCreate(sql: String, options: StatementOptions)(create: => V): V = {
+    checkNotNull(sql)
+    checkNotNull(options)
+    val key = Key(sql, options)
+    val cached = entries.synchronized {
+      val value = entries.get(key)
+      if (value != null) hits += 1 else misses += 1
+      value
+    }
+    if (cached != null) {
+      cached
+    } else {
+      putIfAbsent(key, create)
+    }
+  }
+
+  private def putIfAbsent(key: Key, created: V): V = {
+    var evicted = Vector.empty[(Key, V)]
+    val value = entries.synchronized {
+      val cached = entries.get(key)
+      if (cached != null) {
+        evicted = Vector(key -> created)
+        cached
+      } else {
+        if (maxSize > 0) {
+          evicted = makeRoom()
+          entries.put(key, created)
+        }
+        created
+      }
+    }
+    evicted.foreach(evict)
+    value
+  }
+
+  /** Returns a value cached for the SQL and options, if there is one */
+  def get(sql: String, options: StatementOptions): Option[V] = {
+    checkNotNull(sql)
+    checkNotNull(options)
+    entries.synchronized {
+      val cached = Option(entries.get(Key(sql, options)))
+      if (cached.isDefined) hits += 1 else misses += 1
+      cached
+    }
+  }
+
+  /** Removes a value cached for the SQL and options, passing it to the
+    * eviction callback.
+    */
+  def invalidate(sql: String, options: StatementOptions): Unit = {
+    checkNotNull(sql)
+    checkNotNull(options)
+    val key = Key(sql, options)
+    val removed = entries.synchronized {
+      val value = entries.remove(key)
+      if (value != null) {
+        evictions += 1
+      }
+      Option(value)
+    }
+    removed.foreach(value => evict(key -> value))
+  }
+
+  /** Removes all cached values, passing them to the eviction callback.
+    *
+    * Drivers should call it when the connection gets closed.
+    */
+  def clear(): Unit = {
+    val removed = entries.synchronized {
+      val all = Vector.newBuilder[(Key, V)]
+      while (!entries.isEmpty) {
+        all += removeEldest()
+      }
+      all.result()
+    }
+    removed.foreach(evict)
+  }
+
+  /** Number of cached values */
+  def size: Int = entries.synchronized(entries.size)
+
+  /** Cache statistics gathered since the cache was created */
+  def stats: Stats = entries.synchronized(Stats(hits, misses, evictions))
+
+  /* removes least recently used entries not in use until there is room for a new one */
+  private def makeRoom(): Vector[(Key, V)] = {
+    val removed = Vector.newBuilder[(Key, V)]
+    val it = entries.entrySet.iterator
+    var size = entries.size
+    while (size >= maxSize && it.hasNext) {
+      val entry = it.next()
+      val key = entry.getKey
+      val value = entry.getValue
+      if (!inUse(key, value)) {
+        it.remove()
+        evictions += 1
+        size -= 1
+        removed += key -> value
+      }
+    }
+    removed.result()
+  }
+
+  private def removeEldest(): (Key, V) = {
+    val it = entries.entrySet.iterator
+    val eldest = it.next()
+    it.remove()
+    evictions += 1
+    eldest.getKey -> eldest.getValue
+  }
+
+  private def evict(entry: (Key, V)): Unit = {
+    try {
+      onEviction(entry._1, entry._2)
+    } catch {
+      case NonFatal(ex) =>
+        logger.warn(s"Error occurred when evicting statement '${entry._1.sql}' from the cache", ex)
+    }
+  }
+
+  override def toString: String = s"StatementCache(maxSize=$maxSize, $stats)"
+}
+
+object StatementCache {
+
+  /** Default number of statements cached by a connection */
+  val DefaultSize: Int = 256
+
+  /** Cache key */
+  final case class Key(sql: String, options: StatementOptions)
+
+  /** Statement cache statistics.
+    *
+    * @param hits      number of lookups that found a cached value
+    * @param misses    number of lookups that didn't find a cached value
+    * @param evictions number of values removed from the cache, either to
+    *                  make room for new ones or explicitly
+    */
+  final case class Stats(hits: Long, misses: Long, evictions: Long) {
+
+    /** Ratio of lookups that found a cached value, `0` if there were none */
+    def hitRatio: Double = {
+      val lookups = hits + misses
+      if (lookups == 0L) 0.0 else hits.toDouble / lookups
+    }
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.{Statement, StatementOptions}
+import io.rdbc.util.Preconditions.checkNotNull
+
+import scala.concurrent.Future
+
+/** Caches statements of a [[ConnectionPartialImpl]].
+  *
+  * Statements returned by `statement(sql, options)` are created with
+  * `createStatement`, which gets the SQL parsed by [[ParsedSql]], and kept in a per-connection [[StatementCache]] of
+  * `statementCacheSize` entries, so that executing the same SQL again reuses
+  * data drivers keep in statements, like prepared statement handles or
+  * parsed parameter layouts.
+  *
+  * Statements evicted from the cache are passed to `onStatementEvicted`.
+  * Statements for which `statementInUse` returns `true` are never evicted
+  * to make room for new ones, so drivers deallocating resources on eviction
+  * should report statements with executions in progress as being in use.
+  *
+  * `release` and `forceRelease` clear the cache, passing all cached
+  * statements to `onStatementEvicted`, and then release the connection using
+  * `releaseConnection` and `forceReleaseConnection`.
+  */
+trait StatementCachingPartialImpl extends ConnectionPartialImpl {
+
+  /** Creates a statement for the parsed SQL and options, caching it is
+    * handled by `statement` method.
+    */
+  protected def createStatement(sql: ParsedSql, statementOptions: StatementOptions): Statement
+
+  /** Releases the connection after the statement cache was cleared */
+  protected def releaseConnection(): Future[Unit]
+
+  /** Forcibly releases the connection after the statement cache was cleared */
+  protected def forceReleaseConnection(): Future[Unit]
+
+  /** Maximum number of statements cached by the connection, `0` disables
+    * caching.
+    */
+  protected def statementCacheSize: Int = StatementCache.DefaultSize
+
+  /** Called when a statement is evicted from the cache.
+    *
+    * Drivers can override it to deallocate server-side resources held by the
+    * statement. The default implementation does nothing.
+    */
+  protected def onStatementEvicted(sql: String,
+                                   statementOptions: StatementOptions,
+                                   statement: Statement): Unit = ()
+
+  /** Tells whether the statement is in use and can't be evicted to make room
+    * for other statements. It is called while holding the cache lock, so it
+    * should be cheap. The default implementation returns `false`.
+    */
+  protected def statementInUse(sql: String,
+                               statementOptions: StatementOptions,
+                               statement: Statement): Boolean = false
+
+  protected lazy val statementCache: StatementCache[Statement] = {
+    new StatementCache[Statement](
+      statementCacheSize,
+      (key: StatementCache.Key, stmt: Statement) => onStatementEvicted(key.sql, key.options, stmt),
+      (key: StatementCache.Key, stmt: Statement) => statementInUse(key.sql, key.options, stmt)
+    )
+  }
+
+  /** Statement cache statistics of this connection */
+  def statementCacheStats: StatementCache.Stats = statementCache.stats
+
+  override def statement(sql: String, statementOptions: StatementOptions): Statement = {
+    checkNotNull(sql)
+    checkNotNull(statementOptions)
+    statementCache.getOrCreate(sql, statementOptions) {
+      createStatement(ParsedSql.parse(sql), statementOptions)
+    }
+  }
+
+  final override def release(): Future[Unit] = {
+    statementCache.clear()
+    releaseConnection()
+  }
+
+  final override def forceRelease(): Future[Unit] = {
+    statementCache.clear()
+    forceReleaseConnection()
+  }
+}
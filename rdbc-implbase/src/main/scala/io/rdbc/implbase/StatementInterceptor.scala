@@ -0,0 +1,51 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.{ResultSet, RowPublisher, Timeout}
+
+import scala.concurrent.Future
+
+/** Cross-cutting behavior around statement execution, like timing, tagging,
+  * sampling or short-circuiting with cached results.
+  *
+  * Each method receives the statement being executed and the rest of the
+  * chain, and should either call the corresponding method of `next` or
+  * return a result on its own. Default implementations just call `next`,
+  * so interceptors need to override only methods they're interested in.
+  *
+  * Interceptors are shared by all statements, so they must be thread-safe.
+  *
+  * @see [[StatementInterceptors]]
+  */
+trait StatementInterceptor {
+
+  def stream(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+            (implicit timeout: Timeout): RowPublisher = {
+    next.stream(stmt)
+  }
+
+  def executeForSet(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                   (implicit timeout: Timeout): Future[ResultSet] = {
+    next.executeForSet(stmt)
+  }
+
+  def executeForRowsAffected(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                            (implicit timeout: Timeout): Future[Long] = {
+    next.executeForRowsAffected(stmt)
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.ImmutSeq
+import io.rdbc.sapi.{ResultSet, RowPublisher, Timeout}
+import io.rdbc.util.Preconditions.checkNotNull
+
+import scala.concurrent.Future
+
+/** A chain of [[StatementInterceptor statement interceptors]].
+  *
+  * The chain is built once, when it's created, so invoking it doesn't
+  * allocate anything on its own, and invoking an empty chain costs a single
+  * call. Interceptors are invoked in the order they were given, the last
+  * one being the closest to the actual execution.
+  *
+  * Drivers should accept the chain when a connection factory is created,
+  * expose it as [[ConnectionFactoryPartialImpl.interceptors]] and return
+  * the same chain from `interceptors` of statements extending
+  * [[ExecutableStatementPartialImpl]].
+  */
+final class StatementInterceptors private(val interceptors: ImmutSeq[StatementInterceptor]) {
+
+  private[implbase] val head: StatementInterceptors.Next = {
+    interceptors.foldRight[StatementInterceptors.Next](StatementInterceptors.Execution) { (interceptor, next) =>
+      new StatementInterceptors.Intercepted(interceptor, next)
+    }
+  }
+
+  def isEmpty: Boolean = interceptors.isEmpty
+}
+
+object StatementInterceptors {
+
+  val Empty: StatementInterceptors = new StatementInterceptors(Vector.empty)
+
+  def apply(interceptors: StatementInterceptor*): StatementInterceptors = {
+    checkNotNull(interceptors)
+    if (interceptors.isEmpty) Empty
+    else new StatementInterceptors(interceptors.toVector)
+  }
+
+  /** The rest of an interceptor chain */
+  sealed abstract class Next {
+    def stream(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): RowPublisher
+
+    def executeForSet(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[ResultSet]
+
+    def executeForRowsAffected(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[Long]
+
+    private[implbase] def streamLimited(stmt: ExecutableStatementPartialImpl, maxRows: Long)
+                                       (implicit timeout: Timeout): RowPublisher
+  }
+
+  private final class Intercepted(interceptor: StatementInterceptor, next: Next) extends Next {
+    def stream(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): RowPublisher = {
+      interceptor.stream(stmt, next)
+    }
+
+    def executeForSet(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[ResultSet] = {
+      interceptor.executeForSet(stmt, next)
+    }
+
+    def executeForRowsAffected(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[Long] = {
+      interceptor.executeForRowsAffected(stmt, next)
+    }
+
+    /* interceptors see limited streams as streams, the rest of the chain
+       streams at most maxRows rows */
+    private[implbase] def streamLimited(stmt: ExecutableStatementPartialImpl, maxRows: Long)
+                                       (implicit timeout: Timeout): RowPublisher = {
+      interceptor.stream(stmt, new Limited(next, maxRows))
+    }
+  }
+
+  /* the rest of a chain invoked for a limited stream */
+  private final class Limited(next: Next, maxRows: Long) extends Next {
+    def stream(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): RowPublisher = {
+      next.streamLimited(stmt, maxRows)
+    }
+
+    def executeForSet(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[ResultSet] = {
+      next.executeForSet(stmt)
+    }
+
+    def executeForRowsAffected(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[Long] = {
+      next.executeForRowsAffected(stmt)
+    }
+
+    private[implbase] def streamLimited(stmt: ExecutableStatementPartialImpl, maxRows: Long)
+                                       (implicit timeout: Timeout): RowPublisher = {
+      next.streamLimited(stmt, maxRows)
+    }
+  }
+
+  /* end of the chain, executes the statement */
+  private object Execution extends Next {
+    def stream(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): RowPublisher = {
+      stmt.streamUnintercepted()
+    }
+
+    def executeForSet(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[ResultSet] = {
+      stmt.executeForSetUnintercepted()
+    }
+
+    def executeForRowsAffected(stmt: ExecutableStatementPartialImpl)(implicit timeout: Timeout): Future[Long] = {
+      stmt.executeForRowsAffectedUnintercepted()
+    }
+
+    private[implbase] def streamLimited(stmt: ExecutableStatementPartialImpl, maxRows: Long)
+                                       (implicit timeout: Timeout): RowPublisher = {
+      stmt.streamLimitedUnintercepted(maxRows)
+    }
+  }
+}
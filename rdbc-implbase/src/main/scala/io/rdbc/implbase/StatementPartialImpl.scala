@@ -0,0 +1,124 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.TimeoutException
+import io.rdbc.util.Preconditions.checkNotNull
+import io.rdbc.{ImmutIndexedSeq, ImmutSeq}
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.Try
+
+trait StatementPartialImpl extends Statement {
+  implicit protected def ec: ExecutionContext
+
+  override def executeBatch(args: ImmutSeq[Map[String, Any]])
+                           (implicit timeout: Timeout): Future[Array[Long]] = {
+    checkNotNull(args)
+    checkNotNull(timeout)
+    executeAll(args.size, args.iterator.map(namedArgs => () => bind(namedArgs.toSeq: _*)))
+  }
+
+  override def executeBatchByIdx(args: ImmutSeq[ImmutIndexedSeq[Any]])
+                                (implicit timeout: Timeout): Future[Array[Long]] = {
+    checkNotNull(args)
+    checkNotNull(timeout)
+    executeAll(args.size, args.iterator.map(idxArgs => () => bindByIdx(idxArgs: _*)))
+  }
+
+  /** Whether executions of a batch may be issued before earlier ones
+    * complete.
+    *
+    * Drivers that queue executions on a connection should return `true`, so
+    * that batches are passed to `executeBatchPipelined` and don't wait for
+    * a round trip per element. The default is `false`: elements are executed
+    * one after another.
+    */
+  protected def pipelinesBatches: Boolean = false
+
+  /** Executes all bound statements of a batch when `pipelinesBatches` is
+    * `true`.
+    *
+    * The default implementation issues all executions before awaiting any
+    * of them, each limited by the batch timeout. If an execution fails, the
+    * batch fails, but executions issued after it are not withdrawn. Drivers
+    * can override this method, for instance to send the whole batch in
+    * a single message.
+    */
+  protected def executeBatchPipelined(stmts: ImmutIndexedSeq[ExecutableStatement])
+                                     (implicit timeout: Timeout): Future[Array[Long]] = {
+    val results = stmts.map(_.executeForRowsAffected())
+    Future.sequence(results).map(_.toArray)
+  }
+
+  private def executeAll(count: Int, stmts: Iterator[() => ExecutableStatement])
+                        (implicit timeout: Timeout): Future[Array[Long]] = {
+    if (pipelinesBatches) {
+      Future.fromTry(Try(stmts.map(_()).toVector)).flatMap(executeBatchPipelined(_))
+    } else {
+      executeEach(count, stmts)
+    }
+  }
+
+  /* Executes statements one after another, used unless the driver
+     pipelines batches.
+
+     The timeout applies to the batch as a whole: each execution gets the time
+     left until the batch deadline, so the batch never takes longer than
+     the timeout no matter how many executions it consists of. */
+  private def executeEach(count: Int, stmts: Iterator[() => ExecutableStatement])
+                         (implicit timeout: Timeout): Future[Array[Long]] = {
+    val rowsAffected = new Array[Long](count)
+    val deadline = batchDeadline(timeout)
+
+    def executeFrom(idx: Int): Future[Array[Long]] = {
+      if (stmts.hasNext) {
+        remainingTimeout(timeout, deadline).flatMap { remaining =>
+          Future.fromTry(Try(stmts.next()()))
+            .flatMap(_.executeForRowsAffected()(remaining))
+        }.flatMap { affected =>
+          rowsAffected(idx) = affected
+          executeFrom(idx + 1)
+        }
+      } else {
+        Future.successful(rowsAffected)
+      }
+    }
+
+    executeFrom(0)
+  }
+
+  private def batchDeadline(timeout: Timeout): Option[Long] = {
+    timeout.value match {
+      case finite: FiniteDuration => Some(System.nanoTime() + finite.toNanos)
+      case _ => None
+    }
+  }
+
+  private def remainingTimeout(timeout: Timeout, deadline: Option[Long]): Future[Timeout] = {
+    deadline match {
+      case Some(deadlineNanos) =>
+        val remainingNanos = deadlineNanos - System.nanoTime()
+        if (remainingNanos > 0L) Future.successful(Timeout(remainingNanos.nanos))
+        else Future.failed(new TimeoutException(timeout))
+
+      case None => Future.successful(timeout)
+    }
+  }
+}
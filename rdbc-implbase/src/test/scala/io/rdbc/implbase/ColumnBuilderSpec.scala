@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.Column._
+
+class ColumnBuilderSpec extends RdbcImplbaseSpec {
+
+  "ColumnBuilder" should {
+
+    "build int columns" in {
+      val col = build(Some(1), None, Some(3.toShort)).asInstanceOf[IntColumn]
+
+      col.values(0) shouldBe 1
+      col.values(2) shouldBe 3
+      nullRows(col) shouldBe Vector(1)
+    }
+
+    "build long columns" in {
+      val col = build(None, Some(10L), Some(20L)).asInstanceOf[LongColumn]
+
+      col.values.drop(1) shouldBe Array(10L, 20L)
+      nullRows(col) shouldBe Vector(0)
+    }
+
+    "build double columns" in {
+      val col = build(Some(1.5), Some(2.5f)).asInstanceOf[DoubleColumn]
+
+      col.values shouldBe Array(1.5, 2.5)
+      nullRows(col) shouldBe empty
+    }
+
+    "build dictionary-encoded string columns" in {
+      val col = build(Some("a"), Some("b"), None, Some("a")).asInstanceOf[StringColumn]
+
+      col.dictionary shouldBe Array("a", "b")
+      col.codes(0) shouldBe 0
+      col.codes(1) shouldBe 1
+      col.codes(3) shouldBe 0
+      (0 until col.size).map(col.value) shouldBe Vector("a", "b", null, "a")
+    }
+
+    "fall back to object columns when value types differ" in {
+      val col = build(Some(1), None, Some("x")).asInstanceOf[ObjectColumn]
+
+      col.values(0) shouldBe 1
+      col.values(2) shouldBe "x"
+      nullRows(col) shouldBe Vector(1)
+    }
+
+    "build object columns for values without specialized representation" in {
+      val value = BigDecimal(1)
+      val col = build(Some(value)).asInstanceOf[ObjectColumn]
+
+      col.values shouldBe Array(value)
+    }
+
+    "build object columns if there are only nulls" in {
+      val col = build(None, None).asInstanceOf[ObjectColumn]
+
+      col.size shouldBe 2
+      nullRows(col) shouldBe Vector(0, 1)
+    }
+
+    "build columns larger than initial capacity" in {
+      val col = build((0 until 1000).map(i => Some(i.toLong)): _*).asInstanceOf[LongColumn]
+
+      col.values shouldBe (0 until 1000).map(_.toLong).toArray
+    }
+  }
+
+  private def build(values: Option[Any]*) = {
+    val builder = new ColumnBuilder
+    values.foreach(builder.append)
+    builder.result()
+  }
+
+  private def nullRows(col: io.rdbc.sapi.Column): Vector[Int] = {
+    (0 until col.size).filter(col.isNull).toVector
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.{Column, ColumnMetadata, RowMetadata, Timeout}
+
+import scala.concurrent.{ExecutionContext, Promise}
+import scala.reflect.ClassTag
+
+class ColumnsSubscriberSpec extends RdbcImplbaseSpec {
+
+  private implicit val timeout: Timeout = Timeout.Inf
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+
+  private val metadata = RowMetadata(Vector(ColumnMetadata("id", "int8")))
+
+  "ColumnsSubscriber" should {
+
+    "keep row order when metadata is known before the first row" in {
+      val promise = Promise[RowMetadata]
+      val subscriber = new ColumnsSubscriber(promise.future)
+
+      promise.success(metadata)
+      (1L to 3L).foreach(i => subscriber.onNext(new TestRow(i)))
+      subscriber.onComplete()
+
+      ids(subscriber) shouldBe Vector(1L, 2L, 3L)
+    }
+
+    "keep row order when metadata becomes known after the stream completes" in {
+      val promise = Promise[RowMetadata]
+      val subscriber = new ColumnsSubscriber(promise.future)
+
+      (1L to 3L).foreach(i => subscriber.onNext(new TestRow(i)))
+      subscriber.onComplete()
+      promise.success(metadata)
+
+      ids(subscriber) shouldBe Vector(1L, 2L, 3L)
+    }
+
+    "keep row order when metadata becomes known between rows" in {
+      val promise = Promise[RowMetadata]
+      val subscriber = new ColumnsSubscriber(promise.future)
+
+      subscriber.onNext(new TestRow(1L))
+      subscriber.onNext(new TestRow(2L))
+      promise.success(metadata)
+      subscriber.onNext(new TestRow(3L))
+      subscriber.onComplete()
+
+      ids(subscriber) shouldBe Vector(1L, 2L, 3L)
+    }
+
+    "fail if metadata fails" in {
+      val failure = new RuntimeException
+      val subscriber = new ColumnsSubscriber(Promise[RowMetadata].failure(failure).future)
+
+      subscriber.onNext(new TestRow(1L))
+      subscriber.onComplete()
+
+      the[RuntimeException] thrownBy {
+        subscriber.columns.get
+      } shouldBe theSameInstanceAs(failure)
+    }
+  }
+
+  private def ids(subscriber: ColumnsSubscriber): Vector[Long] = {
+    val (rowCount, columns) = subscriber.columns.get
+    val ids = columns.head.asInstanceOf[Column.LongColumn]
+    ids.values.toVector.take(rowCount)
+  }
+
+  private class TestRow(id: Long) extends RowPartialImpl {
+    override def colOpt[A: ClassTag](idx: Int): Option[A] = Some(id).asInstanceOf[Option[A]]
+
+    override def colOpt[A: ClassTag](name: String): Option[A] = ???
+  }
+
+}
@@ -17,6 +17,7 @@
 package io.rdbc.implbase
 
 import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.{IllegalSessionStateException, MixedParamTypesException}
 import io.rdbc.implbase.Compat._
 import org.scalamock.scalatest.MockFactory
 
@@ -156,6 +157,48 @@ class ConnectionPartialImplSpec
     }
   }
 
+  "ConnectionPartialImpl" when {
+    "preparing statements" should {
+      "delegate to plain statements by default" in {
+        val conn = new TestConn
+        val sql = "select :x"
+        val stmt = mock[Statement]
+        val execStmt = mock[ExecutableStatement]
+
+        inSequence {
+          conn.statementMock.expects(sql, StatementOptions.Default).once().returning(stmt)
+          (stmt.bind _).expects(Seq("x" -> 1)).once().returning(execStmt)
+        }
+
+        val prepared = conn.prepare(sql).get
+        prepared.metadata shouldBe empty
+        prepared.bind("x" -> 1) shouldBe theSameInstanceAs(execStmt)
+      }
+
+      "fail to bind closed statements" in {
+        val conn = new TestConn
+        conn.statementMock.expects(*, *).once().returning(mock[Statement])
+
+        val prepared = conn.prepare("select 1").get
+        prepared.close().get
+
+        assertThrows[IllegalSessionStateException] {
+          prepared.noArgs
+        }
+      }
+
+      "fail if the statement can't be created" in {
+        val conn = new TestConn
+        val failure = new MixedParamTypesException
+        conn.statementMock.expects(*, *).once().throwing(failure)
+
+        the[MixedParamTypesException] thrownBy {
+          conn.prepare("select :x, ?").get
+        } shouldBe theSameInstanceAs(failure)
+      }
+    }
+  }
+
   class TestConn
     extends ConnectionPartialImpl {
 
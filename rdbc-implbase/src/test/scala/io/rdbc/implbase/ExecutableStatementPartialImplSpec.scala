@@ -16,21 +16,26 @@
 
 package io.rdbc.implbase
 
+import java.util.concurrent.ConcurrentLinkedQueue
+
 import akka.actor.ActorSystem
 import akka.stream.ActorMaterializer
 import akka.stream.scaladsl.{Sink, Source}
 import io.rdbc.ImmutSeq
-import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, NoKeysReturnedException}
-import io.rdbc.sapi.{Row, RowMetadata, RowPublisher, Timeout, Warning}
-import org.reactivestreams.Subscriber
+import io.rdbc.implbase.ExecutableStatementPartialImplSpec.TestRecord
+import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, ConversionException, NoKeysReturnedException}
+import io.rdbc.sapi.{Column, ColumnMetadata, ResultSet, Row, RowMetadata, RowPublisher, Timeout, Warning}
+import org.reactivestreams.{Subscriber, Subscription}
 import org.scalamock.scalatest.MockFactory
+import org.scalatest.concurrent.Eventually
 
-import scala.concurrent.{ExecutionContext, Future}
+import scala.concurrent.{ExecutionContext, Future, Promise}
 import scala.reflect.ClassTag
 
 class ExecutableStatementPartialImplSpec
   extends RdbcImplbaseSpec
-    with MockFactory {
+    with MockFactory
+    with Eventually {
 
   private implicit val actorSystem: ActorSystem = ActorSystem()
   private implicit val materializer: ActorMaterializer = ActorMaterializer()
@@ -50,6 +55,13 @@ class ExecutableStatementPartialImplSpec
         new TestStmt(Vector.empty).executeForFirstRow().get shouldBe empty
       }
 
+      "stream at most one row" in {
+        val stmt = new TestStmt(Vector(mock[Row], mock[Row], mock[Row]))
+        stmt.executeForFirstRow().get
+
+        stmt.streamLimits shouldBe Vector(1L)
+      }
+
       "fail if source fails" in {
         val rows = Vector(mock[Row], mock[Row], mock[Row])
 
@@ -170,6 +182,211 @@ class ExecutableStatementPartialImplSpec
       }
     }
 
+    "executed with metrics enabled" should {
+      "report latency, rows and rows affected of successful executions" in {
+        val metrics = new HistogramMetrics
+        val stmt = new TestStmt(Vector(mock[Row], mock[Row]), metricsListener = metrics)
+
+        stmt.executeForSet().get
+        eventually {
+          metrics.statementLatency.count shouldBe 1L
+        }
+        metrics.rowsStreamed.max shouldBe 2L
+        metrics.rowsAffected.max shouldBe 2L
+      }
+
+      "report failed executions" in {
+        val metrics = new HistogramMetrics
+        val stmt = new TestStmt(Vector(mock[Row]), failOn = Some(0), metricsListener = metrics)
+
+        assertThrows[RuntimeException] {
+          stmt.executeForSet().get
+        }
+        eventually {
+          metrics.failedStatements shouldBe 1L
+        }
+        metrics.statementLatency.count shouldBe 0L
+      }
+
+      "report streams when they are done" in {
+        val metrics = new HistogramMetrics
+        val stmt = new TestStmt(Vector(mock[Row], mock[Row], mock[Row]), metricsListener = metrics)
+        val subscriber = new HeadSubscriber(None)
+
+        stmt.stream().subscribe(subscriber)
+
+        subscriber.rows.get should have size 3
+        eventually {
+          metrics.statementLatency.count shouldBe 1L
+        }
+        metrics.rowsStreamed.max shouldBe 3L
+      }
+    }
+
+    "executed with interceptors" should {
+      "invoke interceptors in order" in {
+        val calls = new ConcurrentLinkedQueue[String]
+        def interceptor(name: String) = new StatementInterceptor {
+          override def executeForSet(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                                    (implicit timeout: Timeout): Future[ResultSet] = {
+            calls.add(s"$name set")
+            next.executeForSet(stmt)
+          }
+
+          override def stream(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                             (implicit timeout: Timeout): RowPublisher = {
+            calls.add(s"$name stream")
+            next.stream(stmt)
+          }
+        }
+        val rows = Vector(mock[Row])
+        val stmt = new TestStmt(rows, interceptorChain = StatementInterceptors(interceptor("a"), interceptor("b")))
+
+        stmt.executeForSet().get.rows shouldBe rows
+        calls.toArray.toVector shouldBe Vector("a set", "b set")
+      }
+
+      "intercept streams started by the caller" in {
+        val calls = new ConcurrentLinkedQueue[String]
+        val interceptor = new StatementInterceptor {
+          override def stream(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                             (implicit timeout: Timeout): RowPublisher = {
+            calls.add("stream")
+            next.stream(stmt)
+          }
+        }
+        val stmt = new TestStmt(Vector(mock[Row]), interceptorChain = StatementInterceptors(interceptor))
+
+        stmt.stream()
+        stmt.executeForRowsAffected().get shouldBe 1L
+        calls.toArray.toVector shouldBe Vector("stream")
+      }
+
+      "intercept limited streams of first row executions as streams" in {
+        val calls = new ConcurrentLinkedQueue[String]
+        val interceptor = new StatementInterceptor {
+          override def stream(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                             (implicit timeout: Timeout): RowPublisher = {
+            calls.add("stream")
+            next.stream(stmt)
+          }
+        }
+        val row = mock[Row]
+        val stmt = new TestStmt(Vector(row, mock[Row]), interceptorChain = StatementInterceptors(interceptor))
+
+        stmt.executeForFirstRow().get shouldBe Some(row)
+        calls.toArray.toVector shouldBe Vector("stream")
+        stmt.streamLimits shouldBe Vector(1L)
+      }
+
+      "report executions completed by interceptors to metrics" in {
+        val metrics = new HistogramMetrics
+        val interceptor = new StatementInterceptor {
+          override def executeForRowsAffected(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                                             (implicit timeout: Timeout): Future[Long] = {
+            Future.successful(42L)
+          }
+        }
+        val stmt = new TestStmt(Vector.empty, metricsListener = metrics,
+          interceptorChain = StatementInterceptors(interceptor))
+
+        stmt.executeForRowsAffected().get shouldBe 42L
+        eventually {
+          metrics.statementLatency.count shouldBe 1L
+        }
+      }
+
+      "return results of short-circuiting interceptors" in {
+        val interceptor = new StatementInterceptor {
+          override def executeForRowsAffected(stmt: ExecutableStatementPartialImpl, next: StatementInterceptors.Next)
+                                             (implicit timeout: Timeout): Future[Long] = {
+            Future.successful(42L)
+          }
+        }
+        val stmt = new TestStmt(Vector(mock[Row]), interceptorChain = StatementInterceptors(interceptor))
+
+        stmt.executeForRowsAffected().get shouldBe 42L
+      }
+    }
+
+    "executed for columns" should {
+      "return values of all rows stored by columns" in {
+        val rows = Vector(
+          new TestRow(Vector(Some(1L), Some("a"))),
+          new TestRow(Vector(None, Some("b"))),
+          new TestRow(Vector(Some(3L), Some("a")))
+        )
+        val metadata = RowMetadata(Vector(ColumnMetadata("id", "int8"), ColumnMetadata("name", "text")))
+
+        val rs = new TestStmt(rows, metadata = metadata).executeForColumns().get
+
+        rs.rowCount shouldBe 3
+        rs.metadata shouldBe metadata
+        val ids = rs.column("id").asInstanceOf[Column.LongColumn]
+        ids.values(0) shouldBe 1L
+        ids.values(2) shouldBe 3L
+        ids.isNull(1) shouldBe true
+        val names = rs.column(1).asInstanceOf[Column.StringColumn]
+        (0 until 3).map(names.value) shouldBe Vector("a", "b", "a")
+        names.dictionary should have size 2
+      }
+
+      "return rows affected" in {
+        new TestStmt(Vector.empty).executeForColumns().get.rowsAffected shouldBe 0L
+      }
+
+      "fail if source fails" in {
+        val rows = Vector(new TestRow(Vector(Some(1))), new TestRow(Vector(Some(2))))
+        val metadata = RowMetadata(Vector(ColumnMetadata("id", "int4")))
+
+        the[RuntimeException] thrownBy {
+          new TestStmt(rows, failOn = Some(1), metadata = metadata).executeForColumns().get
+        }.shouldBe(theSameInstanceAs(publisherFailure))
+      }
+    }
+
+    "executed for decoded rows" should {
+      val metadata = RowMetadata(Vector(ColumnMetadata("name", "text"), ColumnMetadata("id", "int8")))
+
+      "return all rows decoded" in {
+        val rows = Vector(new TestRow(Vector(Some("a"), Some(1L))), new TestRow(Vector(Some("b"), Some(2L))))
+
+        new TestStmt(rows, metadata = metadata).executeForSetAs[TestRecord]().get shouldBe Vector(
+          TestRecord(1L, "a"), TestRecord(2L, "b")
+        )
+      }
+
+      "fail if source fails" in {
+        val rows = Vector(new TestRow(Vector(Some("a"), Some(1L))))
+
+        the[RuntimeException] thrownBy {
+          new TestStmt(rows, failOn = Some(0), metadata = metadata).executeForSetAs[TestRecord]().get
+        }.shouldBe(theSameInstanceAs(publisherFailure))
+      }
+    }
+
+    "streamed as decoded values" should {
+      val metadata = RowMetadata(Vector(ColumnMetadata("name", "text"), ColumnMetadata("id", "int8")))
+
+      "publish decoded rows" in {
+        val rows = Vector(new TestRow(Vector(Some("a"), Some(1L))), new TestRow(Vector(Some("b"), Some(2L))))
+        val publisher = new TestStmt(rows, metadata = metadata).stream().as[TestRecord]
+
+        Source.fromPublisher(publisher).runWith(Sink.seq).get shouldBe Vector(
+          TestRecord(1L, "a"), TestRecord(2L, "b")
+        )
+      }
+
+      "fail if rows can't be decoded" in {
+        val rows = Vector(new TestRow(Vector(Some("a"), None)))
+        val publisher = new TestStmt(rows, metadata = metadata).stream().as[TestRecord]
+
+        assertThrows[ConversionException] {
+          Source.fromPublisher(publisher).runWith(Sink.seq).get
+        }
+      }
+    }
+
     "executed for rows affected" should {
       "return number of affected rows" in {
         val rows = Vector(mock[Row], mock[Row], mock[Row])
@@ -209,12 +426,34 @@ class ExecutableStatementPartialImplSpec
   class TestStmt(rows: Vector[Row],
                  failOn: Option[Int] = None,
                  warnings: Vector[Warning] = Vector.empty,
-                 metadata: RowMetadata = RowMetadata(Vector.empty)) extends ExecutableStatementPartialImpl {
+                 metadata: RowMetadata = RowMetadata(Vector.empty),
+                 metricsListener: RdbcMetrics = RdbcMetrics.Disabled,
+                 interceptorChain: StatementInterceptors = StatementInterceptors.Empty)
+    extends ExecutableStatementPartialImpl {
     implicit protected val ec: ExecutionContext = ExecutionContext.global
 
-    def stream()(implicit timeout: Timeout): RowPublisher = {
+    override protected val metrics: RdbcMetrics = metricsListener
+
+    override protected val interceptors: StatementInterceptors = interceptorChain
+
+    val statementSql: String = "select * from t"
+
+    @volatile var streamLimits = Vector.empty[Long]
+
+    protected def executeStream()(implicit timeout: Timeout): RowPublisher = {
       new TestRowPublisher(rows, failOn, warnings, metadata)
     }
+
+    override protected def streamLimited(maxRows: Long)(implicit timeout: Timeout): RowPublisher = {
+      streamLimits = streamLimits :+ maxRows
+      new TestRowPublisher(rows.take(maxRows.toInt), failOn, warnings, metadata)
+    }
+  }
+
+  class TestRow(values: Vector[Option[Any]]) extends RowPartialImpl {
+    override def colOpt[A: ClassTag](idx: Int): Option[A] = values(idx).asInstanceOf[Option[A]]
+
+    override def colOpt[A: ClassTag](name: String): Option[A] = ???
   }
 
   class TestRowPublisher(rows: Vector[Row],
@@ -237,11 +476,31 @@ class ExecutableStatementPartialImplSpec
 
     val metadata: Future[RowMetadata] = Future.successful(mdata)
 
-    def done: Future[Unit] = ???
+    private val donePromise = Promise[Unit]
+
+    def done: Future[Unit] = donePromise.future
 
     def subscribe(s: Subscriber[_ >: Row]): Unit = {
-      publisher.subscribe(s)
+      publisher.subscribe(new Subscriber[Row] {
+        def onSubscribe(subscription: Subscription): Unit = s.onSubscribe(subscription)
+
+        def onNext(row: Row): Unit = s.onNext(row)
+
+        def onError(t: Throwable): Unit = {
+          s.onError(t)
+          donePromise.failure(t)
+        }
+
+        def onComplete(): Unit = {
+          s.onComplete()
+          donePromise.success(())
+        }
+      })
     }
   }
 
 }
+
+object ExecutableStatementPartialImplSpec {
+  case class TestRecord(id: Long, name: String)
+}
@@ -65,6 +65,8 @@ class HeadSubscriberVerification
     def localDateTime(name: String): LocalDateTime = ???
     def localDateTime(idx: Int): LocalDateTime = ???
     def col[A: ClassTag](idx: Int): A = ???
+    def isNull(idx: Int): Boolean = ???
+    def isNull(name: String): Boolean = ???
     def col[A: ClassTag](name: String): A = ???
     def shortOpt(name: String): Option[Short] = ???
     def shortOpt(idx: Int): Option[Short] = ???
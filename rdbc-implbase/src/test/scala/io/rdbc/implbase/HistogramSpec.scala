@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+class HistogramSpec extends RdbcImplbaseSpec {
+
+  "Histogram" should {
+
+    "count small values exactly" in {
+      val histogram = new Histogram
+      (1L to 10L).foreach(histogram.record)
+
+      histogram.count shouldBe 10L
+      histogram.mean shouldBe 5.5
+      histogram.max shouldBe 10L
+      histogram.valueAtPercentile(50.0) shouldBe 5L
+      histogram.valueAtPercentile(100.0) shouldBe 10L
+    }
+
+    "return percentiles of large values within 3%" in {
+      val histogram = new Histogram
+      (1L to 1000L).foreach(i => histogram.record(i * 1000000L))
+
+      histogram.valueAtPercentile(50.0).toDouble shouldBe 500000000.0 +- 15000000.0
+      histogram.valueAtPercentile(99.0).toDouble shouldBe 990000000.0 +- 30000000.0
+      histogram.valueAtPercentile(100.0) shouldBe 1000000000L
+    }
+
+    "record extreme values" in {
+      val histogram = new Histogram
+      histogram.record(-1L)
+      histogram.record(Long.MaxValue)
+
+      histogram.valueAtPercentile(50.0) shouldBe 0L
+      histogram.valueAtPercentile(100.0) shouldBe Long.MaxValue
+    }
+
+    "summarize recorded values" in {
+      val histogram = new Histogram
+      (1L to 4L).foreach(histogram.record)
+
+      histogram.summary shouldBe Histogram.Summary(
+        count = 4L, mean = 2.5, p50 = 2L, p90 = 4L, p99 = 4L, p999 = 4L, max = 4L
+      )
+    }
+
+    "return zeros if empty" in {
+      val histogram = new Histogram
+      histogram.record(100L)
+      histogram.reset()
+
+      histogram.summary shouldBe Histogram.Summary(0L, 0.0, 0L, 0L, 0L, 0L, 0L)
+    }
+
+    "reject invalid percentiles" in {
+      assertThrows[IllegalArgumentException] {
+        new Histogram().valueAtPercentile(101.0)
+      }
+    }
+  }
+}
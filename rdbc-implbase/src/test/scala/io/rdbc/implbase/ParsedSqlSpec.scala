@@ -0,0 +1,138 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.exceptions._
+
+class ParsedSqlSpec extends RdbcImplbaseSpec {
+
+  private val pgPlaceholder = (idx: Int) => "$" + (idx + 1)
+
+  "ParsedSql" when {
+
+    "parsing SQL" should {
+
+      "find named parameters" in {
+        val parsed = ParsedSql.parse("select * from t where a = :a or b = :b_2 or c = :a")
+
+        parsed.paramCount shouldBe 3
+        parsed.paramNames shouldBe Vector("a", "b_2")
+        parsed.positionsOf("a") shouldBe Vector(0, 2)
+        parsed.render(pgPlaceholder) shouldBe "select * from t where a = $1 or b = $2 or c = $3"
+        parsed.positionalSql shouldBe "select * from t where a = ? or b = ? or c = ?"
+      }
+
+      "find positional parameters" in {
+        val parsed = ParsedSql.parse("insert into t values (?, ?)")
+
+        parsed.paramCount shouldBe 2
+        parsed.hasNamedParams shouldBe false
+        parsed.render(pgPlaceholder) shouldBe "insert into t values ($1, $2)"
+      }
+
+      "ignore parameters in literals, identifiers and comments" in {
+        val sql = "select ':a', '?''', \"b:c\", $$:d$$, $tag$ ? $tag$ -- :e\n" +
+          "/* :f /* ? */ :g */ from t where x = :x"
+        val parsed = ParsedSql.parse(sql)
+
+        parsed.paramNames shouldBe Vector("x")
+        parsed.render(pgPlaceholder) shouldBe sql.replace(":x", "$1")
+      }
+
+      "not treat casts and slices as parameters" in {
+        val parsed = ParsedSql.parse("select x::int, arr[1:2] from t where y = :y::text")
+
+        parsed.paramNames shouldBe Vector("y")
+        parsed.render(pgPlaceholder) shouldBe "select x::int, arr[1:2] from t where y = $1::text"
+      }
+
+      "return the same instance for the same SQL" in {
+        val sql = "select :a"
+        ParsedSql.parse(sql) shouldBe theSameInstanceAs(ParsedSql.parse(new String(sql)))
+      }
+
+      "keep recently used SQL cached" in {
+        val recent = ParsedSql.parse("select :recent")
+        val old = ParsedSql.parse("select :old")
+
+        (1 to 2 * ParsedSql.MaxCached).foreach { i =>
+          ParsedSql.parse(s"select :p$i")
+          if (i % 500 == 0) ParsedSql.parse("select :recent")
+        }
+
+        ParsedSql.parse("select :recent") shouldBe theSameInstanceAs(recent)
+        ParsedSql.parse("select :old") should not be theSameInstanceAs(old)
+      }
+
+      "reject mixed parameter types" in {
+        assertThrows[MixedParamTypesException] {
+          ParsedSql.parse("select :a, ?")
+        }
+      }
+    }
+
+    "binding arguments by name" should {
+
+      "fill every occurrence of parameters" in {
+        val parsed = ParsedSql.parse("select :a, :b, :a")
+
+        parsed.bindByName(Map("b" -> 2, "a" -> 1)).toVector shouldBe Vector(1, 2, 1)
+      }
+
+      "fail for unknown parameters" in {
+        val ex = the[NoSuchParamException] thrownBy {
+          ParsedSql.parse("select :a").bindByName(Seq("a" -> 1, "c" -> 3))
+        }
+        ex.param shouldBe "c"
+      }
+
+      "fail for missing values" in {
+        val ex = the[MissingParamValException] thrownBy {
+          ParsedSql.parse("select :a, :b").bindByName(Seq("a" -> 1))
+        }
+        ex.missingParam shouldBe "b"
+      }
+
+      "fail for positional parameters" in {
+        assertThrows[MissingParamValException] {
+          ParsedSql.parse("select ?").bindByName(Seq.empty)
+        }
+      }
+    }
+
+    "binding arguments by index" should {
+
+      "fill parameters in order" in {
+        ParsedSql.parse("select :a, :b, :a").bindByIdx(Vector(1, 2, 3)).toVector shouldBe Vector(1, 2, 3)
+      }
+
+      "fail for too many values" in {
+        val ex = the[TooManyParamsException] thrownBy {
+          ParsedSql.parse("select ?").bindByIdx(Vector(1, 2))
+        }
+        (ex.provided, ex.expected) shouldBe ((2, 1))
+      }
+
+      "fail for too few values" in {
+        val ex = the[MissingParamValException] thrownBy {
+          ParsedSql.parse("select :a, :b").bindByIdx(Vector(1))
+        }
+        ex.missingParam shouldBe "b"
+      }
+    }
+  }
+}
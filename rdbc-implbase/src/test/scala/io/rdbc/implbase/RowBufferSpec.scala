@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.Row
+import org.scalamock.scalatest.MockFactory
+
+class RowBufferSpec
+  extends RdbcImplbaseSpec
+    with MockFactory {
+
+  "RowBuffer" should {
+
+    "return appended rows in order" when {
+
+      "there are fewer rows than size hint" in {
+        runRowBufferTest(sizeHint = 10, rowCount = 3)
+      }
+
+      "there are as many rows as size hint" in {
+        runRowBufferTest(sizeHint = 8, rowCount = 8)
+      }
+
+      "there are more rows than size hint" in {
+        runRowBufferTest(sizeHint = 3, rowCount = 1000)
+      }
+
+      "size hint is zero" in {
+        runRowBufferTest(sizeHint = 0, rowCount = 100)
+      }
+    }
+
+    "return an empty sequence if no rows were appended" in {
+      new RowBuffer().result() shouldBe empty
+    }
+
+    "not expose rows appended after taking result" in {
+      val buf = new RowBuffer(2)
+      val rows = Vector.fill(3)(mock[Row])
+      buf.append(rows(0))
+      buf.append(rows(1))
+      val result = buf.result()
+      buf.append(rows(2))
+
+      result shouldBe rows.take(2)
+      buf.result() shouldBe rows
+    }
+
+    "fail on out of bounds access" in {
+      val buf = new RowBuffer()
+      buf.append(mock[Row])
+
+      assertThrows[IndexOutOfBoundsException] {
+        buf.result()(1)
+      }
+      assertThrows[IndexOutOfBoundsException] {
+        buf.result()(-1)
+      }
+    }
+  }
+
+  def runRowBufferTest(sizeHint: Int, rowCount: Int): Unit = {
+    val rows = Vector.fill(rowCount)(mock[Row])
+    val buf = new RowBuffer(sizeHint)
+    rows.foreach(buf.append)
+
+    val result = buf.result()
+    buf.size shouldBe rowCount
+    result shouldBe rows
+    result.indices.foreach { i =>
+      result(i) shouldBe theSameInstanceAs(rows(i))
+    }
+  }
+}
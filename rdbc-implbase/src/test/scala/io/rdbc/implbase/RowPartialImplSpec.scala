@@ -110,6 +110,55 @@ class RowPartialImplSpec
       }
     }
 
+    "null checks are used" should {
+
+      "tell SQL NULL values apart from non-null values" in {
+        val row = new TstRow(
+          named = Map("null" -> None, "notNull" -> Some("0")),
+          positional = Map(0 -> None, 1 -> Some("0"))
+        )
+
+        row.isNull("null") shouldBe true
+        row.isNull("notNull") shouldBe false
+        row.isNull(0) shouldBe true
+        row.isNull(1) shouldBe false
+      }
+    }
+
+    "primitive hooks are overridden" should {
+
+      "use them for primitive getters and null checks instead of colOpt" in {
+        val row = new PrimitiveRow
+
+        row.int(0) shouldBe 1
+        row.int("c") shouldBe 1
+        row.long(0) shouldBe 2L
+        row.long("c") shouldBe 2L
+        row.double(0) shouldBe 3.0d
+        row.double("c") shouldBe 3.0d
+        row.bool(0) shouldBe true
+        row.bool("c") shouldBe true
+        row.isNull(0) shouldBe false
+        row.isNull("c") shouldBe false
+      }
+    }
+
+    class PrimitiveRow extends RowPartialImpl {
+      override def colOpt[A: ClassTag](idx: Int): Option[A] = fail("colOpt must not be used")
+      override def colOpt[A: ClassTag](name: String): Option[A] = fail("colOpt must not be used")
+
+      override protected def nullValue(idx: Int): Boolean = false
+      override protected def nullValue(name: String): Boolean = false
+      override protected def intValue(idx: Int): Int = 1
+      override protected def intValue(name: String): Int = 1
+      override protected def longValue(idx: Int): Long = 2L
+      override protected def longValue(name: String): Long = 2L
+      override protected def doubleValue(idx: Int): Double = 3.0d
+      override protected def doubleValue(name: String): Double = 3.0d
+      override protected def boolValue(idx: Int): Boolean = true
+      override protected def boolValue(name: String): Boolean = true
+    }
+
     class TstRow(named: Map[String, Option[Any]] = Map.empty,
                  positional: Map[Int, Option[Any]] = Map.empty)
       extends RowPartialImpl {
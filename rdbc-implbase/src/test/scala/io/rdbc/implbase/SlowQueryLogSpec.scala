@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.ImmutSeq
+import io.rdbc.sapi.{Row, RowMetadata, RowPublisher, Timeout, Warning}
+import org.reactivestreams.{Subscriber, Subscription}
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future}
+
+class SlowQueryLogSpec
+  extends RdbcImplbaseSpec
+    with Eventually {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout.Inf
+
+  "SlowQueryLog" should {
+
+    "record statements slower than the threshold by fingerprint" in {
+      val log = new SlowQueryLog(threshold = Duration.Zero)
+      val interceptors = StatementInterceptors(log)
+
+      new TestStmt("select * from t where id = 1", interceptors).executeForRowsAffected().get
+      new TestStmt("select * from t where id = 2", interceptors).executeForRowsAffected().get
+
+      eventually {
+        log.entry("select * from t where id = ?").map(_.count) shouldBe Some(2L)
+      }
+      val entry = log.entries.head
+      entry.fingerprint shouldBe "select * from t where id = ?"
+      entry.slowCount shouldBe 2L
+      entry.failedCount shouldBe 0L
+    }
+
+    "not record fast statements unless sampled" in {
+      val log = new SlowQueryLog(threshold = 1.hour, sampleRate = 0.0)
+
+      new TestStmt("select 1", StatementInterceptors(log)).executeForRowsAffected().get
+
+      log.entries shouldBe empty
+    }
+
+    "record sampled statements" in {
+      val log = new SlowQueryLog(threshold = 1.hour, sampleRate = 1.0)
+
+      new TestStmt("select 1", StatementInterceptors(log)).executeForRowsAffected().get
+
+      eventually {
+        log.entry("select ?").map(entry => (entry.count, entry.slowCount)) shouldBe Some((1L, 0L))
+      }
+    }
+
+    "record streams and first row executions" in {
+      val log = new SlowQueryLog(threshold = Duration.Zero)
+      val interceptors = StatementInterceptors(log)
+
+      new TestStmt("select * from t where id = 1", interceptors).executeForFirstRow().get
+      new TestStmt("select * from t where id = 2", interceptors).stream().done.get
+
+      eventually {
+        log.entry("select * from t where id = ?").map(_.count) shouldBe Some(2L)
+      }
+    }
+
+    "not keep SQL unless enabled" in {
+      val log = new SlowQueryLog(threshold = Duration.Zero)
+
+      new TestStmt("select * from t where id = 1", StatementInterceptors(log)).executeForRowsAffected().get
+
+      eventually {
+        log.entries.map(_.lastSql) shouldBe Vector(None)
+      }
+    }
+
+    "keep SQL of the last execution if enabled" in {
+      val log = new SlowQueryLog(threshold = Duration.Zero, keepSql = true)
+
+      new TestStmt("select * from t where id = 1", StatementInterceptors(log)).executeForRowsAffected().get
+
+      eventually {
+        log.entries.map(_.lastSql) shouldBe Vector(Some("select * from t where id = 1"))
+      }
+    }
+
+    "drop fingerprints over the limit" in {
+      val log = new SlowQueryLog(threshold = Duration.Zero, maxFingerprints = 1)
+      val interceptors = StatementInterceptors(log)
+
+      new TestStmt("select a from t", interceptors).executeForRowsAffected().get
+      eventually {
+        log.entries should have size 1
+      }
+      new TestStmt("select b from t", interceptors).executeForRowsAffected().get
+
+      eventually {
+        log.droppedCount shouldBe 1L
+      }
+      log.entries.map(_.fingerprint) shouldBe Vector("select a from t")
+    }
+  }
+
+  class TestStmt(sql: String, interceptorChain: StatementInterceptors) extends ExecutableStatementPartialImpl {
+    implicit protected val ec: ExecutionContext = ExecutionContext.global
+
+    override protected val interceptors: StatementInterceptors = interceptorChain
+
+    val statementSql: String = sql
+
+    protected def executeStream()(implicit timeout: Timeout): RowPublisher = new EmptyRowPublisher
+  }
+
+  class EmptyRowPublisher extends RowPublisher {
+    val rowsAffected: Future[Long] = Future.successful(0L)
+
+    val warnings: Future[ImmutSeq[Warning]] = Future.successful(Vector.empty)
+
+    val metadata: Future[RowMetadata] = Future.successful(RowMetadata(Vector.empty))
+
+    val done: Future[Unit] = Future.successful(())
+
+    def subscribe(s: Subscriber[_ >: Row]): Unit = {
+      s.onSubscribe(new Subscription {
+        def request(n: Long): Unit = ()
+
+        def cancel(): Unit = ()
+      })
+      s.onComplete()
+    }
+  }
+}
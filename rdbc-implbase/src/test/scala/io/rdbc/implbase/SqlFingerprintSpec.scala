@@ -0,0 +1,47 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+class SqlFingerprintSpec extends RdbcImplbaseSpec {
+
+  "SqlFingerprint" should {
+
+    "replace literals with placeholders" in {
+      SqlFingerprint.of("select * from t where a = 'it''s' and b = 1.5e3 and c = $$x$$") shouldBe
+        "select * from t where a = ? and b = ? and c = ?"
+    }
+
+    "replace parameters of all kinds with placeholders" in {
+      SqlFingerprint.of("select :a, col1 from t where x = ? and y = $2") shouldBe
+        "select ?, col1 from t where x = ? and y = ?"
+    }
+
+    "collapse lists of placeholders" in {
+      SqlFingerprint.of("select * from t where id in (1, 2,3)") shouldBe "select * from t where id in (?)"
+    }
+
+    "remove comments, collapse whitespace and lower case keywords" in {
+      SqlFingerprint.of("  SELECT /* c */ *\n  FROM \"Tbl\" -- c\n WHERE x::int > 0 ") shouldBe
+        "select * from \"Tbl\" where x::int > ?"
+    }
+
+    "return the same fingerprint for statements differing in values" in {
+      SqlFingerprint.of("update t set a = 'x' where id = 1") shouldBe
+        SqlFingerprint.of("UPDATE t SET a = 'yy' WHERE id = 200")
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi.StatementOptions
+
+class StatementCacheSpec extends RdbcImplbaseSpec {
+
+  private val opts = StatementOptions.Default
+
+  "StatementCache" should {
+
+    "return cached values" in {
+      val cache = new StatementCache[AnyRef](2)
+      val value = new AnyRef
+
+      cache.getOrCreate("select 1", opts)(value) shouldBe theSameInstanceAs(value)
+      cache.getOrCreate("select 1", opts)(new AnyRef) shouldBe theSameInstanceAs(value)
+      cache.get("select 1", opts) shouldBe Some(value)
+      cache.stats shouldBe StatementCache.Stats(hits = 2L, misses = 1L, evictions = 0L)
+    }
+
+    "evict least recently used values when full" in {
+      val evicted = Vector.newBuilder[(String, Int)]
+      val cache = new StatementCache[Int](2, (key, value) => evicted += key.sql -> value)
+
+      cache.getOrCreate("a", opts)(1)
+      cache.getOrCreate("b", opts)(2)
+      cache.get("a", opts)
+      cache.getOrCreate("c", opts)(3)
+
+      evicted.result() shouldBe Vector("b" -> 2)
+      cache.size shouldBe 2
+      cache.get("b", opts) shouldBe empty
+      cache.stats.evictions shouldBe 1L
+    }
+
+    "not evict values in use" in {
+      val evicted = Vector.newBuilder[Int]
+      val cache = new StatementCache[Int](2, (_, value) => evicted += value, (_, value) => value == 1)
+
+      cache.getOrCreate("a", opts)(1)
+      cache.getOrCreate("b", opts)(2)
+      cache.getOrCreate("c", opts)(3)
+
+      evicted.result() shouldBe Vector(2)
+      cache.get("a", opts) shouldBe Some(1)
+    }
+
+    "grow above its size when all values are in use" in {
+      val cache = new StatementCache[Int](1, (_, _) => (), (_, _) => true)
+
+      cache.getOrCreate("a", opts)(1)
+      cache.getOrCreate("b", opts)(2)
+
+      cache.size shouldBe 2
+      cache.stats.evictions shouldBe 0L
+    }
+
+    "keep a value cached while another one was created and evict the created one" in {
+      val evicted = Vector.newBuilder[Int]
+      val cache = new StatementCache[Int](2, (_, value) => evicted += value)
+
+      val value = cache.getOrCreate("a", opts) {
+        cache.getOrCreate("a", opts)(1)
+        2
+      }
+
+      value shouldBe 1
+      cache.get("a", opts) shouldBe Some(1)
+      evicted.result() shouldBe Vector(2)
+    }
+
+    "pass invalidated and cleared values to the eviction callback" in {
+      val evicted = Vector.newBuilder[Int]
+      val cache = new StatementCache[Int](3, (_, value) => evicted += value)
+
+      cache.getOrCreate("a", opts)(1)
+      cache.getOrCreate("b", opts)(2)
+      cache.getOrCreate("c", opts)(3)
+      cache.invalidate("b", opts)
+      cache.clear()
+
+      evicted.result() shouldBe Vector(2, 1, 3)
+      cache.size shouldBe 0
+    }
+
+    "ignore eviction callback errors" in {
+      val cache = new StatementCache[Int](1, (_, _) => throw new RuntimeException)
+
+      cache.getOrCreate("a", opts)(1)
+      cache.getOrCreate("b", opts)(2) shouldBe 2
+      cache.get("b", opts) shouldBe Some(2)
+    }
+
+    "not store anything if its size is 0" in {
+      val cache = new StatementCache[Int](0)
+
+      cache.getOrCreate("a", opts)(1)
+      cache.getOrCreate("a", opts)(2) shouldBe 2
+      cache.size shouldBe 0
+      cache.stats.hitRatio shouldBe 0.0
+    }
+
+    "report hit ratio" in {
+      StatementCache.Stats(hits = 3L, misses = 1L, evictions = 0L).hitRatio shouldBe 0.75
+    }
+
+    "reject negative sizes" in {
+      assertThrows[IllegalArgumentException] {
+        new StatementCache[Int](-1)
+      }
+    }
+  }
+}
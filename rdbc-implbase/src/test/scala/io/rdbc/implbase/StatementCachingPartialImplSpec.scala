@@ -0,0 +1,197 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.{MixedParamTypesException, UnsupportedDbTypeException}
+import org.scalamock.scalatest.MockFactory
+
+import scala.concurrent.{ExecutionContext, Future}
+
+class StatementCachingPartialImplSpec
+  extends RdbcImplbaseSpec
+    with MockFactory {
+
+  private implicit val timeout = Timeout.Inf
+
+  "StatementCachingPartialImpl" when {
+    "creating statements" should {
+      "reuse statements for the same SQL and options" in {
+        val conn = new TestConn
+        val stmt = mock[Statement]
+        conn.statementMock.expects("select 1", StatementOptions.Default).once().returning(stmt)
+
+        conn.statement("select 1") shouldBe theSameInstanceAs(stmt)
+        conn.statement("select 1", StatementOptions.Default) shouldBe theSameInstanceAs(stmt)
+        conn.statementCacheStats shouldBe StatementCache.Stats(hits = 1L, misses = 1L, evictions = 0L)
+      }
+
+      "not reuse statements for different options" in {
+        val conn = new TestConn
+        conn.statementMock.expects("select 1", StatementOptions.Default).once().returning(mock[Statement])
+        conn.statementMock.expects("select 1", StatementOptions.ReturnGenKeys).once().returning(mock[Statement])
+
+        conn.statement("select 1")
+        conn.statement("select 1", StatementOptions.ReturnGenKeys)
+        conn.statementCacheStats.misses shouldBe 2L
+      }
+
+      "evict least recently used statements" in {
+        val conn = new TestConn(statementCacheSize = 2)
+        val stmt1 = mock[Statement]
+        conn.statementMock.expects("select 1", *).once().returning(stmt1)
+        conn.statementMock.expects("select 2", *).twice().returning(mock[Statement])
+        conn.statementMock.expects("select 3", *).once().returning(mock[Statement])
+
+        conn.statement("select 1")
+        conn.statement("select 2")
+        conn.statement("select 1")
+        conn.statement("select 3")
+        conn.statement("select 2")
+
+        conn.evicted.result().map(_._1) shouldBe Vector("select 2", "select 1")
+        conn.evicted.result()(1)._2 shouldBe theSameInstanceAs(stmt1)
+      }
+
+      "not evict statements in use" in {
+        val conn = new TestConn(statementCacheSize = 2)
+        val stmt1 = mock[Statement]
+        conn.statementMock.expects("select 1", *).once().returning(stmt1)
+        conn.statementMock.expects("select 2", *).once().returning(mock[Statement])
+        conn.statementMock.expects("select 3", *).once().returning(mock[Statement])
+        conn.inUse += stmt1
+
+        conn.statement("select 1")
+        conn.statement("select 2")
+        conn.statement("select 3")
+
+        conn.evicted.result().map(_._1) shouldBe Vector("select 2")
+        conn.statement("select 1") shouldBe theSameInstanceAs(stmt1)
+      }
+
+      "not cache statements if the cache is disabled" in {
+        val conn = new TestConn(statementCacheSize = 0)
+        conn.statementMock.expects("select 1", *).twice().returning(mock[Statement])
+
+        conn.statement("select 1")
+        conn.statement("select 1")
+        conn.statementCacheStats.hits shouldBe 0L
+      }
+
+      "pass parsed SQL to createStatement" in {
+        val conn = new TestConn
+        conn.statementMock.expects("select :x", *).once().returning(mock[Statement])
+
+        conn.statement("select :x")
+        conn.parsed.result().map(_.paramNames) shouldBe Vector(Vector("x"))
+      }
+
+      "fail without creating a statement if SQL can't be parsed" in {
+        val conn = new TestConn
+        conn.statementMock.expects(*, *).never()
+
+        assertThrows[MixedParamTypesException] {
+          conn.statement("select :x, ?")
+        }
+        conn.statementCacheStats.misses shouldBe 1L
+        conn.statementCacheStats.hits shouldBe 0L
+      }
+
+      "not cache statements that failed to be created" in {
+        val conn = new TestConn
+        val stmt = mock[Statement]
+        inSequence {
+          conn.statementMock.expects("select :x", *).once().throwing(new UnsupportedDbTypeException("x"))
+          conn.statementMock.expects("select :x", *).once().returning(stmt)
+        }
+
+        assertThrows[UnsupportedDbTypeException] {
+          conn.statement("select :x")
+        }
+        conn.statement("select :x") shouldBe theSameInstanceAs(stmt)
+      }
+    }
+
+    "released" should {
+      "evict all cached statements and release the connection" in {
+        val conn = new TestConn
+        conn.statementMock.expects(*, *).twice().returning(mock[Statement])
+        conn.releaseMock.expects().once().returning(Future.successful(()))
+
+        conn.statement("select 1")
+        conn.statement("select 2")
+        conn.release().get
+
+        conn.evicted.result().map(_._1) shouldBe Vector("select 1", "select 2")
+        conn.statementCacheStats.evictions shouldBe 2L
+      }
+
+      "evict all cached statements when forcibly released" in {
+        val conn = new TestConn
+        conn.statementMock.expects(*, *).once().returning(mock[Statement])
+        conn.forceReleaseMock.expects().once().returning(Future.successful(()))
+
+        conn.statement("select 1")
+        conn.forceRelease().get
+
+        conn.evicted.result().map(_._1) shouldBe Vector("select 1")
+      }
+    }
+  }
+
+  class TestConn(override val statementCacheSize: Int = StatementCache.DefaultSize)
+    extends StatementCachingPartialImpl {
+
+    val evicted = Vector.newBuilder[(String, Statement)]
+    val inUse = Set.newBuilder[Statement]
+    val parsed = Vector.newBuilder[ParsedSql]
+
+    val statementMock = mockFunction[String, StatementOptions, Statement]("statement")
+    val releaseMock = mockFunction[Future[Unit]]("release")
+    val forceReleaseMock = mockFunction[Future[Unit]]("forceRelease")
+
+    implicit protected def ec: ExecutionContext = ExecutionContext.global
+
+    override protected def onStatementEvicted(sql: String,
+                                              statementOptions: StatementOptions,
+                                              statement: Statement): Unit = {
+      evicted += sql -> statement
+    }
+
+    override protected def statementInUse(sql: String,
+                                          statementOptions: StatementOptions,
+                                          statement: Statement): Boolean = {
+      inUse.result().contains(statement)
+    }
+
+    protected def createStatement(sql: ParsedSql, statementOptions: StatementOptions): Statement = {
+      parsed += sql
+      statementMock(sql.sql, statementOptions)
+    }
+
+    protected def releaseConnection(): Future[Unit] = releaseMock()
+
+    protected def forceReleaseConnection(): Future[Unit] = forceReleaseMock()
+
+    def beginTx()(implicit timeout: Timeout): Future[Unit] = ???
+    def commitTx()(implicit timeout: Timeout): Future[Unit] = ???
+    def rollbackTx()(implicit timeout: Timeout): Future[Unit] = ???
+    def validate()(implicit timeout: Timeout): Future[Unit] = ???
+    def watchForIdle: Future[Unit] = ???
+  }
+
+}
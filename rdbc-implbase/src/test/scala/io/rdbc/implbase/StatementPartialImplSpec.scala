@@ -0,0 +1,190 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.implbase
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.sapi.exceptions.{MissingParamValException, TimeoutException}
+import io.rdbc.sapi.{ExecutableStatement, Timeout}
+import org.reactivestreams.Publisher
+import org.scalamock.scalatest.MockFactory
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future, Promise}
+
+class StatementPartialImplSpec
+  extends RdbcImplbaseSpec
+    with MockFactory {
+
+  private implicit val timeout: Timeout = Timeout.Inf
+
+  "StatementPartialImpl" when {
+
+    "executed for a batch of named arguments" should {
+      "execute statement for every element and return rows affected" in {
+        val stmt = new TestStmt
+        val args = Vector(Map("x" -> 1), Map("x" -> 2))
+
+        inSequence {
+          stmt.bindMock.expects(Seq("x" -> 1)).once().returning(executable(Future.successful(3L)))
+          stmt.bindMock.expects(Seq("x" -> 2)).once().returning(executable(Future.successful(5L)))
+        }
+
+        stmt.executeBatch(args).get shouldBe Array(3L, 5L)
+      }
+
+      "fail if binding arguments fails" in {
+        val stmt = new TestStmt
+        val failure = new MissingParamValException("x")
+
+        stmt.bindMock.expects(*).once().throwing(failure)
+
+        the[MissingParamValException] thrownBy {
+          stmt.executeBatch(Vector(Map("y" -> 1), Map("y" -> 2))).get
+        } shouldBe theSameInstanceAs(failure)
+      }
+    }
+
+    "executed for a batch of positional arguments" should {
+      "execute statement for every element and return rows affected" in {
+        val stmt = new TestStmt
+
+        inSequence {
+          stmt.bindByIdxMock.expects(Seq(1, "a")).once().returning(executable(Future.successful(1L)))
+          stmt.bindByIdxMock.expects(Seq(2, "b")).once().returning(executable(Future.successful(0L)))
+        }
+
+        stmt.executeBatchByIdx(Vector(Vector(1, "a"), Vector(2, "b"))).get shouldBe Array(1L, 0L)
+      }
+
+      "not execute remaining elements after an execution fails" in {
+        val stmt = new TestStmt
+        val failure = new RuntimeException
+
+        stmt.bindByIdxMock.expects(Seq(1)).once().returning(executable(Future.failed(failure)))
+        stmt.bindByIdxMock.expects(Seq(2)).never()
+
+        the[RuntimeException] thrownBy {
+          stmt.executeBatchByIdx(Vector(Vector(1), Vector(2))).get
+        } shouldBe theSameInstanceAs(failure)
+      }
+
+      "return an empty array for an empty batch" in {
+        new TestStmt().executeBatchByIdx(Vector.empty).get shouldBe empty
+      }
+    }
+
+    "executed for a batch with a finite timeout" should {
+      "give each execution only the time left until the batch deadline" in {
+        val stmt = new TestStmt
+        val batchTimeout = Timeout(10.seconds)
+        var timeouts = Vector.empty[Timeout]
+
+        inSequence {
+          stmt.bindByIdxMock.expects(Seq(1)).once().returning(recordingExecutable { t =>
+            timeouts = timeouts :+ t
+            Thread.sleep(10L)
+          })
+          stmt.bindByIdxMock.expects(Seq(2)).once().returning(recordingExecutable { t =>
+            timeouts = timeouts :+ t
+          })
+        }
+
+        stmt.executeBatchByIdx(Vector(Vector(1), Vector(2)))(batchTimeout).get shouldBe Array(1L, 1L)
+
+        timeouts should have size 2
+        timeouts(0).value should be <= batchTimeout.value
+        timeouts(1).value should be < timeouts(0).value
+      }
+
+      "fail with a timeout when the deadline passes before the batch completes" in {
+        val stmt = new TestStmt
+
+        stmt.bindByIdxMock.expects(Seq(1)).once().returning(recordingExecutable(_ => Thread.sleep(100L)))
+        stmt.bindByIdxMock.expects(Seq(2)).never()
+
+        assertThrows[TimeoutException] {
+          stmt.executeBatchByIdx(Vector(Vector(1), Vector(2)))(Timeout(50.millis)).get
+        }
+      }
+    }
+
+    "executed for a batch by a driver pipelining batches" should {
+      "issue all executions before awaiting any of them" in {
+        val stmt = new TestStmt(pipelining = true)
+        val first = Promise[Long]
+        val second = Promise[Long]
+
+        inSequence {
+          stmt.bindByIdxMock.expects(Seq(1)).once().returning(executable(first.future))
+          stmt.bindByIdxMock.expects(Seq(2)).once().returning(executable(second.future))
+        }
+
+        val result = stmt.executeBatchByIdx(Vector(Vector(1), Vector(2)))
+        second.success(5L)
+        first.success(3L)
+
+        result.get shouldBe Array(3L, 5L)
+      }
+
+      "fail if binding arguments fails" in {
+        val stmt = new TestStmt(pipelining = true)
+        val failure = new MissingParamValException("x")
+
+        stmt.bindMock.expects(*).once().throwing(failure)
+
+        the[MissingParamValException] thrownBy {
+          stmt.executeBatch(Vector(Map("y" -> 1), Map("y" -> 2))).get
+        } shouldBe theSameInstanceAs(failure)
+      }
+    }
+  }
+
+  private def executable(result: Future[Long]): ExecutableStatement = {
+    val execStmt = mock[ExecutableStatement]
+    (execStmt.executeForRowsAffected()(_: Timeout)).expects(timeout).once().returning(result)
+    execStmt
+  }
+
+  private def recordingExecutable(onExecute: Timeout => Unit): ExecutableStatement = {
+    val execStmt = mock[ExecutableStatement]
+    (execStmt.executeForRowsAffected()(_: Timeout)).expects(*).once().onCall { t: Timeout =>
+      Future {
+        onExecute(t)
+        1L
+      }(ExecutionContext.global)
+    }
+    execStmt
+  }
+
+  class TestStmt(pipelining: Boolean = false) extends StatementPartialImpl {
+    val bindMock = mockFunction[Seq[(String, Any)], ExecutableStatement]("bind")
+    val bindByIdxMock = mockFunction[Seq[Any], ExecutableStatement]("bindByIdx")
+
+    implicit protected def ec: ExecutionContext = ExecutionContext.global
+
+    override protected def pipelinesBatches: Boolean = pipelining
+
+    def bind(args: (String, Any)*): ExecutableStatement = bindMock(args)
+
+    def bindByIdx(args: Any*): ExecutableStatement = bindByIdxMock(args)
+
+    def noArgs: ExecutableStatement = ???
+    def streamArgs(argsPublisher: Publisher[_ <: Map[String, Any]]): Future[Unit] = ???
+    def streamArgsByIdx(argsPublisher: Publisher[_ <: ImmutIndexedSeq[Any]]): Future[Unit] = ???
+  }
+
+}
@@ -29,7 +29,7 @@ import scala.compat.java8.FutureConverters._
 import scala.concurrent.ExecutionContext
 
 class ConnectionFactoryAdapter(val underlying: sapi.ConnectionFactory,
-                               exceptionConverter: ExceptionConverter)
+                               val exceptionConverter: ExceptionConverter)
                               (implicit ec: ExecutionContext)
   extends japi.ConnectionFactory {
 
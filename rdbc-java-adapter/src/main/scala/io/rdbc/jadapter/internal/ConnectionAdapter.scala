@@ -115,6 +115,28 @@ private[jadapter] class ConnectionAdapter(val underlying: sapi.Connection)
     }
   }
 
+  def prepare(sql: String, options: StatementOptions, timeout: Duration): CompletionStage[PreparedStatement] = {
+    checkNotNull(sql)
+    checkNotNull(options)
+    checkNotNull(timeout)
+    convertExceptionsFut {
+      underlying.prepare(sql, options.asScala)(timeout.asScala)
+        .map(_.asJava).toJava
+    }
+  }
+
+  def prepare(sql: String, options: StatementOptions): CompletionStage[PreparedStatement] = {
+    prepare(sql, options, InfiniteTimeout)
+  }
+
+  def prepare(sql: String, timeout: Duration): CompletionStage[PreparedStatement] = {
+    prepare(sql, StatementOptions.DEFAULT, timeout)
+  }
+
+  def prepare(sql: String): CompletionStage[PreparedStatement] = {
+    prepare(sql, InfiniteTimeout)
+  }
+
   def watchForIdle: CompletionStage[Connection] = convertExceptionsFut {
     underlying.watchForIdle.map[Connection](_ => this).toJava
   }
@@ -25,6 +25,7 @@ import io.rdbc.{japi, sapi}
 
 import scala.collection.JavaConverters._
 import scala.collection.immutable.Seq
+import scala.compat.java8.OptionConverters._
 import scala.concurrent.ExecutionContext
 import scala.concurrent.duration.FiniteDuration
 import scala.util.Try
@@ -72,6 +73,18 @@ private[jadapter] object Conversions {
     }
   }
 
+  implicit class RowMapperToScala[A](val value: japi.RowMapper[A]) extends AnyVal {
+    def asScala(implicit exConversion: ExceptionConversion): sapi.RowDecoder[A] = {
+      val mapper = value
+      new sapi.RowDecoder[A] {
+        def bind(metadata: sapi.RowMetadata): sapi.Row => A = {
+          val bound = mapper.bind(metadata.asJava)
+          row => bound.apply(new RowAdapter(row))
+        }
+      }
+    }
+  }
+
   implicit class ResultSetToJava(val value: sapi.ResultSet) extends AnyVal {
     def asJava(implicit exConversion: ExceptionConversion): japi.ResultSet = {
       japi.ResultSet.of(
@@ -83,6 +96,30 @@ private[jadapter] object Conversions {
     }
   }
 
+  implicit class ColumnarResultSetToJava(val value: sapi.ColumnarResultSet) extends AnyVal {
+    def asJava: japi.ColumnarResultSet = {
+      japi.ColumnarResultSet.of(
+        value.rowsAffected,
+        value.warnings.map(_.asJava).asJava,
+        value.metadata.asJava,
+        value.rowCount,
+        value.columns.map(_.asJava).asJava
+      )
+    }
+  }
+
+  implicit class ColumnToJava(val value: sapi.Column) extends AnyVal {
+    def asJava: japi.Column = {
+      value match {
+        case c: sapi.Column.IntColumn => new japi.Column.IntColumn(c.values, c.nulls)
+        case c: sapi.Column.LongColumn => new japi.Column.LongColumn(c.values, c.nulls)
+        case c: sapi.Column.DoubleColumn => new japi.Column.DoubleColumn(c.values, c.nulls)
+        case c: sapi.Column.StringColumn => new japi.Column.StringColumn(c.dictionary, c.codes, c.nulls)
+        case c: sapi.Column.ObjectColumn => new japi.Column.ObjectColumn(c.values, c.nulls)
+      }
+    }
+  }
+
   implicit class RowToJava(val value: sapi.Row) extends AnyVal {
     def asJava(implicit exConversion: ExceptionConversion): japi.Row = {
       new RowAdapter(value)
@@ -103,6 +140,13 @@ private[jadapter] object Conversions {
     }
   }
 
+  implicit class PreparedStatementToJava(val value: sapi.PreparedStatement) extends AnyVal {
+    def asJava(implicit ec: ExecutionContext,
+               exConversion: ExceptionConversion): japi.PreparedStatement = {
+      new PreparedStatementAdapter(value)
+    }
+  }
+
   implicit class StatementOptionsToScala(val value: japi.StatementOptions) extends AnyVal {
     def asScala: sapi.StatementOptions = {
       val keyColumns = value.getGeneratedKeyCols.getType match {
@@ -111,7 +155,12 @@ private[jadapter] object Conversions {
         case japi.KeyColumns.Type.COLUMNS =>
           sapi.KeyColumns.named(value.getGeneratedKeyCols.getColumns.asScala.toVector: _*)
       }
-      sapi.StatementOptions(keyColumns)
+      sapi.StatementOptions(
+        keyColumns,
+        value.getMaxRows.asScala.map(_.longValue),
+        value.getTables.asScala.toSet,
+        value.isReadOnly
+      )
     }
   }
 
@@ -26,7 +26,7 @@ import scala.compat.java8.OptionConverters._
 
 private[jadapter] class ExceptionConversion(converter: ExceptionConverter) {
 
-  def convertExceptions[A](block: => A): A = {
+  def convertExceptions[@specialized(Int, Long, Double, Boolean) A](block: => A): A = {
     try {
       block
     } catch {
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter.internal
+
+import io.rdbc.sapi
+import org.reactivestreams.Publisher
+
+private[jadapter] class ExceptionConvertingPublisher[A](val underlying: Publisher[A])
+                                                      (implicit exConversion: ExceptionConversion)
+  extends MappingPublisher[A, A] {
+
+  import exConversion._
+
+  private[jadapter] def mapElem(elem: A): A = elem
+
+  private[jadapter] def mapError(t: Throwable): Throwable = {
+    t match {
+      case rdbcEx: sapi.exceptions.RdbcException => convertException(rdbcEx)
+      case _ => t
+    }
+  }
+
+  override def toString: String = underlying.toString
+}
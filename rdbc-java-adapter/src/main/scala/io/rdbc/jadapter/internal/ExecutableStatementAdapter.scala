@@ -16,8 +16,8 @@
 
 package io.rdbc.jadapter.internal
 
-import java.lang
 import java.time.Duration
+import java.{lang, util}
 import java.util.Optional
 import java.util.concurrent.CompletionStage
 
@@ -26,7 +26,9 @@ import io.rdbc.japi.util.ThrowingFunction
 import io.rdbc.jadapter.internal.Conversions._
 import io.rdbc.sapi
 import io.rdbc.util.Preconditions.checkNotNull
+import org.reactivestreams.Publisher
 
+import scala.collection.JavaConverters._
 import scala.compat.java8.FutureConverters._
 import scala.compat.java8.OptionConverters._
 import scala.concurrent.ExecutionContext
@@ -48,6 +50,29 @@ private[jadapter] class ExecutableStatementAdapter(val underlying: sapi.Executab
 
   def stream(): RowPublisher = stream(InfiniteTimeout)
 
+  def stream[T](mapper: RowMapper[T], timeout: Duration): Publisher[T] = {
+    checkNotNull(mapper)
+    checkNotNull(timeout)
+    convertExceptions {
+      new ExceptionConvertingPublisher(underlying.stream()(timeout.asScala).as(mapper.asScala))
+    }
+  }
+
+  def stream[T](mapper: RowMapper[T]): Publisher[T] = stream(mapper, InfiniteTimeout)
+
+  def executeForList[T](mapper: RowMapper[T], timeout: Duration): CompletionStage[util.List[T]] = {
+    checkNotNull(mapper)
+    checkNotNull(timeout)
+    convertExceptionsFut {
+      underlying.executeForSetAs()(mapper.asScala, timeout.asScala)
+        .map(_.asJava).toJava
+    }
+  }
+
+  def executeForList[T](mapper: RowMapper[T]): CompletionStage[util.List[T]] = {
+    executeForList(mapper, InfiniteTimeout)
+  }
+
   def executeForSet(timeout: Duration): CompletionStage[ResultSet] = {
     checkNotNull(timeout)
     convertExceptionsFut {
@@ -58,6 +83,16 @@ private[jadapter] class ExecutableStatementAdapter(val underlying: sapi.Executab
 
   def executeForSet(): CompletionStage[ResultSet] = executeForSet(InfiniteTimeout)
 
+  def executeForColumns(timeout: Duration): CompletionStage[ColumnarResultSet] = {
+    checkNotNull(timeout)
+    convertExceptionsFut {
+      underlying.executeForColumns()(timeout.asScala)
+        .map(_.asJava).toJava
+    }
+  }
+
+  def executeForColumns(): CompletionStage[ColumnarResultSet] = executeForColumns(InfiniteTimeout)
+
   def execute(timeout: Duration): CompletionStage[Void] = {
     checkNotNull(timeout)
     convertExceptionsFut {
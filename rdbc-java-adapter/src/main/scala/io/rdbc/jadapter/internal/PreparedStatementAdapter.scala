@@ -0,0 +1,46 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter.internal
+
+import java.util.Optional
+import java.util.concurrent.CompletionStage
+
+import io.rdbc.jadapter.internal.Conversions._
+import io.rdbc.japi.{PreparedStatement, RowMetadata}
+import io.rdbc.sapi
+
+import scala.compat.java8.FutureConverters._
+import scala.compat.java8.OptionConverters._
+import scala.concurrent.ExecutionContext
+
+private[jadapter]
+class PreparedStatementAdapter(val prepared: sapi.PreparedStatement)
+                              (implicit ec: ExecutionContext,
+                               exConversion: ExceptionConversion)
+  extends StatementAdapter(prepared)
+    with PreparedStatement {
+
+  import exConversion._
+
+  def getMetadata: Optional[RowMetadata] = {
+    prepared.metadata.map(_.asJava).asJava
+  }
+
+  def close(): CompletionStage[Void] = convertExceptionsFut {
+    prepared.close().map[Void](_ => null).toJava
+  }
+}
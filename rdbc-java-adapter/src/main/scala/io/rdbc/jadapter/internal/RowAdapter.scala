@@ -92,6 +92,71 @@ private[jadapter] class RowAdapter(val underlying: sapi.Row)
     }
   }
 
+  def isNull(idx: Int): Boolean = {
+    convertExceptions {
+      underlying.isNull(idx)
+    }
+  }
+
+  def isNull(name: String): Boolean = {
+    checkNotNull(name)
+    convertExceptions {
+      underlying.isNull(name)
+    }
+  }
+
+  def getBooleanValue(idx: Int): Boolean = {
+    convertExceptions {
+      underlying.bool(idx)
+    }
+  }
+
+  def getBooleanValue(name: String): Boolean = {
+    checkNotNull(name)
+    convertExceptions {
+      underlying.bool(name)
+    }
+  }
+
+  def getIntValue(idx: Int): Int = {
+    convertExceptions {
+      underlying.int(idx)
+    }
+  }
+
+  def getIntValue(name: String): Int = {
+    checkNotNull(name)
+    convertExceptions {
+      underlying.int(name)
+    }
+  }
+
+  def getLongValue(idx: Int): Long = {
+    convertExceptions {
+      underlying.long(idx)
+    }
+  }
+
+  def getLongValue(name: String): Long = {
+    checkNotNull(name)
+    convertExceptions {
+      underlying.long(name)
+    }
+  }
+
+  def getDoubleValue(idx: Int): Double = {
+    convertExceptions {
+      underlying.double(idx)
+    }
+  }
+
+  def getDoubleValue(name: String): Double = {
+    checkNotNull(name)
+    convertExceptions {
+      underlying.double(name)
+    }
+  }
+
   def getStr(name: String): String = {
     getCol(name, classOf[String])
   }
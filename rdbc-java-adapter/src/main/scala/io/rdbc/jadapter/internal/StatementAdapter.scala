@@ -16,6 +16,7 @@
 
 package io.rdbc.jadapter.internal
 
+import java.time.Duration
 import java.util.concurrent.CompletionStage
 import java.util.{List => JList, Map => JMap}
 
@@ -94,6 +95,34 @@ class StatementAdapter(val underlying: sapi.Statement)(implicit ec: ExecutionCon
     }
   }
 
+  def executeBatch(params: JList[JMap[String, Object]], timeout: Duration): CompletionStage[Array[Long]] = {
+    checkNotNull(params)
+    checkNotNull(timeout)
+    convertExceptionsFut {
+      underlying.executeBatch(
+        params.asScala.iterator.map(_.asScala.toMap).toVector
+      )(timeout.asScala).toJava
+    }
+  }
+
+  def executeBatch(params: JList[JMap[String, Object]]): CompletionStage[Array[Long]] = {
+    executeBatch(params, InfiniteTimeout)
+  }
+
+  def executeBatchByIdx(params: JList[JList[Object]], timeout: Duration): CompletionStage[Array[Long]] = {
+    checkNotNull(params)
+    checkNotNull(timeout)
+    convertExceptionsFut {
+      underlying.executeBatchByIdx(
+        params.asScala.iterator.map(_.asScala.toVector).toVector
+      )(timeout.asScala).toJava
+    }
+  }
+
+  def executeBatchByIdx(params: JList[JList[Object]]): CompletionStage[Array[Long]] = {
+    executeBatchByIdx(params, InfiniteTimeout)
+  }
+
   override def toString: String = underlying.toString
 
 }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter.fixtures;
+
+/* compiled with -parameters, so parameter names are available */
+public class TestRecord {
+    private final long count;
+    private final String firstName;
+
+    public TestRecord(long count, String firstName) {
+        this.count = count;
+        this.firstName = firstName;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.jadapter
+
+import java.net.URLClassLoader
+import java.util.logging.{Handler, LogRecord, Logger}
+
+import io.rdbc.implbase.RowPartialImpl
+import io.rdbc.jadapter.fixtures.{NonPublicClasses, TestBean, TestRecord}
+import io.rdbc.jadapter.internal.{ExceptionConversion, RowAdapter}
+import io.rdbc.japi.exceptions.{ColumnIndexOutOfBoundsException, MissingColumnException}
+import io.rdbc.japi.{ColumnMetadata, Row, RowMapper, RowMetadata}
+import io.rdbc.sapi
+
+import scala.collection.JavaConverters._
+import scala.reflect.ClassTag
+
+class RowMapperSpec extends RdbcJadapterSpec {
+
+  private implicit val exConversion: ExceptionConversion = new ExceptionConversion(PartialFunction.empty)
+
+  "RowMapper.forBean" should {
+
+    "write columns to properties with matching names" in {
+      val (metadata, row) = testRow(
+        "id" -> 1, "count" -> 2L, "amount" -> 3.5d, "active" -> true, "first_name" -> "Ann"
+      )
+
+      val bean = RowMapper.forBean(classOf[TestBean]).bind(metadata).apply(row)
+
+      bean.getId shouldBe 1
+      bean.getCount shouldBe 2L
+      bean.getAmount shouldBe 3.5d
+      bean.isActive shouldBe true
+      bean.getFirstName shouldBe "Ann"
+    }
+
+    "ignore columns without a matching property" in {
+      val (metadata, row) = testRow("id" -> 1, "unknown" -> "x")
+
+      val bean = RowMapper.forBean(classOf[TestBean]).bind(metadata).apply(row)
+
+      bean.getId shouldBe 1
+      bean.getFirstName shouldBe null
+    }
+
+    "write SQL NULL values as null" in {
+      val (metadata, row) = testRow("first_name" -> null)
+
+      RowMapper.forBean(classOf[TestBean]).bind(metadata).apply(row).getFirstName shouldBe null
+    }
+
+    "use generated functions for classes visible to rdbc" in {
+      val (metadata, row) = testRow("id" -> 1)
+
+      val warnings = loggedWarnings {
+        RowMapper.forBean(classOf[TestBean]).bind(metadata).apply(row).getId shouldBe 1
+      }
+
+      warnings shouldBe empty
+    }
+
+    "fall back to method handles and log it for classes not visible to rdbc" in {
+      val (metadata, row) = testRow("id" -> 1, "first_name" -> "Ann")
+      val isolatedBeanClass = isolatedClass(classOf[TestBean])
+
+      val warnings = loggedWarnings {
+        val bean = RowMapper.forBean(isolatedBeanClass).bind(metadata).apply(row)
+        bean.getClass.getMethod("getId").invoke(bean) shouldBe 1
+        bean.getClass.getMethod("getFirstName").invoke(bean) shouldBe "Ann"
+      }
+
+      warnings should have size 1
+      warnings.head.getMessage should include(classOf[TestBean].getName)
+    }
+
+    "reject non-public classes" in {
+      assertThrows[IllegalArgumentException] {
+        RowMapper.forBean(NonPublicClasses.BEAN)
+      }
+    }
+
+    "reject classes without a no-argument constructor" in {
+      assertThrows[IllegalArgumentException] {
+        RowMapper.forBean(classOf[TestRecord])
+      }
+    }
+  }
+
+  "RowMapper.forConstructor" should {
+
+    "pass columns with matching names to the constructor" in {
+      val (metadata, row) = testRow("first_name" -> "Ann", "unknown" -> 1, "count" -> 2L)
+
+      val record = RowMapper.forConstructor(classOf[TestRecord]).bind(metadata).apply(row)
+
+      record.getCount shouldBe 2L
+      record.getFirstName shouldBe "Ann"
+    }
+
+    "fail binding when a column is missing" in {
+      val (metadata, _) = testRow("count" -> 2L)
+
+      val ex = the[MissingColumnException] thrownBy {
+        RowMapper.forConstructor(classOf[TestRecord]).bind(metadata)
+      }
+      ex.getColumn shouldBe "firstName"
+    }
+
+    "reject classes without parameter names" in {
+      assertThrows[IllegalArgumentException] {
+        RowMapper.forConstructor(classOf[PositionalRecord])
+      }
+    }
+
+    "reject non-public classes" in {
+      assertThrows[IllegalArgumentException] {
+        RowMapper.forConstructor(NonPublicClasses.BEAN)
+      }
+    }
+  }
+
+  "RowMapper.forConstructorByPosition" should {
+
+    "pass columns to the constructor in order" in {
+      val (metadata, row) = testRow("a" -> 2L, "b" -> "Ann")
+
+      RowMapper.forConstructorByPosition(classOf[PositionalRecord]).bind(metadata).apply(row) shouldBe
+        PositionalRecord(2L, "Ann")
+    }
+
+    "ignore parameter names" in {
+      val (metadata, row) = testRow("first_name" -> 2L, "count" -> "Ann")
+
+      val record = RowMapper.forConstructorByPosition(classOf[TestRecord]).bind(metadata).apply(row)
+
+      record.getCount shouldBe 2L
+      record.getFirstName shouldBe "Ann"
+    }
+
+    "fail binding when there are fewer columns than parameters" in {
+      val (metadata, _) = testRow("a" -> 2L)
+
+      assertThrows[ColumnIndexOutOfBoundsException] {
+        RowMapper.forConstructorByPosition(classOf[PositionalRecord]).bind(metadata)
+      }
+    }
+  }
+
+  private def testRow(cols: (String, Any)*): (RowMetadata, Row) = {
+    val metadata = RowMetadata.of(cols.map { case (name, _) => ColumnMetadata.of(name, "") }.asJava)
+    val row = new RowAdapter(new TestRow(cols.map(_._2).toVector, cols.map(_._1).zipWithIndex.toMap))
+    (metadata, row)
+  }
+
+  private def loggedWarnings(body: => Unit): Vector[LogRecord] = {
+    val logger = Logger.getLogger(classOf[RowMapper[_]].getName)
+    var records = Vector.empty[LogRecord]
+    val handler = new Handler {
+      def publish(record: LogRecord): Unit = records = records :+ record
+      def flush(): Unit = ()
+      def close(): Unit = ()
+    }
+    logger.addHandler(handler)
+    try {
+      body
+      records
+    } finally {
+      logger.removeHandler(handler)
+    }
+  }
+
+  /* Loads the class again using a class loader that doesn't see rdbc classes */
+  private def isolatedClass(cls: Class[_]): Class[_] = {
+    val location = cls.getProtectionDomain.getCodeSource.getLocation
+    new URLClassLoader(Array(location), null).loadClass(cls.getName)
+  }
+
+  private class TestRow(values: Vector[Any], names: Map[String, Int]) extends RowPartialImpl {
+    override def colOpt[A: ClassTag](idx: Int): Option[A] = {
+      if (idx < 0 || idx >= values.size) {
+        throw new sapi.exceptions.ColumnIndexOutOfBoundsException(idx, values.size)
+      }
+      Option(values(idx).asInstanceOf[A])
+    }
+
+    override def colOpt[A: ClassTag](name: String): Option[A] = {
+      colOpt[A](names.getOrElse(name, throw new sapi.exceptions.MissingColumnException(name)))
+    }
+  }
+
+}
+
+final case class PositionalRecord(count: Long, name: String)
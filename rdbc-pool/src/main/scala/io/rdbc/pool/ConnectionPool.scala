@@ -0,0 +1,303 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.pool
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger}
+
+import io.rdbc.implbase.ConnectionFactoryPartialImpl
+import io.rdbc.jadapter.ConnectionFactoryAdapter
+import io.rdbc.japi
+import io.rdbc.pool.exceptions.PoolExhaustedException
+import io.rdbc.pool.internal.PooledConnection
+import io.rdbc.sapi.exceptions.{ConnectionClosedException, TimeoutException}
+import io.rdbc.sapi.{Connection, ConnectionFactory, Timeout}
+import io.rdbc.util.Preconditions.{check, checkNotNull}
+import io.rdbc.util.scheduler.{ScheduledTask, TaskScheduler}
+
+import scala.annotation.tailrec
+import scala.concurrent.duration.FiniteDuration
+import scala.concurrent.{ExecutionContext, Future, Promise}
+import scala.util.control.NonFatal
+import scala.util.{Failure, Success}
+
+object ConnectionPool {
+
+  /** Creates a pool of connections provided by the `underlying` factory. */
+  def apply(underlying: ConnectionFactory,
+            config: ConnectionPoolConfig,
+            scheduler: TaskScheduler)
+           (implicit ec: ExecutionContext): ConnectionPool = {
+    new ConnectionPool(underlying, config, scheduler)
+  }
+
+  /** Creates a pool of connections provided by the `underlying` Java API
+    * factory.
+    *
+    * The `underlying` factory has to be a [[io.rdbc.jadapter.ConnectionFactoryAdapter ConnectionFactoryAdapter]],
+    * which is the case for drivers implementing the Scala API. The pool is
+    * exposed through an adapter using the same exception converter.
+    */
+  def forJava(underlying: japi.ConnectionFactory,
+              config: ConnectionPoolConfig,
+              scheduler: TaskScheduler,
+              ec: ExecutionContext): japi.ConnectionFactory = {
+    checkNotNull(underlying)
+    underlying match {
+      case adapter: ConnectionFactoryAdapter =>
+        new ConnectionFactoryAdapter(
+          new ConnectionPool(adapter.underlying, config, scheduler)(ec),
+          adapter.exceptionConverter
+        )(ec)
+
+      case _ =>
+        throw new IllegalArgumentException(
+          s"Only factories adapted from Scala API can be pooled, got $underlying"
+        )
+    }
+  }
+}
+
+/** A non-blocking [[io.rdbc.sapi.ConnectionFactory ConnectionFactory]] that
+  * keeps a pool of connections obtained from the `underlying` factory.
+  *
+  * Connections returned by this factory go back to the pool on `release`,
+  * as soon as the `watchForIdle` future of the physical connection completes.
+  * Connections released with `forceRelease` are closed and removed from
+  * the pool.
+  *
+  * When all `config.maxSize` connections are in use, connection requests wait
+  * for a connection to be returned for at most the time given by the requests'
+  * `timeout` and fail with [[io.rdbc.sapi.exceptions.TimeoutException TimeoutException]]
+  * afterwards. Timeouts are tracked using the `scheduler`, which is not shut
+  * down along with the pool.
+  */
+class ConnectionPool(underlying: ConnectionFactory,
+                     config: ConnectionPoolConfig,
+                     scheduler: TaskScheduler)
+                    (implicit protected val ec: ExecutionContext)
+  extends ConnectionFactoryPartialImpl {
+
+  checkNotNull(underlying)
+  checkNotNull(config)
+  checkNotNull(scheduler)
+  check(config.maxSize, config.maxSize > 0, "has to be positive")
+  check(config.maxWaiters, config.maxWaiters >= 0, "cannot be negative")
+
+  private val idle = new ConcurrentLinkedQueue[Connection]
+  private val waiters = new ConcurrentLinkedQueue[Waiter]
+  private val waiterCount = new AtomicInteger(0)
+  private val size = new AtomicInteger(0)
+  private val shutDown = new AtomicBoolean(false)
+
+  private val unit = Future.successful(())
+
+  private class Waiter(val timeout: Timeout) {
+    val promise: Promise[Connection] = Promise[Connection]
+    @volatile var timeoutTask: Option[ScheduledTask] = None
+
+    def complete(conn: Connection): Boolean = {
+      val completed = promise.trySuccess(new PooledConnection(conn, ConnectionPool.this))
+      if (completed) {
+        timeoutTask.foreach(_.cancel())
+      }
+      completed
+    }
+
+    def fail(ex: Throwable): Unit = {
+      if (promise.tryFailure(ex)) {
+        timeoutTask.foreach(_.cancel())
+      }
+    }
+  }
+
+  def connection()(implicit timeout: Timeout): Future[Connection] = {
+    checkNotNull(timeout)
+    if (shutDown.get()) {
+      Future.failed(poolShutDownException)
+    } else {
+      val conn = idle.poll()
+      if (conn != null) {
+        Future.successful(new PooledConnection(conn, this))
+      } else if (tryIncrement(size, config.maxSize)) {
+        openConnection(timeout).map(new PooledConnection(_, this))
+      } else {
+        enqueueWaiter(timeout)
+      }
+    }
+  }
+
+  def shutdown(): Future[Unit] = {
+    if (shutDown.compareAndSet(false, true)) {
+      Iterator.continually(pollWaiter()).takeWhile(_ != null).foreach(_.fail(poolShutDownException))
+      val idleReleases = Iterator.continually(idle.poll()).takeWhile(_ != null).map { conn =>
+        discard(conn, force = false)
+      }.toVector
+      Future.sequence(idleReleases)
+        .flatMap(_ => underlying.shutdown())
+        .recover { case NonFatal(ex) =>
+          logger.warn("Error occurred when shutting down the connection pool", ex)
+        }
+    } else {
+      unit
+    }
+  }
+
+  private[pool] def giveBack(conn: Connection): Future[Unit] = {
+    conn.watchForIdle.map(_ => true).recover { case NonFatal(ex) =>
+      logger.debug(s"Connection $conn did not become idle, it will be removed from the pool", ex)
+      false
+    }.flatMap { isIdle =>
+      if (isIdle && !shutDown.get()) {
+        handOver(conn)
+        unit
+      } else {
+        discard(conn, force = !isIdle)
+      }
+    }
+  }
+
+  private[pool] def evict(conn: Connection): Future[Unit] = {
+    discard(conn, force = true)
+  }
+
+  private def discard(conn: Connection, force: Boolean): Future[Unit] = {
+    val releaseFut = if (force) conn.forceRelease() else conn.release()
+    releaseFut.recover { case NonFatal(ex) =>
+      logger.warn(s"Error occurred when releasing pooled connection $conn", ex)
+    }.map(_ => releaseSlot())
+  }
+
+  private def openConnection(timeout: Timeout): Future[Connection] = {
+    underlying.connection()(timeout).recoverWith { case ex =>
+      releaseSlot()
+      Future.failed(ex)
+    }
+  }
+
+  private def enqueueWaiter(timeout: Timeout): Future[Connection] = {
+    if (tryIncrement(waiterCount, config.maxWaiters)) {
+      val waiter = new Waiter(timeout)
+      /* the waiter is enqueued first, so that a timeout firing right away
+         finds it in the queue and frees its slot */
+      waiters.offer(waiter)
+      scheduleTimeout(waiter)
+      /* a connection might have been returned or a slot freed
+         before the waiter was enqueued */
+      serveWaiters()
+      waiter.promise.future
+    } else {
+      Future.failed(new PoolExhaustedException(
+        s"All ${config.maxSize} connections are in use and ${config.maxWaiters} requests are already waiting"
+      ))
+    }
+  }
+
+  private def scheduleTimeout(waiter: Waiter): Unit = {
+    waiter.timeout.value match {
+      case finite: FiniteDuration =>
+        val task = scheduler.schedule(finite) { () =>
+          /* a waiter that is no longer queued is being served by someone
+             else; the slot is freed before the request fails */
+          if (waiters.remove(waiter)) {
+            waiterCount.decrementAndGet()
+            waiter.promise.tryFailure(new TimeoutException(waiter.timeout))
+          }
+        }
+        waiter.timeoutTask = Some(task)
+        /* the waiter might have been served before its timeout was scheduled */
+        if (waiter.promise.isCompleted) {
+          task.cancel()
+        }
+      case _ => ()
+    }
+  }
+
+  @tailrec
+  private def handOver(conn: Connection): Unit = {
+    val waiter = pollWaiter()
+    if (waiter == null) {
+      if (shutDown.get()) {
+        discard(conn, force = false)
+        ()
+      } else {
+        idle.offer(conn)
+        /* a waiter might have been enqueued after polling */
+        serveWaiters()
+      }
+    } else if (!waiter.complete(conn)) {
+      handOver(conn)
+    }
+  }
+
+  private def serveWaiters(): Unit = {
+    if (!waiters.isEmpty) {
+      val conn = idle.poll()
+      if (conn != null) {
+        handOver(conn)
+      } else if (tryIncrement(size, config.maxSize)) {
+        openForWaiter()
+      }
+    }
+  }
+
+  private def openForWaiter(): Unit = {
+    val waiter = pollWaiter()
+    if (waiter == null) {
+      releaseSlot()
+    } else {
+      openConnection(waiter.timeout).onComplete {
+        case Success(conn) =>
+          if (!waiter.complete(conn)) {
+            handOver(conn)
+          }
+        case Failure(ex) => waiter.fail(ex)
+      }
+    }
+  }
+
+  private def releaseSlot(): Unit = {
+    size.decrementAndGet()
+    serveWaiters()
+  }
+
+  private def pollWaiter(): Waiter = {
+    val waiter = waiters.poll()
+    if (waiter != null) {
+      waiterCount.decrementAndGet()
+    }
+    waiter
+  }
+
+  @tailrec
+  private def tryIncrement(counter: AtomicInteger, max: Int): Boolean = {
+    val current = counter.get()
+    if (current >= max) {
+      false
+    } else if (counter.compareAndSet(current, current + 1)) {
+      true
+    } else {
+      tryIncrement(counter, max)
+    }
+  }
+
+  private def poolShutDownException: ConnectionClosedException = {
+    new ConnectionClosedException("Connection pool has been shut down")
+  }
+
+  override def toString: String = s"pool-$underlying"
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.pool
+
+object ConnectionPoolConfig {
+
+  /** Default pool configuration */
+  val Default = ConnectionPoolConfig(
+    maxSize = 20,
+    maxWaiters = 1000
+  )
+}
+
+/** Connection pool configuration.
+  *
+  * @param maxSize    maximum number of physical connections kept by the pool,
+  *                   both idle and leased
+  * @param maxWaiters maximum number of connection requests that can wait
+  *                   for a connection to become available; requests above
+  *                   this limit fail immediately with
+  *                   [[io.rdbc.pool.exceptions.PoolExhaustedException PoolExhaustedException]]
+  */
+final case class ConnectionPoolConfig(maxSize: Int, maxWaiters: Int)
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.pool.internal
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+import io.rdbc.pool.ConnectionPool
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.ConnectionReleaseException
+
+import scala.concurrent.Future
+
+/** A connection leased from a [[ConnectionPool]].
+  *
+  * Every lease gets its own instance so that releasing a connection twice
+  * can't return the same physical connection to the pool twice. Once
+  * released, the instance fails all calls with
+  * [[io.rdbc.sapi.exceptions.ConnectionReleaseException ConnectionReleaseException]].
+  */
+private[pool] class PooledConnection(val underlying: Connection, pool: ConnectionPool)
+  extends Connection {
+
+  private val returned = new AtomicBoolean(false)
+
+  def release(): Future[Unit] = {
+    if (returned.compareAndSet(false, true)) {
+      pool.giveBack(underlying)
+    } else {
+      alreadyReturned
+    }
+  }
+
+  def forceRelease(): Future[Unit] = {
+    if (returned.compareAndSet(false, true)) {
+      pool.evict(underlying)
+    } else {
+      alreadyReturned
+    }
+  }
+
+  private def alreadyReturned: Future[Unit] = {
+    Future.failed(releasedException)
+  }
+
+  /* the underlying connection may already be leased by someone else */
+  private def leased[A](body: => A): A = {
+    if (returned.get()) throw releasedException
+    else body
+  }
+
+  private def leasedF[A](body: => Future[A]): Future[A] = {
+    if (returned.get()) Future.failed(releasedException)
+    else body
+  }
+
+  private def releasedException: ConnectionReleaseException = {
+    new ConnectionReleaseException("Connection has already been returned to the pool")
+  }
+
+  def beginTx()(implicit timeout: Timeout): Future[Unit] = leasedF(underlying.beginTx())
+
+  def commitTx()(implicit timeout: Timeout): Future[Unit] = leasedF(underlying.commitTx())
+
+  def rollbackTx()(implicit timeout: Timeout): Future[Unit] = leasedF(underlying.rollbackTx())
+
+  def withTransaction[A](body: => Future[A])
+                        (implicit timeout: Timeout): Future[A] = {
+    leasedF(underlying.withTransaction(body))
+  }
+
+  def validate()(implicit timeout: Timeout): Future[Unit] = leasedF(underlying.validate())
+
+  def statement(sql: String, statementOptions: StatementOptions): Statement = {
+    leased(underlying.statement(sql, statementOptions))
+  }
+
+  def statement(sql: String): Statement = leased(underlying.statement(sql))
+
+  def prepare(sql: String, statementOptions: StatementOptions)
+             (implicit timeout: Timeout): Future[PreparedStatement] = {
+    leasedF(underlying.prepare(sql, statementOptions))
+  }
+
+  def prepare(sql: String)(implicit timeout: Timeout): Future[PreparedStatement] = {
+    leasedF(underlying.prepare(sql))
+  }
+
+  def statement(sqlWithParams: SqlWithParams, statementOptions: StatementOptions): ExecutableStatement = {
+    leased(underlying.statement(sqlWithParams, statementOptions))
+  }
+
+  def statement(sqlWithParams: SqlWithParams): ExecutableStatement = {
+    leased(underlying.statement(sqlWithParams))
+  }
+
+  def watchForIdle: Future[Unit] = leasedF(underlying.watchForIdle)
+
+  override def toString: String = s"pooled-$underlying"
+}
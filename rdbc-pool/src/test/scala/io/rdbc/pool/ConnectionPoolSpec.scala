@@ -0,0 +1,184 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.pool
+
+import java.util.concurrent.Executors
+
+import io.rdbc.pool.exceptions.PoolExhaustedException
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.{ConnectionClosedException, ConnectionReleaseException, TimeoutException}
+import io.rdbc.testkit.TestConnFact
+import io.rdbc.util.scheduler.JdkScheduler
+import org.scalatest.BeforeAndAfterAll
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+
+class ConnectionPoolSpec
+  extends RdbcPoolSpec
+    with BeforeAndAfterAll {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout(10.seconds)
+  private val scheduler = new JdkScheduler(Executors.newSingleThreadScheduledExecutor())
+
+  override def afterAll(): Unit = scheduler.shutdown().get
+
+  "ConnectionPool" should {
+
+    "reuse released connections" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig.Default, scheduler)
+
+      val conn1 = pool.connection().get
+      conn1.release().get
+      val conn2 = pool.connection().get
+
+      fact.opened.get shouldBe 1
+      conn2 should not be theSameInstanceAs(conn1)
+    }
+
+    "not open more connections than configured" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig(maxSize = 2, maxWaiters = 10), scheduler)
+
+      val conn1 = pool.connection().get
+      pool.connection().get
+      val waiting = pool.connection()
+
+      waiting.isCompleted shouldBe false
+      conn1.release().get
+      waiting.get
+
+      fact.opened.get shouldBe 2
+    }
+
+    "fail waiting requests after timeout" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig(maxSize = 1, maxWaiters = 10), scheduler)
+
+      pool.connection().get
+
+      assertThrows[TimeoutException] {
+        pool.connection()(Timeout(100.millis)).get
+      }
+    }
+
+    "fail requests when too many requests are waiting" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig(maxSize = 1, maxWaiters = 1), scheduler)
+
+      pool.connection().get
+      pool.connection()
+
+      assertThrows[PoolExhaustedException] {
+        pool.connection().get
+      }
+    }
+
+    "open new connection if the released one does not become idle" in {
+      val fact = new TestConnFact
+      fact.idle = false
+      val pool = ConnectionPool(fact, ConnectionPoolConfig(maxSize = 1, maxWaiters = 10), scheduler)
+
+      val conn1 = pool.connection().get
+      val waiting = pool.connection()
+      conn1.release().get
+      waiting.get
+
+      fact.opened.get shouldBe 2
+      fact.forceReleased.get shouldBe 1
+    }
+
+    "remove forcibly released connections from the pool" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig.Default, scheduler)
+
+      pool.connection().get.forceRelease().get
+      pool.connection().get
+
+      fact.opened.get shouldBe 2
+      fact.forceReleased.get shouldBe 1
+    }
+
+    "fail to release a connection twice" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig.Default, scheduler)
+
+      val conn = pool.connection().get
+      conn.release().get
+
+      assertThrows[ConnectionReleaseException] {
+        conn.release().get
+      }
+    }
+
+    "fail calls on a released connection" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig.Default, scheduler)
+
+      val conn = pool.connection().get
+      conn.release().get
+
+      assertThrows[ConnectionReleaseException] {
+        conn.statement("select 1")
+      }
+      assertThrows[ConnectionReleaseException] {
+        conn.beginTx().get
+      }
+    }
+
+    "free slots of waiters that time out immediately" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig(maxSize = 1, maxWaiters = 1), scheduler)
+
+      pool.connection().get
+      (1 to 3).foreach { _ =>
+        assertThrows[TimeoutException] {
+          pool.connection()(Timeout(1.nanosecond)).get
+        }
+      }
+
+      pool.connection().isCompleted shouldBe false
+    }
+
+    "fail requests if the underlying factory fails" in {
+      val failure = new RuntimeException
+      val fact = new TestConnFact
+      fact.failure = Some(failure)
+      val pool = ConnectionPool(fact, ConnectionPoolConfig.Default, scheduler)
+
+      the[RuntimeException] thrownBy {
+        pool.connection().get
+      } shouldBe theSameInstanceAs(failure)
+    }
+
+    "release idle connections and the underlying factory on shutdown" in {
+      val fact = new TestConnFact
+      val pool = ConnectionPool(fact, ConnectionPoolConfig.Default, scheduler)
+
+      pool.connection().get.release().get
+      pool.shutdown().get
+
+      fact.released.get shouldBe 1
+      fact.shutDown.get shouldBe 1
+      assertThrows[ConnectionClosedException] {
+        pool.connection().get
+      }
+    }
+  }
+}
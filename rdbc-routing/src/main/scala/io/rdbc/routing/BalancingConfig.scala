@@ -0,0 +1,39 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import scala.concurrent.duration._
+
+object BalancingConfig {
+
+  /** Default load balancing configuration */
+  val Default = BalancingConfig(
+    decayTime = 10.seconds,
+    failurePenalty = 1.second
+  )
+}
+
+/** Load balancing configuration.
+  *
+  * @param decayTime      time constant of the moving average of latencies;
+  *                       a latency observed `decayTime` ago weighs about
+  *                       a third of a fresh one
+  * @param failurePenalty latency recorded for failed connection acquisitions
+  *                       and statement executions, so that factories failing
+  *                       fast don't attract requests
+  */
+final case class BalancingConfig(decayTime: FiniteDuration, failurePenalty: FiniteDuration)
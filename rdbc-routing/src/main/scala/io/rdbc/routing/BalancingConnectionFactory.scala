@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import java.util.concurrent.ThreadLocalRandom
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.implbase.ConnectionFactoryPartialImpl
+import io.rdbc.routing.internal.{BalancedNode, MeasuredConnection}
+import io.rdbc.sapi.{Connection, ConnectionFactory, Timeout}
+import io.rdbc.util.Preconditions.{check, checkNonEmpty, checkNotNull}
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.control.NonFatal
+
+object BalancingConnectionFactory {
+
+  /** Creates a factory balancing load among the `underlying` factories. */
+  def apply(underlying: ImmutIndexedSeq[ConnectionFactory],
+            config: BalancingConfig)
+           (implicit ec: ExecutionContext): BalancingConnectionFactory = {
+    new BalancingConnectionFactory(underlying, config)
+  }
+
+  /** Load of one of the balanced factories.
+    *
+    * @param factory     the balanced factory
+    * @param latency     moving average of connection acquisition
+    *                    and statement latencies
+    * @param outstanding number of connection acquisitions and statement
+    *                    executions in progress
+    */
+  final case class NodeStats(factory: ConnectionFactory, latency: FiniteDuration, outstanding: Int)
+
+}
+
+/** A [[io.rdbc.sapi.ConnectionFactory ConnectionFactory]] balancing load among
+  * equivalent `underlying` factories, like replicas of the same database.
+  *
+  * Every connection request picks two of the factories at random and uses
+  * the less loaded one. The load of a factory is the moving average of
+  * latencies of connection acquisitions and statement executions it served,
+  * weighted by the number of its requests in progress, which also breaks
+  * ties. Latencies are measured by the factory itself, using connections it
+  * returns. A factory that becomes slow quickly gets fewer requests, without
+  * being excluded: its latency estimate decays when it's not used, so it gets
+  * probed again after roughly `config.decayTime`.
+  *
+  * The factory can be used as the replica factory of
+  * a [[ReadWriteSplittingConnectionFactory]]. Shutting it down shuts down
+  * the underlying factories.
+  */
+class BalancingConnectionFactory(underlying: ImmutIndexedSeq[ConnectionFactory],
+                                 config: BalancingConfig)
+                                (implicit protected val ec: ExecutionContext)
+  extends ConnectionFactoryPartialImpl {
+
+  import BalancingConnectionFactory._
+
+  checkNotNull(underlying)
+  checkNonEmpty(underlying)
+  checkNotNull(config)
+  check(config.decayTime, config.decayTime > Duration.Zero, "has to be positive")
+
+  private val nodes = underlying.map { factory =>
+    new BalancedNode(factory, config.decayTime.toNanos, config.failurePenalty.toNanos)
+  }.toVector
+
+  def connection()(implicit timeout: Timeout): Future[Connection] = {
+    checkNotNull(timeout)
+    val node = choose()
+    node.measure(node.factory.connection()).map { conn =>
+      new MeasuredConnection(conn, node)
+    }
+  }
+
+  /** Current load of the balanced factories */
+  def stats: ImmutIndexedSeq[NodeStats] = {
+    nodes.map { node =>
+      NodeStats(node.factory, node.latency.toLong.nanos, node.outstanding)
+    }
+  }
+
+  def shutdown(): Future[Unit] = {
+    val shutdowns = nodes.map { node =>
+      node.factory.shutdown().recover { case NonFatal(ex) =>
+        logger.warn(s"Error occurred when shutting down connection factory $node", ex)
+      }
+    }
+    Future.sequence(shutdowns).map(_ => ())
+  }
+
+  /* power of two choices */
+  private def choose(): BalancedNode = {
+    if (nodes.size == 1) {
+      nodes.head
+    } else {
+      val random = ThreadLocalRandom.current()
+      val i = random.nextInt(nodes.size)
+      val j = {
+        val other = random.nextInt(nodes.size - 1)
+        if (other >= i) other + 1 else other
+      }
+      val a = nodes(i)
+      val b = nodes(j)
+      val costA = a.cost
+      val costB = b.cost
+      if (costA < costB) {
+        a
+      } else if (costB < costA) {
+        b
+      } else if (a.outstanding <= b.outstanding) {
+        a
+      } else {
+        b
+      }
+    }
+  }
+
+  override def toString: String = s"balancing-${nodes.mkString(",")}"
+}
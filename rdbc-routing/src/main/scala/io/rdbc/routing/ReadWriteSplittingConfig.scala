@@ -0,0 +1,49 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import io.rdbc.sapi.Timeout
+
+import scala.concurrent.duration._
+
+object ReadWriteSplittingConfig {
+
+  /** Default read/write splitting configuration */
+  val Default = ReadWriteSplittingConfig(
+    healthCheckInterval = 5.seconds,
+    healthCheckTimeout = Timeout(2.seconds),
+    classifySql = true,
+    fallbackToPrimary = true
+  )
+}
+
+/** Read/write splitting configuration.
+  *
+  * @param healthCheckInterval time between validations of replica connections
+  * @param healthCheckTimeout  timeout of a single replica validation, including
+  *                            connection acquisition
+  * @param classifySql         whether statements not marked as read only are
+  *                            classified using [[SqlClassifier]]; when disabled,
+  *                            only the read only hint routes to replicas
+  * @param fallbackToPrimary   whether reads go to the primary when no replica
+  *                            is healthy; when disabled, they fail with
+  *                            [[io.rdbc.routing.exceptions.NoReplicaAvailableException NoReplicaAvailableException]]
+  */
+final case class ReadWriteSplittingConfig(healthCheckInterval: FiniteDuration,
+                                          healthCheckTimeout: Timeout,
+                                          classifySql: Boolean,
+                                          fallbackToPrimary: Boolean)
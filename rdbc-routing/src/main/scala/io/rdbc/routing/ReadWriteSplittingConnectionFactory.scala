@@ -0,0 +1,236 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger}
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.implbase.ConnectionFactoryPartialImpl
+import io.rdbc.routing.exceptions.NoReplicaAvailableException
+import io.rdbc.routing.internal.ReplicaNode
+import io.rdbc.sapi.{Connection, ConnectionFactory, StatementOptions, Timeout}
+import io.rdbc.util.Futures._
+import io.rdbc.util.Preconditions.{checkNonEmpty, checkNotNull}
+import io.rdbc.util.scheduler.TaskScheduler
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.control.NonFatal
+
+object ReadWriteSplittingConnectionFactory {
+
+  /** Creates a factory routing writes to the `primary` factory and reads
+    * to the `replicas`.
+    */
+  def apply(primary: ConnectionFactory,
+            replicas: ImmutIndexedSeq[ConnectionFactory],
+            config: ReadWriteSplittingConfig,
+            scheduler: TaskScheduler)
+           (implicit ec: ExecutionContext): ReadWriteSplittingConnectionFactory = {
+    new ReadWriteSplittingConnectionFactory(primary, replicas, config, scheduler)
+  }
+}
+
+/** A [[io.rdbc.sapi.ConnectionFactory ConnectionFactory]] sending writes to
+  * a primary database and reads to its replicas.
+  *
+  * `connection`, `withConnection` and `withTransaction` use the `primary`
+  * factory, so code unaware of routing keeps working. Reads are routed to
+  * replicas either explicitly, using `readConnection` and `withReadConnection`,
+  * or by the SQL they execute, using `connectionFor` and `withConnectionFor`:
+  * statements marked as [[io.rdbc.sapi.StatementOptions.readOnly read only]]
+  * or classified as reads by [[SqlClassifier]] go to a replica, everything
+  * else to the primary. Replicas don't see writes until they replicate them,
+  * reads that must see the caller's own writes belong on the primary.
+  *
+  * Replicas are used in turns. Every `config.healthCheckInterval` each
+  * replica's connection is validated with `Connection.validate`, replicas
+  * failing validation or connection acquisition are skipped until they pass
+  * a validation again. Health checks are scheduled using the `scheduler`,
+  * which is not shut down along with the factory. Shutting the factory down
+  * shuts down the primary and replica factories.
+  */
+class ReadWriteSplittingConnectionFactory(primary: ConnectionFactory,
+                                          replicas: ImmutIndexedSeq[ConnectionFactory],
+                                          config: ReadWriteSplittingConfig,
+                                          scheduler: TaskScheduler)
+                                         (implicit protected val ec: ExecutionContext)
+  extends ConnectionFactoryPartialImpl {
+
+  checkNotNull(primary)
+  checkNotNull(replicas)
+  checkNonEmpty(replicas)
+  checkNotNull(config)
+  checkNotNull(scheduler)
+
+  private val nodes = replicas.map(new ReplicaNode(_)).toVector
+  private val turn = new AtomicInteger(0)
+  private val shutDown = new AtomicBoolean(false)
+
+  nodes.foreach(scheduleHealthCheck)
+
+  /** Returns a connection to the primary database */
+  def connection()(implicit timeout: Timeout): Future[Connection] = {
+    checkNotNull(timeout)
+    primary.connection()
+  }
+
+  /** Returns a connection to a healthy replica */
+  def readConnection()(implicit timeout: Timeout): Future[Connection] = {
+    checkNotNull(timeout)
+    replicaConnection(Math.floorMod(turn.getAndIncrement(), nodes.size), nodes.size)
+  }
+
+  /** Executes the `body` using a connection to a healthy replica and
+    * releases the connection afterwards.
+    */
+  def withReadConnection[A](body: Connection => Future[A])
+                           (implicit timeout: Timeout): Future[A] = {
+    checkNotNull(body)
+    using(readConnection(), body)
+  }
+
+  /** Returns a connection to a replica if the `sql` is a read, to the primary
+    * otherwise.
+    */
+  def connectionFor(sql: String)(implicit timeout: Timeout): Future[Connection] = {
+    connectionFor(sql, StatementOptions.Default)
+  }
+
+  /** Returns a connection to a replica if the `sql` executed with `options`
+    * is a read, to the primary otherwise.
+    */
+  def connectionFor(sql: String, options: StatementOptions)
+                   (implicit timeout: Timeout): Future[Connection] = {
+    if (isRead(sql, options)) readConnection() else connection()
+  }
+
+  /** Executes the `body` using a connection returned by `connectionFor(sql)`
+    * and releases the connection afterwards.
+    */
+  def withConnectionFor[A](sql: String)
+                          (body: Connection => Future[A])
+                          (implicit timeout: Timeout): Future[A] = {
+    withConnectionFor(sql, StatementOptions.Default)(body)
+  }
+
+  /** Executes the `body` using a connection returned by
+    * `connectionFor(sql, options)` and releases the connection afterwards.
+    */
+  def withConnectionFor[A](sql: String, options: StatementOptions)
+                          (body: Connection => Future[A])
+                          (implicit timeout: Timeout): Future[A] = {
+    checkNotNull(body)
+    using(connectionFor(sql, options), body)
+  }
+
+  /** Tells whether the `sql` executed with `options` is routed to replicas */
+  def isRead(sql: String, options: StatementOptions): Boolean = {
+    checkNotNull(sql)
+    checkNotNull(options)
+    options.readOnly || (config.classifySql && SqlClassifier.isRead(sql))
+  }
+
+  /** Number of replicas considered healthy */
+  def healthyReplicas: Int = nodes.count(_.healthy)
+
+  def shutdown(): Future[Unit] = {
+    if (shutDown.compareAndSet(false, true)) {
+      nodes.foreach(_.checkTask.foreach(_.cancel()))
+      val shutdowns = (primary +: nodes.map(_.factory)).map { fact =>
+        fact.shutdown().recover { case NonFatal(ex) =>
+          logger.warn(s"Error occurred when shutting down connection factory $fact", ex)
+        }
+      }
+      Future.sequence(shutdowns).map(_ => ())
+    } else {
+      Future.successful(())
+    }
+  }
+
+  private def using[A](acquired: Future[Connection], body: Connection => Future[A]): Future[A] = {
+    acquired.flatMap { conn =>
+      body(conn).andThenF { case _ =>
+        conn.release()
+      }
+    }
+  }
+
+  private def replicaConnection(idx: Int, remaining: Int)
+                               (implicit timeout: Timeout): Future[Connection] = {
+    if (remaining == 0) {
+      noReplicaConnection()
+    } else {
+      val node = nodes(idx)
+      val nextIdx = (idx + 1) % nodes.size
+      if (node.healthy) {
+        node.factory.connection().recoverWith { case NonFatal(ex) =>
+          markDown(node, ex)
+          replicaConnection(nextIdx, remaining - 1)
+        }
+      } else {
+        replicaConnection(nextIdx, remaining - 1)
+      }
+    }
+  }
+
+  private def noReplicaConnection()(implicit timeout: Timeout): Future[Connection] = {
+    if (config.fallbackToPrimary) {
+      logger.debug(s"No healthy replica available, using primary $primary")
+      primary.connection()
+    } else {
+      Future.failed(new NoReplicaAvailableException(
+        s"None of ${nodes.size} replicas is healthy"
+      ))
+    }
+  }
+
+  private def scheduleHealthCheck(node: ReplicaNode): Unit = {
+    if (!shutDown.get()) {
+      node.checkTask = Some(scheduler.scheduleDispatched(config.healthCheckInterval) { () =>
+        checkHealth(node).onComplete(_ => scheduleHealthCheck(node))
+      })
+    }
+  }
+
+  private def checkHealth(node: ReplicaNode): Future[Unit] = {
+    implicit val timeout: Timeout = config.healthCheckTimeout
+    val validated = try {
+      node.factory.connection().flatMap { conn =>
+        conn.validate().andThenF { case _ =>
+          conn.release()
+        }
+      }
+    } catch {
+      case NonFatal(ex) => Future.failed(ex)
+    }
+    validated.map { _ =>
+      if (node.markUp()) {
+        logger.info(s"Replica $node passed validation and is used again")
+      }
+    }.recover { case NonFatal(ex) =>
+      markDown(node, ex)
+    }
+  }
+
+  private def markDown(node: ReplicaNode, ex: Throwable): Unit = {
+    if (node.markDown()) {
+      logger.warn(s"Replica $node is unhealthy and won't be used until it passes validation", ex)
+    }
+  }
+
+  override def toString: String = s"read-write-splitting-$primary"
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import io.rdbc.sapi.Row
+import io.rdbc.util.Preconditions.checkNotNull
+
+import scala.reflect.ClassTag
+
+/** Way of merging rows streamed from shards by a [[ShardRouter]]. */
+sealed trait RowMerge
+
+object RowMerge {
+
+  /** Rows are published as soon as any shard returns them, in no particular
+    * order.
+    */
+  case object Unordered extends RowMerge
+
+  /** Rows are merged according to the `ordering`.
+    *
+    * Rows returned by every shard must already be sorted according to the
+    * `ordering`, usually by an `order by` clause of the statement. A row is
+    * published only once every shard that isn't complete has returned its
+    * next row, so the merge advances at the pace of the slowest shard.
+    */
+  final case class Ordered(ordering: Ordering[Row]) extends RowMerge
+
+  /** Returns a merge by values of the `column` converted to `K`, with SQL
+    * `NULL`s first.
+    */
+  def orderedBy[K: ClassTag](column: String)(implicit ordering: Ordering[K]): RowMerge = {
+    checkNotNull(column)
+    Ordered(Ordering.by((row: Row) => row.colOpt[K](column))(Ordering.Option(ordering)))
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.routing.internal.ScatterGatherPublisher
+import io.rdbc.sapi.{Connection, ConnectionFactory, ExecutableStatement, RowPublisher, Timeout}
+import io.rdbc.util.Logging
+import io.rdbc.util.Preconditions.{checkNonEmpty, checkNotNull}
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.control.NonFatal
+
+object ShardRouter {
+
+  /** Creates a router of requests to the `shards` using the `sharding`. */
+  def apply(shards: ImmutIndexedSeq[ConnectionFactory], sharding: Sharding)
+           (implicit ec: ExecutionContext): ShardRouter = {
+    new ShardRouter(shards, sharding)
+  }
+}
+
+/** Routes requests to shards of data partitioned among several databases.
+  *
+  * Every shard is accessed using its own [[io.rdbc.sapi.ConnectionFactory ConnectionFactory]],
+  * `sharding` decides which shard holds data of a key:
+  * {{{
+  * router.withConnection(tenantId) { conn =>
+  *   conn.statement(sql"select * from orders where tenant_id = $tenantId").executeForSet()
+  * }
+  * }}}
+  *
+  * Queries spanning all shards are executed with `scatterGather`, which runs
+  * a statement on every shard in parallel and merges rows the shards stream
+  * back. The merged stream respects backpressure: each shard has only
+  * a bounded number of rows requested ahead of the subscriber's demand.
+  *
+  * Shutting the router down shuts down the shard factories.
+  */
+class ShardRouter(shards: ImmutIndexedSeq[ConnectionFactory], sharding: Sharding)
+                 (implicit ec: ExecutionContext)
+  extends Logging {
+
+  checkNotNull(shards)
+  checkNonEmpty(shards)
+  checkNotNull(sharding)
+
+  private val factories = shards.toVector
+
+  def shardCount: Int = factories.size
+
+  /** Returns an index of the shard holding data of the `key` */
+  def shardOf(key: Any): Int = {
+    checkNotNull(key)
+    sharding.shardOf(key, factories.size)
+  }
+
+  /** Returns a factory of connections to the shard holding data of the `key` */
+  def shard(key: Any): ConnectionFactory = factories(shardOf(key))
+
+  /** Returns a connection to the shard holding data of the `key` */
+  def connection(key: Any)(implicit timeout: Timeout): Future[Connection] = {
+    shard(key).connection()
+  }
+
+  /** Executes the `body` using a connection to the shard holding data of
+    * the `key` and releases the connection afterwards.
+    */
+  def withConnection[A](key: Any)
+                       (body: Connection => Future[A])
+                       (implicit timeout: Timeout): Future[A] = {
+    shard(key).withConnection(body)
+  }
+
+  /** Executes the `body` in a transaction on the shard holding data of
+    * the `key`.
+    */
+  def withTransaction[A](key: Any)
+                        (body: Connection => Future[A])
+                        (implicit timeout: Timeout): Future[A] = {
+    shard(key).withTransaction(body)
+  }
+
+  /** Streams rows of a statement executed on all shards in parallel, merged
+    * in no particular order.
+    */
+  def scatterGather(statement: Connection => ExecutableStatement)
+                   (implicit timeout: Timeout): RowPublisher = {
+    scatterGather(RowMerge.Unordered)(statement)
+  }
+
+  /** Streams rows of a statement executed on all shards in parallel, merged
+    * as the `merge` specifies.
+    *
+    * A connection to every shard is acquired, the `statement` function
+    * creates a statement to execute using it and the statement is streamed.
+    * Connections are released once shards' streams are done. Rows affected
+    * and warnings of the returned publisher are gathered from all shards.
+    * If any shard fails, the streams of the others are cancelled and
+    * the merged stream fails.
+    */
+  def scatterGather(merge: RowMerge)
+                   (statement: Connection => ExecutableStatement)
+                   (implicit timeout: Timeout): RowPublisher = {
+    checkNotNull(merge)
+    checkNotNull(statement)
+    checkNotNull(timeout)
+    new ScatterGatherPublisher(factories.map(streamOnShard(_, statement)), merge)
+  }
+
+  def shutdown(): Future[Unit] = {
+    val shutdowns = factories.map { fact =>
+      fact.shutdown().recover { case NonFatal(ex) =>
+        logger.warn(s"Error occurred when shutting down connection factory $fact", ex)
+      }
+    }
+    Future.sequence(shutdowns).map(_ => ())
+  }
+
+  private def streamOnShard(fact: ConnectionFactory, statement: Connection => ExecutableStatement)
+                           (implicit timeout: Timeout): Future[RowPublisher] = {
+    fact.connection().flatMap { conn =>
+      val publisher = try {
+        Future.successful(statement(conn).stream())
+      } catch {
+        case NonFatal(ex) => Future.failed(ex)
+      }
+      publisher.flatMap(_.done).onComplete { _ =>
+        conn.release().recover { case NonFatal(ex) =>
+          logger.warn(s"Error occurred when releasing connection $conn", ex)
+        }
+      }
+      publisher
+    }
+  }
+
+  override def toString: String = s"shard-router-${factories.mkString(",")}"
+}
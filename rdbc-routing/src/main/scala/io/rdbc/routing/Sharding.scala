@@ -0,0 +1,57 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import scala.util.hashing.byteswap32
+
+/** Maps shard keys to shards of a [[ShardRouter]]. */
+trait Sharding {
+
+  /** Returns an index of a shard holding data of the `key`, between `0`
+    * inclusive and `shardCount` exclusive.
+    */
+  def shardOf(key: Any, shardCount: Int): Int
+}
+
+object Sharding {
+
+  /** Sharding by a scrambled hash code of the key.
+    *
+    * Keys that are equal have the same hash code, so `1` and `1L` map
+    * to the same shard.
+    */
+  object Hash extends Sharding {
+    def shardOf(key: Any, shardCount: Int): Int = Math.floorMod(byteswap32(key.##), shardCount)
+  }
+
+  /** Sharding by the remainder of dividing an integral key by the number of
+    * shards, for data already partitioned this way.
+    */
+  object Modulo extends Sharding {
+    def shardOf(key: Any, shardCount: Int): Int = {
+      key match {
+        case n: Int => Math.floorMod(n, shardCount)
+        case n: Long => Math.floorMod(n, shardCount.toLong).toInt
+        case n: Short => Math.floorMod(n.toInt, shardCount)
+        case n: Byte => Math.floorMod(n.toInt, shardCount)
+        case n: BigInt => (n mod BigInt(shardCount)).toInt
+        case _ => throw new IllegalArgumentException(s"Key $key is not integral")
+      }
+    }
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import io.rdbc.implbase.SqlFingerprint
+import io.rdbc.util.Preconditions.checkNotNull
+
+import scala.annotation.tailrec
+
+/** Lightweight classification of SQL into reads and writes.
+  *
+  * A statement is a read when it starts with `select`, `with`, `values`,
+  * `table`, `show` or `explain` and doesn't contain any of `insert`,
+  * `update`, `delete`, `merge`, `into` or `lock` keywords, nor a
+  * `for share`-like locking clause. Literals, comments and quoted identifiers
+  * are ignored.
+  *
+  * Classification is conservative: anything not recognized as a read is
+  * a write. It can't see side effects of functions though, statements like
+  * `select nextval('seq')` have to be routed explicitly.
+  */
+object SqlClassifier {
+
+  private val ReadCommands = Set("select", "with", "values", "table", "show", "explain")
+  private val WriteKeywords = Set("insert", "update", "delete", "merge", "into", "lock")
+  private val LockingClauses = Set("update", "share", "no", "key")
+
+  def isRead(sql: String): Boolean = {
+    checkNotNull(sql)
+    val words = new Words(SqlFingerprint.of(sql))
+    words.hasNext && ReadCommands.contains(words.next()) && !writes(words, prev = "")
+  }
+
+  @tailrec
+  private def writes(words: Words, prev: String): Boolean = {
+    if (!words.hasNext) {
+      false
+    } else {
+      val word = words.next()
+      if (WriteKeywords.contains(word) || (prev == "for" && LockingClauses.contains(word))) {
+        true
+      } else {
+        writes(words, word)
+      }
+    }
+  }
+
+  /* words of a fingerprint, which is already lower cased and free of
+     literals and comments, skipping quoted identifiers */
+  private class Words(fingerprint: String) extends Iterator[String] {
+    private val len = fingerprint.length
+    private var pos = 0
+
+    def hasNext: Boolean = {
+      skipToWord()
+      pos < len
+    }
+
+    def next(): String = {
+      skipToWord()
+      val start = pos
+      while (pos < len && isWordPart(fingerprint.charAt(pos))) {
+        pos += 1
+      }
+      fingerprint.substring(start, pos)
+    }
+
+    private def skipToWord(): Unit = {
+      while (pos < len && !isWordPart(fingerprint.charAt(pos))) {
+        if (fingerprint.charAt(pos) == '"') {
+          val end = fingerprint.indexOf('"', pos + 1)
+          pos = if (end < 0) len else end + 1
+        } else {
+          pos += 1
+        }
+      }
+    }
+
+    private def isWordPart(c: Char): Boolean = Character.isLetterOrDigit(c) || c == '_'
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import java.util.concurrent.atomic.AtomicInteger
+
+import io.rdbc.sapi.ConnectionFactory
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.Try
+import scala.util.control.NonFatal
+
+/** A balanced factory along with its load.
+  *
+  * Latency is a peak-sensitive moving average: observations above the average
+  * replace it, observations below it are blended in with weights decaying
+  * exponentially with time. When nothing is observed, the average decays
+  * towards zero, so that factories that were slow get requests again.
+  * Failures are observed with a latency of at least `failurePenaltyNanos`, so
+  * that factories failing fast don't look fastest.
+  */
+private[routing] class BalancedNode(val factory: ConnectionFactory, decayNanos: Long, failurePenaltyNanos: Long) {
+
+  import BalancedNode._
+
+  private val pending = new AtomicInteger(0)
+  private var ewma = 0.0
+  private var stamp = System.nanoTime()
+
+  /** Number of connection acquisitions and statement executions in progress */
+  def outstanding: Int = pending.get()
+
+  /** Moving average of latencies in nanoseconds */
+  def latency: Double = synchronized {
+    ewma * weight(System.nanoTime())
+  }
+
+  /** Load of the node, latency weighted by outstanding requests.
+    *
+    * Nodes with requests in progress but no latency observed yet, like ones
+    * whose first requests hang, get a high penalty.
+    */
+  def cost: Double = {
+    val n = outstanding
+    val l = latency
+    if (l == 0.0 && n > 0) UnknownLatencyPenalty + n else l * (n + 1)
+  }
+
+  def observe(latencyNanos: Long): Unit = synchronized {
+    val now = System.nanoTime()
+    val w = weight(now)
+    ewma = if (latencyNanos > ewma) latencyNanos.toDouble else ewma * w + latencyNanos * (1.0 - w)
+    stamp = now
+  }
+
+  /** Observes latency of a request started at `start`, as returned by
+    * `System.nanoTime`, that completed with `res`.
+    */
+  def completed(start: Long, res: Try[_]): Unit = {
+    val elapsed = System.nanoTime() - start
+    observe(if (res.isSuccess) elapsed else Math.max(elapsed, failurePenaltyNanos))
+  }
+
+  /** Counts the `body` as outstanding until it completes and observes its
+    * latency.
+    */
+  def measure[A](body: => Future[A])(implicit ec: ExecutionContext): Future[A] = {
+    pending.incrementAndGet()
+    val start = System.nanoTime()
+    val result = try body catch {
+      case NonFatal(ex) => Future.failed(ex)
+    }
+    /* the returned future completes after the bookkeeping, so that
+       subsequent requests of the caller see it */
+    result.andThen { case res =>
+      pending.decrementAndGet()
+      completed(start, res)
+    }
+  }
+
+  /** Counts a request as outstanding until `completion` completes */
+  def track(completion: Future[_])(implicit ec: ExecutionContext): Unit = {
+    pending.incrementAndGet()
+    completion.onComplete(_ => pending.decrementAndGet())
+  }
+
+  private def weight(now: Long): Double = Math.exp(-(now - stamp).toDouble / decayNanos)
+
+  override def toString: String = factory.toString
+}
+
+private object BalancedNode {
+  private val UnknownLatencyPenalty = (Long.MaxValue >> 16).toDouble
+}
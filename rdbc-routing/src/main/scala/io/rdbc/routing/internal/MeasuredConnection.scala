@@ -0,0 +1,75 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A connection of a [[io.rdbc.routing.BalancingConnectionFactory BalancingConnectionFactory]]
+  * measuring latencies of statements it executes.
+  */
+private[routing] class MeasuredConnection(underlying: Connection, node: BalancedNode)
+                                         (implicit ec: ExecutionContext)
+  extends Connection {
+
+  def beginTx()(implicit timeout: Timeout): Future[Unit] = node.measure(underlying.beginTx())
+
+  def commitTx()(implicit timeout: Timeout): Future[Unit] = node.measure(underlying.commitTx())
+
+  def rollbackTx()(implicit timeout: Timeout): Future[Unit] = node.measure(underlying.rollbackTx())
+
+  def withTransaction[A](body: => Future[A])
+                        (implicit timeout: Timeout): Future[A] = {
+    underlying.withTransaction(body)
+  }
+
+  def release(): Future[Unit] = underlying.release()
+
+  def forceRelease(): Future[Unit] = underlying.forceRelease()
+
+  def validate()(implicit timeout: Timeout): Future[Unit] = underlying.validate()
+
+  def statement(sql: String, statementOptions: StatementOptions): Statement = {
+    new MeasuredStatement(underlying.statement(sql, statementOptions), node)
+  }
+
+  def statement(sql: String): Statement = {
+    new MeasuredStatement(underlying.statement(sql), node)
+  }
+
+  def prepare(sql: String, statementOptions: StatementOptions)
+             (implicit timeout: Timeout): Future[PreparedStatement] = {
+    node.measure(underlying.prepare(sql, statementOptions)).map(new MeasuredPreparedStatement(_, node))
+  }
+
+  def prepare(sql: String)(implicit timeout: Timeout): Future[PreparedStatement] = {
+    node.measure(underlying.prepare(sql)).map(new MeasuredPreparedStatement(_, node))
+  }
+
+  def statement(sqlWithParams: SqlWithParams, statementOptions: StatementOptions): ExecutableStatement = {
+    new MeasuredExecutableStatement(underlying.statement(sqlWithParams, statementOptions), node)
+  }
+
+  def statement(sqlWithParams: SqlWithParams): ExecutableStatement = {
+    new MeasuredExecutableStatement(underlying.statement(sqlWithParams), node)
+  }
+
+  def watchForIdle: Future[Unit] = underlying.watchForIdle
+
+  override def toString: String = underlying.toString
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import io.rdbc.ImmutIndexedSeq
+import io.rdbc.sapi._
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.reflect.ClassTag
+
+/** A bound statement of a [[MeasuredConnection]].
+  *
+  * Latency of a stream is the time to its metadata, the stream is outstanding
+  * until it's done.
+  */
+private[routing] class MeasuredExecutableStatement(underlying: ExecutableStatement, node: BalancedNode)
+                                                  (implicit ec: ExecutionContext)
+  extends ExecutableStatement {
+
+  def stream()(implicit timeout: Timeout): RowPublisher = {
+    val start = System.nanoTime()
+    val publisher = underlying.stream()
+    node.track(publisher.done)
+    publisher.metadata.onComplete(node.completed(start, _))
+    publisher
+  }
+
+  def executeForSet()(implicit timeout: Timeout): Future[ResultSet] = node.measure(underlying.executeForSet())
+
+  def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]] = {
+    node.measure(underlying.executeForSetAs[A]())
+  }
+
+  def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet] = {
+    node.measure(underlying.executeForColumns())
+  }
+
+  def execute()(implicit timeout: Timeout): Future[Unit] = node.measure(underlying.execute())
+
+  def executeForRowsAffected()(implicit timeout: Timeout): Future[Long] = {
+    node.measure(underlying.executeForRowsAffected())
+  }
+
+  def executeForFirstRow()(implicit timeout: Timeout): Future[Option[Row]] = {
+    node.measure(underlying.executeForFirstRow())
+  }
+
+  def executeForValue[A](valExtractor: Row => A)
+                        (implicit timeout: Timeout): Future[Option[A]] = {
+    node.measure(underlying.executeForValue(valExtractor))
+  }
+
+  def executeForKey[K: ClassTag]()(implicit timeout: Timeout): Future[K] = {
+    node.measure(underlying.executeForKey[K]())
+  }
+}
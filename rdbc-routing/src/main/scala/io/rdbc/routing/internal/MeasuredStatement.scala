@@ -0,0 +1,65 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import io.rdbc.sapi._
+import io.rdbc.{ImmutIndexedSeq, ImmutSeq}
+import org.reactivestreams.Publisher
+
+import scala.concurrent.{ExecutionContext, Future}
+
+/** A statement of a [[MeasuredConnection]] */
+private[routing] class MeasuredStatement(underlying: Statement, node: BalancedNode)
+                                        (implicit ec: ExecutionContext)
+  extends Statement {
+
+  def bind(args: (String, Any)*): ExecutableStatement = {
+    new MeasuredExecutableStatement(underlying.bind(args: _*), node)
+  }
+
+  def bindByIdx(args: Any*): ExecutableStatement = {
+    new MeasuredExecutableStatement(underlying.bindByIdx(args: _*), node)
+  }
+
+  def noArgs: ExecutableStatement = new MeasuredExecutableStatement(underlying.noArgs, node)
+
+  def streamArgs(argsPublisher: Publisher[_ <: Map[String, Any]]): Future[Unit] = {
+    underlying.streamArgs(argsPublisher)
+  }
+
+  def streamArgsByIdx(argsPublisher: Publisher[_ <: ImmutIndexedSeq[Any]]): Future[Unit] = {
+    underlying.streamArgsByIdx(argsPublisher)
+  }
+
+  def executeBatch(args: ImmutSeq[Map[String, Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    node.measure(underlying.executeBatch(args))
+  }
+
+  def executeBatchByIdx(args: ImmutSeq[ImmutIndexedSeq[Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    node.measure(underlying.executeBatchByIdx(args))
+  }
+}
+
+private[routing] class MeasuredPreparedStatement(underlying: PreparedStatement, node: BalancedNode)
+                                                (implicit ec: ExecutionContext)
+  extends MeasuredStatement(underlying, node)
+    with PreparedStatement {
+
+  def metadata: Option[RowMetadata] = underlying.metadata
+
+  def close(): Future[Unit] = underlying.close()
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger, AtomicLong, AtomicReference}
+
+import io.rdbc.sapi.Row
+import org.reactivestreams.{Publisher, Subscriber, Subscription}
+
+import scala.annotation.tailrec
+import scala.concurrent.{Future, Promise}
+import scala.util.control.NonFatal
+
+/** A publisher merging rows of `sourceCount` sources into a single stream.
+  *
+  * Sources are added with `addSource` as they become available, a source
+  * that can't be created is reported with `sourceFailed`. Every source is
+  * subscribed to as soon as it's added and never has more than `prefetch`
+  * rows requested but not yet published downstream, so memory use is bounded
+  * by `sourceCount * prefetch` rows regardless of the downstream demand.
+  *
+  * Without an `ordering` rows are taken from sources in turns. With an
+  * `ordering` the smallest of sources' next rows is published, which
+  * requires every source that is not complete to have its next row
+  * buffered.
+  *
+  * A failure of any source cancels the others and fails the stream.
+  * Only a single subscriber is allowed.
+  */
+private[routing] class MergingPublisher(sourceCount: Int, ordering: Option[Ordering[Row]], prefetch: Int)
+  extends Publisher[Row] {
+
+  private val sources = Array.fill(sourceCount)(new Source)
+  private val replenishThreshold = math.max(prefetch / 2, 1)
+
+  private val subscribed = new AtomicBoolean(false)
+  @volatile private var downstream: Subscriber[_ >: Row] = _
+  private val requested = new AtomicLong(0L)
+  @volatile private var cancelled = false
+  private val error = new AtomicReference[Throwable]
+  private val wip = new AtomicInteger(0)
+  private val terminatedPromise = Promise[Unit]
+
+  /* accessed only by the thread draining the sources */
+  private var finished = false
+  private var nextSource = 0
+
+  /** Completes when the stream completes or is cancelled, fails when
+    * it fails.
+    */
+  def terminated: Future[Unit] = terminatedPromise.future
+
+  def addSource(idx: Int, publisher: Publisher[Row]): Unit = {
+    publisher.subscribe(sources(idx))
+  }
+
+  def sourceFailed(ex: Throwable): Unit = {
+    fail(ex)
+  }
+
+  def subscribe(s: Subscriber[_ >: Row]): Unit = {
+    if (s == null) {
+      throw new NullPointerException("Subscriber cannot be null")
+    }
+    if (subscribed.compareAndSet(false, true)) {
+      s.onSubscribe(new DownstreamSubscription)
+      downstream = s
+      drain()
+    } else {
+      s.onSubscribe(NoopSubscription)
+      s.onError(new IllegalStateException("Merged rows can be subscribed to only once"))
+    }
+  }
+
+  private class DownstreamSubscription extends Subscription {
+    def request(n: Long): Unit = {
+      if (n <= 0L) {
+        fail(new IllegalArgumentException(s"Requested $n rows, requests have to be positive"))
+      } else {
+        addDemand(n)
+        drain()
+      }
+    }
+
+    def cancel(): Unit = {
+      cancelled = true
+      cancelSources()
+      drain()
+    }
+  }
+
+  private class Source extends Subscriber[Row] {
+    val queue = new ConcurrentLinkedQueue[Row]
+    @volatile var subscription: Subscription = _
+    @volatile var complete = false
+    var consumed = 0
+
+    def onSubscribe(s: Subscription): Unit = {
+      subscription = s
+      if (cancelled || error.get() != null) {
+        s.cancel()
+      } else {
+        s.request(prefetch.toLong)
+      }
+    }
+
+    def onNext(row: Row): Unit = {
+      queue.offer(row)
+      drain()
+    }
+
+    def onError(t: Throwable): Unit = {
+      fail(t)
+    }
+
+    def onComplete(): Unit = {
+      complete = true
+      drain()
+    }
+
+    /** Whether the source is complete and all its rows were published */
+    def exhausted: Boolean = complete && queue.isEmpty
+
+    /* requests more rows once a part of the prefetched ones is published */
+    def published(): Unit = {
+      consumed += 1
+      if (consumed == replenishThreshold) {
+        consumed = 0
+        subscription.request(replenishThreshold.toLong)
+      }
+    }
+  }
+
+  private def fail(ex: Throwable): Unit = {
+    if (error.compareAndSet(null, ex)) {
+      cancelSources()
+    }
+    drain()
+  }
+
+  private def cancelSources(): Unit = {
+    sources.foreach { source =>
+      val subscription = source.subscription
+      if (subscription != null) {
+        subscription.cancel()
+      }
+    }
+  }
+
+  @tailrec
+  private def addDemand(n: Long): Unit = {
+    val current = requested.get()
+    val updated = if (current + n < 0L) Long.MaxValue else current + n
+    if (!requested.compareAndSet(current, updated)) {
+      addDemand(n)
+    }
+  }
+
+  /* only one thread drains at a time, others just mark that the state
+     changed, so that the draining thread makes another pass */
+  private def drain(): Unit = {
+    if (wip.getAndIncrement() == 0) {
+      var missed = 1
+      while (missed != 0) {
+        drainPass()
+        missed = wip.addAndGet(-missed)
+      }
+    }
+  }
+
+  private def drainPass(): Unit = {
+    val s = downstream
+    if (s != null && !finished) {
+      val demand = requested.get()
+      var emitted = 0L
+      var idx = if (demand > 0L) pickSafely() else -1
+      while (idx >= 0) {
+        val source = sources(idx)
+        s.onNext(source.queue.poll())
+        source.published()
+        emitted += 1L
+        idx = if (emitted < demand) pickSafely() else -1
+      }
+      if (emitted > 0L && demand != Long.MaxValue) {
+        requested.addAndGet(-emitted)
+      }
+      terminateIfDone(s)
+    }
+  }
+
+  private def terminateIfDone(s: Subscriber[_ >: Row]): Unit = {
+    val ex = error.get()
+    if (cancelled) {
+      finished = true
+      sources.foreach(_.queue.clear())
+      terminatedPromise.trySuccess(())
+    } else if (ex != null) {
+      finished = true
+      sources.foreach(_.queue.clear())
+      s.onError(ex)
+      terminatedPromise.tryFailure(ex)
+    } else if (sources.forall(_.exhausted)) {
+      finished = true
+      s.onComplete()
+      terminatedPromise.trySuccess(())
+    }
+  }
+
+  private def pickSafely(): Int = {
+    if (cancelled || error.get() != null) {
+      -1
+    } else {
+      try {
+        ordering match {
+          case Some(ord) => pickSmallest(ord)
+          case None => pickNext()
+        }
+      } catch {
+        case NonFatal(ex) =>
+          fail(ex)
+          -1
+      }
+    }
+  }
+
+  /* next non-empty source in turns */
+  private def pickNext(): Int = {
+    var i = 0
+    var picked = -1
+    while (picked < 0 && i < sourceCount) {
+      val idx = (nextSource + i) % sourceCount
+      if (!sources(idx).queue.isEmpty) {
+        picked = idx
+      }
+      i += 1
+    }
+    if (picked >= 0) {
+      nextSource = (picked + 1) % sourceCount
+    }
+    picked
+  }
+
+  /* source with the smallest next row, or none if any source that is not
+     complete has no row buffered */
+  private def pickSmallest(ord: Ordering[Row]): Int = {
+    var idx = 0
+    var picked = -1
+    var smallest: Row = null
+    var waiting = false
+    while (!waiting && idx < sourceCount) {
+      val source = sources(idx)
+      /* completion has to be read before the queue, rows are queued
+         before the source completes */
+      val complete = source.complete
+      val head = source.queue.peek()
+      if (head == null) {
+        waiting = !complete
+      } else if (smallest == null || ord.lt(head, smallest)) {
+        smallest = head
+        picked = idx
+      }
+      idx += 1
+    }
+    if (waiting) -1 else picked
+  }
+
+  private object NoopSubscription extends Subscription {
+    def request(n: Long): Unit = ()
+    def cancel(): Unit = ()
+  }
+
+}
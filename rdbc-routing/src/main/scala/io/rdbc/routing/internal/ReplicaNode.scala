@@ -0,0 +1,45 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import io.rdbc.sapi.ConnectionFactory
+import io.rdbc.util.scheduler.ScheduledTask
+
+/** A replica factory along with its health */
+private[routing] class ReplicaNode(val factory: ConnectionFactory) {
+
+  @volatile private var up = true
+  @volatile var checkTask: Option[ScheduledTask] = None
+
+  def healthy: Boolean = up
+
+  /** Marks the replica as healthy, returns whether it wasn't before */
+  def markUp(): Boolean = {
+    val wasDown = !up
+    up = true
+    wasDown
+  }
+
+  /** Marks the replica as unhealthy, returns whether it was healthy before */
+  def markDown(): Boolean = {
+    val wasUp = up
+    up = false
+    wasUp
+  }
+
+  override def toString: String = factory.toString
+}
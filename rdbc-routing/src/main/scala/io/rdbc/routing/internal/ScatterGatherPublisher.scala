@@ -0,0 +1,86 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing.internal
+
+import io.rdbc.ImmutSeq
+import io.rdbc.routing.RowMerge
+import io.rdbc.sapi.{Row, RowMetadata, RowPublisher, Warning}
+import org.reactivestreams.Subscriber
+
+import scala.concurrent.{ExecutionContext, Future}
+import scala.util.control.NonFatal
+import scala.util.{Failure, Success}
+
+/** Rows of a statement executed on all shards of a [[io.rdbc.routing.ShardRouter ShardRouter]].
+  *
+  * Rows affected and warnings are gathered from all shards, metadata is
+  * the first shard's one. The publisher is done once all shards are done.
+  */
+private[routing] class ScatterGatherPublisher(shards: Vector[Future[RowPublisher]], merge: RowMerge)
+                                             (implicit ec: ExecutionContext)
+  extends RowPublisher {
+
+  import ScatterGatherPublisher._
+
+  private val merging = {
+    val ordering = merge match {
+      case RowMerge.Ordered(ord) => Some(ord)
+      case RowMerge.Unordered => None
+    }
+    new MergingPublisher(shards.size, ordering, Prefetch)
+  }
+
+  shards.zipWithIndex.foreach { case (publisherFut, idx) =>
+    publisherFut.onComplete {
+      case Success(publisher) => merging.addSource(idx, publisher)
+      case Failure(ex) => merging.sourceFailed(ex)
+    }
+  }
+
+  def subscribe(s: Subscriber[_ >: Row]): Unit = merging.subscribe(s)
+
+  lazy val rowsAffected: Future[Long] = gather(_.rowsAffected).map(_.sum)
+
+  lazy val warnings: Future[ImmutSeq[Warning]] = gather(_.warnings).map(_.flatten)
+
+  lazy val metadata: Future[RowMetadata] = shards.head.flatMap(_.metadata)
+
+  /* waits for all shards even if some of them fail, so that no shard is still
+     streaming when the publisher is done */
+  lazy val done: Future[Unit] = {
+    val settled = shards.map { publisherFut =>
+      publisherFut.flatMap(_.done).map(_ => Option.empty[Throwable]).recover {
+        case NonFatal(ex) => Some(ex)
+      }
+    }
+    Future.sequence(settled).flatMap { failures =>
+      failures.flatten.headOption match {
+        case Some(ex) => Future.failed(ex)
+        case None => merging.terminated
+      }
+    }
+  }
+
+  private def gather[A](f: RowPublisher => Future[A]): Future[Vector[A]] = {
+    Future.sequence(shards.map(_.flatMap(f)))
+  }
+}
+
+private[routing] object ScatterGatherPublisher {
+  /* rows requested from each shard ahead of the downstream demand */
+  private val Prefetch = 64
+}
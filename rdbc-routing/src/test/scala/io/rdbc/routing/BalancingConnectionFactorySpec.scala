@@ -0,0 +1,131 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import io.rdbc.sapi._
+import io.rdbc.testkit.TestConnFact
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+import scala.util.Try
+
+class BalancingConnectionFactorySpec
+  extends RdbcRoutingSpec
+    with Eventually {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout(10.seconds)
+
+  "BalancingConnectionFactory" should {
+
+    "send most requests to the fastest factory" in {
+      val (facts, balancing) = newFactory(count = 3)
+      facts(0).delay = 20.millis
+
+      (1 to 100).foreach { _ =>
+        balancing.connection().get.release().get
+      }
+
+      facts(0).opened.get should be <= 1
+    }
+
+    "avoid factories with requests in progress" in {
+      val (facts, balancing) = newFactory(count = 2)
+      facts(0).hanging = true
+
+      (1 to 10).foreach { _ =>
+        Try(balancing.connection().get(Timeout(100.millis)))
+      }
+
+      facts(0).opened.get should be <= 1
+    }
+
+    "avoid factories failing connection acquisition" in {
+      val (facts, balancing) = newFactory(count = 2)
+      facts(0).failure = Some(new RuntimeException("down"))
+
+      (1 to 20).foreach { _ =>
+        balancing.connection().recover { case _ => () }.get
+      }
+
+      facts(1).opened.get should be >= 19
+    }
+
+    "record failed statements with the failure penalty" in {
+      val (facts, balancing) = newFactory(count = 1)
+      val conn = balancing.connection().get
+      facts(0).statementFailure = Some(new RuntimeException("rejected"))
+
+      conn.statement("delete").noArgs.execute().failed.get
+
+      balancing.stats.head.latency should be >= 500.millis
+    }
+
+    "record streams with failed metadata with the failure penalty" in {
+      val (facts, balancing) = newFactory(count = 1)
+      val conn = balancing.connection().get
+      facts(0).statementFailure = Some(new RuntimeException("rejected"))
+
+      conn.statement("select").noArgs.stream().metadata.failed.get
+
+      eventually {
+        balancing.stats.head.latency should be >= 500.millis
+      }
+    }
+
+    "probe slow factories again once their latency decays" in {
+      val (facts, balancing) = newFactory(count = 2, BalancingConfig.Default.copy(decayTime = 2.millis))
+      facts(0).delay = 20.millis
+
+      balancing.connection().get
+      balancing.connection().get
+      facts(0).delay = Duration.Zero
+
+      eventually {
+        balancing.connection().get
+        facts(0).opened.get should be >= 2
+      }
+    }
+
+    "report latency and outstanding requests of factories" in {
+      val (facts, balancing) = newFactory(count = 1)
+      facts(0).delay = 20.millis
+
+      balancing.connection().get
+      balancing.stats.head.latency should be >= 10.millis
+
+      facts(0).hanging = true
+      balancing.connection()
+      balancing.stats.head.outstanding shouldBe 1
+    }
+
+    "shut down the underlying factories" in {
+      val (facts, balancing) = newFactory(count = 2)
+
+      balancing.shutdown().get
+
+      facts.map(_.shutDown.get) shouldBe Vector(1, 1)
+    }
+  }
+
+  private def newFactory(count: Int, config: BalancingConfig = BalancingConfig.Default)
+  : (Vector[TestConnFact], BalancingConnectionFactory) = {
+    val facts = Vector.tabulate(count)(i => new TestConnFact(s"node-$i"))
+    (facts, BalancingConnectionFactory(facts, config))
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import java.util.concurrent.Executors
+
+import io.rdbc.routing.exceptions.NoReplicaAvailableException
+import io.rdbc.sapi._
+import io.rdbc.testkit.{TestConn, TestConnFact}
+import io.rdbc.util.scheduler.JdkScheduler
+import org.scalatest.BeforeAndAfterAll
+import org.scalatest.concurrent.Eventually
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future}
+
+class ReadWriteSplittingConnectionFactorySpec
+  extends RdbcRoutingSpec
+    with Eventually
+    with BeforeAndAfterAll {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout(10.seconds)
+  private val scheduler = new JdkScheduler(Executors.newSingleThreadScheduledExecutor())
+
+  private val config = ReadWriteSplittingConfig.Default
+
+  override def afterAll(): Unit = scheduler.shutdown().get
+
+  "ReadWriteSplittingConnectionFactory" should {
+
+    "use the primary for connections and transactions" in {
+      val (primary, replicas, fact) = newFactory(replicaCount = 2)
+
+      fact.connection().get
+      fact.withConnection(_ => Future.successful(())).get
+      fact.withTransaction(_ => Future.successful(())).get
+
+      primary.opened.get shouldBe 3
+      replicas.map(_.opened.get).sum shouldBe 0
+    }
+
+    "use replicas in turns for read connections" in {
+      val (primary, replicas, fact) = newFactory(replicaCount = 2)
+
+      (1 to 4).foreach { _ =>
+        fact.withReadConnection(conn => conn.release()).get
+      }
+
+      primary.opened.get shouldBe 0
+      replicas.map(_.opened.get) shouldBe Vector(2, 2)
+      replicas.map(_.released.get) shouldBe Vector(2, 2)
+    }
+
+    "route connections by SQL and read only hint" in {
+      val (primary, replicas, fact) = newFactory(replicaCount = 1)
+
+      fact.connectionFor("select * from users").get.asInstanceOf[TestConn].fact shouldBe replicas.head
+      fact.connectionFor("update users set name = null").get.asInstanceOf[TestConn].fact shouldBe primary
+      val readOnly = StatementOptions.Default.copy(readOnly = true)
+      fact.connectionFor("select nextval('seq')", readOnly).get.asInstanceOf[TestConn].fact shouldBe replicas.head
+    }
+
+    "route only hinted statements if SQL classification is disabled" in {
+      val (primary, _, fact) = newFactory(replicaCount = 1, config.copy(classifySql = false))
+
+      fact.withConnectionFor("select * from users")(_ => Future.successful(())).get
+
+      primary.opened.get shouldBe 1
+    }
+
+    "skip replicas failing connection acquisition" in {
+      val (primary, replicas, fact) = newFactory(replicaCount = 2)
+      replicas.head.failure = Some(new RuntimeException("down"))
+
+      (1 to 4).foreach(_ => fact.readConnection().get)
+
+      primary.opened.get shouldBe 0
+      replicas.last.opened.get shouldBe 4
+      fact.healthyReplicas shouldBe 1
+    }
+
+    "fall back to the primary if no replica is healthy" in {
+      val (primary, replicas, fact) = newFactory(replicaCount = 1)
+      replicas.head.failure = Some(new RuntimeException("down"))
+
+      fact.readConnection().get.asInstanceOf[TestConn].fact shouldBe primary
+    }
+
+    "fail reads if no replica is healthy and fallback is disabled" in {
+      val (_, replicas, fact) = newFactory(replicaCount = 1, config.copy(fallbackToPrimary = false))
+      replicas.head.failure = Some(new RuntimeException("down"))
+
+      assertThrows[NoReplicaAvailableException] {
+        fact.readConnection().get
+      }
+    }
+
+    "track replica health using validation" in {
+      val (_, replicas, fact) = newFactory(replicaCount = 2, config.copy(healthCheckInterval = 50.millis))
+      replicas.head.invalid = true
+
+      eventually {
+        fact.healthyReplicas shouldBe 1
+      }
+      (1 to 2).foreach { _ =>
+        fact.readConnection().get.asInstanceOf[TestConn].fact shouldBe replicas.last
+      }
+
+      replicas.head.invalid = false
+      eventually {
+        fact.healthyReplicas shouldBe 2
+      }
+      fact.shutdown().get
+    }
+
+    "shut down the primary and replicas" in {
+      val (primary, replicas, fact) = newFactory(replicaCount = 2)
+
+      fact.shutdown().get
+
+      (primary +: replicas).map(_.shutDown.get) shouldBe Vector(1, 1, 1)
+    }
+  }
+
+  private def newFactory(replicaCount: Int, cfg: ReadWriteSplittingConfig = config)
+  : (TestConnFact, Vector[TestConnFact], ReadWriteSplittingConnectionFactory) = {
+    val primary = new TestConnFact("primary")
+    val replicas = Vector.tabulate(replicaCount)(i => new TestConnFact(s"replica-$i"))
+    (primary, replicas, ReadWriteSplittingConnectionFactory(primary, replicas, cfg, scheduler))
+  }
+}
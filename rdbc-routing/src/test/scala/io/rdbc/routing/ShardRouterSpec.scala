@@ -0,0 +1,185 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+import java.util.concurrent.ConcurrentLinkedQueue
+
+import io.rdbc.sapi._
+import io.rdbc.testkit.{TestConn, TestConnFact, TestRow}
+import org.reactivestreams.{Subscriber, Subscription}
+import org.scalatest.concurrent.Eventually
+
+import scala.collection.JavaConverters._
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Promise}
+
+class ShardRouterSpec
+  extends RdbcRoutingSpec
+    with Eventually {
+
+  private implicit val ec: ExecutionContext = ExecutionContext.global
+  private implicit val timeout: Timeout = Timeout(10.seconds)
+
+  "ShardRouter" should {
+
+    "route keys to shards" in {
+      val (facts, router) = newRouter(shardCount = 4, Sharding.Modulo)
+
+      router.shardOf(5) shouldBe 1
+      router.shardOf(-1L) shouldBe 3
+      router.connection(6).get.asInstanceOf[TestConn].fact shouldBe facts(2)
+    }
+
+    "map equal keys to the same shard using hash sharding" in {
+      Sharding.Hash.shardOf(42, 16) shouldBe Sharding.Hash.shardOf(42L, 16)
+      all((1 to 1000).map(Sharding.Hash.shardOf(_, 16))) should (be >= 0 and be < 16)
+    }
+
+    "merge rows of all shards" in {
+      val (facts, router) = newRouter(shardCount = 3)
+      facts.zipWithIndex.foreach { case (fact, shard) =>
+        fact.rows = rows(shard * 100 until shard * 100 + 100)
+      }
+
+      val subscriber = new TestSubscriber
+      router.scatterGather(_.statement("select").noArgs).subscribe(subscriber)
+      subscriber.request(Long.MaxValue)
+
+      ids(subscriber.result.future.get).sorted shouldBe (0L until 300L)
+      eventually {
+        facts.map(_.released.get) shouldBe Vector(1, 1, 1)
+      }
+    }
+
+    "merge sorted rows of shards in order" in {
+      val (facts, router) = newRouter(shardCount = 3)
+      facts.zipWithIndex.foreach { case (fact, shard) =>
+        fact.rows = rows(shard until 300 by 3)
+      }
+
+      val subscriber = new TestSubscriber
+      router.scatterGather(RowMerge.orderedBy[Long]("id"))(_.statement("select").noArgs).subscribe(subscriber)
+      subscriber.request(Long.MaxValue)
+
+      ids(subscriber.result.future.get) shouldBe (0L until 300L)
+    }
+
+    "not request more rows from shards than needed to satisfy the demand" in {
+      val (facts, router) = newRouter(shardCount = 3)
+      facts.foreach(_.rows = rows(0 until 1000))
+
+      val subscriber = new TestSubscriber
+      router.scatterGather(_.statement("select").noArgs).subscribe(subscriber)
+      subscriber.request(10)
+
+      eventually {
+        subscriber.rows.size shouldBe 10
+      }
+      all(facts.map(_.delivered.get)) should be <= 64
+
+      subscriber.request(Long.MaxValue)
+      subscriber.result.future.get should have size 3000
+    }
+
+    "fail and cancel other shards' streams if a shard fails" in {
+      val (facts, router) = newRouter(shardCount = 3)
+      val failure = new RuntimeException
+      facts.foreach(_.rows = rows(0 until 1000))
+      facts(1).rows = Vector.empty
+      facts(1).streamFailure = Some(failure)
+
+      val subscriber = new TestSubscriber
+      val publisher = router.scatterGather(_.statement("select").noArgs)
+      publisher.subscribe(subscriber)
+      subscriber.request(1)
+
+      the[RuntimeException] thrownBy {
+        subscriber.result.future.get
+      } shouldBe theSameInstanceAs(failure)
+      the[RuntimeException] thrownBy {
+        publisher.done.get
+      } shouldBe theSameInstanceAs(failure)
+      eventually {
+        facts(0).cancelled.get shouldBe 1
+        facts(2).cancelled.get shouldBe 1
+        facts.map(_.released.get) shouldBe Vector(1, 1, 1)
+      }
+    }
+
+    "fail if a connection to any shard can't be acquired" in {
+      val (facts, router) = newRouter(shardCount = 2)
+      facts(0).rows = rows(0 until 1000)
+      facts(1).failure = Some(new RuntimeException("down"))
+
+      val subscriber = new TestSubscriber
+      router.scatterGather(_.statement("select").noArgs).subscribe(subscriber)
+      subscriber.request(1)
+
+      assertThrows[RuntimeException] {
+        subscriber.result.future.get
+      }
+      eventually {
+        facts(0).cancelled.get shouldBe 1
+        facts(0).released.get shouldBe 1
+      }
+    }
+
+    "gather rows affected by all shards" in {
+      val (facts, router) = newRouter(shardCount = 2)
+      facts(0).rows = rows(0 until 10)
+      facts(1).rows = rows(0 until 20)
+
+      val subscriber = new TestSubscriber
+      val publisher = router.scatterGather(_.statement("select").noArgs)
+      publisher.subscribe(subscriber)
+      subscriber.request(Long.MaxValue)
+
+      publisher.rowsAffected.get shouldBe 30L
+      publisher.done.get
+    }
+
+    "shut down the shards" in {
+      val (facts, router) = newRouter(shardCount = 2)
+
+      router.shutdown().get
+
+      facts.map(_.shutDown.get) shouldBe Vector(1, 1)
+    }
+  }
+
+  private def newRouter(shardCount: Int, sharding: Sharding = Sharding.Hash): (Vector[TestConnFact], ShardRouter) = {
+    val facts = Vector.tabulate(shardCount)(i => new TestConnFact(s"shard-$i"))
+    (facts, ShardRouter(facts, sharding))
+  }
+
+  private def rows(ids: Range): Vector[Row] = ids.map(id => new TestRow(Vector("id" -> id.toLong)): Row).toVector
+
+  private def ids(rows: Vector[Row]): Vector[Long] = rows.map(_.col[Long]("id"))
+
+  class TestSubscriber extends Subscriber[Row] {
+    @volatile private var subscription: Subscription = _
+    val rows = new ConcurrentLinkedQueue[Row]
+    val result: Promise[Vector[Row]] = Promise[Vector[Row]]
+
+    def request(n: Long): Unit = subscription.request(n)
+
+    def onSubscribe(s: Subscription): Unit = subscription = s
+    def onNext(row: Row): Unit = rows.add(row)
+    def onError(t: Throwable): Unit = result.tryFailure(t)
+    def onComplete(): Unit = result.trySuccess(rows.asScala.toVector)
+  }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.routing
+
+class SqlClassifierSpec extends RdbcRoutingSpec {
+
+  "SqlClassifier" should {
+
+    "classify queries as reads" in {
+      SqlClassifier.isRead("select * from users where id = :id") shouldBe true
+      SqlClassifier.isRead("  SELECT 1") shouldBe true
+      SqlClassifier.isRead("with t as (select 1) select * from t") shouldBe true
+      SqlClassifier.isRead("values (1, 2)") shouldBe true
+      SqlClassifier.isRead("explain select * from users") shouldBe true
+    }
+
+    "classify data modifying statements as writes" in {
+      SqlClassifier.isRead("insert into users values (1)") shouldBe false
+      SqlClassifier.isRead("update users set name = 'x'") shouldBe false
+      SqlClassifier.isRead("delete from users") shouldBe false
+      SqlClassifier.isRead("create table t (id int)") shouldBe false
+      SqlClassifier.isRead("with t as (delete from users returning *) select * from t") shouldBe false
+      SqlClassifier.isRead("select * into archive from users") shouldBe false
+      SqlClassifier.isRead("explain analyze update users set name = null") shouldBe false
+    }
+
+    "classify locking reads as writes" in {
+      SqlClassifier.isRead("select * from users for update") shouldBe false
+      SqlClassifier.isRead("select * from users for share") shouldBe false
+      SqlClassifier.isRead("select * from users for no key update") shouldBe false
+    }
+
+    "ignore keywords in literals, comments and quoted identifiers" in {
+      SqlClassifier.isRead("select 'delete' from users") shouldBe true
+      SqlClassifier.isRead("select * from users -- for update") shouldBe true
+      SqlClassifier.isRead("/* insert */ select \"update\" from users") shouldBe true
+      SqlClassifier.isRead("/* select */ delete from users") shouldBe false
+    }
+
+    "classify empty statements as writes" in {
+      SqlClassifier.isRead("") shouldBe false
+      SqlClassifier.isRead("-- select") shouldBe false
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.tck
+
+import io.rdbc.sapi._
+
+trait BatchSpec
+  extends RdbcSpec
+    with TableSpec
+    with TxSpec {
+
+  protected def intDataTypeName: String
+
+  private def columnsDefinition = s"col $intDataTypeName"
+
+  "Batch execution feature should" - {
+    "return rows affected by each execution" - {
+      "when arguments are bound by name" - {
+        withAndWithoutTx(columnsDefinition) { (c, t) =>
+          val args = (1 to 10).map(i => Map("col" -> i)).toVector
+          c.statement(s"insert into $t(col) values (:col)").executeBatch(args).get shouldBe Array.fill(10)(1L)
+          c.statement(s"delete from $t where col >= :col").executeBatch(Vector(Map("col" -> 6))).get shouldBe Array(5L)
+        }
+      }
+
+      "when arguments are bound by index" - {
+        withAndWithoutTx(columnsDefinition) { (c, t) =>
+          val args = (1 to 10).map(i => Vector(i)).toVector
+          c.statement(s"insert into $t(col) values (?)").executeBatchByIdx(args).get shouldBe Array.fill(10)(1L)
+          c.statement(sql"select col from #$t order by col").executeForSet().get
+            .rows.map(_.int("col")) should contain theSameElementsInOrderAs (1 to 10)
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.tck
+
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.IllegalSessionStateException
+
+trait PreparedStatementSpec
+  extends RdbcSpec
+    with TableSpec
+    with TxSpec {
+
+  protected def intDataTypeName: String
+
+  private def columnsDefinition = s"col $intDataTypeName"
+
+  "Prepared statement feature should" - {
+    "allow executing a statement many times" - {
+      withAndWithoutTx(columnsDefinition) { (c, t) =>
+        val insert = c.prepare(s"insert into $t(col) values (:col)").get
+        (1 to 10).foreach { i =>
+          insert.bind("col" -> i).executeForRowsAffected().get shouldBe 1L
+        }
+        insert.close().get
+
+        c.statement(sql"select col from #$t order by col").executeForSet().get
+          .rows.map(_.int("col")) should contain theSameElementsInOrderAs (1 to 10)
+      }
+    }
+
+    "not allow binding closed statements" - {
+      withAndWithoutTx(columnsDefinition) { (c, t) =>
+        val select = c.prepare(s"select col from $t").get
+        select.close().get
+
+        assertThrows[IllegalSessionStateException] {
+          select.noArgs
+        }
+      }
+    }
+  }
+}
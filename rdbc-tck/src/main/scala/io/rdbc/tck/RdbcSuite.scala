@@ -30,7 +30,9 @@ trait RdbcSuite
     with StreamingResultsSpec
     with ResultSetSpec
     with ForValueSpec
-    with ForFirstRowSpec {
+    with ForFirstRowSpec
+    with BatchSpec
+    with PreparedStatementSpec {
 
   protected implicit val system = ActorSystem()
   protected implicit val materializer = ActorMaterializer()
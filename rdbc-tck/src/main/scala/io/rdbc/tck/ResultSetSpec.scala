@@ -48,6 +48,53 @@ trait ResultSetSpec
       }
     }
 
+    "be able to fetch all rows by columns" - {
+      withAndWithoutTx(columnsDefinition) { (c, t) =>
+        val range = 1 to 10
+        for {i <- range} yield {
+          c.statement(sql"insert into #$t(col) values ($i)").execute().get
+        }
+        c.statement(sql"insert into #$t(col) values (null)").execute().get
+        val rs = c.statement(sql"select col from #$t order by col").executeForColumns().get
+        rs.rowCount shouldBe range.size + 1
+        val col = rs.column("col")
+        val nonNull = (0 until rs.rowCount).filterNot(col.isNull)
+        nonNull should have size range.size.toLong
+        val values = col match {
+          case c: Column.IntColumn => nonNull.map(c.values(_).toLong)
+          case c: Column.LongColumn => nonNull.map(c.values(_))
+          case c: Column.ObjectColumn => nonNull.map(c.values(_).asInstanceOf[Number].longValue)
+          case other => fail(s"unexpected column representation $other")
+        }
+        values should contain theSameElementsInOrderAs range.map(_.toLong)
+      }
+    }
+
+    "be able to fetch all rows decoded to case classes" - {
+      withAndWithoutTx(columnsDefinition) { (c, t) =>
+        val range = 1 to 10
+        for {i <- range} yield {
+          c.statement(sql"insert into #$t(col) values ($i)").execute().get
+        }
+        val values = c.statement(sql"select col from #$t order by col").executeForSetAs[ResultSetSpec.Value]().get
+        values.map(_.col) should contain theSameElementsInOrderAs range
+      }
+    }
+
+    "respect the row limit set in statement options" - {
+      withAndWithoutTx(columnsDefinition) { (c, t) =>
+        val range = 1 to 10
+        for {i <- range} yield {
+          c.statement(sql"insert into #$t(col) values ($i)").execute().get
+        }
+        val rows = c.statement(
+          sql"select col from #$t order by col",
+          StatementOptions.Default.copy(maxRows = Some(3L))
+        ).executeForSet().get.rows
+        rows.map(_.int("col")) should contain theSameElementsInOrderAs (1 to 3)
+      }
+    }
+
     "return metadata" - {
       "about rows affected" - {
         withAndWithoutTx(columnsDefinition) { (c, t) =>
@@ -77,3 +124,7 @@ trait ResultSetSpec
     }
   }
 }
+
+object ResultSetSpec {
+  final case class Value(col: Int)
+}
@@ -0,0 +1,312 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.testkit
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{Executors, ThreadFactory, TimeUnit}
+
+import io.rdbc.sapi._
+import io.rdbc.sapi.exceptions.{ConnectionValidationException, NoKeysReturnedException}
+import io.rdbc.{ImmutIndexedSeq, ImmutSeq}
+import org.reactivestreams.{Publisher, Subscriber, Subscription}
+
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future, Promise}
+import scala.reflect.ClassTag
+
+/* Fakes of the Scala API standing in for a database in tests of modules
+   wrapping connection factories. Behaviour is set with the factory's vars,
+   which apply to connections and statements created afterwards; counters
+   record what the fakes were asked to do. */
+
+class TestConnFact(name: String = "test") extends ConnectionFactory {
+
+  import TestConnFact.ec
+
+  val opened = new AtomicInteger(0)
+  val released = new AtomicInteger(0)
+  val forceReleased = new AtomicInteger(0)
+  val shutDown = new AtomicInteger(0)
+  val reads = new AtomicInteger(0)
+  val delivered = new AtomicInteger(0)
+  val cancelled = new AtomicInteger(0)
+
+  /* rows returned by statements */
+  @volatile var rows: Vector[Row] = Vector.empty
+  /* result of executeForSet and executeForFirstRow, by default the rows */
+  @volatile var result: () => Future[ResultSet] = () => Future.successful(TestConnFact.resultSet(rows))
+  /* failure of connection acquisition */
+  @volatile var failure: Option[Throwable] = None
+  /* failure of statement executions and stream metadata */
+  @volatile var statementFailure: Option[Throwable] = None
+  /* failure of streams after all rows are delivered */
+  @volatile var streamFailure: Option[Throwable] = None
+  @volatile var invalid: Boolean = false
+  @volatile var idle: Boolean = true
+  @volatile var hanging: Boolean = false
+  @volatile var delay: FiniteDuration = Duration.Zero
+
+  def connection()(implicit timeout: Timeout): Future[Connection] = {
+    failure match {
+      case Some(ex) => Future.failed(ex)
+      case None =>
+        opened.incrementAndGet()
+        if (hanging) {
+          Promise[Connection].future
+        } else if (delay > Duration.Zero) {
+          val promise = Promise[Connection]
+          TestConnFact.timer.schedule(new Runnable {
+            def run(): Unit = promise.success(new TestConn(TestConnFact.this))
+          }, delay.toNanos, TimeUnit.NANOSECONDS)
+          promise.future
+        } else {
+          Future.successful(new TestConn(this))
+        }
+    }
+  }
+
+  def withConnection[A](body: Connection => Future[A])(implicit timeout: Timeout): Future[A] = {
+    connection().flatMap { conn =>
+      body(conn).andThen { case _ => conn.release() }
+    }
+  }
+
+  def withTransaction[A](body: Connection => Future[A])(implicit timeout: Timeout): Future[A] = {
+    withConnection(conn => conn.withTransaction(body(conn)))
+  }
+
+  def shutdown(): Future[Unit] = {
+    shutDown.incrementAndGet()
+    Future.successful(())
+  }
+
+  override def toString: String = name
+}
+
+object TestConnFact {
+
+  private[testkit] implicit val ec: ExecutionContext = ExecutionContext.global
+
+  /* daemon thread, so that tests don't have to shut it down */
+  private val timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory {
+    def newThread(r: Runnable): Thread = {
+      val thread = Executors.defaultThreadFactory().newThread(r)
+      thread.setDaemon(true)
+      thread
+    }
+  })
+
+  def resultSet(rows: Vector[Row] = Vector.empty): ResultSet = {
+    new ResultSet(0L, Vector.empty, RowMetadata(Vector.empty), rows)
+  }
+}
+
+class TestConn(val fact: TestConnFact) extends Connection {
+
+  def validate()(implicit timeout: Timeout): Future[Unit] = {
+    if (fact.invalid) {
+      Future.failed(new ConnectionValidationException(new RuntimeException(s"$fact is invalid")))
+    } else {
+      Future.successful(())
+    }
+  }
+
+  def watchForIdle: Future[Unit] = {
+    if (fact.idle) Future.successful(())
+    else Future.failed(new RuntimeException(s"$fact is busy"))
+  }
+
+  def release(): Future[Unit] = {
+    fact.released.incrementAndGet()
+    Future.successful(())
+  }
+
+  def forceRelease(): Future[Unit] = {
+    fact.forceReleased.incrementAndGet()
+    Future.successful(())
+  }
+
+  def beginTx()(implicit timeout: Timeout): Future[Unit] = Future.successful(())
+  def commitTx()(implicit timeout: Timeout): Future[Unit] = Future.successful(())
+  def rollbackTx()(implicit timeout: Timeout): Future[Unit] = Future.successful(())
+  def withTransaction[A](body: => Future[A])(implicit timeout: Timeout): Future[A] = body
+
+  def statement(sql: String, statementOptions: StatementOptions): Statement = new TestStmt(fact)
+  def statement(sql: String): Statement = new TestStmt(fact)
+
+  def statement(sqlWithParams: SqlWithParams, statementOptions: StatementOptions): ExecutableStatement = {
+    new TestExecutableStmt(fact)
+  }
+
+  def statement(sqlWithParams: SqlWithParams): ExecutableStatement = new TestExecutableStmt(fact)
+
+  def prepare(sql: String, statementOptions: StatementOptions)
+             (implicit timeout: Timeout): Future[PreparedStatement] = {
+    Future.successful(new TestPreparedStmt(fact))
+  }
+
+  def prepare(sql: String)(implicit timeout: Timeout): Future[PreparedStatement] = {
+    Future.successful(new TestPreparedStmt(fact))
+  }
+
+  override def toString: String = s"conn-$fact"
+}
+
+class TestStmt(fact: TestConnFact) extends Statement {
+
+  import TestConnFact.ec
+
+  def noArgs: ExecutableStatement = new TestExecutableStmt(fact)
+  def bind(args: (String, Any)*): ExecutableStatement = new TestExecutableStmt(fact)
+  def bindByIdx(args: Any*): ExecutableStatement = new TestExecutableStmt(fact)
+
+  def streamArgs(argsPublisher: Publisher[_ <: Map[String, Any]]): Future[Unit] = drain(argsPublisher)
+  def streamArgsByIdx(argsPublisher: Publisher[_ <: ImmutIndexedSeq[Any]]): Future[Unit] = drain(argsPublisher)
+
+  def executeBatch(args: ImmutSeq[Map[String, Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    batch(args.size)
+  }
+
+  def executeBatchByIdx(args: ImmutSeq[ImmutIndexedSeq[Any]])(implicit timeout: Timeout): Future[Array[Long]] = {
+    batch(args.size)
+  }
+
+  private def batch(size: Int)(implicit timeout: Timeout): Future[Array[Long]] = {
+    new TestExecutableStmt(fact).execute().map(_ => new Array[Long](size))
+  }
+
+  /* requests all arguments, executing nothing */
+  private def drain(publisher: Publisher[_]): Future[Unit] = {
+    val promise = Promise[Unit]
+    publisher.asInstanceOf[Publisher[Any]].subscribe(new Subscriber[Any] {
+      def onSubscribe(s: Subscription): Unit = s.request(Long.MaxValue)
+      def onNext(t: Any): Unit = ()
+      def onError(t: Throwable): Unit = promise.failure(t)
+      def onComplete(): Unit = promise.success(())
+    })
+    promise.future
+  }
+}
+
+class TestPreparedStmt(fact: TestConnFact) extends TestStmt(fact) with PreparedStatement {
+  def metadata: Option[RowMetadata] = None
+  def close(): Future[Unit] = Future.successful(())
+}
+
+class TestExecutableStmt(fact: TestConnFact) extends ExecutableStatement {
+
+  import TestConnFact.ec
+
+  def stream()(implicit timeout: Timeout): RowPublisher = new TestRowPublisher(fact)
+
+  def execute()(implicit timeout: Timeout): Future[Unit] = {
+    fact.statementFailure.fold(Future.successful(()))(Future.failed)
+  }
+
+  def executeForRowsAffected()(implicit timeout: Timeout): Future[Long] = execute().map(_ => 0L)
+
+  def executeForSet()(implicit timeout: Timeout): Future[ResultSet] = {
+    fact.reads.incrementAndGet()
+    fact.statementFailure.fold(fact.result())(Future.failed)
+  }
+
+  def executeForSetAs[A: RowDecoder]()(implicit timeout: Timeout): Future[ImmutIndexedSeq[A]] = {
+    executeForSet().map { rs =>
+      val decode = RowDecoder[A].bind(rs.metadata)
+      rs.rows.iterator.map(decode).toVector
+    }
+  }
+
+  def executeForColumns()(implicit timeout: Timeout): Future[ColumnarResultSet] = {
+    executeForSet().map { rs =>
+      new ColumnarResultSet(rs.rowsAffected, rs.warnings, rs.metadata, rs.rows.size, Vector.empty)
+    }
+  }
+
+  def executeForFirstRow()(implicit timeout: Timeout): Future[Option[Row]] = {
+    executeForSet().map(_.rows.headOption)
+  }
+
+  def executeForValue[A](valExtractor: Row => A)(implicit timeout: Timeout): Future[Option[A]] = {
+    executeForFirstRow().map(_.map(valExtractor))
+  }
+
+  def executeForKey[K: ClassTag]()(implicit timeout: Timeout): Future[K] = {
+    executeForValue(_.col[K](0)).map(_.getOrElse(throw new NoKeysReturnedException("No rows were returned")))
+  }
+}
+
+/* publishes rows of the factory synchronously as they are requested,
+   then fails with the factory's stream failure, if any; requests may come
+   from any thread */
+class TestRowPublisher(fact: TestConnFact) extends RowPublisher {
+  private val rows = fact.rows
+  private val failure = fact.streamFailure
+  private val statementFailure = fact.statementFailure
+  private val donePromise = Promise[Unit]
+
+  def subscribe(s: Subscriber[_ >: Row]): Unit = {
+    s.onSubscribe(new Subscription {
+      private var pos = 0
+      private var demand = 0L
+      private var emitting = false
+      private var finished = false
+
+      def request(n: Long): Unit = synchronized {
+        demand += n
+        if (!emitting) {
+          emitting = true
+          while (!finished && demand > 0 && pos < rows.size) {
+            demand -= 1
+            pos += 1
+            fact.delivered.incrementAndGet()
+            s.onNext(rows(pos - 1))
+          }
+          if (!finished && pos == rows.size) {
+            finished = true
+            failure match {
+              case Some(ex) =>
+                donePromise.tryFailure(ex)
+                s.onError(ex)
+              case None =>
+                donePromise.trySuccess(())
+                s.onComplete()
+            }
+          }
+          emitting = false
+        }
+      }
+
+      def cancel(): Unit = synchronized {
+        if (!finished) {
+          finished = true
+          fact.cancelled.incrementAndGet()
+          donePromise.trySuccess(())
+        }
+      }
+    })
+  }
+
+  def rowsAffected: Future[Long] = done.map(_ => rows.size.toLong)(TestConnFact.ec)
+  def warnings: Future[ImmutSeq[Warning]] = Future.successful(Vector.empty)
+
+  def metadata: Future[RowMetadata] = {
+    statementFailure.fold(Future.successful(RowMetadata(Vector.empty)))(Future.failed)
+  }
+
+  def done: Future[Unit] = donePromise.future
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.testkit
+
+import io.rdbc.implbase.RowPartialImpl
+import io.rdbc.sapi.exceptions.{ColumnIndexOutOfBoundsException, MissingColumnException}
+
+import scala.reflect.ClassTag
+
+/* A row holding values of named columns */
+class TestRow(values: Vector[(String, Any)]) extends RowPartialImpl {
+
+  def colOpt[A: ClassTag](idx: Int): Option[A] = {
+    if (idx < 0 || idx >= values.size) {
+      throw new ColumnIndexOutOfBoundsException(idx, values.size)
+    }
+    Option(values(idx)._2.asInstanceOf[A])
+  }
+
+  def colOpt[A: ClassTag](name: String): Option[A] = {
+    val (_, value) = values.find(_._1 == name).getOrElse(throw new MissingColumnException(name))
+    Option(value.asInstanceOf[A])
+  }
+
+  override def toString: String = values.toString
+}
@@ -17,27 +17,22 @@
 package io.rdbc.util
 
 import java.util.concurrent.atomic.AtomicInteger
-import java.util.concurrent.{Executors, ThreadFactory}
 
 import com.typesafe.scalalogging.StrictLogging
 
 import scala.concurrent.{ExecutionContext, Future}
-import scala.util.control.NonFatal
-
+import scala.language.experimental.macros
 
 object Logging {
   private val reqCounter = new AtomicInteger(0)
-  @volatile private lazy val tracingEc = {
-    ExecutionContext.fromExecutorService(Executors.newCachedThreadPool(new ThreadFactory {
-      private val threadCounter = new AtomicInteger(0)
-
-      def newThread(r: Runnable): Thread = {
-        val thread = Executors.defaultThreadFactory().newThread(r)
-        thread.setDaemon(true)
-        thread.setName(s"rdbc-util-tracing-${threadCounter.incrementAndGet()}")
-        thread
-      }
-    }))
+
+  /* completion logging is cheap enough to run on the completing thread */
+  private object CallingThreadEc extends ExecutionContext {
+    def execute(runnable: Runnable): Unit = runnable.run()
+
+    def reportFailure(cause: Throwable): Unit = {
+      ExecutionContext.defaultReporter(cause)
+    }
   }
 }
 
@@ -45,52 +40,51 @@ trait Logging extends StrictLogging {
 
   import Logging._
 
-  protected def traced[A](body: => Future[A])(
-    implicit enclosing: sourcecode.Enclosing, args: sourcecode.Args): Future[A] = {
-    if (traceEnabled) {
-      val reqId = newReqId()
-      val resultFuture = doTrace(reqId, body)
-      resultFuture.andThen { case futureValue =>
-        logger.trace(s"[$reqId] Future returned by ${enclosing.value} completed with value '$futureValue'")
-      }(tracingEc)
-    } else {
-      body
-    }
+  /** Traces entering and exiting the enclosing method when trace logging
+    * is enabled. If `body` is a future, its completion is traced as well.
+    *
+    * This is a macro: the enclosing method's name is resolved at compile
+    * time and its arguments are captured only if tracing is enabled, so
+    * a disabled trace costs a single `traceEnabled` check.
+    */
+  protected def traced[A](body: A): A = macro internal.LoggingMacros.traced[A]
+
+  protected def traceEnabled: Boolean = {
+    logger.underlying.isTraceEnabled
   }
 
-  protected def traced[A](body: => A)(implicit enclosing: sourcecode.Enclosing, args: sourcecode.Args): A = {
-    if (traceEnabled) {
-      doTrace(newReqId(), body)
-    } else {
-      body
-    }
+  /* Methods below are used by code that traced expands to */
+
+  protected def traceEntering(enclosing: String, args: Seq[(String, Any)]): String = {
+    val reqId = newReqId()
+    logger.trace(s"[$reqId] Entering $enclosing${formatArgs(args)}")
+    reqId
   }
 
-  private def doTrace[A](reqId: String, body: => A)(
-                         implicit enclosing: sourcecode.Enclosing, args: sourcecode.Args): A = {
-      try {
-        logger.trace(s"[$reqId] Entering ${enclosing.value}${formatArgs(args)}")
-        val result = body
-        logger.trace(s"[$reqId] Exiting ${enclosing.value} returning '$result'")
-        result
-      } catch {
-        case NonFatal(ex) =>
-          logger.trace(s"[$reqId] Exiting ${enclosing.value} with exception '$ex'")
-          throw ex
-      }
+  protected def traceExiting[A](reqId: String, enclosing: String, result: A): A = {
+    logger.trace(s"[$reqId] Exiting $enclosing returning '$result'")
+    result
   }
 
-  protected def traceEnabled: Boolean = {
-    logger.underlying.isTraceEnabled
+  protected def traceExitingFuture[F <: Future[_]](reqId: String, enclosing: String, result: F): F = {
+    traceExiting(reqId, enclosing, result)
+    result.onComplete { futureValue =>
+      logger.trace(s"[$reqId] Future returned by $enclosing completed with value '$futureValue'")
+    }(CallingThreadEc)
+    result
+  }
+
+  protected def traceFailed(reqId: String, enclosing: String, ex: Throwable): Unit = {
+    logger.trace(s"[$reqId] Exiting $enclosing with exception '$ex'")
   }
 
   private def newReqId(): String = {
     reqCounter.incrementAndGet().toString
   }
 
-  private def formatArgs(args: sourcecode.Args): String = {
-    args.value.flatten.map { arg =>
-      s"${arg.source}=${arg.value}"
+  private def formatArgs(args: Seq[(String, Any)]): String = {
+    args.map { case (name, value) =>
+      s"$name=$value"
     }.mkString("(", ",", ")")
   }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.util.internal
+
+import scala.concurrent.Future
+import scala.reflect.macros.blackbox
+
+/** Macro implementation of [[io.rdbc.util.Logging]]'s `traced`. Not intended
+  * to be used directly.
+  *
+  * The expansion evaluates the traced body exactly once. Arguments of the
+  * enclosing method are captured only when tracing is enabled, and the name
+  * of the enclosing method is a string constant. By-name arguments are not
+  * captured so that they're not evaluated by tracing.
+  */
+class LoggingMacros(val c: blackbox.Context) {
+
+  import c.universe._
+
+  def traced[A: c.WeakTypeTag](body: c.Expr[A]): c.Expr[A] = {
+    val logging = c.prefix.tree
+    val method = enclosingMethod
+    val enclosing = method.getOrElse(c.internal.enclosingOwner).fullName
+    val args = method.toList.flatMap(_.paramLists.flatten).filterNot(isByName).map { param =>
+      q"(${param.name.decodedName.toString}, ${Ident(param)})"
+    }
+    val argsSeq = {
+      if (args.isEmpty) q"_root_.scala.Nil"
+      else q"_root_.scala.Vector[(_root_.java.lang.String, _root_.scala.Any)](..$args)"
+    }
+
+    val reqId = TermName(c.freshName("reqId"))
+    val result = TermName(c.freshName("result"))
+    val ex = TermName(c.freshName("ex"))
+
+    val exiting = if (weakTypeOf[A] <:< typeOf[Future[Any]]) {
+      q"$logging.traceExitingFuture($reqId, $enclosing, $result)"
+    } else {
+      q"$logging.traceExiting($reqId, $enclosing, $result)"
+    }
+
+    c.Expr[A](
+      q"""{
+        val $reqId: _root_.java.lang.String = {
+          if ($logging.traceEnabled) $logging.traceEntering($enclosing, $argsSeq)
+          else null
+        }
+        try {
+          val $result: ${weakTypeOf[A]} = ${body.tree}
+          if ($reqId == null) $result else $exiting
+        } catch {
+          case $ex: _root_.java.lang.Throwable if $reqId != null && _root_.scala.util.control.NonFatal($ex) =>
+            $logging.traceFailed($reqId, $enclosing, $ex)
+            throw $ex
+        }
+      }"""
+    )
+  }
+
+  private def enclosingMethod: Option[MethodSymbol] = {
+    Iterator.iterate(c.internal.enclosingOwner)(_.owner)
+      .takeWhile(_ != NoSymbol)
+      .find(sym => sym.isMethod && !sym.name.decodedName.toString.startsWith("$"))
+      .map(_.asMethod)
+  }
+
+  private def isByName(param: Symbol): Boolean = {
+    param.typeSignature.typeSymbol == definitions.ByNameParamClass
+  }
+}
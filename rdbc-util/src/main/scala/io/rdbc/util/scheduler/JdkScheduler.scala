@@ -22,29 +22,69 @@ import io.rdbc.util.Logging
 
 import scala.concurrent.duration.FiniteDuration
 import scala.concurrent.{ExecutionContext, Future}
+import scala.util.control.NonFatal
 
-class JdkScheduler(executorService: ScheduledExecutorService)
+/** A [[TaskScheduler]] using a JDK `ScheduledExecutorService`.
+  *
+  * By default actions are run using `ec`. With `directExecution` enabled,
+  * actions of tasks scheduled with `schedule` run directly on the executor
+  * service's thread, which avoids a thread hop per task but requires them
+  * to be short and non-blocking; tasks scheduled with `scheduleDispatched`
+  * still run using `ec`.
+  */
+class JdkScheduler(executorService: ScheduledExecutorService,
+                   directExecution: Boolean = false)
                   (implicit ec: ExecutionContext)
   extends TaskScheduler
     with Logging {
 
+  private val lagRecorder = new LagRecorder
+
   def schedule(delay: FiniteDuration)
-              (action: () => Unit): ScheduledTask = traced {
-    logger.debug(s"Scheduling a task to run in $delay using $executorService")
-    val fut = executorService.schedule(runnable(() => Future(action())), delay.length, delay.unit)
-    new JdkScheduledTask(fut)
+              (action: () => Unit): ScheduledTask = {
+    doSchedule(delay, action, dispatch = !directExecution)
   }
 
+  override def scheduleDispatched(delay: FiniteDuration)
+                                 (action: () => Unit): ScheduledTask = {
+    doSchedule(delay, action, dispatch = true)
+  }
+
+  /** Lag of tasks run by this scheduler */
+  def lag: SchedulerLag = lagRecorder.snapshot
+
   def shutdown(): Future[Unit] = {
     Future {
       executorService.shutdownNow()
     }
   }
 
-  /* Scala 2.11 compat */
-  private def runnable(action: () => Unit): Runnable = {
-    new Runnable() {
-      def run(): Unit = action()
+  private def doSchedule(delay: FiniteDuration, action: () => Unit, dispatch: Boolean): ScheduledTask = {
+    logger.debug(s"Scheduling a task to run in $delay using $executorService")
+    val deadline = System.nanoTime() + delay.toNanos
+    val fut = executorService.schedule(new ActionRunner(deadline, action, dispatch), delay.length, delay.unit)
+    new JdkScheduledTask(fut)
+  }
+
+  /* Scala 2.11 compat: no SAM conversion to Runnable */
+  private class ActionRunner(deadline: Long, action: () => Unit, dispatch: Boolean) extends Runnable {
+    def run(): Unit = {
+      if (dispatch) {
+        ec.execute(new Runnable {
+          def run(): Unit = runAction()
+        })
+      } else {
+        runAction()
+      }
+    }
+
+    private def runAction(): Unit = {
+      lagRecorder.record(deadline)
+      try {
+        action()
+      } catch {
+        case NonFatal(ex) => logger.warn("Error occurred when running a scheduled task", ex)
+      }
     }
   }
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.util.scheduler
+
+import java.util.concurrent.atomic.{LongAccumulator, LongAdder}
+import java.util.function.LongBinaryOperator
+
+import scala.concurrent.duration._
+
+/** Scheduler lag statistics, lag being the time between a task's requested
+  * run time and the time its action actually started.
+  *
+  * @param fired number of tasks whose actions were started
+  * @param mean  mean lag
+  * @param max   maximum lag
+  */
+final case class SchedulerLag(fired: Long, mean: FiniteDuration, max: FiniteDuration)
+
+private[scheduler] class LagRecorder {
+  private val fired = new LongAdder
+  private val totalNanos = new LongAdder
+  private val maxNanos = new LongAccumulator(new LongBinaryOperator {
+    def applyAsLong(left: Long, right: Long): Long = math.max(left, right)
+  }, 0L)
+
+  /** Records a task that was requested to run at `deadlineNanos`, in terms
+    * of `System.nanoTime`.
+    */
+  def record(deadlineNanos: Long): Unit = {
+    val lag = math.max(System.nanoTime() - deadlineNanos, 0L)
+    fired.increment()
+    totalNanos.add(lag)
+    maxNanos.accumulate(lag)
+  }
+
+  def snapshot: SchedulerLag = {
+    val count = fired.sum()
+    val mean = if (count == 0L) 0L else totalNanos.sum() / count
+    SchedulerLag(count, mean.nanos, maxNanos.get().nanos)
+  }
+}
@@ -22,5 +22,17 @@ import scala.concurrent.duration.FiniteDuration
 trait TaskScheduler {
   def schedule(delay: FiniteDuration)
               (action: () => Unit): ScheduledTask
+
+  /** Schedules an action that may block or take long to run.
+    *
+    * Schedulers able to run actions directly on their own threads must not
+    * do so for actions scheduled with this method. The default
+    * implementation is `schedule`.
+    */
+  def scheduleDispatched(delay: FiniteDuration)
+                        (action: () => Unit): ScheduledTask = {
+    schedule(delay)(action)
+  }
+
   def shutdown(): Future[Unit]
 }
@@ -0,0 +1,269 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.util.scheduler
+
+import java.util.concurrent.atomic.{AtomicBoolean, AtomicInteger}
+import java.util.concurrent.{ConcurrentLinkedQueue, Executors, RejectedExecutionException, ThreadFactory}
+
+import io.rdbc.util.Logging
+import io.rdbc.util.Preconditions.{check, checkNotNull}
+
+import scala.collection.mutable.ArrayBuffer
+import scala.concurrent.duration._
+import scala.concurrent.{ExecutionContext, Future, Promise}
+import scala.util.control.NonFatal
+
+object WheelScheduler {
+
+  /** Default duration of a single tick */
+  val DefaultTickDuration: FiniteDuration = 10.millis
+
+  /** Default number of buckets in the wheel */
+  val DefaultWheelSize: Int = 512
+
+  private val MaxWheelSize = 1 << 30
+  private val MaxTransfersPerTick = 100000
+
+  private val Waiting = 0
+  private val Cancelled = 1
+  private val Expired = 2
+
+  private val threadCounter = new AtomicInteger(0)
+
+  private val defaultThreadFactory = new ThreadFactory {
+    def newThread(r: Runnable): Thread = {
+      val thread = Executors.defaultThreadFactory().newThread(r)
+      thread.setDaemon(true)
+      thread.setName(s"rdbc-wheel-scheduler-${threadCounter.incrementAndGet()}")
+      thread
+    }
+  }
+
+  /* The task is its own state holder, so scheduling allocates a single
+     object and cancelling allocates nothing. Bucket links are accessed
+     by the worker thread only. */
+  private final class WheelTask(val deadline: Long, val action: () => Unit)
+    extends AtomicInteger(Waiting)
+      with ScheduledTask {
+
+    var remainingRounds: Long = 0L
+    var next: WheelTask = _
+
+    def cancel(): Unit = {
+      compareAndSet(Waiting, Cancelled)
+      ()
+    }
+
+    def done: Boolean = get() != Waiting
+
+    def expire(): Boolean = compareAndSet(Waiting, Expired)
+  }
+
+  private final class Bucket {
+    private var head: WheelTask = _
+
+    def add(task: WheelTask): Unit = {
+      task.next = head
+      head = task
+    }
+
+    /* Removes expired and cancelled tasks, so cancelled tasks occupy
+       the wheel for at most one rotation */
+    def expire(expired: ArrayBuffer[WheelTask]): Unit = {
+      var prev: WheelTask = null
+      var task = head
+      while (task != null) {
+        val next = task.next
+        val remove = {
+          if (task.get() != Waiting) {
+            true
+          } else if (task.remainingRounds <= 0L) {
+            if (task.expire()) expired += task
+            true
+          } else {
+            task.remainingRounds -= 1L
+            false
+          }
+        }
+        if (remove) {
+          if (prev == null) head = next else prev.next = next
+          task.next = null
+        } else {
+          prev = task
+        }
+        task = next
+      }
+    }
+  }
+
+}
+
+/** A [[TaskScheduler]] based on a hashed timing wheel, suitable for large
+  * numbers of timeouts that are usually cancelled before they expire.
+  *
+  * Scheduling and cancelling tasks take constant time and cancelling
+  * doesn't allocate. A single worker thread advances the wheel every
+  * `tickDuration` and runs actions of all tasks expired in that tick as
+  * a single batch using `ec`, so actions should not block; this is also
+  * the case for `scheduleDispatched`. Tasks run no
+  * earlier than after their delay and at most about one tick later.
+  * Delays longer than `tickDuration * wheelSize` make tasks wait for more
+  * than one wheel rotation.
+  *
+  * The worker thread is started when the first task is scheduled and stops
+  * on `shutdown`, which drops tasks that didn't run yet.
+  *
+  * @param tickDuration  resolution of the scheduler
+  * @param wheelSize     number of buckets in the wheel, rounded up to
+  *                      a power of two
+  * @param threadFactory factory of the worker thread
+  */
+class WheelScheduler(tickDuration: FiniteDuration = WheelScheduler.DefaultTickDuration,
+                     wheelSize: Int = WheelScheduler.DefaultWheelSize,
+                     threadFactory: ThreadFactory = WheelScheduler.defaultThreadFactory)
+                    (implicit ec: ExecutionContext)
+  extends TaskScheduler
+    with Logging {
+
+  import WheelScheduler._
+
+  checkNotNull(tickDuration)
+  checkNotNull(threadFactory)
+  check(tickDuration, tickDuration.toNanos > 0L, "has to be positive")
+  check(wheelSize, wheelSize > 0 && wheelSize <= MaxWheelSize, s"has to be between 1 and $MaxWheelSize")
+
+  private val tickNanos = tickDuration.toNanos
+  private val buckets = Array.fill(powerOfTwoAtLeast(wheelSize))(new Bucket)
+  private val mask = buckets.length - 1
+
+  private val pending = new ConcurrentLinkedQueue[WheelTask]
+  private val started = new AtomicBoolean(false)
+  @volatile private var stopped = false
+  private val terminated = Promise[Unit]
+
+  private val startTime = System.nanoTime()
+  private var tick = 0L
+  private val lagRecorder = new LagRecorder
+
+  private val worker = threadFactory.newThread(new Runnable {
+    def run(): Unit = work()
+  })
+
+  def schedule(delay: FiniteDuration)
+              (action: () => Unit): ScheduledTask = {
+    checkNotNull(delay)
+    checkNotNull(action)
+    if (stopped) {
+      throw new RejectedExecutionException("Scheduler has been shut down")
+    }
+    if (!started.get() && started.compareAndSet(false, true)) {
+      worker.start()
+    }
+    val now = System.nanoTime() - startTime
+    val delayNanos = math.max(delay.toNanos, 0L)
+    val deadline = if (delayNanos > Long.MaxValue - now) Long.MaxValue else now + delayNanos
+    val task = new WheelTask(deadline, action)
+    pending.offer(task)
+    task
+  }
+
+  /** Lag of tasks run by this scheduler */
+  def lag: SchedulerLag = lagRecorder.snapshot
+
+  def shutdown(): Future[Unit] = {
+    stopped = true
+    if (started.compareAndSet(false, true)) {
+      terminated.trySuccess(())
+    } else {
+      worker.interrupt()
+    }
+    terminated.future
+  }
+
+  private def work(): Unit = {
+    try {
+      while (!stopped) {
+        if (waitForNextTick()) {
+          transferPending()
+          expireBucket(buckets((tick & mask).toInt))
+          tick += 1L
+        }
+      }
+    } catch {
+      case NonFatal(ex) => logger.error("Wheel scheduler worker failed", ex)
+    } finally {
+      pending.clear()
+      terminated.trySuccess(())
+      ()
+    }
+  }
+
+  /* Returns false if interrupted */
+  private def waitForNextTick(): Boolean = {
+    val tickDeadline = tickNanos * (tick + 1L)
+    val sleepNanos = tickDeadline - (System.nanoTime() - startTime)
+    if (sleepNanos > 0L) {
+      try {
+        Thread.sleep(sleepNanos / 1000000L, (sleepNanos % 1000000L).toInt)
+        true
+      } catch {
+        case _: InterruptedException => false
+      }
+    } else {
+      true
+    }
+  }
+
+  private def transferPending(): Unit = {
+    var i = 0
+    var task = pending.poll()
+    while (task != null) {
+      if (task.get() == Waiting) {
+        val ticks = task.deadline / tickNanos
+        task.remainingRounds = (ticks - tick) / buckets.length
+        buckets((math.max(ticks, tick) & mask).toInt).add(task)
+      }
+      i += 1
+      task = if (i < MaxTransfersPerTick) pending.poll() else null
+    }
+  }
+
+  private def expireBucket(bucket: Bucket): Unit = {
+    val expired = ArrayBuffer.empty[WheelTask]
+    bucket.expire(expired)
+    if (expired.nonEmpty) {
+      ec.execute(new Runnable {
+        def run(): Unit = expired.foreach(runAction)
+      })
+    }
+  }
+
+  private def runAction(task: WheelTask): Unit = {
+    lagRecorder.record(startTime + task.deadline)
+    try {
+      task.action()
+    } catch {
+      case NonFatal(ex) => logger.warn("Error occurred when running a scheduled task", ex)
+    }
+  }
+
+  private def powerOfTwoAtLeast(n: Int): Int = {
+    if (n == 1) 1 else Integer.highestOneBit(n - 1) << 1
+  }
+
+  override def toString: String = s"WheelScheduler(tick=$tickDuration, size=${buckets.length})"
+}
@@ -17,13 +17,13 @@
 package io.rdbc.util
 
 import java.util
-import java.util.concurrent.{Executors, ScheduledExecutorService}
+import java.util.concurrent.{CountDownLatch, Executors, ScheduledExecutorService, ThreadFactory}
 
 import io.rdbc.util.scheduler.JdkScheduler
 import org.scalamock.scalatest.MockFactory
 import org.scalatest.Matchers
 
-import scala.concurrent.ExecutionContext
+import scala.concurrent.{ExecutionContext, Promise}
 import scala.concurrent.duration._
 
 class JdkSchedulerSpec
@@ -70,5 +70,52 @@ class JdkSchedulerSpec
 
       task.cancel()
     }
+
+    "run actions on the scheduler thread in direct execution mode" in {
+      val es = Executors.newSingleThreadScheduledExecutor(namedThreads("timer"))
+      val scheduler = new JdkScheduler(es, directExecution = true)
+      val thread = Promise[String]
+
+      scheduler.schedule(10.millis) { () =>
+        thread.success(Thread.currentThread().getName)
+        ()
+      }
+
+      thread.future.get shouldBe "timer"
+      scheduler.shutdown().get
+    }
+
+    "dispatch actions scheduled as dispatched in direct execution mode" in {
+      val es = Executors.newSingleThreadScheduledExecutor(namedThreads("timer"))
+      val scheduler = new JdkScheduler(es, directExecution = true)
+      val thread = Promise[String]
+
+      scheduler.scheduleDispatched(10.millis) { () =>
+        thread.success(Thread.currentThread().getName)
+        ()
+      }
+
+      thread.future.get should not be "timer"
+      scheduler.shutdown().get
+    }
+
+    "record lag of run tasks" in {
+      val es = Executors.newSingleThreadScheduledExecutor()
+      val scheduler = new JdkScheduler(es, directExecution = true)
+      val latch = new CountDownLatch(2)
+
+      scheduler.schedule(10.millis)(() => latch.countDown())
+      scheduler.schedule(20.millis)(() => latch.countDown())
+      latch.await()
+
+      val lag = scheduler.lag
+      lag.fired shouldBe 2L
+      lag.max should be >= lag.mean
+      scheduler.shutdown().get
+    }
+  }
+
+  private def namedThreads(name: String): ThreadFactory = new ThreadFactory {
+    def newThread(r: Runnable): Thread = new Thread(r, name)
   }
 }
@@ -37,6 +37,27 @@ class LoggingSpec
         runTests(enableTracing = false)
       }
     }
+
+    "capture arguments only if tracing is enabled" in {
+      for (enableTracing <- Seq(true, false)) {
+        var captured = Seq.empty[(String, Any)]
+        val tester = new Logging {
+          def tst(arg: String): String = traced {
+            arg
+          }
+
+          override protected val traceEnabled: Boolean = enableTracing
+
+          override protected def traceEntering(enclosing: String, args: Seq[(String, Any)]): String = {
+            captured = args
+            super.traceEntering(enclosing, args)
+          }
+        }
+
+        tester.tst("val") shouldBe "val"
+        captured shouldBe (if (enableTracing) Seq("arg" -> "val") else Seq.empty)
+      }
+    }
   }
 
   private def runTests(enableTracing: Boolean): Unit = {
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2016 rdbc contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.rdbc.util
+
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{CountDownLatch, RejectedExecutionException, TimeUnit}
+
+import io.rdbc.util.scheduler.WheelScheduler
+import org.scalatest.Matchers
+
+import scala.concurrent.ExecutionContext
+import scala.concurrent.duration._
+
+class WheelSchedulerSpec
+  extends RdbcUtilSpec
+    with Matchers {
+
+  private implicit val ec = ExecutionContext.global
+
+  "WheelScheduler" should {
+
+    "run tasks no earlier than after their delay" in {
+      val scheduler = new WheelScheduler(tickDuration = 5.millis)
+      val latch = new CountDownLatch(1)
+      val start = System.nanoTime()
+      @volatile var elapsed = Duration.Zero
+
+      scheduler.schedule(100.millis) { () =>
+        elapsed = (System.nanoTime() - start).nanos
+        latch.countDown()
+      }
+
+      latch.await(5L, TimeUnit.SECONDS) shouldBe true
+      elapsed should be >= 100.millis
+      scheduler.lag.fired shouldBe 1L
+      scheduler.shutdown().get
+    }
+
+    "run tasks with delays spanning multiple wheel rotations" in {
+      val scheduler = new WheelScheduler(tickDuration = 5.millis, wheelSize = 4)
+      val latch = new CountDownLatch(1)
+      val start = System.nanoTime()
+      @volatile var elapsed = Duration.Zero
+
+      scheduler.schedule(150.millis) { () =>
+        elapsed = (System.nanoTime() - start).nanos
+        latch.countDown()
+      }
+
+      latch.await(5L, TimeUnit.SECONDS) shouldBe true
+      elapsed should be >= 150.millis
+      scheduler.shutdown().get
+    }
+
+    "not run cancelled tasks" in {
+      val scheduler = new WheelScheduler(tickDuration = 5.millis)
+      val runs = new AtomicInteger(0)
+
+      val task = scheduler.schedule(50.millis) { () =>
+        runs.incrementAndGet()
+        ()
+      }
+      task.cancel()
+      Thread.sleep(200L)
+
+      runs.get shouldBe 0
+      scheduler.shutdown().get
+    }
+
+    "run all tasks expiring in the same tick despite failures" in {
+      val scheduler = new WheelScheduler(tickDuration = 5.millis)
+      val count = 1000
+      val latch = new CountDownLatch(count)
+
+      scheduler.schedule(20.millis)(() => throw new RuntimeException)
+      (1 to count).foreach { _ =>
+        scheduler.schedule(20.millis)(() => latch.countDown())
+      }
+
+      latch.await(5L, TimeUnit.SECONDS) shouldBe true
+      scheduler.shutdown().get
+    }
+
+    "run tasks with zero delay" in {
+      val scheduler = new WheelScheduler()
+      val latch = new CountDownLatch(1)
+
+      scheduler.schedule(Duration.Zero)(() => latch.countDown())
+
+      latch.await(5L, TimeUnit.SECONDS) shouldBe true
+      scheduler.shutdown().get
+    }
+
+    "reject tasks after shutdown" in {
+      val scheduler = new WheelScheduler()
+      scheduler.shutdown().get
+
+      assertThrows[RejectedExecutionException] {
+        scheduler.schedule(1.second)(() => ())
+      }
+    }
+
+    "reject invalid configuration" in {
+      assertThrows[IllegalArgumentException] {
+        new WheelScheduler(tickDuration = Duration.Zero)
+      }
+      assertThrows[IllegalArgumentException] {
+        new WheelScheduler(wheelSize = 0)
+      }
+    }
+  }
+}